@@ -3,6 +3,9 @@ package com.springernature.sndeals.config;
 
 import io.micronaut.context.annotation.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Properties specific to Jhipster Sample Application.
  * <p>
@@ -12,4 +15,598 @@ import io.micronaut.context.annotation.ConfigurationProperties;
 @ConfigurationProperties("application")
 public class ApplicationProperties {
 
+    private Storage storage = new Storage();
+
+    private Cluster cluster = new Cluster();
+
+    private ResponseCache responseCache = new ResponseCache();
+
+    private UserCache userCache = new UserCache();
+
+    private CacheSnapshot cacheSnapshot = new CacheSnapshot();
+
+    private PostCardStore postCardStore = new PostCardStore();
+
+    private Password password = new Password();
+
+    private TokenCache tokenCache = new TokenCache();
+
+    private TokenRevocation tokenRevocation = new TokenRevocation();
+
+    private RateLimit rateLimit = new RateLimit();
+
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public void setStorage(Storage storage) {
+        this.storage = storage;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(Cluster cluster) {
+        this.cluster = cluster;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public UserCache getUserCache() {
+        return userCache;
+    }
+
+    public void setUserCache(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    public CacheSnapshot getCacheSnapshot() {
+        return cacheSnapshot;
+    }
+
+    public void setCacheSnapshot(CacheSnapshot cacheSnapshot) {
+        this.cacheSnapshot = cacheSnapshot;
+    }
+
+    public PostCardStore getPostCardStore() {
+        return postCardStore;
+    }
+
+    public void setPostCardStore(PostCardStore postCardStore) {
+        this.postCardStore = postCardStore;
+    }
+
+    public Password getPassword() {
+        return password;
+    }
+
+    public void setPassword(Password password) {
+        this.password = password;
+    }
+
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    public void setTokenCache(TokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
+    public TokenRevocation getTokenRevocation() {
+        return tokenRevocation;
+    }
+
+    public void setTokenRevocation(TokenRevocation tokenRevocation) {
+        this.tokenRevocation = tokenRevocation;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public void setConcurrencyLimit(ConcurrencyLimit concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    @ConfigurationProperties("storage")
+    public static class Storage {
+        private String type = "filesystem";
+        private String directory = "data/attachments";
+        private int migrationBatchSize = 50;
+        private long maxUploadSize = 50L * 1024 * 1024;
+        private int derivativeWorkers = 2;
+        private int derivativeBacklogCapacity = 100;
+        private long collectionGracePeriodHours = 24;
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getMigrationBatchSize() {
+            return migrationBatchSize;
+        }
+
+        public void setMigrationBatchSize(int migrationBatchSize) {
+            this.migrationBatchSize = migrationBatchSize;
+        }
+
+        public long getMaxUploadSize() {
+            return maxUploadSize;
+        }
+
+        public void setMaxUploadSize(long maxUploadSize) {
+            this.maxUploadSize = maxUploadSize;
+        }
+
+        public int getDerivativeWorkers() {
+            return derivativeWorkers;
+        }
+
+        public void setDerivativeWorkers(int derivativeWorkers) {
+            this.derivativeWorkers = derivativeWorkers;
+        }
+
+        public int getDerivativeBacklogCapacity() {
+            return derivativeBacklogCapacity;
+        }
+
+        public void setDerivativeBacklogCapacity(int derivativeBacklogCapacity) {
+            this.derivativeBacklogCapacity = derivativeBacklogCapacity;
+        }
+
+        public long getCollectionGracePeriodHours() {
+            return collectionGracePeriodHours;
+        }
+
+        public void setCollectionGracePeriodHours(long collectionGracePeriodHours) {
+            this.collectionGracePeriodHours = collectionGracePeriodHours;
+        }
+    }
+
+    @ConfigurationProperties("cluster")
+    public static class Cluster {
+        private String transport = "local";
+        private String channel = "sndeals-cache-invalidation";
+        private List<String> members = new ArrayList<>();
+        private int port = 5701;
+
+        public String getTransport() {
+            return transport;
+        }
+
+        public void setTransport(String transport) {
+            this.transport = transport;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        public List<String> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<String> members) {
+            this.members = members;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+    }
+
+    @ConfigurationProperties("response-cache")
+    public static class ResponseCache {
+        private boolean enabled = true;
+        private long maxSize = 16L * 1024 * 1024;
+        private long timeToLiveSeconds = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    @ConfigurationProperties("user-cache")
+    public static class UserCache {
+        private long maxEntries = 1000;
+        private long timeToLiveSeconds = 60;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+
+    @ConfigurationProperties("cache-snapshot")
+    public static class CacheSnapshot {
+        private boolean enabled = false;
+        private String file = "data/cache-snapshot.json";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+    }
+
+    @ConfigurationProperties("post-card-store")
+    public static class PostCardStore {
+        private boolean enabled = false;
+        private String file = "data/post-cards.dat";
+        private int initialSize = 8 * 1024 * 1024;
+        private int loadBatchSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public int getInitialSize() {
+            return initialSize;
+        }
+
+        public void setInitialSize(int initialSize) {
+            this.initialSize = initialSize;
+        }
+
+        public int getLoadBatchSize() {
+            return loadBatchSize;
+        }
+
+        public void setLoadBatchSize(int loadBatchSize) {
+            this.loadBatchSize = loadBatchSize;
+        }
+    }
+
+    @ConfigurationProperties("password")
+    public static class Password {
+        private String algorithm = "bcrypt";
+        private int bcryptCost = 0;
+        private long targetHashMillis = 250;
+        private int minBcryptCost = 10;
+        private int maxBcryptCost = 16;
+        private int argon2MemoryKib = 19456;
+        private int argon2Iterations = 2;
+        private int argon2Parallelism = 1;
+        private int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int hashingQueueCapacity = 50;
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public int getBcryptCost() {
+            return bcryptCost;
+        }
+
+        public void setBcryptCost(int bcryptCost) {
+            this.bcryptCost = bcryptCost;
+        }
+
+        public long getTargetHashMillis() {
+            return targetHashMillis;
+        }
+
+        public void setTargetHashMillis(long targetHashMillis) {
+            this.targetHashMillis = targetHashMillis;
+        }
+
+        public int getMinBcryptCost() {
+            return minBcryptCost;
+        }
+
+        public void setMinBcryptCost(int minBcryptCost) {
+            this.minBcryptCost = minBcryptCost;
+        }
+
+        public int getMaxBcryptCost() {
+            return maxBcryptCost;
+        }
+
+        public void setMaxBcryptCost(int maxBcryptCost) {
+            this.maxBcryptCost = maxBcryptCost;
+        }
+
+        public int getArgon2MemoryKib() {
+            return argon2MemoryKib;
+        }
+
+        public void setArgon2MemoryKib(int argon2MemoryKib) {
+            this.argon2MemoryKib = argon2MemoryKib;
+        }
+
+        public int getArgon2Iterations() {
+            return argon2Iterations;
+        }
+
+        public void setArgon2Iterations(int argon2Iterations) {
+            this.argon2Iterations = argon2Iterations;
+        }
+
+        public int getArgon2Parallelism() {
+            return argon2Parallelism;
+        }
+
+        public void setArgon2Parallelism(int argon2Parallelism) {
+            this.argon2Parallelism = argon2Parallelism;
+        }
+
+        public int getHashingThreads() {
+            return hashingThreads;
+        }
+
+        public void setHashingThreads(int hashingThreads) {
+            this.hashingThreads = hashingThreads;
+        }
+
+        public int getHashingQueueCapacity() {
+            return hashingQueueCapacity;
+        }
+
+        public void setHashingQueueCapacity(int hashingQueueCapacity) {
+            this.hashingQueueCapacity = hashingQueueCapacity;
+        }
+    }
+
+    @ConfigurationProperties("token-cache")
+    public static class TokenCache {
+        private boolean enabled = true;
+        private long maxEntries = 10000;
+        private long maxTimeToLiveSeconds = 3600;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxTimeToLiveSeconds() {
+            return maxTimeToLiveSeconds;
+        }
+
+        public void setMaxTimeToLiveSeconds(long maxTimeToLiveSeconds) {
+            this.maxTimeToLiveSeconds = maxTimeToLiveSeconds;
+        }
+    }
+
+    @ConfigurationProperties("token-revocation")
+    public static class TokenRevocation {
+        private int expectedTokens = 100000;
+        private double falsePositiveProbability = 0.01;
+        private long refreshTokenTimeToLiveSeconds = 2592000;
+
+        public int getExpectedTokens() {
+            return expectedTokens;
+        }
+
+        public void setExpectedTokens(int expectedTokens) {
+            this.expectedTokens = expectedTokens;
+        }
+
+        public double getFalsePositiveProbability() {
+            return falsePositiveProbability;
+        }
+
+        public void setFalsePositiveProbability(double falsePositiveProbability) {
+            this.falsePositiveProbability = falsePositiveProbability;
+        }
+
+        public long getRefreshTokenTimeToLiveSeconds() {
+            return refreshTokenTimeToLiveSeconds;
+        }
+
+        public void setRefreshTokenTimeToLiveSeconds(long refreshTokenTimeToLiveSeconds) {
+            this.refreshTokenTimeToLiveSeconds = refreshTokenTimeToLiveSeconds;
+        }
+    }
+
+    @ConfigurationProperties("rate-limit")
+    public static class RateLimit {
+        private boolean enabled = true;
+        private int maxBuckets = 100000;
+        private int loginCapacity = 5;
+        private long loginPeriodSeconds = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBuckets() {
+            return maxBuckets;
+        }
+
+        public void setMaxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        public int getLoginCapacity() {
+            return loginCapacity;
+        }
+
+        public void setLoginCapacity(int loginCapacity) {
+            this.loginCapacity = loginCapacity;
+        }
+
+        public long getLoginPeriodSeconds() {
+            return loginPeriodSeconds;
+        }
+
+        public void setLoginPeriodSeconds(long loginPeriodSeconds) {
+            this.loginPeriodSeconds = loginPeriodSeconds;
+        }
+    }
+
+    @ConfigurationProperties("concurrency-limit")
+    public static class ConcurrencyLimit {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 10;
+        private int maxLimit = 200;
+        private double smoothing = 0.2;
+        private int maxQueueSize = 100;
+        private long queueTimeoutMillis = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public int getMaxQueueSize() {
+            return maxQueueSize;
+        }
+
+        public void setMaxQueueSize(int maxQueueSize) {
+            this.maxQueueSize = maxQueueSize;
+        }
+
+        public long getQueueTimeoutMillis() {
+            return queueTimeoutMillis;
+        }
+
+        public void setQueueTimeoutMillis(long queueTimeoutMillis) {
+            this.queueTimeoutMillis = queueTimeoutMillis;
+        }
+    }
 }
@@ -0,0 +1,183 @@
+package com.springernature.sndeals.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.springernature.sndeals.domain.Authority;
+import com.springernature.sndeals.domain.Category;
+import com.springernature.sndeals.domain.Post;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.springernature.sndeals.domain.User;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import com.springernature.sndeals.service.cache.EntityRegionNearCache;
+import com.springernature.sndeals.service.cache.NearCache;
+import com.springernature.sndeals.util.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import io.micronaut.configuration.hibernate.jpa.JpaConfiguration;
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of the Hibernate second level cache, backed by Caffeine through JCache.
+ * <p>
+ * Every region is bounded by {@code jhipster.cache.caffeine.max-entries} and expires after
+ * {@code jhipster.cache.caffeine.time-to-live-seconds}, unless {@code max-entries-by-region} or
+ * {@code time-to-live-seconds-by-region} have a value for its key, and the statistics of the regions are exported to
+ * Micrometer. The {@link CacheManager} belongs to the application context and is closed with it: the cache manager of
+ * the provider is shared by the whole JVM.
+ * The regions are near caches: in a cluster, the entities written by another node are evicted when the
+ * {@link CacheInvalidationService} of this node is notified.
+ */
+@Factory
+public class CacheConfiguration {
+
+    /**
+     * The keys of the regions in the {@code jhipster.cache.caffeine} settings by region.
+     */
+    static final String USER_REGION = "user";
+    static final String USER_AUTHORITIES_REGION = "authorities";
+    static final String AUTHORITY_REGION = "authority";
+    static final String CATEGORY_REGION = "category";
+    static final String POST_REGION = "post";
+    static final String QUERY_RESULTS_REGION = "queries";
+
+    @Singleton
+    @Bean(preDestroy = "close")
+    CacheManager cacheManager(JHipsterProperties jHipsterProperties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Not the default URI, so that each application context, as in the tests, has its own caches
+        URI uri = URI.create(CacheConfiguration.class.getName() + ":" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+
+        JHipsterProperties.Cache.Caffeine caffeine = jHipsterProperties.getCache().getCaffeine();
+        cacheManager.createCache(User.class.getName(), configuration(caffeine, USER_REGION));
+        cacheManager.createCache(User.class.getName() + ".authorities", configuration(caffeine, USER_AUTHORITIES_REGION));
+        cacheManager.createCache(Authority.class.getName(), configuration(caffeine, AUTHORITY_REGION));
+        cacheManager.createCache(Category.class.getName(), configuration(caffeine, CATEGORY_REGION));
+        cacheManager.createCache(Post.class.getName(), configuration(caffeine, POST_REGION));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, configuration(caffeine, QUERY_RESULTS_REGION));
+        // A cached query result is only checked against the last update of its tables, these must never be evicted
+        CaffeineConfiguration<Object, Object> timestampsConfiguration = new CaffeineConfiguration<>();
+        timestampsConfiguration.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestampsConfiguration);
+        // jhipster-needle-caffeine-add-entry
+        return cacheManager;
+    }
+
+    @Singleton
+    @Named("categoryRegion")
+    NearCache categoryRegion(Provider<SessionFactory> sessionFactory) {
+        return new EntityRegionNearCache(CacheInvalidationService.CATEGORIES, sessionFactory, Category.class, false);
+    }
+
+    @Singleton
+    @Named("postRegion")
+    NearCache postRegion(Provider<SessionFactory> sessionFactory) {
+        return new EntityRegionNearCache(CacheInvalidationService.POSTS, sessionFactory, Post.class, false);
+    }
+
+    @Singleton
+    @Named("userRegion")
+    NearCache userRegion(Provider<SessionFactory> sessionFactory) {
+        // The users are looked up by cacheable queries
+        return new EntityRegionNearCache(CacheInvalidationService.USERS, sessionFactory, User.class, true,
+            User.class.getName() + ".authorities");
+    }
+
+    /**
+     * The member of the cluster carrying the cache invalidations, when {@code application.cluster.transport}
+     * is {@code hazelcast}.
+     */
+    @Singleton
+    @Bean(preDestroy = "shutdown")
+    @Requires(property = "application.cluster.transport", value = "hazelcast")
+    HazelcastInstance hazelcastInstance(ApplicationProperties applicationProperties,
+                                        @Value("${micronaut.application.name}") String applicationName) {
+        ApplicationProperties.Cluster cluster = applicationProperties.getCluster();
+        Config config = new Config();
+        config.setClusterName(applicationName);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.getNetworkConfig().setPort(cluster.getPort()).setPortAutoIncrement(true);
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        // Without configured members the nodes of the same network find each other by multicast
+        if (!cluster.getMembers().isEmpty()) {
+            join.getMulticastConfig().setEnabled(false);
+            join.getTcpIpConfig().setEnabled(true).setMembers(cluster.getMembers());
+        }
+        return Hazelcast.newHazelcastInstance(config);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(JHipsterProperties.Cache.Caffeine caffeine, String region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(caffeine.getMaxEntries(region)));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(caffeine.getTimeToLiveSeconds(region))));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    /**
+     * Hands the configured {@link CacheManager} to the Hibernate JCache region factory.
+     */
+    @Singleton
+    static class JpaCacheManagerConfigurer implements BeanCreatedEventListener<JpaConfiguration> {
+
+        private final Provider<CacheManager> cacheManager;
+
+        JpaCacheManagerConfigurer(Provider<CacheManager> cacheManager) {
+            this.cacheManager = cacheManager;
+        }
+
+        @Override
+        public JpaConfiguration onCreated(BeanCreatedEvent<JpaConfiguration> event) {
+            JpaConfiguration jpaConfiguration = event.getBean();
+            jpaConfiguration.getProperties().put(ConfigSettings.CACHE_MANAGER, cacheManager.get());
+            return jpaConfiguration;
+        }
+    }
+
+    /**
+     * Exports the Hibernate statistics, with the hits, misses and puts of each second level cache region.
+     */
+    @Singleton
+    static class HibernateMetricsBinder {
+
+        private final SessionFactory sessionFactory;
+
+        private final MeterRegistry meterRegistry;
+
+        HibernateMetricsBinder(SessionFactory sessionFactory, MeterRegistry meterRegistry) {
+            this.sessionFactory = sessionFactory;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @EventListener
+        void bindMetrics(StartupEvent event) {
+            new HibernateMetrics(sessionFactory, "default", Tags.empty()).bindTo(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.springernature.sndeals.config;
+
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+import io.micronaut.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A rate-limited group of routes, configured under {@code application.rate-limit.routes.<name>}.
+ * <p>
+ * Each client gets a bucket of {@code capacity} requests, refilled at {@code capacity} requests per {@code period}.
+ * The clients are told apart by their IP address, or by their login when {@code key} is {@code login} and the request
+ * is authenticated.
+ */
+@EachProperty("application.rate-limit.routes")
+public class RateLimitRoute {
+
+    private final String name;
+
+    private List<String> patterns = new ArrayList<>();
+
+    private List<HttpMethod> methods = new ArrayList<>();
+
+    private Key key = Key.IP;
+
+    private int capacity = 10;
+
+    private Duration period = Duration.ofMinutes(1);
+
+    public RateLimitRoute(@Parameter String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    public void setPatterns(List<String> patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * @return the limited methods, all of them when empty.
+     */
+    public List<HttpMethod> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(List<HttpMethod> methods) {
+        this.methods = methods;
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    public void setKey(Key key) {
+        this.key = key;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public Duration getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(Duration period) {
+        this.period = period;
+    }
+
+    public enum Key {
+        IP,
+        LOGIN
+    }
+}
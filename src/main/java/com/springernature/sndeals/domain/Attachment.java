@@ -25,17 +25,30 @@ public class Attachment implements Serializable {
     @Column(name = "file_name", nullable = false)
     private String fileName;
 
-    @Lob
-    @Column(name = "content")
+    /**
+     * The content is kept in the {@link com.springernature.sndeals.service.storage.BlobStore}, under the
+     * {@link #checksum} key: it is only set when the content is written or explicitly read.
+     */
+    @Transient
     private byte[] content;
 
     @Column(name = "content_content_type")
     private String contentContentType;
 
+    @Column(name = "content_size")
+    private Long size;
+
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
     @ManyToOne
     @JsonIgnoreProperties("resources")
     private Post post;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
     public Long getId() {
         return id;
@@ -45,6 +58,14 @@ public class Attachment implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getFileName() {
         return fileName;
     }
@@ -84,6 +105,22 @@ public class Attachment implements Serializable {
         this.contentContentType = contentContentType;
     }
 
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
     public Post getPost() {
         return post;
     }
@@ -121,6 +158,8 @@ public class Attachment implements Serializable {
             ", fileName='" + getFileName() + "'" +
             ", content='" + getContent() + "'" +
             ", contentContentType='" + getContentContentType() + "'" +
+            ", size=" + getSize() +
+            ", checksum='" + getChecksum() + "'" +
             "}";
     }
 }
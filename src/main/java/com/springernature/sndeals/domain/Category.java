@@ -1,6 +1,9 @@
 package com.springernature.sndeals.domain;
 
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import javax.validation.constraints.*;
 
@@ -11,6 +14,7 @@ import java.io.Serializable;
  */
 @Entity
 @Table(name = "category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Category implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -28,6 +32,10 @@ public class Category implements Serializable {
     @Column(name = "display_name", nullable = false)
     private String displayName;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
     public Long getId() {
         return id;
@@ -37,6 +45,14 @@ public class Category implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getInternalId() {
         return internalId;
     }
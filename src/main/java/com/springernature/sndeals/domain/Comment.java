@@ -30,6 +30,10 @@ public class Comment implements Serializable {
     @JsonIgnoreProperties("comments")
     private Post post;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
     public Long getId() {
         return id;
@@ -39,6 +43,14 @@ public class Comment implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getComment() {
         return comment;
     }
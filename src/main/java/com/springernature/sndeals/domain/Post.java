@@ -2,6 +2,9 @@ package com.springernature.sndeals.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import javax.validation.constraints.*;
 
@@ -12,6 +15,7 @@ import java.io.Serializable;
  */
 @Entity
 @Table(name = "post")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Post implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -36,11 +40,16 @@ public class Post implements Serializable {
     @Column(name = "status", nullable = false)
     private String status;
 
-    @ManyToOne(optional = false)
+    // Lazy: the display name of the category is read from the CategoryCache when a post is mapped
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @NotNull
     @JsonIgnoreProperties("posts")
     private Category category;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
     public Long getId() {
         return id;
@@ -50,6 +59,14 @@ public class Post implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
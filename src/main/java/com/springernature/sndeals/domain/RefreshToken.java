@@ -0,0 +1,106 @@
+package com.springernature.sndeals.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A refresh token issued to a user, identified by the SHA-256 hash of the token: the tokens themselves aren't stored.
+ */
+@Entity
+@Table(name = "refresh_token")
+public class RefreshToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "token_hash", length = 64, unique = true, nullable = false)
+    private String tokenHash;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "login", length = 50, nullable = false)
+    private String login;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @NotNull
+    @Column(name = "revoked", nullable = false)
+    private boolean revoked;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RefreshToken)) {
+            return false;
+        }
+        return id != null && id.equals(((RefreshToken) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+            "id=" + getId() +
+            ", login='" + getLogin() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            ", revoked='" + isRevoked() + "'" +
+            "}";
+    }
+}
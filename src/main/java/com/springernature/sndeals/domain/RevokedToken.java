@@ -0,0 +1,79 @@
+package com.springernature.sndeals.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A revoked access token, kept until the token expires.
+ */
+@Entity
+@Table(name = "revoked_token")
+public class RevokedToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 64)
+    @Id
+    @Column(name = "jti", length = 64)
+    private String jti;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String jti, Instant expiresAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RevokedToken)) {
+            return false;
+        }
+        return Objects.equals(jti, ((RevokedToken) o).jti);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(jti);
+    }
+
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+            "jti='" + jti + '\'' +
+            ", expiresAt='" + expiresAt + '\'' +
+            "}";
+    }
+}
@@ -4,10 +4,14 @@ import com.springernature.sndeals.domain.Attachment;
 
 
 import io.micronaut.data.annotation.Query;
+import io.micronaut.data.model.Pageable;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.repository.JpaRepository;
+import io.micronaut.transaction.TransactionDefinition;
 import io.micronaut.transaction.annotation.TransactionalAdvice;
 
+import java.util.List;
+
 
 /**
  * Micronaut Data  repository for the Attachment entity.
@@ -17,4 +21,23 @@ import io.micronaut.transaction.annotation.TransactionalAdvice;
 @TransactionalAdvice
 public interface AttachmentRepository extends JpaRepository<Attachment, Long>{
 
+    /**
+     * Check the references to a content in a transaction of its own, so that it sees the commits made since the
+     * transaction of the caller, if any, started.
+     *
+     * @param checksum the checksum of the content.
+     * @return whether an attachment refers to the content.
+     */
+    @TransactionalAdvice(propagation = TransactionDefinition.Propagation.REQUIRES_NEW, readOnly = true)
+    boolean existsByChecksum(String checksum);
+
+    /**
+     * Walk the distinct contents of the image attachments, in checksum order.
+     *
+     * @param after the checksum to start after, an empty string for the first page.
+     * @param pageable the size of the page.
+     * @return the checksums of the image contents.
+     */
+    @Query("SELECT DISTINCT a.checksum FROM Attachment a WHERE a.checksum > :after AND a.contentContentType LIKE 'image/%' ORDER BY a.checksum")
+    List<String> findImageChecksumsAfter(String after, Pageable pageable);
 }
@@ -6,8 +6,11 @@ import com.springernature.sndeals.domain.Post;
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.repository.JpaRepository;
+import io.micronaut.data.model.Pageable;
 import io.micronaut.transaction.annotation.TransactionalAdvice;
 
+import java.util.List;
+
 
 /**
  * Micronaut Data  repository for the Post entity.
@@ -17,4 +20,5 @@ import io.micronaut.transaction.annotation.TransactionalAdvice;
 @TransactionalAdvice
 public interface PostRepository extends JpaRepository<Post, Long> {
 
+    List<Post> findByIdGreaterThan(Long id, Pageable pageable);
 }
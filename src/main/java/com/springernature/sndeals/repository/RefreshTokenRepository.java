@@ -0,0 +1,25 @@
+package com.springernature.sndeals.repository;
+
+import com.springernature.sndeals.domain.RefreshToken;
+
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.jpa.repository.JpaRepository;
+import io.micronaut.transaction.annotation.TransactionalAdvice;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Micronaut Data repository for the {@link RefreshToken} entity.
+ */
+@Repository
+@TransactionalAdvice
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    public Optional<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    public List<RefreshToken> findAllByLoginAndRevokedFalse(String login);
+
+    public void deleteByExpiresAtLessThan(Instant now);
+}
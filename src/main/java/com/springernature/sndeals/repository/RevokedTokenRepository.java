@@ -0,0 +1,22 @@
+package com.springernature.sndeals.repository;
+
+import com.springernature.sndeals.domain.RevokedToken;
+
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.jpa.repository.JpaRepository;
+import io.micronaut.transaction.annotation.TransactionalAdvice;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Micronaut Data repository for the {@link RevokedToken} entity.
+ */
+@Repository
+@TransactionalAdvice
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    public List<RevokedToken> findAllByExpiresAtGreaterThan(Instant now);
+
+    public void deleteByExpiresAtLessThan(Instant now);
+}
@@ -2,6 +2,7 @@ package com.springernature.sndeals.repository;
 
 import com.springernature.sndeals.domain.User;
 import io.micronaut.data.annotation.Id;
+import io.micronaut.data.annotation.QueryHint;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.annotation.EntityGraph;
 import io.micronaut.data.jpa.repository.JpaRepository;
@@ -15,6 +16,9 @@ import java.time.Instant;
 
 /**
  * Micronaut Data JPA repository for the {@link User} entity.
+ * <p>
+ * The lookups done on every authenticated request are cacheable queries: with the second level cache, they are
+ * answered from the query, entity and collection regions until the user tables are written.
  */
 @Repository
 @TransactionalAdvice
@@ -32,12 +36,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     public Optional<User> findOneByEmailIgnoreCase(String email);
 
     @EntityGraph(attributePaths = "authorities")
+    @QueryHint(name = "org.hibernate.cacheable", value = "true")
     public Optional<User> findOneById(Long id);
 
     @EntityGraph(attributePaths = "authorities")
+    @QueryHint(name = "org.hibernate.cacheable", value = "true")
     public Optional<User> findOneByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
+    @QueryHint(name = "org.hibernate.cacheable", value = "true")
     public Optional<User> findOneByEmail(String email);
 
     public Page<User> findAllByLoginNot(String login, Pageable pageable);
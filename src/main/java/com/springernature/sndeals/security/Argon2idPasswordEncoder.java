@@ -0,0 +1,134 @@
+package com.springernature.sndeals.security;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+
+import javax.inject.Singleton;
+import javax.validation.constraints.NotBlank;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * {@link PasswordEncoder} hashing with Argon2id, the memory-hard winner of the Password Hashing Competition.
+ * <p>
+ * The hashes are encoded in the PHC string format, {@code $argon2id$v=19$m=<memory>,t=<iterations>,p=<parallelism>$<salt>$<hash>},
+ * with the parameters of {@code application.password.argon2-*}.
+ */
+@Singleton
+public class Argon2idPasswordEncoder implements PasswordEncoder {
+
+    static final String PREFIX = "$argon2id$";
+
+    private static final int SALT_LENGTH = 16;
+
+    private static final int HASH_LENGTH = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final int memoryKib;
+
+    private final int iterations;
+
+    private final int parallelism;
+
+    public Argon2idPasswordEncoder(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Password password = applicationProperties.getPassword();
+        this.memoryKib = password.getArgon2MemoryKib();
+        this.iterations = password.getArgon2Iterations();
+        this.parallelism = password.getArgon2Parallelism();
+    }
+
+    @Override
+    public String encode(@NotBlank String rawPassword) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        byte[] hash = hash(rawPassword, salt, memoryKib, iterations, parallelism, HASH_LENGTH);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "v=" + Argon2Parameters.ARGON2_VERSION_13 + "$m=" + memoryKib + ",t=" + iterations + ",p=" + parallelism +
+            "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    @Override
+    public boolean matches(@NotBlank String rawPassword, @NotBlank String encodedPassword) {
+        Hash hash = Hash.parse(encodedPassword);
+        if (hash == null) {
+            return false;
+        }
+        byte[] actual = hash(rawPassword, hash.salt, hash.memoryKib, hash.iterations, hash.parallelism, hash.hash.length);
+        return MessageDigest.isEqual(actual, hash.hash);
+    }
+
+    @Override
+    public boolean upgradeEncoding(@NotBlank String encodedPassword) {
+        Hash hash = Hash.parse(encodedPassword);
+        return hash == null || hash.memoryKib < memoryKib || hash.iterations < iterations;
+    }
+
+    private static byte[] hash(String rawPassword, byte[] salt, int memoryKib, int iterations, int parallelism, int length) {
+        Argon2Parameters parameters = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+            .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+            .withMemoryAsKB(memoryKib)
+            .withIterations(iterations)
+            .withParallelism(parallelism)
+            .withSalt(salt)
+            .build();
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(parameters);
+        byte[] hash = new byte[length];
+        generator.generateBytes(rawPassword.getBytes(StandardCharsets.UTF_8), hash);
+        return hash;
+    }
+
+    /**
+     * The parameters, salt and hash of an encoded password.
+     */
+    private static final class Hash {
+
+        private int memoryKib;
+
+        private int iterations;
+
+        private int parallelism;
+
+        private byte[] salt;
+
+        private byte[] hash;
+
+        /**
+         * @return the parsed hash, {@code null} if it isn't an Argon2id hash of the supported version.
+         */
+        static Hash parse(String encodedPassword) {
+            // "", "argon2id", "v=19", "m=...,t=...,p=...", salt, hash
+            String[] parts = encodedPassword.split("\\$");
+            if (!encodedPassword.startsWith(PREFIX) || parts.length != 6 ||
+                !parts[2].equals("v=" + Argon2Parameters.ARGON2_VERSION_13)) {
+                return null;
+            }
+            try {
+                Hash parsed = new Hash();
+                for (String parameter : parts[3].split(",")) {
+                    int value = Integer.parseInt(parameter.substring(2));
+                    if (parameter.startsWith("m=")) {
+                        parsed.memoryKib = value;
+                    } else if (parameter.startsWith("t=")) {
+                        parsed.iterations = value;
+                    } else if (parameter.startsWith("p=")) {
+                        parsed.parallelism = value;
+                    }
+                }
+                Base64.Decoder base64 = Base64.getDecoder();
+                parsed.salt = base64.decode(parts[4]);
+                parsed.hash = base64.decode(parts[5]);
+                if (parsed.memoryKib <= 0 || parsed.iterations <= 0 || parsed.parallelism <= 0 || parsed.hash.length == 0) {
+                    return null;
+                }
+                return parsed;
+            } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+    }
+}
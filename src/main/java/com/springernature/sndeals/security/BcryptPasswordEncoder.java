@@ -1,20 +1,97 @@
 package com.springernature.sndeals.security;
 
+import com.springernature.sndeals.config.ApplicationProperties;
 import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Singleton;
 import javax.validation.constraints.NotBlank;
 
+/**
+ * {@link PasswordEncoder} hashing with bcrypt.
+ * <p>
+ * The cost is {@code application.password.bcrypt-cost}, or when it is 0 the highest cost between
+ * {@code application.password.min-bcrypt-cost} and {@code max-bcrypt-cost} whose hash takes at most
+ * {@code application.password.target-hash-millis} on this machine, measured at startup. Each step of the cost
+ * doubles the time of a hash.
+ * <p>
+ * A hash is upgraded when its cost is lower than the current one, and also when it is higher by more than
+ * {@link #COST_TOLERANCE}: such a hash, made with former settings, would keep taking seconds of the hashing threads
+ * at each login. The tolerance keeps the nodes whose calibration differs by a step from rehashing at each login.
+ */
 @Singleton
 public class BcryptPasswordEncoder implements PasswordEncoder {
 
+    static final String PREFIX = "$2";
+
+    static final int COST_TOLERANCE = 1;
+
+    private final Logger log = LoggerFactory.getLogger(BcryptPasswordEncoder.class);
+
+    private final int cost;
+
+    public BcryptPasswordEncoder(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Password password = applicationProperties.getPassword();
+        if (password.getBcryptCost() > 0) {
+            this.cost = password.getBcryptCost();
+        } else {
+            this.cost = calibrate(password.getTargetHashMillis(), password.getMinBcryptCost(), password.getMaxBcryptCost());
+            log.info("Calibrated the bcrypt cost to {}, for {} ms per hash", cost, password.getTargetHashMillis());
+        }
+    }
+
     @Override
     public String encode(@NotBlank String rawPassword) {
-        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(16));
+        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(cost));
     }
 
     @Override
     public boolean matches(@NotBlank String rawPassword, @NotBlank String encodedPassword) {
         return BCrypt.checkpw(rawPassword, encodedPassword);
     }
+
+    @Override
+    public boolean upgradeEncoding(@NotBlank String encodedPassword) {
+        int hashCost = getCost(encodedPassword);
+        return hashCost < cost || hashCost > cost + COST_TOLERANCE;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * @param encodedPassword a bcrypt hash, {@code $2a$10$...}.
+     * @return the cost of the hash, 0 if it can't be read.
+     */
+    static int getCost(String encodedPassword) {
+        if (encodedPassword.length() < 7 || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return the highest cost between {@code minCost} and {@code maxCost} whose hash takes at most {@code targetMillis}.
+     */
+    static int calibrate(long targetMillis, int minCost, int maxCost) {
+        // Warms the code up, so that the measure isn't of the interpreter
+        for (int i = 0; i < 10; i++) {
+            BCrypt.hashpw("calibration", BCrypt.gensalt(4));
+        }
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", BCrypt.gensalt(minCost));
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        int cost = minCost;
+        while (cost < maxCost && millis * 2 <= targetMillis) {
+            cost++;
+            millis *= 2;
+        }
+        return cost;
+    }
 }
@@ -1,55 +1,124 @@
 package com.springernature.sndeals.security;
 
+import com.springernature.sndeals.config.ApplicationProperties;
 import com.springernature.sndeals.domain.Authority;
 import com.springernature.sndeals.domain.User;
 import com.springernature.sndeals.repository.UserRepository;
+import com.springernature.sndeals.service.UserService;
+import com.springernature.sndeals.web.filter.RateLimiter;
+import com.springernature.sndeals.web.rest.errors.ServiceUnavailableException;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.security.authentication.AuthenticationProvider;
 import io.micronaut.security.authentication.AuthenticationRequest;
 import io.micronaut.security.authentication.AuthenticationResponse;
 import io.micronaut.security.authentication.UserDetails;
 import io.micronaut.validation.validator.constraints.EmailValidator;
-import io.reactivex.Flowable;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Singleton;
+import java.time.Duration;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+/**
+ * Authenticate the users with their password.
+ * <p>
+ * The authentication runs on the {@link PasswordHashingExecutor}, so a burst of logins doesn't take the threads of the
+ * server; when its queue is full the login is refused and can be tried again later. The hash of a user authenticated
+ * with a hash weaker, or much costlier, than the current settings is replaced by a hash with the current settings.
+ * <p>
+ * The failed authentications of a same login are limited by a {@link RateLimiter}, whatever the address they come
+ * from, so that the password of a user can't be guessed from many addresses; once the limit is reached, the
+ * authentications are refused before their password is hashed. The successful authentications aren't counted, so that
+ * nobody can lock a user out by logging in with their login.
+ */
 @Singleton
 public class DatabaseAuthenticationProvider implements AuthenticationProvider {
 
     private final Logger log = LoggerFactory.getLogger(DatabaseAuthenticationProvider.class);
     private final UserRepository userRepository;
+    private final UserService userService;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RateLimiter loginRateLimiter;
 
-    public DatabaseAuthenticationProvider(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public DatabaseAuthenticationProvider(UserRepository userRepository, UserService userService, PasswordEncoder passwordEncoder,
+                                          PasswordHashingExecutor passwordHashingExecutor, ApplicationProperties applicationProperties) {
         this.userRepository = userRepository;
+        this.userService = userService;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        ApplicationProperties.RateLimit rateLimit = applicationProperties.getRateLimit();
+        this.loginRateLimiter = rateLimit.isEnabled()
+            ? new RateLimiter(rateLimit.getLoginCapacity(), Duration.ofSeconds(rateLimit.getLoginPeriodSeconds()), rateLimit.getMaxBuckets())
+            : null;
     }
 
     @Override
     public Publisher<AuthenticationResponse> authenticate(@Nullable HttpRequest<?> httpRequest, AuthenticationRequest<?, ?> authenticationRequest) {
         String username = authenticationRequest.getIdentity().toString();
+        String password = authenticationRequest.getSecret().toString();
 
         log.debug("Authenticating {}", username);
 
+        if (loginRateLimiter != null && loginRateLimiter.check(username.toLowerCase(Locale.ENGLISH)) > 0) {
+            log.warn("Refused the authentication of {}: too many authentications of the login", username);
+            return Publishers.just(new NotAuthenticatedResponse("Too many authentications, try again later"));
+        }
+        return Publishers.fromCompletableFuture(() -> passwordHashingExecutor.submit(() -> authenticate(username, password))
+            .exceptionally(e -> {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                if (cause instanceof ServiceUnavailableException) {
+                    log.warn("Refused the authentication of {}: {}", username, cause.getMessage());
+                    return new NotAuthenticatedResponse("Too many authentications in progress, try again later");
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException(cause);
+            }));
+    }
+
+    private AuthenticationResponse authenticate(String username, String password) {
+        String login;
+        Optional<User> user;
         if (new EmailValidator().isValid(username, null)) {
-            return Flowable.just(userRepository.findOneByEmail(username)
-                .filter(user -> passwordEncoder.matches(authenticationRequest.getSecret().toString(), user.getPassword()))
-                .map(user -> createMicronautSecurityUser(username, user))
-                .orElse(new NotAuthenticatedResponse("Invalid username or password")));
+            login = username;
+            user = userRepository.findOneByEmail(username);
+        } else {
+            login = username.toLowerCase(Locale.ENGLISH);
+            user = userRepository.findOneByLogin(login);
         }
+        return user
+            .filter(candidate -> passwordEncoder.matches(password, candidate.getPassword()))
+            .map(authenticated -> {
+                upgradePasswordHash(authenticated, password);
+                return createMicronautSecurityUser(login, authenticated);
+            })
+            .orElseGet(() -> {
+                if (loginRateLimiter != null) {
+                    loginRateLimiter.tryAcquire(username.toLowerCase(Locale.ENGLISH));
+                }
+                return new NotAuthenticatedResponse("Invalid username or password");
+            });
+    }
 
-        String lowercaseLogin = username.toLowerCase(Locale.ENGLISH);
-        return Flowable.just(userRepository.findOneByLogin(lowercaseLogin)
-            .filter(user -> passwordEncoder.matches(authenticationRequest.getSecret().toString(), user.getPassword()))
-            .map(user -> createMicronautSecurityUser(lowercaseLogin, user))
-            .orElse(new NotAuthenticatedResponse("Invalid username or password")));
+    private void upgradePasswordHash(User user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            userService.upgradePasswordHash(user.getId(), user.getPassword(), passwordEncoder.encode(password));
+        } catch (RuntimeException e) {
+            // The user is authenticated anyway, the hash is upgraded on a next login
+            log.warn("Could not upgrade the password hash of {}: {}", user.getLogin(), e.getMessage());
+        }
     }
 
     private AuthenticationResponse createMicronautSecurityUser(String lowercaseLogin, User user) {
@@ -0,0 +1,77 @@
+package com.springernature.sndeals.security;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import io.micronaut.context.annotation.Primary;
+
+import javax.inject.Singleton;
+import javax.validation.constraints.NotBlank;
+
+/**
+ * The {@link PasswordEncoder} of the application.
+ * <p>
+ * The new passwords are hashed with the {@code application.password.algorithm}, {@code bcrypt} or {@code argon2id}, and
+ * the passwords are checked with the algorithm of their hash, so both kinds of hashes can be stored side by side. A
+ * hash of the other algorithm, or weaker than the current settings, is to be upgraded. All the hashes run on the
+ * {@link PasswordHashingExecutor}.
+ */
+@Primary
+@Singleton
+public class DelegatingPasswordEncoder implements PasswordEncoder {
+
+    public static final String BCRYPT = "bcrypt";
+
+    public static final String ARGON2ID = "argon2id";
+
+    private final BcryptPasswordEncoder bcryptPasswordEncoder;
+
+    private final Argon2idPasswordEncoder argon2idPasswordEncoder;
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    private final PasswordEncoder currentEncoder;
+
+    public DelegatingPasswordEncoder(BcryptPasswordEncoder bcryptPasswordEncoder, Argon2idPasswordEncoder argon2idPasswordEncoder,
+                                     PasswordHashingExecutor passwordHashingExecutor, ApplicationProperties applicationProperties) {
+        this.bcryptPasswordEncoder = bcryptPasswordEncoder;
+        this.argon2idPasswordEncoder = argon2idPasswordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        String algorithm = applicationProperties.getPassword().getAlgorithm();
+        if (BCRYPT.equalsIgnoreCase(algorithm)) {
+            this.currentEncoder = bcryptPasswordEncoder;
+        } else if (ARGON2ID.equalsIgnoreCase(algorithm)) {
+            this.currentEncoder = argon2idPasswordEncoder;
+        } else {
+            throw new IllegalArgumentException("Unknown password hashing algorithm: " + algorithm);
+        }
+    }
+
+    @Override
+    public String encode(@NotBlank String rawPassword) {
+        return passwordHashingExecutor.call(() -> currentEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(@NotBlank String rawPassword, @NotBlank String encodedPassword) {
+        PasswordEncoder encoder = getEncoder(encodedPassword);
+        return encoder != null && passwordHashingExecutor.call(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(@NotBlank String encodedPassword) {
+        PasswordEncoder encoder = getEncoder(encodedPassword);
+        return encoder != currentEncoder || encoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * @return the encoder of the algorithm of the hash, {@code null} if it is unknown.
+     */
+    private PasswordEncoder getEncoder(String encodedPassword) {
+        if (encodedPassword.startsWith(Argon2idPasswordEncoder.PREFIX)) {
+            return argon2idPasswordEncoder;
+        }
+        if (encodedPassword.startsWith(BcryptPasswordEncoder.PREFIX)) {
+            return bcryptPasswordEncoder;
+        }
+        return null;
+    }
+}
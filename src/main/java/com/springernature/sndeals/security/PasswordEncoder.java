@@ -6,4 +6,12 @@ public interface PasswordEncoder {
     String encode(@NotBlank String rawPassword);
 
     boolean matches(@NotBlank String rawPassword, @NotBlank String encodedPassword);
-}
\ No newline at end of file
+
+    /**
+     * @param encodedPassword a hash which matched the password of a user.
+     * @return whether the password should be hashed again, as the hash is weaker than the current settings.
+     */
+    default boolean upgradeEncoding(@NotBlank String encodedPassword) {
+        return false;
+    }
+}
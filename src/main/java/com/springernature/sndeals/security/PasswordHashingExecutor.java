@@ -0,0 +1,108 @@
+package com.springernature.sndeals.security;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.web.rest.errors.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor of the password hashes, so that a burst of logins can't take all the CPUs or threads of the server.
+ * <p>
+ * The hashes run on {@code application.password.hashing-threads} threads, with at most
+ * {@code application.password.hashing-queue-capacity} waiting hashes. A hash submitted to a full queue is rejected with a
+ * {@link ServiceUnavailableException}. The executor is monitored as {@code passwordHashing}, with the
+ * {@code executor.*} metrics of Micrometer, and the rejected hashes are counted by {@code password.hashing.rejected}.
+ */
+@Singleton
+public class PasswordHashingExecutor {
+
+    private static final ThreadLocal<Boolean> HASHING_THREAD = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final ThreadPoolExecutor executor;
+
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Password password = applicationProperties.getPassword();
+        this.executor = new ThreadPoolExecutor(password.getHashingThreads(), password.getHashingThreads(), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(password.getHashingQueueCapacity()), new HashingThreadFactory());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+        this.rejected = Counter.builder("password.hashing.rejected")
+            .description("Number of password hashes rejected as the hashing queue was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param task the task, which can hash passwords.
+     * @param <T> the type of the result of the task.
+     * @return the result of the task, failed with a {@link ServiceUnavailableException} if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new ServiceUnavailableException("Too many passwords are being checked, try again later"));
+            return failed;
+        }
+    }
+
+    /**
+     * Run a task on the executor and wait for its result, or run it right away on a thread of the executor.
+     *
+     * @param task the task, which can hash passwords.
+     * @param <T> the type of the result of the task.
+     * @return the result of the task.
+     * @throws ServiceUnavailableException if the queue is full.
+     */
+    public <T> T call(Supplier<T> task) {
+        if (HASHING_THREAD.get()) {
+            return task.get();
+        }
+        try {
+            return submit(task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(() -> {
+                HASHING_THREAD.set(Boolean.TRUE);
+                runnable.run();
+            }, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
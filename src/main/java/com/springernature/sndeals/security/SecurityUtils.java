@@ -3,7 +3,6 @@ package com.springernature.sndeals.security;
 import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.security.authentication.Authentication;
 
-import java.util.Collection;
 import java.util.Optional;
 
 /**
@@ -39,19 +38,18 @@ public final class SecurityUtils {
     /**
      * If the current user has a specific authority (security role).
      * <p>
-     * The name of this method comes from the {@code isUserInRole()} method in the Servlet API.
+     * The name of this method comes from the {@code isUserInRole()} method in the Servlet API. The roles of a
+     * {@link VerifiedAuthentication} are checked in constant time.
      *
      * @param authority the authority to check.
      * @return true if the current user has the authority, false otherwise.
      */
-    @SuppressWarnings("unchecked")
     public static boolean isCurrentUserInRole(String authority) {
         return ServerRequestContext.currentRequest()
             .flatMap(request -> request.getUserPrincipal(Authentication.class))
-            .map(authentication -> authentication.getAttributes().get("roles"))
-            .filter(Collection.class::isInstance)
-            .map(Collection.class::cast)
-            .map(roles -> roles.stream().anyMatch(role -> role.equals(authority)))
+            .map(authentication -> authentication instanceof VerifiedAuthentication ?
+                ((VerifiedAuthentication) authentication).hasRole(authority) :
+                VerifiedAuthentication.toRoles(authentication.getAttributes().get(VerifiedAuthentication.ROLES)).contains(authority))
             .orElse(false);
     }
 }
@@ -0,0 +1,114 @@
+package com.springernature.sndeals.security;
+
+import io.micronaut.security.authentication.Authentication;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable {@link Authentication} of a verified token, shared by all the requests sending the token.
+ * <p>
+ * The roles are read once from the {@code roles} attribute into a set, so that {@link #hasRole(String)} doesn't walk
+ * the roles on every check. The {@code roles} attribute is replaced by this set.
+ */
+public final class VerifiedAuthentication implements Authentication {
+
+    public static final String ROLES = "roles";
+
+    public static final String JWT_ID = "jti";
+
+    public static final String EXPIRATION = "exp";
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+
+    private final Map<String, Object> attributes;
+
+    private final Set<String> roles;
+
+    public VerifiedAuthentication(Authentication authentication) {
+        this.name = authentication.getName();
+        this.roles = Collections.unmodifiableSet(toRoles(authentication.getAttributes().get(ROLES)));
+        Map<String, Object> copy = new HashMap<>(authentication.getAttributes());
+        copy.put(ROLES, roles);
+        this.attributes = Collections.unmodifiableMap(copy);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return the roles of the user.
+     */
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * @param role the role to check.
+     * @return true if the user has the role.
+     */
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+
+    /**
+     * @return the id of the token, the {@code jti} claim, empty if the token has none.
+     */
+    public Optional<String> getJwtId() {
+        Object jti = attributes.get(JWT_ID);
+        return jti == null ? Optional.empty() : Optional.of(jti.toString());
+    }
+
+    /**
+     * @return the expiration of the token, the {@code exp} claim, empty if the token doesn't expire.
+     */
+    public Optional<Instant> getExpiration() {
+        Object expiration = attributes.get(EXPIRATION);
+        if (expiration instanceof Date) {
+            return Optional.of(((Date) expiration).toInstant());
+        }
+        if (expiration instanceof Number) {
+            return Optional.of(Instant.ofEpochSecond(((Number) expiration).longValue()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param roles the {@code roles} attribute, a collection of roles.
+     * @return the roles as strings.
+     */
+    static Set<String> toRoles(Object roles) {
+        if (!(roles instanceof Collection)) {
+            return Collections.emptySet();
+        }
+        Set<String> set = new HashSet<>();
+        for (Object role : (Collection<?>) roles) {
+            set.add(String.valueOf(role));
+        }
+        return set;
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedAuthentication{" +
+            "name='" + name + '\'' +
+            ", roles=" + roles +
+            '}';
+    }
+}
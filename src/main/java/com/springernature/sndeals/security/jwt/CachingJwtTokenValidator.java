@@ -0,0 +1,135 @@
+package com.springernature.sndeals.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.security.VerifiedAuthentication;
+import com.springernature.sndeals.service.RevokedTokenCache;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.jwt.encryption.EncryptionConfiguration;
+import io.micronaut.security.token.jwt.signature.SignatureConfiguration;
+import io.micronaut.security.token.jwt.validator.GenericJwtClaimsValidator;
+import io.micronaut.security.token.jwt.validator.JwtAuthenticationFactory;
+import io.micronaut.security.token.jwt.validator.JwtTokenValidator;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtTokenValidator} keeping the verified tokens in memory, so that the signature and claims of a token are
+ * checked once and not on every request.
+ * <p>
+ * The tokens are cached by their SHA-256 hash, for at most {@code application.token-cache.max-entries} tokens, until
+ * their {@code exp} claim and at most {@code application.token-cache.max-time-to-live-seconds}. The cached
+ * authentication is a {@link VerifiedAuthentication}, with its roles computed once per token. An invalid token isn't
+ * cached, it is verified again on each request.
+ * <p>
+ * A token revoked in the {@link RevokedTokenCache} is refused, whether it is cached or not.
+ */
+@Singleton
+@Replaces(JwtTokenValidator.class)
+public class CachingJwtTokenValidator extends JwtTokenValidator {
+
+    public static final String TOKENS = "verifiedTokens";
+
+    private final RevokedTokenCache revokedTokenCache;
+
+    private final boolean enabled;
+
+    private final Cache<String, VerifiedAuthentication> tokens;
+
+    public CachingJwtTokenValidator(Collection<SignatureConfiguration> signatureConfigurations,
+                                    Collection<EncryptionConfiguration> encryptionConfigurations,
+                                    Collection<GenericJwtClaimsValidator> genericJwtClaimsValidators,
+                                    JwtAuthenticationFactory jwtAuthenticationFactory,
+                                    RevokedTokenCache revokedTokenCache,
+                                    ApplicationProperties applicationProperties,
+                                    MeterRegistry meterRegistry) {
+        super(signatureConfigurations, encryptionConfigurations, genericJwtClaimsValidators, jwtAuthenticationFactory);
+        this.revokedTokenCache = revokedTokenCache;
+        ApplicationProperties.TokenCache tokenCache = applicationProperties.getTokenCache();
+        this.enabled = tokenCache.isEnabled();
+        long maxTimeToLive = TimeUnit.SECONDS.toNanos(tokenCache.getMaxTimeToLiveSeconds());
+        this.tokens = Caffeine.newBuilder()
+            .maximumSize(tokenCache.getMaxEntries())
+            .expireAfter(new Expiry<String, VerifiedAuthentication>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedAuthentication value, long currentTime) {
+                    return Math.min(maxTimeToLive, timeToLive(value));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, VerifiedAuthentication value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, VerifiedAuthentication value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        // The misses are the tokens whose signature is verified
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, TOKENS, "name", TOKENS);
+    }
+
+    @Override
+    public Publisher<Authentication> validateToken(String token, @Nullable HttpRequest<?> request) {
+        if (!enabled) {
+            return Flowable.fromPublisher(super.validateToken(token, request))
+                .filter(authentication -> !isRevoked(new VerifiedAuthentication(authentication)));
+        }
+        String key = hash(token);
+        VerifiedAuthentication cached = tokens.getIfPresent(key);
+        if (cached != null) {
+            return isRevoked(cached) ? Flowable.empty() : Flowable.just(cached);
+        }
+        return Flowable.fromPublisher(super.validateToken(token, request))
+            .map(authentication -> {
+                VerifiedAuthentication verified = new VerifiedAuthentication(authentication);
+                tokens.put(key, verified);
+                return verified;
+            })
+            .filter(verified -> !isRevoked(verified))
+            .cast(Authentication.class);
+    }
+
+    private boolean isRevoked(VerifiedAuthentication authentication) {
+        return authentication.getJwtId().map(revokedTokenCache::isRevoked).orElse(false);
+    }
+
+    /**
+     * @return the time until the expiration of the token, in nanoseconds, {@link Long#MAX_VALUE} if it doesn't expire.
+     */
+    private static long timeToLive(VerifiedAuthentication authentication) {
+        return authentication.getExpiration()
+            .map(expiration -> TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.toEpochMilli() - System.currentTimeMillis())))
+            .orElse(Long.MAX_VALUE);
+    }
+
+    /**
+     * The tokens aren't kept in memory, only their hashes.
+     */
+    private static String hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.springernature.sndeals.security.jwt;
+
+import com.springernature.sndeals.domain.Authority;
+import com.springernature.sndeals.domain.User;
+import com.springernature.sndeals.repository.UserRepository;
+import com.springernature.sndeals.service.TokenRevocationService;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.security.authentication.UserDetails;
+import io.micronaut.security.errors.IssuingAnAccessTokenErrorCode;
+import io.micronaut.security.errors.OauthErrorResponseException;
+import io.micronaut.security.token.event.RefreshTokenGeneratedEvent;
+import io.micronaut.security.token.refresh.RefreshTokenPersistence;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Publisher;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Store the refresh tokens issued at login with the {@link TokenRevocationService}, and issue new access tokens to the
+ * users of the valid ones. The roles of the new access tokens are read again from the database, and a user who was
+ * deactivated or deleted gets none.
+ */
+@Singleton
+public class DatabaseRefreshTokenPersistence implements RefreshTokenPersistence {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    private final UserRepository userRepository;
+
+    private final Scheduler ioScheduler;
+
+    public DatabaseRefreshTokenPersistence(TokenRevocationService tokenRevocationService, UserRepository userRepository,
+                                           @Named(TaskExecutors.IO) ExecutorService ioExecutor) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.userRepository = userRepository;
+        this.ioScheduler = Schedulers.from(ioExecutor);
+    }
+
+    @Override
+    @EventListener
+    public void persistToken(RefreshTokenGeneratedEvent event) {
+        tokenRevocationService.saveRefreshToken(event.getRefreshToken(), event.getUserDetails().getUsername());
+    }
+
+    @Override
+    public Publisher<UserDetails> getUserDetails(String refreshToken) {
+        return Flowable.fromCallable(() -> tokenRevocationService.findRefreshTokenLogin(refreshToken)
+            .flatMap(userRepository::findOneByLogin)
+            .filter(User::getActivated)
+            .map(this::toUserDetails)
+            .orElseThrow(() -> new OauthErrorResponseException(IssuingAnAccessTokenErrorCode.INVALID_GRANT,
+                "The refresh token is invalid, revoked or expired", null)))
+            .subscribeOn(ioScheduler);
+    }
+
+    private UserDetails toUserDetails(User user) {
+        List<String> grantedAuthorities = user.getAuthorities().stream()
+            .map(Authority::getName)
+            .collect(Collectors.toList());
+        return new UserDetails(user.getLogin(), grantedAuthorities);
+    }
+}
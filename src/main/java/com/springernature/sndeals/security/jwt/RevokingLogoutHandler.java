@@ -0,0 +1,43 @@
+package com.springernature.sndeals.security.jwt;
+
+import com.springernature.sndeals.security.VerifiedAuthentication;
+import com.springernature.sndeals.service.TokenRevocationService;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.handlers.LogoutHandler;
+
+import javax.inject.Singleton;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Handle the logout endpoint by revoking the access token of the request, and the refresh tokens of the user.
+ */
+@Singleton
+public class RevokingLogoutHandler implements LogoutHandler {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public RevokingLogoutHandler(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @Override
+    public MutableHttpResponse<?> logout(HttpRequest<?> request) {
+        Optional<Authentication> authentication = request.getUserPrincipal(Authentication.class);
+        if (authentication.isPresent()) {
+            VerifiedAuthentication verified = authentication.get() instanceof VerifiedAuthentication ?
+                (VerifiedAuthentication) authentication.get() : new VerifiedAuthentication(authentication.get());
+            Optional<String> jti = verified.getJwtId();
+            Optional<Instant> expiration = verified.getExpiration();
+            // A token without id or expiration can't be revoked, it was issued before the revocation existed
+            if (jti.isPresent() && expiration.isPresent()) {
+                tokenRevocationService.revokeAccessToken(jti.get(), expiration.get());
+            }
+            tokenRevocationService.revokeRefreshTokens(verified.getName());
+        }
+        return HttpResponse.noContent();
+    }
+}
@@ -0,0 +1,148 @@
+package com.springernature.sndeals.security.jwt;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory list of the revoked tokens, by the id of the token (jti), checked on every request without any I/O.
+ * <p>
+ * A Bloom filter answers most of the checks, the tokens which aren't revoked, with a few bit reads; the rare tokens it
+ * reports are checked against the exact set of revoked ids, so a valid token is never refused. A revoked id is kept
+ * until the token expires, {@link #removeExpired(Instant)} then drops it and rebuilds the filter, which can't remove
+ * entries. The checks are lock-free, the writes are serialized.
+ */
+public class TokenDenyList {
+
+    private final int expectedTokens;
+
+    private final double falsePositiveProbability;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    public TokenDenyList(int expectedTokens, double falsePositiveProbability) {
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveProbability);
+    }
+
+    /**
+     * @param jti the id of the token.
+     * @return true if the token is revoked.
+     */
+    public boolean contains(String jti) {
+        return filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * @param jti the id of the revoked token.
+     * @param expiresAt the expiration of the token.
+     */
+    public synchronized void add(String jti, Instant expiresAt) {
+        revoked.put(jti, expiresAt);
+        filter.put(jti);
+        if (revoked.size() > filter.getExpectedInsertions()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Drop the tokens expired at a time and rebuild the filter.
+     *
+     * @param now the time.
+     */
+    public synchronized void removeExpired(Instant now) {
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        rebuild();
+    }
+
+    /**
+     * @return the number of revoked tokens.
+     */
+    public int size() {
+        return revoked.size();
+    }
+
+    private void rebuild() {
+        // Room for twice the current tokens, so that the filter isn't rebuilt on every revocation
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, 2 * revoked.size()), falsePositiveProbability);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    /**
+     * Bloom filter of strings, the {@code k} bits of a string are derived from two 32-bit halves of its 64-bit hash.
+     */
+    static final class BloomFilter {
+
+        private final int expectedInsertions;
+
+        private final AtomicLongArray bits;
+
+        private final long bitCount;
+
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+            this.expectedInsertions = Math.max(1, expectedInsertions);
+            long optimalBits = (long) Math.ceil(-this.expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) optimalBits / this.expectedInsertions * Math.log(2)));
+        }
+
+        int getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + i * h2);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(int combined) {
+            return (combined & 0xffffffffL) % bitCount;
+        }
+
+        /**
+         * 64-bit FNV-1a of the characters, with the finalizer of SplitMix64 to spread the bits of similar strings.
+         */
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+            hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+            return hash ^ (hash >>> 31);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.springernature.sndeals.security.jwt;
+
+import io.micronaut.security.token.jwt.generator.claims.JwtIdGenerator;
+
+import javax.inject.Singleton;
+import java.util.UUID;
+
+/**
+ * Give every access token an id, the {@code jti} claim, by which it can be revoked.
+ */
+@Singleton
+public class UuidJwtIdGenerator implements JwtIdGenerator {
+
+    @Override
+    public String generateJtiClaim() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * JWT validation.
+ */
+package com.springernature.sndeals.security.jwt;
@@ -0,0 +1,72 @@
+package com.springernature.sndeals.service;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.repository.AttachmentRepository;
+import com.springernature.sndeals.service.storage.BlobStore;
+import io.micronaut.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes the contents of the {@link BlobStore} no attachment refers to anymore.
+ * <p>
+ * Identical contents are stored once, so a content can't be deleted with the attachment dropping it: an upload of the
+ * same content may be about to commit a new reference to it. Instead, this runs every day at 02:00 (am), and only
+ * deletes the contents not stored for {@code application.storage.collection-grace-period-hours}: an upload stores its
+ * content, which sets the time of the blob again, before it commits its attachment.
+ */
+@Singleton
+public class AttachmentContentCollectionJob {
+
+    private final Logger log = LoggerFactory.getLogger(AttachmentContentCollectionJob.class);
+
+    private final AttachmentRepository attachmentRepository;
+
+    private final BlobStore blobStore;
+
+    private final Duration gracePeriod;
+
+    public AttachmentContentCollectionJob(AttachmentRepository attachmentRepository, BlobStore blobStore,
+                                          ApplicationProperties applicationProperties) {
+        this.attachmentRepository = attachmentRepository;
+        this.blobStore = blobStore;
+        this.gracePeriod = Duration.ofHours(applicationProperties.getStorage().getCollectionGracePeriodHours());
+    }
+
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void collect() {
+        collect(Instant.now().minus(gracePeriod));
+    }
+
+    /**
+     * @param storedBefore the instant before which the unused contents were last stored.
+     * @return the number of deleted contents.
+     */
+    public long collect(Instant storedBefore) {
+        AtomicLong deleted = new AtomicLong();
+        try {
+            blobStore.forEachStoredBefore(storedBefore, key -> {
+                try {
+                    // The time of the blob is checked again, after the references
+                    if (!attachmentRepository.existsByChecksum(key) && blobStore.deleteIfStoredBefore(key, storedBefore)) {
+                        deleted.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not delete unused blob {}", key, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not list the blobs to collect: {}", e.getMessage());
+        }
+        if (deleted.get() > 0) {
+            log.info("Deleted {} unused attachment contents", deleted.get());
+        }
+        return deleted.get();
+    }
+}
@@ -0,0 +1,43 @@
+package com.springernature.sndeals.service;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import io.micronaut.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+
+/**
+ * Moves the attachment contents still stored in the {@code attachment.content} column to the
+ * {@link com.springernature.sndeals.service.storage.BlobStore}.
+ * <p>
+ * This runs once, shortly after startup, in batches of {@code application.storage.migration-batch-size}
+ * attachments: each batch is its own transaction, so an interrupted migration resumes where it stopped.
+ */
+@Singleton
+public class AttachmentContentMigrationJob {
+
+    private final Logger log = LoggerFactory.getLogger(AttachmentContentMigrationJob.class);
+
+    private final AttachmentService attachmentService;
+
+    private final int batchSize;
+
+    public AttachmentContentMigrationJob(AttachmentService attachmentService, ApplicationProperties applicationProperties) {
+        this.attachmentService = attachmentService;
+        this.batchSize = applicationProperties.getStorage().getMigrationBatchSize();
+    }
+
+    @Scheduled(initialDelay = "1m")
+    public void migrate() {
+        long migrated = 0;
+        int batch;
+        do {
+            batch = attachmentService.migrateContent(batchSize);
+            migrated += batch;
+        } while (batch > 0 && batch == batchSize);
+        if (migrated > 0) {
+            log.info("Moved the content of {} attachments to the blob store", migrated);
+        }
+    }
+}
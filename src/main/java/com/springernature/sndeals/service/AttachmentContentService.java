@@ -0,0 +1,167 @@
+package com.springernature.sndeals.service;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.service.dto.AttachmentDTO;
+import com.springernature.sndeals.service.storage.BlobStore;
+import com.springernature.sndeals.service.storage.BlobWriter;
+import com.springernature.sndeals.web.rest.errors.PayloadTooLargeException;
+import io.micronaut.scheduling.TaskExecutors;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Service streaming the attachment contents to and from the {@link BlobStore}, without buffering them in memory.
+ * <p>
+ * Uploaded chunks are written as they are received, and hashed on the fly by the {@link BlobWriter}: at most
+ * {@link #PREFETCH} chunks are buffered in memory whatever the size of the upload, and an upload larger than
+ * {@code application.storage.max-upload-size} is aborted as soon as it crosses the limit.
+ */
+@Singleton
+public class AttachmentContentService {
+
+    /**
+     * Number of received chunks which can wait to be written, the upload is not read further in the meantime.
+     */
+    private static final int PREFETCH = 4;
+
+    private final Logger log = LoggerFactory.getLogger(AttachmentContentService.class);
+
+    private final AttachmentService attachmentService;
+
+    private final BlobStore blobStore;
+
+    private final Scheduler ioScheduler;
+
+    private final long maxUploadSize;
+
+    public AttachmentContentService(AttachmentService attachmentService, BlobStore blobStore,
+                                   @Named(TaskExecutors.IO) ExecutorService ioExecutor, ApplicationProperties applicationProperties) {
+        this.attachmentService = attachmentService;
+        this.blobStore = blobStore;
+        this.ioScheduler = Schedulers.from(ioExecutor);
+        this.maxUploadSize = applicationProperties.getStorage().getMaxUploadSize();
+    }
+
+    /**
+     * @return the maximum size of an uploaded content, in bytes.
+     */
+    public long getMaxUploadSize() {
+        return maxUploadSize;
+    }
+
+    /**
+     * Create an attachment from a content received in chunks. The blocking writes are done on the IO executor,
+     * never on the thread emitting the chunks.
+     *
+     * @param attachmentDTO the metadata of the attachment, without its content.
+     * @param content the chunks of the content.
+     * @return the persisted entity, or a {@link PayloadTooLargeException} error if the content is too large.
+     */
+    public Single<AttachmentDTO> upload(AttachmentDTO attachmentDTO, Flowable<ByteBuffer> content) {
+        log.debug("Request to upload Attachment : {}", attachmentDTO);
+        return Single.using(
+            blobStore::newWriter,
+            writer -> content
+                .observeOn(ioScheduler, false, PREFETCH)
+                .doOnNext(chunk -> {
+                    if (writer.getSize() + chunk.remaining() > maxUploadSize) {
+                        throw new PayloadTooLargeException(maxUploadSize);
+                    }
+                    writer.write(chunk);
+                })
+                .ignoreElements()
+                .andThen(Single.fromCallable(() -> attachmentService.save(attachmentDTO, writer.commit()))),
+            BlobWriter::close,
+            false);
+    }
+
+    /**
+     * Get the local file holding a content, so that it can be sent with a zero-copy transfer.
+     *
+     * @param checksum the checksum of the content.
+     * @return the file, or nothing if the blob store doesn't keep blobs as local files.
+     */
+    public Optional<File> getContentFile(String checksum) {
+        return blobStore.getFile(checksum);
+    }
+
+    /**
+     * Get the size of a content, for the attachments whose size wasn't recorded.
+     *
+     * @param checksum the checksum of the content.
+     * @return the size of the content, in bytes, or nothing if the content isn't stored.
+     */
+    public Optional<Long> getContentSize(String checksum) {
+        try {
+            return Optional.of(blobStore.size(checksum));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the size of blob " + checksum, e);
+        }
+    }
+
+    /**
+     * Open a range of a content, the caller must close the returned stream.
+     *
+     * @param checksum the checksum of the content.
+     * @param offset the offset of the first byte to read.
+     * @param length the number of bytes to read.
+     * @return the content of the range.
+     */
+    public InputStream openContent(String checksum, long offset, long length) {
+        try {
+            return blobStore.open(checksum, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read blob " + checksum, e);
+        }
+    }
+
+    /**
+     * @param checksum the checksum of the content.
+     * @param derivative the derivative.
+     * @return whether the derivative of the content was generated.
+     */
+    public boolean hasDerivative(String checksum, AttachmentDerivative derivative) {
+        return blobStore.derivativeExists(checksum, derivative.getKey());
+    }
+
+    /**
+     * @param checksum the checksum of the content.
+     * @param derivative the derivative.
+     * @return the local file holding the derivative, if the blob store keeps local files.
+     */
+    public Optional<File> getDerivativeFile(String checksum, AttachmentDerivative derivative) {
+        return blobStore.getDerivativeFile(checksum, derivative.getKey());
+    }
+
+    /**
+     * Open a derivative of a content, the caller must close the returned stream.
+     *
+     * @param checksum the checksum of the content.
+     * @param derivative the derivative.
+     * @return the JPEG derivative.
+     */
+    public InputStream openDerivative(String checksum, AttachmentDerivative derivative) {
+        try {
+            return blobStore.openDerivative(checksum, derivative.getKey());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the " + derivative.getKey() + " derivative of blob " + checksum, e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.springernature.sndeals.service;
+
+import java.util.Optional;
+
+/**
+ * The resized versions generated for each image attachment, identified by a size key.
+ * <p>
+ * A derivative is a JPEG whose largest side is at most {@link #getMaxDimension()} pixels, an image smaller
+ * than that is not enlarged.
+ */
+public enum AttachmentDerivative {
+
+    THUMBNAIL("thumbnail", 160),
+    SMALL("small", 480),
+    LARGE("large", 1200);
+
+    private final String key;
+
+    private final int maxDimension;
+
+    AttachmentDerivative(String key, int maxDimension) {
+        this.key = key;
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * @return the size key, used in the URL of the derivative and as its name in the blob store.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * @param key the size key.
+     * @return the derivative with this size key, or nothing if there is none.
+     */
+    public static Optional<AttachmentDerivative> fromKey(String key) {
+        for (AttachmentDerivative derivative : values()) {
+            if (derivative.key.equals(key)) {
+                return Optional.of(derivative);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,345 @@
+package com.springernature.sndeals.service;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.repository.AttachmentRepository;
+import com.springernature.sndeals.service.storage.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.data.model.Pageable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.inject.Singleton;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service generating the {@link AttachmentDerivative}s of the image attachments in the background.
+ * <p>
+ * Derivatives are generated by {@code application.storage.derivative-workers} threads, and at most
+ * {@code application.storage.derivative-backlog-capacity} contents can wait for them: a content scheduled when the
+ * backlog is full is skipped, and its derivatives are generated by the next {@link #rebuild(boolean) rebuild}.
+ * Derivatives are stored next to their original in the {@link BlobStore}, so identical images are resized once.
+ */
+@Singleton
+public class AttachmentDerivativeService {
+
+    /**
+     * Images larger than this are not decoded, their decoded pixels alone would take hundreds of megabytes.
+     */
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    private final Logger log = LoggerFactory.getLogger(AttachmentDerivativeService.class);
+
+    private final BlobStore blobStore;
+
+    private final AttachmentRepository attachmentRepository;
+
+    private final ExecutorService workers;
+
+    /**
+     * Scans the attachments of a rebuild, it waits for the workers so it must not hold a request thread.
+     */
+    private final ExecutorService rebuilder;
+
+    private final Semaphore backlogPermits;
+
+    private final Set<String> backlog = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final Counter generatedCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter rejectedCounter;
+
+    public AttachmentDerivativeService(BlobStore blobStore, AttachmentRepository attachmentRepository, MeterRegistry meterRegistry,
+                                       ApplicationProperties applicationProperties) {
+        this.blobStore = blobStore;
+        this.attachmentRepository = attachmentRepository;
+        ApplicationProperties.Storage storage = applicationProperties.getStorage();
+        this.workers = Executors.newFixedThreadPool(storage.getDerivativeWorkers(), new WorkerThreadFactory("attachment-derivative-"));
+        this.rebuilder = Executors.newSingleThreadExecutor(new WorkerThreadFactory("attachment-derivative-rebuild-"));
+        this.backlogPermits = new Semaphore(storage.getDerivativeBacklogCapacity());
+        Gauge.builder("attachment.derivatives.backlog", backlog, Set::size)
+            .description("Number of attachment contents waiting for their derivatives to be generated")
+            .register(meterRegistry);
+        this.generatedCounter = Counter.builder("attachment.derivatives.generated")
+            .description("Number of generated attachment derivatives")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("attachment.derivatives.failed")
+            .description("Number of attachment contents whose derivatives couldn't be generated")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("attachment.derivatives.rejected")
+            .description("Number of attachment contents skipped because the backlog was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Schedule the generation of the missing derivatives of an attachment content, nothing is done if it isn't an image.
+     *
+     * @param checksum the key of the content in the {@link BlobStore}.
+     * @param contentType the content type of the attachment.
+     * @return whether the generation was scheduled.
+     */
+    public boolean schedule(String checksum, String contentType) {
+        if (checksum == null || contentType == null || !contentType.startsWith("image/")) {
+            return false;
+        }
+        if (!backlogPermits.tryAcquire()) {
+            rejectedCounter.increment();
+            log.warn("The derivative backlog is full, the derivatives of blob {} will be generated by the next rebuild", checksum);
+            return false;
+        }
+        return submit(checksum, false);
+    }
+
+    /**
+     * Start generating the derivatives of all the image attachments, in the background. The rebuild waits for the
+     * workers instead of overflowing the backlog, so it never skips a content.
+     *
+     * @param force whether the existing derivatives are also generated again, otherwise only the missing ones are.
+     * @return whether the rebuild was started, {@code false} if a rebuild is already running.
+     */
+    public boolean rebuild(boolean force) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            rebuilder.execute(() -> {
+                try {
+                    scheduleAll(force);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuilding.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of contents waiting for their derivatives to be generated.
+     */
+    public int getBacklog() {
+        return backlog.size();
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    /**
+     * Generate the derivatives of a content, in the calling thread.
+     *
+     * @param checksum the key of the content in the {@link BlobStore}.
+     * @param force whether the existing derivatives are also generated again.
+     * @return the number of generated derivatives, {@code 0} if the content isn't an image which can be decoded.
+     */
+    public int generate(String checksum, boolean force) {
+        List<AttachmentDerivative> derivatives = new ArrayList<>();
+        for (AttachmentDerivative derivative : AttachmentDerivative.values()) {
+            if (force || !blobStore.derivativeExists(checksum, derivative.getKey())) {
+                derivatives.add(derivative);
+            }
+        }
+        if (derivatives.isEmpty()) {
+            return 0;
+        }
+        try {
+            BufferedImage image = readImage(checksum);
+            if (image == null) {
+                log.debug("Blob {} is not an image which can be resized", checksum);
+                return 0;
+            }
+            for (AttachmentDerivative derivative : derivatives) {
+                byte[] jpeg = toJpeg(resize(image, derivative.getMaxDimension()));
+                blobStore.putDerivative(checksum, derivative.getKey(), new ByteArrayInputStream(jpeg));
+                generatedCounter.increment();
+            }
+            log.debug("Generated {} derivatives of blob {}", derivatives.size(), checksum);
+            return derivatives.size();
+        } catch (IOException | RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Could not generate the derivatives of blob {}", checksum, e);
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private boolean submit(String checksum, boolean force) {
+        // A content already waiting is not queued twice, its permit is given back
+        if (!backlog.add(checksum)) {
+            backlogPermits.release();
+            return false;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(checksum, force);
+                } finally {
+                    backlog.remove(checksum);
+                    backlogPermits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            backlog.remove(checksum);
+            backlogPermits.release();
+            return false;
+        }
+    }
+
+    private void scheduleAll(boolean force) {
+        log.info("Rebuilding the attachment derivatives");
+        long scheduled = 0;
+        String after = "";
+        List<String> checksums;
+        do {
+            checksums = attachmentRepository.findImageChecksumsAfter(after, Pageable.from(0, REBUILD_BATCH_SIZE));
+            for (String checksum : checksums) {
+                try {
+                    backlogPermits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("The rebuild of the attachment derivatives was interrupted");
+                    return;
+                }
+                if (submit(checksum, force)) {
+                    scheduled++;
+                }
+                after = checksum;
+            }
+        } while (checksums.size() == REBUILD_BATCH_SIZE);
+        log.info("Scheduled the derivatives of {} attachment contents", scheduled);
+    }
+
+    private BufferedImage readImage(String checksum) throws IOException {
+        try (InputStream in = blobStore.open(checksum); ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // The header is checked before anything is decoded
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_SOURCE_PIXELS) {
+                    log.warn("Blob {} is too large an image to be resized", checksum);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale an image down so that its largest side fits in a dimension, flattened on a white background.
+     * <p>
+     * The image is halved until it's less than twice the target size: a single bilinear step would skip most of
+     * the source pixels of a large reduction, and alias.
+     */
+    static BufferedImage resize(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1d, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage current = source;
+        do {
+            boolean halve = current.getWidth() / 2 >= width && current.getHeight() / 2 >= height;
+            current = draw(current, halve ? current.getWidth() / 2 : width, halve ? current.getHeight() / 2 : height);
+        } while (current.getWidth() != width || current.getHeight() != height);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no transparency
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] toJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private WorkerThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            // Resizing is background work, it must not compete with the request threads
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    }
+}
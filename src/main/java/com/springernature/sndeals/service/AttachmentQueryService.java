@@ -1,14 +1,17 @@
 package com.springernature.sndeals.service;
 
 import com.springernature.sndeals.domain.Attachment;
-import com.springernature.sndeals.domain.Attachment_;
 import com.springernature.sndeals.repository.AttachmentRepository;
 import com.springernature.sndeals.service.dto.AttachmentCriteria;
-import com.springernature.sndeals.service.dto.AttachmentDTO;
+import com.springernature.sndeals.service.dto.AttachmentMetadataDTO;
 import com.springernature.sndeals.service.mapper.AttachmentMapper;
+import com.springernature.sndeals.service.util.CriteriaSqlBuilder;
+import com.springernature.sndeals.service.util.PageUtil;
+import com.springernature.sndeals.service.util.SortableColumns;
 import io.github.jhipster.service.QueryService;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.micronaut.transaction.annotation.ReadOnly;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,8 +19,8 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Singleton
 @ReadOnly
@@ -26,6 +29,20 @@ public class AttachmentQueryService extends QueryService<Attachment> {
 
     private final Logger log = LoggerFactory.getLogger(AttachmentQueryService.class);
 
+    /**
+     * Properties the {@link Attachment} can be sorted by, each backed by a {@code (column, id)} index.
+     */
+    private static final SortableColumns<Attachment> SORTABLE_COLUMNS = new SortableColumns<Attachment>("attachment")
+        .addNumeric("id", "id", Attachment::getId)
+        .add("fileName", "file_name", Attachment::getFileName)
+        .addNumeric("post", "post_id", attachment -> attachment.getPost() == null ? null : attachment.getPost().getId());
+
+    /**
+     * Columns of the {@link AttachmentMetadataDTO} projection, in the order they are read.
+     */
+    private static final String METADATA_COLUMNS = "attachment.id, attachment.file_name, attachment.content_content_type,"
+        + " attachment.content_size, attachment.checksum, attachment.post_id";
+
     private final AttachmentRepository attachmentRepository;
 
     private final AttachmentMapper attachmentMapper;
@@ -39,29 +56,31 @@ public class AttachmentQueryService extends QueryService<Attachment> {
     }
 
     /**
-     * Return a {@link List} of {@link AttachmentDTO} which matches the criteria from the database.
+     * Return a {@link List} of {@link AttachmentMetadataDTO} which matches the criteria from the database.
+     * The content of the attachments is not read.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the matching entities.
      */
     @ReadOnly
     @Transactional
-    public List<AttachmentDTO> findByCriteria(AttachmentCriteria criteria) {
+    public List<AttachmentMetadataDTO> findByCriteria(AttachmentCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        return attachmentMapper.toDto(getAttachmentByCriteria(criteria, null));
+        return getAttachmentByCriteria(criteria, null);
     }
 
     /**
-     * Return a {@link Page} of {@link AttachmentDTO} which matches the criteria from the database.
+     * Return a {@link Page} of {@link AttachmentMetadataDTO} which matches the criteria from the database.
+     * The content of the attachments is not read, so the memory used by a page doesn't depend on the file sizes.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @ReadOnly
     @Transactional
-    public Page<AttachmentDTO> findByCriteria(AttachmentCriteria criteria, Pageable page) {
+    public Page<AttachmentMetadataDTO> findByCriteria(AttachmentCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
-        List<Attachment> attachments = getAttachmentByCriteria(criteria, null);
-        return Page.of(attachments.stream().map(attachmentMapper::toDto).collect(Collectors.toList()), page, attachments.size());
+        List<AttachmentMetadataDTO> attachments = getAttachmentByCriteria(criteria, page);
+        return PageUtil.getPage(attachments, page, () -> countAttachmentByCriteria(criteria));
     }
 
     /**
@@ -73,30 +92,64 @@ public class AttachmentQueryService extends QueryService<Attachment> {
     @Transactional
     public long countByCriteria(AttachmentCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        return getAttachmentByCriteria(criteria, null).size();
+        return countAttachmentByCriteria(criteria);
+    }
+
+    /**
+     * Load the metadata of the page of {@link Attachment} matching the criteria, the paging itself is done by the
+     * database. Only the {@link #METADATA_COLUMNS} are selected, the {@code content} column is never read.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned, or {@code null} for all the matching entities.
+     * @return the matching entities.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<AttachmentMetadataDTO> getAttachmentByCriteria(AttachmentCriteria criteria, Pageable page) {
+        List<Object[]> rows = createQueryBuilder(criteria)
+            .orderBy(page == null ? Sort.unsorted() : page.getSort(), SORTABLE_COLUMNS)
+            .createProjectionQuery(entityManager, METADATA_COLUMNS, page)
+            .getResultList();
+        List<AttachmentMetadataDTO> attachments = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            AttachmentMetadataDTO attachment = new AttachmentMetadataDTO();
+            attachment.setId(toLong(row[0]));
+            attachment.setFileName((String) row[1]);
+            attachment.setContentContentType((String) row[2]);
+            attachment.setSize(toLong(row[3]));
+            attachment.setChecksum((String) row[4]);
+            attachment.setPostId(toLong(row[5]));
+            attachments.add(attachment);
+        }
+        return attachments;
+    }
+
+    /**
+     * Count the {@link Attachment} matching the criteria with a {@code SELECT COUNT(*)}, without loading them.
+     * This is used both by the count endpoint and for the total of a page.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    protected long countAttachmentByCriteria(AttachmentCriteria criteria) {
+        return createQueryBuilder(criteria).count(entityManager);
     }
 
-    protected List<Attachment> getAttachmentByCriteria(AttachmentCriteria criteria, Pageable page) {
-        StringBuilder specification = new StringBuilder("SELECT * FROM ATTACHMENT ");
+    /**
+     * Compile the criteria into a bind-parameterized query on the {@code attachment} table.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the query builder.
+     */
+    private CriteriaSqlBuilder createQueryBuilder(AttachmentCriteria criteria) {
+        CriteriaSqlBuilder builder = new CriteriaSqlBuilder("attachment");
         if (criteria != null) {
-            if (criteria.getPostId() != null) {
-                specification.append(" LEFT JOIN POST ON ATTACHMENT.post_id = POST.id ");
-                specification.append(" AND ATTACHMENT.post_id ="+ criteria.getPostId());
-            }else{
-                specification.append(" WHERE 1=1");
-            }
-
-            if (criteria.getId() != null) {
-                specification.append(" AND "+ Attachment_.id +"=" + criteria.getId());
-            }
-            if (criteria.getFileName() != null) {
-                specification.append(" AND "+ Attachment_.fileName +"=" + criteria.getFileName());
-            }
-            if(page != null){
-                specification.append(" limit="+ page.getSize());
-                specification.append(" offset="+ (page.getNumber() - 1) * page.getSize());
-            }
+            builder
+                .filter("id", criteria.getId())
+                .filter("file_name", criteria.getFileName())
+                .filter("post_id", criteria.getPostId());
         }
-        return entityManager.createNativeQuery(specification.toString(), Attachment.class).getResultList();
+        return builder;
+    }
+
+    private static Long toLong(Object value) {
+        // Native queries return the database's own numeric type for bigint columns
+        return value == null ? null : ((Number) value).longValue();
     }
 }
@@ -4,15 +4,27 @@ import com.springernature.sndeals.domain.Attachment;
 import com.springernature.sndeals.repository.AttachmentRepository;
 import com.springernature.sndeals.service.dto.AttachmentDTO;
 import com.springernature.sndeals.service.mapper.AttachmentMapper;
+import com.springernature.sndeals.service.storage.BlobStore;
+import com.springernature.sndeals.service.storage.StoredBlob;
+import org.hibernate.query.NativeQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import javax.inject.Singleton;
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import io.micronaut.transaction.annotation.ReadOnly;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,13 +40,24 @@ public class AttachmentService {
 
     private final AttachmentMapper attachmentMapper;
 
-    public AttachmentService(AttachmentRepository attachmentRepository, AttachmentMapper attachmentMapper) {
+    private final BlobStore blobStore;
+
+    private final EntityManager entityManager;
+
+    private final AttachmentDerivativeService attachmentDerivativeService;
+
+    public AttachmentService(AttachmentRepository attachmentRepository, AttachmentMapper attachmentMapper, BlobStore blobStore,
+                             EntityManager entityManager, AttachmentDerivativeService attachmentDerivativeService) {
         this.attachmentRepository = attachmentRepository;
         this.attachmentMapper = attachmentMapper;
+        this.blobStore = blobStore;
+        this.entityManager = entityManager;
+        this.attachmentDerivativeService = attachmentDerivativeService;
     }
 
     /**
-     * Save a attachment.
+     * Save a attachment, its content is written to the {@link BlobStore} and only its checksum is kept in the row.
+     * The derivatives of an image content are generated in the background.
      *
      * @param attachmentDTO the entity to save.
      * @return the persisted entity.
@@ -42,12 +65,32 @@ public class AttachmentService {
     public AttachmentDTO save(AttachmentDTO attachmentDTO) {
         log.debug("Request to save Attachment : {}", attachmentDTO);
         Attachment attachment = attachmentMapper.toEntity(attachmentDTO);
+        storeContent(attachment);
         attachment = attachmentRepository.save(attachment);
+        attachmentDerivativeService.schedule(attachment.getChecksum(), attachment.getContentContentType());
         return attachmentMapper.toDto(attachment);
     }
 
     /**
-     * Update a attachment.
+     * Save a attachment whose content was already written to the {@link BlobStore}, by a streaming upload.
+     *
+     * @param attachmentDTO the entity to save, without its content.
+     * @param blob the stored content.
+     * @return the persisted entity.
+     */
+    public AttachmentDTO save(AttachmentDTO attachmentDTO, StoredBlob blob) {
+        log.debug("Request to save Attachment : {} with blob {}", attachmentDTO, blob);
+        Attachment attachment = attachmentMapper.toEntity(attachmentDTO);
+        attachment.setChecksum(blob.getKey());
+        attachment.setSize(blob.getSize());
+        attachment = attachmentRepository.save(attachment);
+        attachmentDerivativeService.schedule(attachment.getChecksum(), attachment.getContentContentType());
+        return attachmentMapper.toDto(attachment);
+    }
+
+    /**
+     * Update a attachment. When the DTO has no content, the current content of the attachment is kept, and when it has
+     * no version the update overwrites the current state instead of being checked against it.
      *
      * @param attachmentDTO the entity to update.
      * @return the persisted entity.
@@ -55,8 +98,24 @@ public class AttachmentService {
     public AttachmentDTO update(AttachmentDTO attachmentDTO) {
         log.debug("Request to update Attachment : {}", attachmentDTO);
         Attachment attachment = attachmentMapper.toEntity(attachmentDTO);
-        attachment = attachmentRepository.update(attachment);
-        return attachmentMapper.toDto(attachment);
+        Optional<Attachment> existing = attachmentRepository.findById(attachmentDTO.getId());
+        if (attachment.getVersion() == null) {
+            attachment.setVersion(existing.map(Attachment::getVersion).orElse(null));
+        }
+        if (attachment.getContent() != null) {
+            storeContent(attachment);
+        } else {
+            existing.ifPresent(current -> {
+                attachment.setSize(current.getSize());
+                attachment.setChecksum(current.getChecksum());
+            });
+        }
+        Attachment result = attachmentRepository.update(attachment);
+        attachmentRepository.flush();
+        if (attachment.getContent() != null) {
+            attachmentDerivativeService.schedule(result.getChecksum(), result.getContentContentType());
+        }
+        return attachmentMapper.toDto(result);
     }
 
     /**
@@ -84,12 +143,31 @@ public class AttachmentService {
     @Transactional
     public Optional<AttachmentDTO> findOne(Long id) {
         log.debug("Request to get Attachment : {}", id);
+        return attachmentRepository.findById(id)
+            .map(attachment -> {
+                AttachmentDTO attachmentDTO = attachmentMapper.toDto(attachment);
+                attachmentDTO.setContent(readContent(attachment.getChecksum()));
+                return attachmentDTO;
+            });
+    }
+
+    /**
+     * Get one attachment by id, without reading its content.
+     *
+     * @param id the id of the entity.
+     * @return the entity, whose content can be read from the {@link BlobStore} with its checksum.
+     */
+    @ReadOnly
+    @Transactional
+    public Optional<AttachmentDTO> findMetadata(Long id) {
+        log.debug("Request to get the metadata of Attachment : {}", id);
         return attachmentRepository.findById(id)
             .map(attachmentMapper::toDto);
     }
 
     /**
-     * Delete the attachment by id.
+     * Delete the attachment by id. Its content may be shared, it is left in the {@link BlobStore} for the
+     * {@link AttachmentContentCollectionJob}.
      *
      * @param id the id of the entity.
      */
@@ -97,4 +175,78 @@ public class AttachmentService {
         log.debug("Request to delete Attachment : {}", id);
         attachmentRepository.deleteById(id);
     }
+
+    /**
+     * Move the content of a batch of attachments still stored in the {@code attachment.content} column to the
+     * {@link BlobStore}. The rows are read one at a time, so only one content is held in memory.
+     *
+     * @param batchSize the maximum number of attachments to migrate.
+     * @return the number of migrated attachments, lower than the batch size when there is nothing left to migrate.
+     */
+    @SuppressWarnings("unchecked")
+    public int migrateContent(int batchSize) {
+        List<Number> ids = entityManager.createNativeQuery("SELECT id FROM attachment WHERE content IS NOT NULL ORDER BY id")
+            .setMaxResults(batchSize)
+            .getResultList();
+        for (Number id : ids) {
+            Object content = entityManager.createNativeQuery("SELECT content FROM attachment WHERE id = :id")
+                .setParameter("id", id)
+                .getSingleResult();
+            StoredBlob blob;
+            try (InputStream in = toInputStream(content)) {
+                blob = blobStore.put(in);
+            } catch (IOException | SQLException e) {
+                throw new IllegalStateException("Could not migrate the content of Attachment " + id, e);
+            }
+            // Without its query space, a native update would invalidate every region of the second level cache
+            entityManager.createNativeQuery("UPDATE attachment SET checksum = :checksum, content_size = :size, content = NULL WHERE id = :id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Attachment.class)
+                .setParameter("checksum", blob.getKey())
+                .setParameter("size", blob.getSize())
+                .setParameter("id", id)
+                .executeUpdate();
+            log.debug("Migrated the content of Attachment {} to blob {}", id, blob.getKey());
+        }
+        return ids.size();
+    }
+
+    private void storeContent(Attachment attachment) {
+        if (attachment.getContent() == null) {
+            attachment.setSize(null);
+            attachment.setChecksum(null);
+            return;
+        }
+        try {
+            StoredBlob blob = blobStore.put(new ByteArrayInputStream(attachment.getContent()));
+            attachment.setSize(blob.getSize());
+            attachment.setChecksum(blob.getKey());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store the content of " + attachment.getFileName(), e);
+        }
+    }
+
+    private byte[] readContent(String checksum) {
+        if (checksum == null) {
+            return null;
+        }
+        try (InputStream in = blobStore.open(checksum)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read blob " + checksum, e);
+        }
+    }
+
+    private static InputStream toInputStream(Object content) throws SQLException {
+        if (content instanceof Blob) {
+            return ((Blob) content).getBinaryStream();
+        }
+        return new ByteArrayInputStream((byte[]) content);
+    }
 }
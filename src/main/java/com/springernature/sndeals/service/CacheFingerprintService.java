@@ -0,0 +1,64 @@
+package com.springernature.sndeals.service;
+
+import com.springernature.sndeals.domain.Category;
+import com.springernature.sndeals.domain.Post;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import io.micronaut.transaction.annotation.ReadOnly;
+
+import javax.inject.Singleton;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service computing a fingerprint of the cached data, which changes whenever the data is written.
+ * <p>
+ * The fingerprint of a table is its row count, its highest id and the sum of the versions of its rows: an insert
+ * changes the count, an update increments a version, and a delete lowers the count. Only the tables of versioned
+ * entities have a fingerprint.
+ */
+@Singleton
+@ReadOnly
+@Transactional
+public class CacheFingerprintService {
+
+    private static final Map<String, Class<?>> ENTITIES = new HashMap<>();
+
+    static {
+        ENTITIES.put(CacheInvalidationService.CATEGORIES, Category.class);
+        ENTITIES.put(CacheInvalidationService.POSTS, Post.class);
+    }
+
+    private final EntityManager entityManager;
+
+    public CacheFingerprintService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param name the name of the cached data, one of the constants of {@link CacheInvalidationService}.
+     * @return the fingerprint of the data, or nothing if it has none.
+     */
+    @ReadOnly
+    @Transactional
+    public Optional<String> getFingerprint(String name) {
+        Class<?> entity = ENTITIES.get(name);
+        if (entity == null) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) entityManager
+            .createQuery("select count(e), max(e.id), sum(e.version) from " + entity.getName() + " e")
+            .getSingleResult();
+        return Optional.of(Arrays.toString(row));
+    }
+
+    /**
+     * @return the names of the cached data which have a fingerprint.
+     */
+    public Iterable<String> getNames() {
+        return ENTITIES.keySet();
+    }
+}
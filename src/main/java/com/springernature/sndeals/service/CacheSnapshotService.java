@@ -0,0 +1,179 @@
+package com.springernature.sndeals.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.service.cache.SnapshotCache;
+import com.springernature.sndeals.service.dto.CategoryDTO;
+import com.springernature.sndeals.service.dto.PostDTO;
+import com.springernature.sndeals.util.ETagUtil;
+import io.micronaut.context.event.ShutdownEvent;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Service keeping the {@link SnapshotCache}s warm across restarts.
+ * <p>
+ * On a graceful shutdown the current entries of the caches are written to the {@code application.cache-snapshot.file},
+ * with a {@link CacheFingerprintService fingerprint} of the data they are built from. On startup, before the server
+ * accepts requests, the entries are imported again if none of this data was written while the node was stopped, by
+ * this node or any other. A snapshot written by a build whose cached DTOs have other fields is ignored.
+ */
+@Singleton
+public class CacheSnapshotService {
+
+    /**
+     * To be incremented when the content of the cached entries changes without a change of their fields.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final List<Class<?>> CACHED_TYPES = Arrays.asList(CategoryDTO.class, PostDTO.class);
+
+    private final Logger log = LoggerFactory.getLogger(CacheSnapshotService.class);
+
+    private final List<SnapshotCache<?>> snapshotCaches;
+
+    private final CacheFingerprintService cacheFingerprintService;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final Path file;
+
+    public CacheSnapshotService(List<SnapshotCache<?>> snapshotCaches, CacheFingerprintService cacheFingerprintService,
+                                ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.snapshotCaches = snapshotCaches;
+        this.cacheFingerprintService = cacheFingerprintService;
+        this.objectMapper = objectMapper;
+        this.enabled = applicationProperties.getCacheSnapshot().isEnabled();
+        this.file = Paths.get(applicationProperties.getCacheSnapshot().getFile());
+    }
+
+    /**
+     * Import the snapshot of the last run, if any.
+     */
+    @EventListener
+    public void restore(StartupEvent event) {
+        if (enabled && Files.exists(file)) {
+            restore();
+        }
+    }
+
+    /**
+     * Write the snapshot of the caches. The fingerprints are computed before the entries are exported: data written
+     * in between has another fingerprint on the next start, and the entries built from it are dropped.
+     */
+    @EventListener
+    public void save(ShutdownEvent event) {
+        if (enabled) {
+            save();
+        }
+    }
+
+    void restore() {
+        try {
+            JsonNode snapshot = objectMapper.readTree(file.toFile());
+            if (!getFormat().equals(snapshot.path("format").asText())) {
+                log.info("Ignored the cache snapshot {}, written by another version of the application", file);
+                return;
+            }
+            Set<String> unchanged = new HashSet<>();
+            getFingerprints().forEach((name, fingerprint) -> {
+                if (fingerprint.equals(snapshot.path("fingerprints").path(name).asText(null))) {
+                    unchanged.add(name);
+                }
+            });
+            log.debug("Data unchanged since the cache snapshot: {}", unchanged);
+            for (SnapshotCache<?> snapshotCache : snapshotCaches) {
+                JsonNode entries = snapshot.path("caches").path(snapshotCache.getSnapshotName());
+                if (entries.isArray()) {
+                    try {
+                        importEntries(snapshotCache, entries, unchanged);
+                    } catch (RuntimeException e) {
+                        log.warn("Could not import the {} cache snapshot: {}", snapshotCache.getSnapshotName(), e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read the cache snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    void save() {
+        try {
+            ObjectNode snapshot = objectMapper.createObjectNode();
+            snapshot.put("format", getFormat());
+            snapshot.set("fingerprints", objectMapper.valueToTree(getFingerprints()));
+            ObjectNode caches = snapshot.putObject("caches");
+            for (SnapshotCache<?> snapshotCache : snapshotCaches) {
+                caches.set(snapshotCache.getSnapshotName(), objectMapper.valueToTree(snapshotCache.exportEntries()));
+            }
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // A snapshot cut short by a crash must not replace the last complete one
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writeValue(temporary.toFile(), snapshot);
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+            log.info("Wrote the cache snapshot {}", file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write the cache snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    private <T> void importEntries(SnapshotCache<T> snapshotCache, JsonNode entries, Set<String> unchanged) {
+        List<T> values = objectMapper.convertValue(entries,
+            objectMapper.getTypeFactory().constructCollectionType(List.class, snapshotCache.getEntryType()));
+        snapshotCache.importEntries(values, unchanged);
+        log.debug("Imported the {} cache snapshot, {} entries", snapshotCache.getSnapshotName(), values.size());
+    }
+
+    private Map<String, String> getFingerprints() {
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        for (String name : cacheFingerprintService.getNames()) {
+            Optional<String> fingerprint = cacheFingerprintService.getFingerprint(name);
+            fingerprint.ifPresent(value -> fingerprints.put(name, value));
+        }
+        return fingerprints;
+    }
+
+    /**
+     * @return the version of the snapshot format and the fields of the cached DTOs.
+     */
+    static String getFormat() {
+        StringBuilder format = new StringBuilder().append(FORMAT_VERSION);
+        for (Class<?> type : CACHED_TYPES) {
+            format.append(';').append(type.getName());
+            Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .sorted(Comparator.comparing(Field::getName))
+                .forEach(field -> format.append(',').append(field.getName()).append(':').append(field.getGenericType().getTypeName()));
+        }
+        return ETagUtil.fromContent(format.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,159 @@
+package com.springernature.sndeals.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springernature.sndeals.domain.Category;
+import com.springernature.sndeals.repository.CategoryRepository;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import com.springernature.sndeals.service.cache.NearCache;
+import com.springernature.sndeals.service.cache.SnapshotCache;
+import com.springernature.sndeals.service.dto.CategoryDTO;
+import com.springernature.sndeals.service.mapper.CategoryMapper;
+import com.springernature.sndeals.util.JHipsterProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.runtime.event.annotation.EventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache of the {@link Category} entities, by id and as a full list.
+ * <p>
+ * Categories are read for every listed post and almost never change, so they are kept in memory for
+ * {@code jhipster.cache.caffeine.time-to-live-seconds}. {@link CategoryService} invalidates them on every node
+ * through the {@link CacheInvalidationService} when a category is written. The cached DTOs are shared and must not
+ * be modified. The full list is kept in the cache snapshot across restarts.
+ */
+@Singleton
+public class CategoryCache implements NearCache, SnapshotCache<CategoryDTO> {
+
+    public static final String CATEGORIES_BY_ID = "categoriesById";
+
+    public static final String ALL_CATEGORIES = "allCategories";
+
+    private static final Boolean ALL_KEY = Boolean.TRUE;
+
+    private final Logger log = LoggerFactory.getLogger(CategoryCache.class);
+
+    private final CategoryRepository categoryRepository;
+
+    private final CategoryMapper categoryMapper;
+
+    private final Cache<Long, CategoryDTO> categoriesById;
+
+    private final Cache<Boolean, List<CategoryDTO>> allCategories;
+
+    public CategoryCache(CategoryRepository categoryRepository, CategoryMapper categoryMapper, JHipsterProperties jHipsterProperties,
+                         MeterRegistry meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        this.categoryMapper = categoryMapper;
+        JHipsterProperties.Cache.Caffeine caffeine = jHipsterProperties.getCache().getCaffeine();
+        this.categoriesById = Caffeine.newBuilder()
+            .maximumSize(caffeine.getMaxEntries())
+            .expireAfterWrite(caffeine.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+        this.allCategories = Caffeine.newBuilder()
+            .maximumSize(1)
+            .expireAfterWrite(caffeine.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+        // The "name" tag groups the meters of a cache in the jhimetrics endpoint
+        CaffeineCacheMetrics.monitor(meterRegistry, categoriesById, CATEGORIES_BY_ID, "name", CATEGORIES_BY_ID);
+        CaffeineCacheMetrics.monitor(meterRegistry, allCategories, ALL_CATEGORIES, "name", ALL_CATEGORIES);
+    }
+
+    /**
+     * @param id the id of the category.
+     * @return the category, loaded from the database on a cache miss.
+     */
+    public Optional<CategoryDTO> get(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        // An unknown id is not cached, the loader returns null
+        return Optional.ofNullable(categoriesById.get(id, key -> categoryRepository.findById(key).map(categoryMapper::toDto).orElse(null)));
+    }
+
+    /**
+     * @return all the categories, in id order, loaded from the database on a cache miss.
+     */
+    public List<CategoryDTO> getAll() {
+        return allCategories.get(ALL_KEY, key -> cacheAll(categoryMapper.toDto(categoryRepository.findAll())));
+    }
+
+    private List<CategoryDTO> cacheAll(List<CategoryDTO> categories) {
+        categories.sort((first, second) -> first.getId().compareTo(second.getId()));
+        categories.forEach(category -> categoriesById.put(category.getId(), category));
+        return Collections.unmodifiableList(categories);
+    }
+
+    @Override
+    public String getName() {
+        return CacheInvalidationService.CATEGORIES;
+    }
+
+    /**
+     * Invalidate a written category, and the list of all the categories.
+     *
+     * @param key the id of the written category, {@code null} to invalidate all the categories.
+     */
+    @Override
+    public void invalidate(@Nullable Serializable key) {
+        if (key == null) {
+            categoriesById.invalidateAll();
+        } else {
+            categoriesById.invalidate(key);
+        }
+        allCategories.invalidateAll();
+    }
+
+    @Override
+    public String getSnapshotName() {
+        return ALL_CATEGORIES;
+    }
+
+    @Override
+    public Class<CategoryDTO> getEntryType() {
+        return CategoryDTO.class;
+    }
+
+    /**
+     * @return all the categories if they are cached, nothing otherwise.
+     */
+    @Override
+    public List<CategoryDTO> exportEntries() {
+        List<CategoryDTO> categories = allCategories.getIfPresent(ALL_KEY);
+        return categories == null ? Collections.emptyList() : categories;
+    }
+
+    @Override
+    public void importEntries(List<CategoryDTO> entries, Set<String> unchanged) {
+        if (!entries.isEmpty() && unchanged.contains(CacheInvalidationService.CATEGORIES)) {
+            allCategories.put(ALL_KEY, cacheAll(new ArrayList<>(entries)));
+        }
+    }
+
+    /**
+     * Load all the categories at startup, so the first requests don't have to.
+     */
+    @EventListener
+    public void warmUp(StartupEvent event) {
+        try {
+            log.debug("Warmed the category cache with {} categories", getAll().size());
+        } catch (RuntimeException e) {
+            log.warn("Could not warm the category cache: {}", e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.springernature.sndeals.service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 
@@ -9,16 +10,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.micronaut.transaction.annotation.ReadOnly;
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
 
 import com.springernature.sndeals.domain.Category;
-import com.springernature.sndeals.domain.*; // for static metamodels
 import com.springernature.sndeals.repository.CategoryRepository;
 import com.springernature.sndeals.service.dto.CategoryCriteria;
 import com.springernature.sndeals.service.dto.CategoryDTO;
 import com.springernature.sndeals.service.mapper.CategoryMapper;
+import com.springernature.sndeals.service.util.CriteriaSqlBuilder;
+import com.springernature.sndeals.service.util.PageUtil;
+import com.springernature.sndeals.service.util.SortableColumns;
 
 @Singleton
 @ReadOnly
@@ -27,16 +31,28 @@ public class CategoryQueryService{
 
     private final Logger log = LoggerFactory.getLogger(CategoryQueryService.class);
 
+    /**
+     * Properties the {@link Category} can be sorted by, each backed by a {@code (column, id)} index.
+     */
+    private static final SortableColumns<Category> SORTABLE_COLUMNS = new SortableColumns<Category>("category")
+        .addNumeric("id", "id", Category::getId)
+        .add("internalId", "internal_id", Category::getInternalId)
+        .add("displayName", "display_name", Category::getDisplayName);
+
     private final CategoryRepository categoryRepository;
 
     private final CategoryMapper categoryMapper;
 
     private final EntityManager entityManager;
 
-    public CategoryQueryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, EntityManager entityManager) {
+    private final CategoryCache categoryCache;
+
+    public CategoryQueryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, EntityManager entityManager,
+                                CategoryCache categoryCache) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
         this.entityManager = entityManager;
+        this.categoryCache = categoryCache;
     }
 
     /**
@@ -48,6 +64,9 @@ public class CategoryQueryService{
     @Transactional
     public List<CategoryDTO> findByCriteria(CategoryCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
+        if (isUnfiltered(criteria)) {
+            return categoryCache.getAll();
+        }
         return categoryMapper.toDto(getCategoryByCriteria(criteria, null));
     }
 
@@ -61,8 +80,11 @@ public class CategoryQueryService{
     @Transactional
     public Page<CategoryDTO> findByCriteria(CategoryCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
-        List<Category> categories = getCategoryByCriteria(criteria, page);
-        return Page.of(categories.stream().map(categoryMapper::toDto).collect(Collectors.toList()), page, categories.size());
+        if (isUnfiltered(criteria)) {
+            return getCachedPage(page);
+        }
+        List<CategoryDTO> categories = categoryMapper.toDto(getCategoryByCriteria(criteria, page));
+        return PageUtil.getPage(categories, page, () -> countCategoryByCriteria(criteria));
     }
 
     /**
@@ -74,26 +96,98 @@ public class CategoryQueryService{
     @Transactional
     public long countByCriteria(CategoryCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        return getCategoryByCriteria(criteria, null).size();
+        if (isUnfiltered(criteria)) {
+            return categoryCache.getAll().size();
+        }
+        return countCategoryByCriteria(criteria);
     }
 
+    /**
+     * Load the page of {@link Category} matching the criteria, the paging itself is done by the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned, or {@code null} for all the matching entities.
+     * @return the matching entities.
+     */
+    @SuppressWarnings("unchecked")
     protected List<Category> getCategoryByCriteria(CategoryCriteria criteria, Pageable page) {
-        StringBuilder specification = new StringBuilder("SELECT * FROM CATEGORY WHERE 1=1");
-        if (criteria != null) {
-            if (criteria.getId() != null) {
-                specification.append(" AND "+ Category_.ID +"=" + criteria.getId());
-            }
-            if (criteria.getInternalId() != null) {
-                specification.append(" AND "+ Category_.internalId +"=" + criteria.getInternalId());
-            }
-            if (criteria.getDisplayName() != null) {
-                specification.append(" AND "+ Category_.displayName +"=" + criteria.getDisplayName());
-            }
-            if(page != null){
-                specification.append(" limit="+ page.getSize());
-                specification.append(" offset="+ (page.getNumber() - 1) * page.getSize());
+        return createQueryBuilder(criteria)
+            .orderBy(page == null ? Sort.unsorted() : page.getSort(), SORTABLE_COLUMNS)
+            .createQuery(entityManager, Category.class, page)
+            .getResultList();
+    }
+
+    /**
+     * Count the {@link Category} matching the criteria with a {@code SELECT COUNT(*)}, without loading them.
+     * This is used both by the count endpoint and for the total of a page.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    protected long countCategoryByCriteria(CategoryCriteria criteria) {
+        return createQueryBuilder(criteria).count(entityManager);
+    }
+
+    /**
+     * Sort and page all the categories of the {@link CategoryCache} in memory, in the order the database would
+     * return them: by the requested properties, then by id.
+     * @param page The page, which should be returned, or {@code null} for all the categories.
+     * @return the page of categories.
+     */
+    private Page<CategoryDTO> getCachedPage(Pageable page) {
+        Pageable pageable = page == null ? Pageable.UNPAGED : page;
+        Comparator<CategoryDTO> comparator = null;
+        for (Sort.Order order : pageable.getSort().getOrderBy()) {
+            // Rejects the properties which can't be sorted by, as a query would
+            SORTABLE_COLUMNS.getColumn(order.getProperty());
+            Comparator<CategoryDTO> orderComparator = getComparator(order.getProperty());
+            if (!order.isAscending()) {
+                orderComparator = orderComparator.reversed();
             }
+            comparator = comparator == null ? orderComparator : comparator.thenComparing(orderComparator);
+        }
+        Comparator<CategoryDTO> byId = Comparator.comparing(CategoryDTO::getId);
+        comparator = comparator == null ? byId : comparator.thenComparing(byId);
+        List<CategoryDTO> categories = new ArrayList<>(categoryCache.getAll());
+        categories.sort(comparator);
+        if (pageable.isUnpaged()) {
+            return Page.of(categories, pageable, categories.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), categories.size());
+        int to = Math.min(from + pageable.getSize(), categories.size());
+        return Page.of(new ArrayList<>(categories.subList(from, to)), pageable, categories.size());
+    }
+
+    /**
+     * The nulls of the nullable columns sort last in ascending order and first in descending order, as in the database.
+     */
+    private static Comparator<CategoryDTO> getComparator(String property) {
+        switch (property) {
+            case "internalId":
+                return Comparator.comparing(CategoryDTO::getInternalId, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "displayName":
+                return Comparator.comparing(CategoryDTO::getDisplayName, Comparator.nullsLast(Comparator.naturalOrder()));
+            default:
+                return Comparator.comparing(CategoryDTO::getId);
+        }
+    }
+
+    private static boolean isUnfiltered(CategoryCriteria criteria) {
+        return criteria == null
+            || (criteria.getId() == null && criteria.getInternalId() == null && criteria.getDisplayName() == null);
+    }
+
+    /**
+     * Compile the criteria into a bind-parameterized query on the {@code category} table.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the query builder.
+     */
+    private CriteriaSqlBuilder createQueryBuilder(CategoryCriteria criteria) {
+        CriteriaSqlBuilder builder = new CriteriaSqlBuilder("category");
+        if (criteria != null) {
+            builder
+                .filter("id", criteria.getId())
+                .filter("internal_id", criteria.getInternalId())
+                .filter("display_name", criteria.getDisplayName());
         }
-        return entityManager.createNativeQuery(specification.toString(), Category.class).getResultList();
+        return builder;
     }
 }
@@ -2,8 +2,10 @@ package com.springernature.sndeals.service;
 
 import com.springernature.sndeals.domain.Category;
 import com.springernature.sndeals.repository.CategoryRepository;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
 import com.springernature.sndeals.service.dto.CategoryDTO;
 import com.springernature.sndeals.service.mapper.CategoryMapper;
+import com.springernature.sndeals.util.ETagUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,9 +30,16 @@ public class CategoryService {
 
     private final CategoryMapper categoryMapper;
 
-    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    private final CategoryCache categoryCache;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, CategoryCache categoryCache,
+                           CacheInvalidationService cacheInvalidationService) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.categoryCache = categoryCache;
+        this.cacheInvalidationService = cacheInvalidationService;
     }
 
     /**
@@ -43,11 +52,13 @@ public class CategoryService {
         log.debug("Request to save Category : {}", categoryDTO);
         Category category = categoryMapper.toEntity(categoryDTO);
         category = categoryRepository.save(category);
+        cacheInvalidationService.invalidate(CacheInvalidationService.CATEGORIES, category.getId());
         return categoryMapper.toDto(category);
     }
 
     /**
-     * Update a category.
+     * Update a category. The update is rejected with an {@link javax.persistence.OptimisticLockException} if the
+     * category was modified since the version of the DTO, a DTO without version overwrites the current state.
      *
      * @param categoryDTO the entity to update.
      * @return the persisted entity.
@@ -55,7 +66,12 @@ public class CategoryService {
     public CategoryDTO update(CategoryDTO categoryDTO) {
         log.debug("Request to update Category : {}", categoryDTO);
         Category category = categoryMapper.toEntity(categoryDTO);
+        if (category.getVersion() == null) {
+            category.setVersion(categoryRepository.findById(category.getId()).map(Category::getVersion).orElse(null));
+        }
         category = categoryRepository.update(category);
+        categoryRepository.flush();
+        cacheInvalidationService.invalidate(CacheInvalidationService.CATEGORIES, category.getId());
         return categoryMapper.toDto(category);
     }
 
@@ -75,7 +91,7 @@ public class CategoryService {
 
 
     /**
-     * Get one category by id.
+     * Get one category by id, from the {@link CategoryCache}.
      *
      * @param id the id of the entity.
      * @return the entity.
@@ -84,8 +100,15 @@ public class CategoryService {
     @Transactional
     public Optional<CategoryDTO> findOne(Long id) {
         log.debug("Request to get Category : {}", id);
-        return categoryRepository.findById(id)
-            .map(categoryMapper::toDto);
+        return categoryCache.get(id);
+    }
+
+    /**
+     * @param categoryDTO the category.
+     * @return the quoted entity tag of the category, derived from its version.
+     */
+    public String getETag(CategoryDTO categoryDTO) {
+        return ETagUtil.fromVersions(categoryDTO.getVersion());
     }
 
     /**
@@ -96,5 +119,6 @@ public class CategoryService {
     public void delete(Long id) {
         log.debug("Request to delete Category : {}", id);
         categoryRepository.deleteById(id);
+        cacheInvalidationService.invalidate(CacheInvalidationService.CATEGORIES, id);
     }
 }
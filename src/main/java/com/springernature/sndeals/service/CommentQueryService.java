@@ -1,14 +1,19 @@
 package com.springernature.sndeals.service;
 
 import com.springernature.sndeals.domain.Comment;
-import com.springernature.sndeals.domain.Comment_;
 import com.springernature.sndeals.repository.CommentRepository;
 import com.springernature.sndeals.service.dto.CommentCriteria;
 import com.springernature.sndeals.service.dto.CommentDTO;
 import com.springernature.sndeals.service.mapper.CommentMapper;
+import com.springernature.sndeals.service.util.CriteriaSqlBuilder;
+import com.springernature.sndeals.service.util.KeysetCursor;
+import com.springernature.sndeals.service.util.KeysetPage;
+import com.springernature.sndeals.service.util.PageUtil;
+import com.springernature.sndeals.service.util.SortableColumns;
 import io.github.jhipster.service.QueryService;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.micronaut.transaction.annotation.ReadOnly;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +22,6 @@ import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Singleton
 @ReadOnly
@@ -26,6 +30,14 @@ public class CommentQueryService extends QueryService<Comment> {
 
     private final Logger log = LoggerFactory.getLogger(CommentQueryService.class);
 
+    /**
+     * Properties the {@link Comment} can be sorted by, each backed by a {@code (column, id)} index.
+     */
+    private static final SortableColumns<Comment> SORTABLE_COLUMNS = new SortableColumns<Comment>("comment")
+        .addNumeric("id", "id", Comment::getId)
+        .add("comment", "comment", Comment::getComment)
+        .addNumeric("post", "post_id", comment -> comment.getPost().getId());
+
     private final CommentRepository commentRepository;
 
     private final CommentMapper commentMapper;
@@ -60,8 +72,43 @@ public class CommentQueryService extends QueryService<Comment> {
     @Transactional
     public Page<CommentDTO> findByCriteria(CommentCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
-        List<Comment> comments = getCommentsByCriteria(criteria, null);
-        return Page.of(comments.stream().map(commentMapper::toDto).collect(Collectors.toList()), page, comments.size());
+        List<CommentDTO> comments = commentMapper.toDto(getCommentsByCriteria(criteria, page));
+        return PageUtil.getPage(comments, page, () -> countCommentsByCriteria(criteria));
+    }
+
+    /**
+     * Return a page of {@link CommentDTO} which matches the criteria from the database, using keyset pagination.
+     * <p>
+     * The page seeks past the (sort value, id) tuple of the cursor on an index, so reading any page costs
+     * the same as reading the first one.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the last element of the previous page, or {@code null} for the first page.
+     * @param page The size and the sort of the page, only a single sort property is supported.
+     * @param withCount Whether the total number of matching entities should also be counted.
+     * @return the matching entities, with the cursor of the next page.
+     */
+    @SuppressWarnings("unchecked")
+    @ReadOnly
+    @Transactional
+    public KeysetPage<CommentDTO> findByCriteriaAfter(CommentCriteria criteria, KeysetCursor after, Pageable page, boolean withCount) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        Sort.Order order = SORTABLE_COLUMNS.getKeysetOrder(page.getSort());
+        boolean descending = order.getDirection() == Sort.Order.Direction.DESC;
+        CriteriaSqlBuilder builder = createQueryBuilder(criteria).orderBy(Sort.of(order), SORTABLE_COLUMNS);
+        if (after != null) {
+            Object sortValue = SORTABLE_COLUMNS.getCursorValue(after, order);
+            builder.seek(SORTABLE_COLUMNS.getColumn(order.getProperty()), sortValue, after.getId(), descending);
+        }
+        // Read one more row than requested to know whether there is a next page
+        int size = page.getSize();
+        List<Comment> comments = builder.createQuery(entityManager, Comment.class, Pageable.from(0, size + 1)).getResultList();
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            Comment last = comments.get(size - 1);
+            nextCursor = new KeysetCursor(order.getProperty(), SORTABLE_COLUMNS.getValue(order.getProperty(), last), last.getId()).encode();
+        }
+        return new KeysetPage<>(commentMapper.toDto(comments), nextCursor, withCount ? countCommentsByCriteria(criteria) : null);
     }
 
     /**
@@ -73,32 +120,46 @@ public class CommentQueryService extends QueryService<Comment> {
     @Transactional
     public long countByCriteria(CommentCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        return getCommentsByCriteria(criteria,null).size();
+        return countCommentsByCriteria(criteria);
     }
 
+    /**
+     * Load the page of {@link Comment} matching the criteria, the paging itself is done by the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned, or {@code null} for all the matching entities.
+     * @return the matching entities.
+     */
+    @SuppressWarnings("unchecked")
     protected List<Comment> getCommentsByCriteria(CommentCriteria criteria, Pageable page) {
-        StringBuilder specification = new StringBuilder("SELECT * FROM COMMENT ");
-        if (criteria != null) {
-            if (criteria.getPostId() != null) {
-                specification.append("LEFT JOIN POST ON COMMENT.POST_ID = POST.ID ");
-                specification.append(" WHERE COMMENT.POST_ID ="+ criteria.getPostId());
-//                specification = specification.and(buildSpecification(criteria.getPostId(),
-//                    root -> root.join(Comment_.post, JoinType.LEFT).get(Post_.id)));
-            }else{
-                specification.append("WHERE 1=1 ");
-            }
-            if (criteria.getId() != null) {
-                specification.append(" AND "+ Comment_.ID +"=" + criteria.getId());
-            }
-            if (criteria.getComment() != null) {
-                specification.append(" AND "+ Comment_.comment +"=" + criteria.getComment());
-            }
-            if(page != null){
-                specification.append(" limit="+ page.getSize());
-                specification.append(" offset="+ (page.getNumber() - 1) * page.getSize());
-            }
+        return createQueryBuilder(criteria)
+            .orderBy(page == null ? Sort.unsorted() : page.getSort(), SORTABLE_COLUMNS)
+            .createQuery(entityManager, Comment.class, page)
+            .getResultList();
+    }
+
+    /**
+     * Count the {@link Comment} matching the criteria with a {@code SELECT COUNT(*)}, without loading them.
+     * This is used both by the count endpoint and for the total of a page.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    protected long countCommentsByCriteria(CommentCriteria criteria) {
+        return createQueryBuilder(criteria).count(entityManager);
+    }
 
+    /**
+     * Compile the criteria into a bind-parameterized query on the {@code comment} table.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the query builder.
+     */
+    private CriteriaSqlBuilder createQueryBuilder(CommentCriteria criteria) {
+        CriteriaSqlBuilder builder = new CriteriaSqlBuilder("comment");
+        if (criteria != null) {
+            builder
+                .filter("id", criteria.getId())
+                .filter("comment", criteria.getComment())
+                .filter("post_id", criteria.getPostId());
         }
-        return entityManager.createNativeQuery(specification.toString(), Comment.class).getResultList();
+        return builder;
     }
 }
@@ -47,7 +47,8 @@ public class CommentService {
     }
 
     /**
-     * Update a comment.
+     * Update a comment, from the version of the DTO when it has one: a stale version fails with an
+     * {@link javax.persistence.OptimisticLockException}.
      *
      * @param commentDTO the entity to update.
      * @return the persisted entity.
@@ -55,7 +56,11 @@ public class CommentService {
     public CommentDTO update(CommentDTO commentDTO) {
         log.debug("Request to update Comment : {}", commentDTO);
         Comment comment = commentMapper.toEntity(commentDTO);
+        if (comment.getVersion() == null) {
+            comment.setVersion(commentRepository.findById(comment.getId()).map(Comment::getVersion).orElse(null));
+        }
         comment = commentRepository.update(comment);
+        commentRepository.flush();
         return commentMapper.toDto(comment);
     }
 
@@ -0,0 +1,381 @@
+package com.springernature.sndeals.service;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.domain.Post;
+import com.springernature.sndeals.repository.PostRepository;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import com.springernature.sndeals.service.cache.NearCache;
+import com.springernature.sndeals.service.dto.CategoryDTO;
+import com.springernature.sndeals.service.dto.PostCardDTO;
+import com.springernature.sndeals.service.storage.MappedRecordStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.runtime.event.annotation.EventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read store of the {@link PostCardDTO}s, kept off-heap so that the heap doesn't grow with the number of posts.
+ * <p>
+ * When {@code application.post-card-store.enabled}, the cards of all the posts are loaded at startup into a
+ * {@link MappedRecordStore}, and the list and by-id reads of the cards are served from it without querying the
+ * database. The display name of the category is resolved from the {@link CategoryCache} when a card is read, so a
+ * renamed category is seen right away; it is resolved once the card is copied out of the store, as the cache may
+ * query the database. Otherwise, or if the store can't hold the cards, they are read from the database.
+ * <p>
+ * The store follows the writes of {@link PostService} on every node through the {@link CacheInvalidationService}:
+ * a written post is read again from the database by the next read of the store, after the commit. When all the
+ * posts were written, the cards are loaded into a new store, and the previous cards are read until it replaces them.
+ */
+@Singleton
+public class PostCardStore implements NearCache {
+
+    private static final String ID = "id";
+
+    private static final long NO_CATEGORY = -1L;
+
+    private final Logger log = LoggerFactory.getLogger(PostCardStore.class);
+
+    private final PostRepository postRepository;
+
+    private final CategoryCache categoryCache;
+
+    private final ApplicationProperties.PostCardStore properties;
+
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean allStale = new AtomicBoolean();
+
+    private final Lock refreshLock = new ReentrantLock();
+
+    private volatile boolean loading;
+
+    private volatile boolean reloading;
+
+    private volatile MappedRecordStore store;
+
+    public PostCardStore(PostRepository postRepository, CategoryCache categoryCache, ApplicationProperties applicationProperties,
+                         MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.categoryCache = categoryCache;
+        this.properties = applicationProperties.getPostCardStore();
+        Gauge.builder("post.cards.stored", this, postCardStore -> postCardStore.store == null ? 0 : postCardStore.store.size())
+            .description("Number of post cards held by the off-heap store")
+            .register(meterRegistry);
+        Gauge.builder("post.cards.mapped", this, postCardStore -> postCardStore.store == null ? 0 : postCardStore.store.getMappedBytes())
+            .description("Size of the memory-mapped file of the post cards")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Load the cards of all the posts at startup.
+     */
+    @EventListener
+    public void load(StartupEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        MappedRecordStore loading = null;
+        // The posts written while they are loaded are read again by the first read of the store
+        this.loading = true;
+        try {
+            loading = new MappedRecordStore(Paths.get(properties.getFile()), properties.getInitialSize());
+            loadAll(loading);
+            store = loading;
+            log.info("Loaded {} post cards, {} bytes mapped", loading.size(), loading.getMappedBytes());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load the post cards, they are read from the database: {}", e.getMessage());
+            close(loading);
+            stale.clear();
+            allStale.set(false);
+        } finally {
+            this.loading = false;
+        }
+    }
+
+    /**
+     * @param id the id of the post.
+     * @return the card of the post.
+     */
+    public Optional<PostCardDTO> findOne(Long id) {
+        return read(current -> Optional.ofNullable(current.get(id, PostCardStore::readCard)).map(this::toCard),
+            () -> postRepository.findById(id).map(this::toCard));
+    }
+
+    /**
+     * Only the sort by id is served from the store, the other sorts are read from the database.
+     *
+     * @param pageable the pagination information.
+     * @return the page of cards.
+     */
+    public Page<PostCardDTO> findAll(Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().getOrderBy();
+        if (orders.size() > 1 || (orders.size() == 1 && !ID.equals(orders.get(0).getProperty()))) {
+            return postRepository.findAll(pageable).map(this::toCard);
+        }
+        boolean descending = orders.size() == 1 && orders.get(0).getDirection() == Sort.Order.Direction.DESC;
+        return read(current -> {
+            List<StoredCard> cards = new ArrayList<>(pageable.getSize());
+            // The total is read first: a card inserted in between shifts the page, as with the database
+            int total = current.size();
+            current.forEach((int) Math.min(pageable.getOffset(), Integer.MAX_VALUE), pageable.getSize(), descending,
+                record -> cards.add(readCard(record)));
+            return Page.of(cards, pageable, total).map(this::toCard);
+        }, () -> postRepository.findAll(pageable).map(this::toCard));
+    }
+
+    @Override
+    public String getName() {
+        return CacheInvalidationService.POSTS;
+    }
+
+    /**
+     * Mark a written post to be read again by the next read of the store.
+     *
+     * @param key the id of the written post, {@code null} if all the posts were written.
+     */
+    @Override
+    public void invalidate(@Nullable Serializable key) {
+        if (store == null && !loading) {
+            return;
+        }
+        if (key == null) {
+            allStale.set(true);
+        } else {
+            stale.add((Long) key);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        // Not during a refresh, which could replace the store once closed
+        refreshLock.lock();
+        try {
+            MappedRecordStore current = store;
+            store = null;
+            close(current);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Read the cards from the store, again from the new one if it was replaced during the read.
+     *
+     * @param reader the reader of the store.
+     * @param fromDatabase the reader of the database, if the store can't be read.
+     * @param <T> the type of the read value.
+     * @return the read value.
+     */
+    private <T> T read(Function<MappedRecordStore, T> reader, Supplier<T> fromDatabase) {
+        while (true) {
+            MappedRecordStore current = refresh();
+            if (current == null) {
+                return fromDatabase.get();
+            }
+            try {
+                return reader.apply(current);
+            } catch (IllegalStateException e) {
+                if (store == current) {
+                    throw e;
+                }
+                // The store was closed once replaced by a reloaded one
+            }
+        }
+    }
+
+    /**
+     * Apply the writes of the posts to the store.
+     *
+     * @return the up to date store, {@code null} if the cards must be read from the database.
+     */
+    private MappedRecordStore refresh() {
+        MappedRecordStore current = store;
+        if (current == null || (stale.isEmpty() && !allStale.get()) || reloading) {
+            // While the cards are reloaded, the previous ones are read
+            return current;
+        }
+        refreshLock.lock();
+        try {
+            current = store;
+            if (current == null) {
+                return null;
+            }
+            if (allStale.getAndSet(false)) {
+                stale.clear();
+                reloading = true;
+                try {
+                    current = reload(current);
+                } finally {
+                    reloading = false;
+                }
+            }
+            for (Iterator<Long> ids = stale.iterator(); ids.hasNext(); ) {
+                Long id = ids.next();
+                // Removed before the read, so that a write committed during the read is applied by the next one
+                ids.remove();
+                Optional<Post> post = postRepository.findById(id);
+                if (post.isPresent()) {
+                    current.put(id, writeCard(post.get()));
+                } else {
+                    current.remove(id);
+                }
+            }
+            return current;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not update the post cards, they are read from the database from now on: {}", e.getMessage());
+            close();
+            return null;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Load the cards of all the posts into a new store, which then replaces the current one.
+     *
+     * @return the new store.
+     */
+    private MappedRecordStore reload(MappedRecordStore current) throws IOException {
+        // The files alternate, the current one is deleted when the current store is closed
+        Path file = Paths.get(properties.getFile()).toAbsolutePath();
+        if (file.equals(current.getFile())) {
+            file = file.resolveSibling(file.getFileName() + ".reload");
+        }
+        MappedRecordStore reloaded = new MappedRecordStore(file, properties.getInitialSize());
+        try {
+            loadAll(reloaded);
+        } catch (RuntimeException e) {
+            close(reloaded);
+            throw e;
+        }
+        store = reloaded;
+        close(current);
+        return reloaded;
+    }
+
+    private void loadAll(MappedRecordStore target) {
+        Pageable batch = Pageable.from(0, properties.getLoadBatchSize(), Sort.of(Sort.Order.asc(ID)));
+        long lastId = Long.MIN_VALUE;
+        List<Post> posts;
+        do {
+            posts = postRepository.findByIdGreaterThan(lastId, batch);
+            for (Post post : posts) {
+                target.put(post.getId(), writeCard(post));
+                lastId = post.getId();
+            }
+        } while (posts.size() == batch.getSize());
+    }
+
+    private void close(MappedRecordStore closed) {
+        if (closed == null) {
+            return;
+        }
+        try {
+            closed.close();
+        } catch (IOException e) {
+            log.warn("Could not close the post cards: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A card is stored as {@code [long id][long category id][title][location][status]}, each string as
+     * {@code [int length][UTF-8 bytes]}.
+     */
+    private static byte[] writeCard(Post post) {
+        // The id of the lazy category is read without loading it
+        long categoryId = post.getCategory() == null ? NO_CATEGORY : post.getCategory().getId();
+        byte[] title = bytes(post.getTitle());
+        byte[] location = bytes(post.getLocation());
+        byte[] status = bytes(post.getStatus());
+        ByteBuffer record = ByteBuffer.allocate(2 * Long.BYTES + 3 * Integer.BYTES + title.length + location.length + status.length);
+        record.putLong(post.getId()).putLong(categoryId);
+        record.putInt(title.length).put(title);
+        record.putInt(location.length).put(location);
+        record.putInt(status.length).put(status);
+        return record.array();
+    }
+
+    /**
+     * Only decodes the card, the category is resolved once the store is unlocked.
+     */
+    private static StoredCard readCard(ByteBuffer record) {
+        PostCardDTO card = new PostCardDTO();
+        card.setId(record.getLong());
+        long categoryId = record.getLong();
+        card.setTitle(string(record));
+        card.setLocation(string(record));
+        card.setStatus(string(record));
+        return new StoredCard(card, categoryId == NO_CATEGORY ? null : categoryId);
+    }
+
+    private PostCardDTO toCard(StoredCard stored) {
+        stored.card.setCategoryDisplayName(categoryDisplayName(stored.categoryId));
+        return stored.card;
+    }
+
+    private PostCardDTO toCard(Post post) {
+        PostCardDTO card = new PostCardDTO();
+        card.setId(post.getId());
+        card.setTitle(post.getTitle());
+        card.setLocation(post.getLocation());
+        card.setStatus(post.getStatus());
+        card.setCategoryDisplayName(categoryDisplayName(post.getCategory() == null ? null : post.getCategory().getId()));
+        return card;
+    }
+
+    private String categoryDisplayName(Long categoryId) {
+        return categoryCache.get(categoryId).map(CategoryDTO::getDisplayName).orElse(null);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer record) {
+        byte[] value = new byte[record.getInt()];
+        record.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A card read from the store, with the id of its category to resolve.
+     */
+    private static final class StoredCard {
+
+        private final PostCardDTO card;
+
+        private final Long categoryId;
+
+        private StoredCard(PostCardDTO card, Long categoryId) {
+            this.card = card;
+            this.categoryId = categoryId;
+        }
+    }
+}
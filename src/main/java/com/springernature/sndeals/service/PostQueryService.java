@@ -1,14 +1,19 @@
 package com.springernature.sndeals.service;
 
 import com.springernature.sndeals.domain.Post;
-import com.springernature.sndeals.domain.Post_;
 import com.springernature.sndeals.repository.PostRepository;
 import com.springernature.sndeals.service.dto.PostCriteria;
 import com.springernature.sndeals.service.dto.PostDTO;
 import com.springernature.sndeals.service.mapper.PostMapper;
+import com.springernature.sndeals.service.util.CriteriaSqlBuilder;
+import com.springernature.sndeals.service.util.KeysetCursor;
+import com.springernature.sndeals.service.util.KeysetPage;
+import com.springernature.sndeals.service.util.PageUtil;
+import com.springernature.sndeals.service.util.SortableColumns;
 import io.github.jhipster.service.QueryService;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.micronaut.transaction.annotation.ReadOnly;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +22,6 @@ import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Singleton
 @ReadOnly
@@ -26,6 +30,16 @@ public class PostQueryService extends QueryService<Post> {
 
     private final Logger log = LoggerFactory.getLogger(PostQueryService.class);
 
+    /**
+     * Properties the {@link Post} can be sorted by, each backed by a {@code (column, id)} index.
+     */
+    private static final SortableColumns<Post> SORTABLE_COLUMNS = new SortableColumns<Post>("post")
+        .addNumeric("id", "id", Post::getId)
+        .add("title", "title", Post::getTitle)
+        .add("location", "location", Post::getLocation)
+        .add("status", "status", Post::getStatus)
+        .addNumeric("category", "category_id", post -> post.getCategory().getId());
+
     private final PostRepository postRepository;
 
     private final PostMapper postMapper;
@@ -60,8 +74,43 @@ public class PostQueryService extends QueryService<Post> {
     @Transactional
     public Page<PostDTO> findByCriteria(PostCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
-        List<Post> posts = getPostByCriteria(criteria, null);
-        return Page.of(posts.stream().map(postMapper::toDto).collect(Collectors.toList()), page, posts.size());
+        List<PostDTO> posts = postMapper.toDto(getPostByCriteria(criteria, page));
+        return PageUtil.getPage(posts, page, () -> countPostByCriteria(criteria));
+    }
+
+    /**
+     * Return a page of {@link PostDTO} which matches the criteria from the database, using keyset pagination.
+     * <p>
+     * The page seeks past the (sort value, id) tuple of the cursor on an index, so reading any page costs
+     * the same as reading the first one.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor of the last element of the previous page, or {@code null} for the first page.
+     * @param page The size and the sort of the page, only a single sort property is supported.
+     * @param withCount Whether the total number of matching entities should also be counted.
+     * @return the matching entities, with the cursor of the next page.
+     */
+    @SuppressWarnings("unchecked")
+    @ReadOnly
+    @Transactional
+    public KeysetPage<PostDTO> findByCriteriaAfter(PostCriteria criteria, KeysetCursor after, Pageable page, boolean withCount) {
+        log.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        Sort.Order order = SORTABLE_COLUMNS.getKeysetOrder(page.getSort());
+        boolean descending = order.getDirection() == Sort.Order.Direction.DESC;
+        CriteriaSqlBuilder builder = createQueryBuilder(criteria).orderBy(Sort.of(order), SORTABLE_COLUMNS);
+        if (after != null) {
+            Object sortValue = SORTABLE_COLUMNS.getCursorValue(after, order);
+            builder.seek(SORTABLE_COLUMNS.getColumn(order.getProperty()), sortValue, after.getId(), descending);
+        }
+        // Read one more row than requested to know whether there is a next page
+        int size = page.getSize();
+        List<Post> posts = builder.createQuery(entityManager, Post.class, Pageable.from(0, size + 1)).getResultList();
+        String nextCursor = null;
+        if (posts.size() > size) {
+            posts = posts.subList(0, size);
+            Post last = posts.get(size - 1);
+            nextCursor = new KeysetCursor(order.getProperty(), SORTABLE_COLUMNS.getValue(order.getProperty(), last), last.getId()).encode();
+        }
+        return new KeysetPage<>(postMapper.toDto(posts), nextCursor, withCount ? countPostByCriteria(criteria) : null);
     }
 
     /**
@@ -73,40 +122,49 @@ public class PostQueryService extends QueryService<Post> {
     @Transactional
     public long countByCriteria(PostCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        return getPostByCriteria(criteria, null).size();
+        return countPostByCriteria(criteria);
     }
 
+    /**
+     * Load the page of {@link Post} matching the criteria, the paging itself is done by the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned, or {@code null} for all the matching entities.
+     * @return the matching entities.
+     */
+    @SuppressWarnings("unchecked")
     protected List<Post> getPostByCriteria(PostCriteria criteria, Pageable page) {
-        StringBuilder specification = new StringBuilder("SELECT * FROM POST ");
-        if (criteria != null) {
-            if (criteria.getCategoryId() != null) {
-                specification.append(" LEFT JOIN CATEGORY WHERE POST.category_id = CATEGORY.ID");
-                specification.append(" WHERE POST.category_id = "+ criteria.getCategoryId());
-            }else {
-                specification.append(" WHERE 1=1 ");
-            }
-
-            if (criteria.getId() != null) {
-                specification.append(" AND "+ Post_.id +"=" + criteria.getId());
-            }
-            if (criteria.getTitle() != null) {
-                specification.append(" AND "+ Post_.title +"=" + criteria.getTitle());
-            }
-            if (criteria.getDescription() != null) {
-                specification.append(" AND "+ Post_.description +"=" + criteria.getDescription());
-            }
-            if (criteria.getLocation() != null) {
-                specification.append(" AND "+ Post_.location +"=" + criteria.getLocation());
-            }
-            if (criteria.getStatus() != null) {
-                specification.append(" AND "+ Post_.status +"=" + criteria.getStatus());
-            }
-            if(page != null){
-                specification.append(" limit="+ page.getSize());
-                specification.append(" offset="+ (page.getNumber() - 1) * page.getSize());
-            }
+        return createQueryBuilder(criteria)
+            .orderBy(page == null ? Sort.unsorted() : page.getSort(), SORTABLE_COLUMNS)
+            .createQuery(entityManager, Post.class, page)
+            .getResultList();
+    }
+
+    /**
+     * Count the {@link Post} matching the criteria with a {@code SELECT COUNT(*)}, without loading them.
+     * This is used both by the count endpoint and for the total of a page.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    protected long countPostByCriteria(PostCriteria criteria) {
+        return createQueryBuilder(criteria).count(entityManager);
+    }
 
+    /**
+     * Compile the criteria into a bind-parameterized query on the {@code post} table.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the query builder.
+     */
+    private CriteriaSqlBuilder createQueryBuilder(PostCriteria criteria) {
+        CriteriaSqlBuilder builder = new CriteriaSqlBuilder("post");
+        if (criteria != null) {
+            builder
+                .filter("id", criteria.getId())
+                .filter("title", criteria.getTitle())
+                .filter("description", criteria.getDescription())
+                .filter("location", criteria.getLocation())
+                .filter("status", criteria.getStatus())
+                .filter("category_id", criteria.getCategoryId());
         }
-        return entityManager.createNativeQuery(specification.toString(), Post.class).getResultList();
+        return builder;
     }
 }
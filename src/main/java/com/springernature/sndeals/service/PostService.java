@@ -2,8 +2,11 @@ package com.springernature.sndeals.service;
 
 import com.springernature.sndeals.domain.Post;
 import com.springernature.sndeals.repository.PostRepository;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import com.springernature.sndeals.service.dto.CategoryDTO;
 import com.springernature.sndeals.service.dto.PostDTO;
 import com.springernature.sndeals.service.mapper.PostMapper;
+import com.springernature.sndeals.util.ETagUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,9 +31,16 @@ public class PostService {
 
     private final PostMapper postMapper;
 
-    public PostService(PostRepository postRepository, PostMapper postMapper) {
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final CategoryCache categoryCache;
+
+    public PostService(PostRepository postRepository, PostMapper postMapper, CacheInvalidationService cacheInvalidationService,
+                       CategoryCache categoryCache) {
         this.postRepository = postRepository;
         this.postMapper = postMapper;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.categoryCache = categoryCache;
     }
 
     /**
@@ -43,11 +53,13 @@ public class PostService {
         log.debug("Request to save Post : {}", postDTO);
         Post post = postMapper.toEntity(postDTO);
         post = postRepository.save(post);
+        cacheInvalidationService.invalidate(CacheInvalidationService.POSTS, post.getId());
         return postMapper.toDto(post);
     }
 
     /**
-     * Update a post.
+     * Update a post. The update is rejected with an {@link javax.persistence.OptimisticLockException} if the post
+     * was modified since the version of the DTO, a DTO without version overwrites the current state.
      *
      * @param postDTO the entity to update.
      * @return the persisted entity.
@@ -55,7 +67,13 @@ public class PostService {
     public PostDTO update(PostDTO postDTO) {
         log.debug("Request to update Post : {}", postDTO);
         Post post = postMapper.toEntity(postDTO);
+        if (post.getVersion() == null) {
+            post.setVersion(postRepository.findById(post.getId()).map(Post::getVersion).orElse(null));
+        }
         post = postRepository.update(post);
+        // The version is incremented when the update is flushed, the returned DTO must have the new one
+        postRepository.flush();
+        cacheInvalidationService.invalidate(CacheInvalidationService.POSTS, post.getId());
         return postMapper.toDto(post);
     }
 
@@ -88,6 +106,35 @@ public class PostService {
             .map(postMapper::toDto);
     }
 
+    /**
+     * Get the entity tag of one post by id, without mapping it.
+     *
+     * @param id the id of the entity.
+     * @return the entity tag, see {@link #getETag(PostDTO)}.
+     */
+    @ReadOnly
+    @Transactional
+    public Optional<String> findETag(Long id) {
+        // The id of the lazy category is read without loading it
+        return postRepository.findById(id)
+            .map(post -> getETag(post.getVersion(), post.getCategory() == null ? null : post.getCategory().getId()));
+    }
+
+    /**
+     * The entity tag of a post derives from its version and from the version of its category, whose display name is
+     * part of the DTO.
+     *
+     * @param postDTO the post.
+     * @return the quoted entity tag.
+     */
+    public String getETag(PostDTO postDTO) {
+        return getETag(postDTO.getVersion(), postDTO.getCategoryId());
+    }
+
+    private String getETag(Long version, Long categoryId) {
+        return ETagUtil.fromVersions(version, categoryCache.get(categoryId).map(CategoryDTO::getVersion).orElse(null));
+    }
+
     /**
      * Delete the post by id.
      *
@@ -96,5 +143,6 @@ public class PostService {
     public void delete(Long id) {
         log.debug("Request to delete Post : {}", id);
         postRepository.deleteById(id);
+        cacheInvalidationService.invalidate(CacheInvalidationService.POSTS, id);
     }
 }
@@ -0,0 +1,101 @@
+package com.springernature.sndeals.service;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.domain.RevokedToken;
+import com.springernature.sndeals.repository.RevokedTokenRepository;
+import com.springernature.sndeals.security.jwt.TokenDenyList;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import com.springernature.sndeals.service.cache.NearCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * In-memory copy of the {@link RevokedToken}s, checked by every authenticated request.
+ * <p>
+ * The revoked tokens which haven't expired are loaded from the database at startup into a {@link TokenDenyList}.
+ * {@link TokenRevocationService} then sends every revocation to all the nodes through the
+ * {@link CacheInvalidationService}, with the revoked token as key, so the checks never read the database.
+ */
+@Singleton
+public class RevokedTokenCache implements NearCache {
+
+    private final Logger log = LoggerFactory.getLogger(RevokedTokenCache.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final TokenDenyList denyList;
+
+    public RevokedTokenCache(RevokedTokenRepository revokedTokenRepository, ApplicationProperties applicationProperties,
+                             MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        ApplicationProperties.TokenRevocation tokenRevocation = applicationProperties.getTokenRevocation();
+        this.denyList = new TokenDenyList(tokenRevocation.getExpectedTokens(), tokenRevocation.getFalsePositiveProbability());
+        Gauge.builder("tokens.revoked", denyList, TokenDenyList::size)
+            .description("Number of revoked access tokens which haven't expired")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Load the revoked tokens at startup.
+     */
+    @EventListener
+    public void load(StartupEvent event) {
+        load();
+    }
+
+    /**
+     * @param jti the id of the token.
+     * @return true if the token is revoked.
+     */
+    public boolean isRevoked(String jti) {
+        return denyList.contains(jti);
+    }
+
+    @Override
+    public String getName() {
+        return CacheInvalidationService.REVOKED_TOKENS;
+    }
+
+    /**
+     * Add a revoked token.
+     *
+     * @param key the {@link RevokedToken}, {@code null} to load all the revoked tokens again.
+     */
+    @Override
+    public void invalidate(@Nullable Serializable key) {
+        if (key == null) {
+            load();
+        } else {
+            RevokedToken revokedToken = (RevokedToken) key;
+            denyList.add(revokedToken.getJti(), revokedToken.getExpiresAt());
+        }
+    }
+
+    /**
+     * Drop the expired tokens, which are refused anyway.
+     */
+    @Scheduled(fixedDelay = "1h", initialDelay = "1h")
+    public void removeExpired() {
+        denyList.removeExpired(Instant.now());
+    }
+
+    /**
+     * Add the revoked tokens of the database. A revoked token stays revoked, so none is removed.
+     */
+    private void load() {
+        for (RevokedToken revokedToken : revokedTokenRepository.findAllByExpiresAtGreaterThan(Instant.now())) {
+            denyList.add(revokedToken.getJti(), revokedToken.getExpiresAt());
+        }
+        log.debug("Loaded {} revoked tokens", denyList.size());
+    }
+}
@@ -0,0 +1,130 @@
+package com.springernature.sndeals.service;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.domain.RefreshToken;
+import com.springernature.sndeals.domain.RevokedToken;
+import com.springernature.sndeals.repository.RefreshTokenRepository;
+import com.springernature.sndeals.repository.RevokedTokenRepository;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.micronaut.transaction.annotation.ReadOnly;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import javax.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Service class for revoking the access tokens and managing the refresh tokens.
+ * <p>
+ * The access tokens are short-lived, the clients get new ones with their refresh token. A revoked access token is
+ * stored until it expires and added to the {@link RevokedTokenCache} of every node. A refresh token is stored as the
+ * hash of the token, it is valid until {@code application.token-revocation.refresh-token-time-to-live-seconds} or
+ * until the user logs out.
+ */
+@Singleton
+@Transactional
+public class TokenRevocationService {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final long refreshTokenTimeToLiveSeconds;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, RefreshTokenRepository refreshTokenRepository,
+                                  CacheInvalidationService cacheInvalidationService, ApplicationProperties applicationProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.refreshTokenTimeToLiveSeconds = applicationProperties.getTokenRevocation().getRefreshTokenTimeToLiveSeconds();
+    }
+
+    /**
+     * Revoke an access token on all the nodes.
+     *
+     * @param jti       the id of the token.
+     * @param expiresAt the expiration of the token.
+     */
+    public void revokeAccessToken(String jti, Instant expiresAt) {
+        RevokedToken revokedToken = new RevokedToken(jti, expiresAt);
+        if (!revokedTokenRepository.existsById(jti)) {
+            revokedTokenRepository.save(revokedToken);
+        }
+        cacheInvalidationService.invalidate(CacheInvalidationService.REVOKED_TOKENS, revokedToken);
+        log.debug("Revoked the access token {}", jti);
+    }
+
+    /**
+     * Store a refresh token issued to a user.
+     *
+     * @param refreshToken the refresh token.
+     * @param login        the login of the user.
+     */
+    public void saveRefreshToken(String refreshToken, String login) {
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(refreshToken));
+        token.setLogin(login);
+        token.setExpiresAt(Instant.now().plusSeconds(refreshTokenTimeToLiveSeconds));
+        refreshTokenRepository.save(token);
+    }
+
+    /**
+     * @param refreshToken the refresh token.
+     * @return the login of the user of the token, empty if the token is unknown, revoked or expired.
+     */
+    @ReadOnly
+    public Optional<String> findRefreshTokenLogin(String refreshToken) {
+        return refreshTokenRepository.findOneByTokenHash(hash(refreshToken))
+            .filter(token -> !token.isRevoked() && token.getExpiresAt().isAfter(Instant.now()))
+            .map(RefreshToken::getLogin);
+    }
+
+    /**
+     * Revoke all the refresh tokens of a user.
+     *
+     * @param login the login of the user.
+     */
+    public void revokeRefreshTokens(String login) {
+        refreshTokenRepository.findAllByLoginAndRevokedFalse(login).forEach(token -> token.setRevoked(true));
+        log.debug("Revoked the refresh tokens of User: {}", login);
+    }
+
+    /**
+     * Expired tokens are deleted every day, at 01:30 (am).
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void removeExpiredTokens() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteByExpiresAtLessThan(now);
+        refreshTokenRepository.deleteByExpiresAtLessThan(now);
+    }
+
+    /**
+     * The refresh tokens are stored as their SHA-256 hash, a leak of the table doesn't leak the tokens.
+     */
+    private static String hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+                hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
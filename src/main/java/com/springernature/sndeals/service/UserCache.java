@@ -0,0 +1,82 @@
+package com.springernature.sndeals.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.domain.User;
+import com.springernature.sndeals.repository.UserRepository;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import com.springernature.sndeals.service.cache.NearCache;
+import com.springernature.sndeals.service.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.core.annotation.Nullable;
+
+import javax.inject.Singleton;
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache of the accounts of the {@link User}s with their authorities, by login.
+ * <p>
+ * The account of the current user is read on every page load of the client, so it is kept in memory for
+ * {@code application.user-cache.time-to-live-seconds}, for at most {@code application.user-cache.max-entries}
+ * users. {@link UserService} invalidates it on every node through the {@link CacheInvalidationService} when a user
+ * is written. The cached DTOs are shared and must not be modified.
+ * <p>
+ * The accounts are not kept in the cache snapshot: users have no version to tell whether their authorities changed
+ * while the node was stopped.
+ */
+@Singleton
+public class UserCache implements NearCache {
+
+    public static final String USERS_BY_LOGIN = "usersByLogin";
+
+    private final UserRepository userRepository;
+
+    private final Cache<String, UserDTO> usersByLogin;
+
+    public UserCache(UserRepository userRepository, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        ApplicationProperties.UserCache userCache = applicationProperties.getUserCache();
+        this.usersByLogin = Caffeine.newBuilder()
+            .maximumSize(userCache.getMaxEntries())
+            .expireAfterWrite(userCache.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+        // The misses are the lookups still sent to the database
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByLogin, USERS_BY_LOGIN, "name", USERS_BY_LOGIN);
+    }
+
+    /**
+     * @param login the login of the user.
+     * @return the account of the user with its authorities, loaded from the database on a cache miss.
+     */
+    public Optional<UserDTO> get(String login) {
+        if (login == null) {
+            return Optional.empty();
+        }
+        // An unknown login is not cached, the loader returns null
+        return Optional.ofNullable(usersByLogin.get(login, key -> userRepository.findOneByLogin(key).map(UserDTO::new).orElse(null)));
+    }
+
+    @Override
+    public String getName() {
+        return CacheInvalidationService.USERS;
+    }
+
+    /**
+     * Invalidate a written user. The users are invalidated by id, which also covers the old login of a renamed user.
+     *
+     * @param key the id of the written user, {@code null} to invalidate all the users.
+     */
+    @Override
+    public void invalidate(@Nullable Serializable key) {
+        if (key == null) {
+            usersByLogin.invalidateAll();
+        } else {
+            usersByLogin.asMap().values().removeIf(user -> key.equals(user.getId()));
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.springernature.sndeals.repository.AuthorityRepository;
 import com.springernature.sndeals.repository.UserRepository;
 import com.springernature.sndeals.security.AuthoritiesConstants;
 import com.springernature.sndeals.security.SecurityUtils;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
 import com.springernature.sndeals.service.dto.UserDTO;
 import com.springernature.sndeals.service.util.RandomUtil;
 import com.springernature.sndeals.web.rest.errors.*;
@@ -39,11 +40,18 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
+    private final CacheInvalidationService cacheInvalidationService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final UserCache userCache;
+
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository,
+                       CacheInvalidationService cacheInvalidationService, UserCache userCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.userCache = userCache;
     }
 
 
@@ -54,6 +62,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
+                evictUser(user);
                 log.debug("Activated user: {}", user);
                 return user;
             });
@@ -67,6 +76,7 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                evictUser(user);
                 return user;
             });
     }
@@ -77,6 +87,7 @@ public class UserService {
             .map(user -> {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
+                evictUser(user);
                 return user;
             });
     }
@@ -112,6 +123,7 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
+        evictUser(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -122,6 +134,7 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        evictUser(existingUser);
         return true;
     }
 
@@ -151,6 +164,7 @@ public class UserService {
             user.setAuthorities(authorities);
         }
         userRepository.save(user);
+        evictUser(user);
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -182,6 +196,7 @@ public class UserService {
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
                 user = userRepository.save(user);
+                evictUser(user);
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -191,6 +206,7 @@ public class UserService {
     public void deleteUser(String login) {
         userRepository.findOneByLogin(login).ifPresent(user -> {
             userRepository.delete(user);
+            evictUser(user);
             log.debug("Deleted User: {}", user);
         });
     }
@@ -206,10 +222,27 @@ public class UserService {
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
                 user = userRepository.update(user);
+                evictUser(user);
                 log.debug("Changed password for User: {}", user);
             });
     }
 
+    /**
+     * Replace the password hash of a user by a hash of the same password with the current settings.
+     *
+     * @param id           id of the user.
+     * @param currentHash  the hash the password was checked with, the hash isn't replaced if it changed since.
+     * @param upgradedHash the new hash of the password.
+     */
+    public void upgradePasswordHash(Long id, String currentHash, String upgradedHash) {
+        userRepository.findById(id)
+            .filter(user -> currentHash.equals(user.getPassword()))
+            .ifPresent(user -> {
+                user.setPassword(upgradedHash);
+                log.debug("Upgraded the password hash of User: {}", user);
+            });
+    }
+
     /**
      * Update basic information (first name, last name, email, language) for the current user.
      *
@@ -228,6 +261,7 @@ public class UserService {
                 user.setEmail(email.toLowerCase());
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
+                evictUser(user);
                 log.debug("Changed Information for User: {}", user);
             });
     }
@@ -253,6 +287,15 @@ public class UserService {
         return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneByLogin);
     }
 
+    /**
+     * Get the account of the current user from the {@link UserCache}, the returned DTO must not be modified.
+     *
+     * @return the current user with its authorities.
+     */
+    public Optional<UserDTO> getCurrentUserAccount() {
+        return SecurityUtils.getCurrentUserLogin().flatMap(userCache::get);
+    }
+
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
@@ -265,6 +308,7 @@ public class UserService {
             .forEach(user -> {
                 log.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
+                evictUser(user);
             });
     }
 
@@ -277,6 +321,15 @@ public class UserService {
             .map(Authority::getName).collect(Collectors.toList());
     }
 
+    /**
+     * Invalidate a written user in the caches of all the nodes, {@link UserCache} included.
+     *
+     * @param user the written user.
+     */
+    private void evictUser(User user) {
+        cacheInvalidationService.invalidate(CacheInvalidationService.USERS, user.getId());
+    }
+
     public Optional<String> getCurrentUserLogin() {
         return SecurityUtils.getCurrentUserLogin();
     }
@@ -0,0 +1,53 @@
+package com.springernature.sndeals.service.cache;
+
+import java.io.Serializable;
+
+/**
+ * An invalidation broadcast to the other nodes of the cluster by a {@link CacheInvalidationTransport}.
+ */
+public final class CacheInvalidationMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String origin;
+
+    private final String name;
+
+    private final Serializable key;
+
+    public CacheInvalidationMessage(String origin, String name, Serializable key) {
+        this.origin = origin;
+        this.name = name;
+        this.key = key;
+    }
+
+    /**
+     * @return the id of the node which wrote the data.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return the name of the near caches to invalidate.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the key of the written entry, {@code null} if all the entries are invalidated.
+     */
+    public Serializable getKey() {
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidationMessage{" +
+            "origin='" + origin + "'" +
+            ", name='" + name + "'" +
+            ", key=" + key +
+            "}";
+    }
+}
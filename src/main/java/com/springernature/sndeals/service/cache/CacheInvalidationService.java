@@ -0,0 +1,144 @@
+package com.springernature.sndeals.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.transaction.support.TransactionSynchronization;
+import io.micronaut.transaction.support.TransactionSynchronizationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service keeping the {@link NearCache}s of all the nodes of the cluster coherent with the database.
+ * <p>
+ * A service writing cached data invalidates it here: the near caches of this node are invalidated right away, and
+ * once more after the commit so that a concurrent read can't cache the state from before the commit. The
+ * invalidation is then broadcast to the other nodes by the {@link CacheInvalidationTransport}, only after the
+ * commit, as they could otherwise reload the old state before it.
+ * <p>
+ * Every invalidation of a name also increments its generation: a cache keyed by the generations of the data it
+ * depends on doesn't have to be a {@link NearCache}, its stale entries are simply never read again.
+ */
+@Singleton
+public class CacheInvalidationService {
+
+    public static final String CATEGORIES = "categories";
+
+    public static final String POSTS = "posts";
+
+    public static final String USERS = "users";
+
+    public static final String REVOKED_TOKENS = "revokedTokens";
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, List<NearCache>> nearCaches = new HashMap<>();
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final CacheInvalidationTransport transport;
+
+    private final Counter sentCounter;
+
+    private final Counter receivedCounter;
+
+    private final Counter failedCounter;
+
+    public CacheInvalidationService(List<NearCache> nearCaches, CacheInvalidationTransport transport, MeterRegistry meterRegistry) {
+        for (NearCache nearCache : nearCaches) {
+            this.nearCaches.computeIfAbsent(nearCache.getName(), name -> new ArrayList<>()).add(nearCache);
+        }
+        this.transport = transport;
+        this.sentCounter = Counter.builder("cache.invalidations.sent")
+            .description("Number of cache invalidations broadcast to the other nodes")
+            .register(meterRegistry);
+        this.receivedCounter = Counter.builder("cache.invalidations.received")
+            .description("Number of cache invalidations received from the other nodes")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("cache.invalidations.failed")
+            .description("Number of cache invalidations which couldn't be broadcast")
+            .register(meterRegistry);
+        transport.subscribe(this::receive);
+    }
+
+    /**
+     * Invalidate written data in the near caches of all the nodes. When called in a transaction, the other nodes
+     * are only notified after the commit, and not at all after a rollback.
+     *
+     * @param name the name of the near caches, one of the constants of this class.
+     * @param key the key of the written entry, {@code null} if all the entries were written.
+     */
+    public void invalidate(String name, @Nullable Serializable key) {
+        invalidateLocally(name, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateLocally(name, key);
+                    broadcast(name, key);
+                }
+            });
+        } else {
+            broadcast(name, key);
+        }
+    }
+
+    /**
+     * Get the generation of cached data, to be read before the data is loaded: a write invalidating the data after
+     * this point increments it.
+     *
+     * @param name the name of the cached data, one of the constants of this class.
+     * @return the number of invalidations of the data seen by this node.
+     */
+    public long getGeneration(String name) {
+        return generations.computeIfAbsent(name, key -> new AtomicLong()).get();
+    }
+
+    /**
+     * @return the id of this node in the messages it sends.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void broadcast(String name, Serializable key) {
+        CacheInvalidationMessage message = new CacheInvalidationMessage(nodeId, name, key);
+        try {
+            transport.publish(message);
+            sentCounter.increment();
+        } catch (RuntimeException e) {
+            // The write is committed, the other nodes will see it when their entries expire
+            failedCounter.increment();
+            log.warn("Could not broadcast {}: {}", message, e.getMessage());
+        }
+    }
+
+    private void receive(CacheInvalidationMessage message) {
+        if (nodeId.equals(message.getOrigin())) {
+            return;
+        }
+        log.debug("Received {}", message);
+        receivedCounter.increment();
+        invalidateLocally(message.getName(), message.getKey());
+    }
+
+    private void invalidateLocally(String name, Serializable key) {
+        generations.computeIfAbsent(name, generation -> new AtomicLong()).incrementAndGet();
+        for (NearCache nearCache : nearCaches.getOrDefault(name, Collections.emptyList())) {
+            nearCache.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.springernature.sndeals.service.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * SPI of the channel carrying the {@link CacheInvalidationMessage}s between the nodes of the cluster, selected by
+ * {@code application.cluster.transport}.
+ * <p>
+ * Delivery is best effort: a lost message leaves an entry stale until it expires from its near cache.
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * Send a message to all the nodes of the cluster, possibly including this one.
+     *
+     * @param message the message to send.
+     */
+    void publish(CacheInvalidationMessage message);
+
+    /**
+     * Register a listener of the messages published by all the nodes, until the transport is closed.
+     *
+     * @param listener the listener, called from the thread delivering the message.
+     */
+    void subscribe(Consumer<CacheInvalidationMessage> listener);
+}
@@ -0,0 +1,51 @@
+package com.springernature.sndeals.service.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A response held by the {@link ResponseCache}: its serialized body and the headers describing it.
+ * <p>
+ * The body is shared by all the requests reading the entry and must not be modified.
+ */
+public final class CachedResponse {
+
+    private final byte[] body;
+
+    private final Map<String, String> headers;
+
+    public CachedResponse(byte[] body, Map<String, String> headers) {
+        this.body = body;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return the headers by name, in the order they were added.
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return the entity tag of the response, {@code null} if it has none.
+     */
+    public String getETag() {
+        return headers.get("ETag");
+    }
+
+    /**
+     * @return the approximate number of bytes retained by the response.
+     */
+    int getWeight() {
+        int weight = body.length;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            weight += 2 * (header.getKey().length() + header.getValue().length());
+        }
+        return weight;
+    }
+}
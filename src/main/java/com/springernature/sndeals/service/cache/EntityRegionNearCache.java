@@ -0,0 +1,69 @@
+package com.springernature.sndeals.service.cache;
+
+import io.micronaut.core.annotation.Nullable;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+
+import javax.inject.Provider;
+import java.io.Serializable;
+
+/**
+ * {@link NearCache} over the Hibernate second level cache region of an entity, keyed by the id of the entity.
+ * <p>
+ * Hibernate keeps the regions of the node which writes an entity up to date, this evicts the entity from the
+ * regions of the other nodes.
+ */
+public class EntityRegionNearCache implements NearCache {
+
+    private final String name;
+
+    private final Provider<SessionFactory> sessionFactory;
+
+    private final Class<?> entityClass;
+
+    private final String[] collectionRoles;
+
+    private final boolean evictQueryResults;
+
+    /**
+     * @param name the name of the near cache.
+     * @param sessionFactory the session factory, resolved on the first invalidation.
+     * @param entityClass the cached entity.
+     * @param evictQueryResults whether the cached query results are also evicted, for an entity read by cacheable
+     * queries: those of the other nodes don't know the entity was written.
+     * @param collectionRoles the cached collections of the entity.
+     */
+    public EntityRegionNearCache(String name, Provider<SessionFactory> sessionFactory, Class<?> entityClass, boolean evictQueryResults,
+                                 String... collectionRoles) {
+        this.name = name;
+        this.sessionFactory = sessionFactory;
+        this.entityClass = entityClass;
+        this.evictQueryResults = evictQueryResults;
+        this.collectionRoles = collectionRoles;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void invalidate(@Nullable Serializable key) {
+        Cache cache = sessionFactory.get().getCache();
+        if (key == null) {
+            cache.evictEntityData(entityClass);
+        } else {
+            cache.evictEntityData(entityClass, key);
+        }
+        for (String collectionRole : collectionRoles) {
+            if (key == null) {
+                cache.evictCollectionData(collectionRole);
+            } else {
+                cache.evictCollectionData(collectionRole, key);
+            }
+        }
+        if (evictQueryResults) {
+            cache.evictDefaultQueryRegion();
+        }
+    }
+}
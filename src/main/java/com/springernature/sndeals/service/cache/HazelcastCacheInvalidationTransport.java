@@ -0,0 +1,36 @@
+package com.springernature.sndeals.service.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.springernature.sndeals.config.ApplicationProperties;
+import io.micronaut.context.annotation.Requires;
+
+import javax.inject.Singleton;
+import java.util.function.Consumer;
+
+/**
+ * {@link CacheInvalidationTransport} broadcasting the messages on a Hazelcast topic, to the members of the cluster
+ * configured by {@code application.cluster}.
+ * <p>
+ * Hazelcast only carries the messages, the cached data stays in the near caches of each node.
+ */
+@Singleton
+@Requires(property = "application.cluster.transport", value = "hazelcast")
+public class HazelcastCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final ITopic<CacheInvalidationMessage> topic;
+
+    public HazelcastCacheInvalidationTransport(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties) {
+        this.topic = hazelcastInstance.getTopic(applicationProperties.getCluster().getChannel());
+    }
+
+    @Override
+    public void publish(CacheInvalidationMessage message) {
+        topic.publish(message);
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationMessage> listener) {
+        topic.addMessageListener(message -> listener.accept(message.getMessageObject()));
+    }
+}
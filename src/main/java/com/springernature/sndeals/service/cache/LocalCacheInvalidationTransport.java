@@ -0,0 +1,72 @@
+package com.springernature.sndeals.service.cache;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import io.micronaut.context.annotation.Requires;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link CacheInvalidationTransport} delivering the messages to the application contexts of the same JVM.
+ * <p>
+ * This is the transport of a single node, where there is no other node to notify, and of the tests starting
+ * several application contexts as a cluster. Messages are delivered synchronously, in the publishing thread.
+ */
+@Singleton
+@Requires(property = "application.cluster.transport", value = "local", defaultValue = "local")
+public class LocalCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final Map<String, Set<LocalCacheInvalidationTransport>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final Logger log = LoggerFactory.getLogger(LocalCacheInvalidationTransport.class);
+
+    private final String channel;
+
+    private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    public LocalCacheInvalidationTransport(ApplicationProperties applicationProperties) {
+        this.channel = applicationProperties.getCluster().getChannel();
+        CHANNELS.computeIfAbsent(channel, key -> ConcurrentHashMap.newKeySet()).add(this);
+    }
+
+    @Override
+    public void publish(CacheInvalidationMessage message) {
+        for (LocalCacheInvalidationTransport transport : CHANNELS.getOrDefault(channel, Collections.emptySet())) {
+            transport.deliver(message);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @PreDestroy
+    public void close() {
+        CHANNELS.computeIfPresent(channel, (key, transports) -> {
+            transports.remove(this);
+            return transports.isEmpty() ? null : transports;
+        });
+        listeners.clear();
+    }
+
+    private void deliver(CacheInvalidationMessage message) {
+        for (Consumer<CacheInvalidationMessage> listener : listeners) {
+            try {
+                listener.accept(message);
+            } catch (RuntimeException e) {
+                // One failing context must not prevent the others from being invalidated
+                log.warn("Could not deliver {}", message, e);
+            }
+        }
+    }
+}
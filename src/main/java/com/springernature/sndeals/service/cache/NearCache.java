@@ -0,0 +1,26 @@
+package com.springernature.sndeals.service.cache;
+
+import io.micronaut.core.annotation.Nullable;
+
+import java.io.Serializable;
+
+/**
+ * An in-process cache of data which can be written by any node of the cluster.
+ * <p>
+ * The near caches are registered with the {@link CacheInvalidationService} by being beans: when a node writes
+ * the data, the near caches of this name are invalidated on every node.
+ */
+public interface NearCache {
+
+    /**
+     * @return the name of the cached data, several near caches can hold the same data.
+     */
+    String getName();
+
+    /**
+     * Invalidate an entry of the cache.
+     *
+     * @param key the key of the written entry, {@code null} to invalidate all the entries.
+     */
+    void invalidate(@Nullable Serializable key);
+}
@@ -0,0 +1,245 @@
+package com.springernature.sndeals.service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springernature.sndeals.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache of serialized REST responses, shared by all the requests asking for the same data.
+ * <p>
+ * An entry is keyed by the request and by the {@link CacheInvalidationService#getGeneration(String) generations} of
+ * the data it is built from: a write to this data, on any node, changes the key of the next reads and the stale
+ * entries are never read again, until they are evicted. The cache is bounded by {@code application.response-cache.max-size}
+ * bytes and its entries expire after {@code application.response-cache.time-to-live-seconds}.
+ * <p>
+ * A missing entry is loaded once: the requests asking for it while it is loaded wait for the first one instead of
+ * all querying the database.
+ * <p>
+ * The entries which are still current are kept in the cache snapshot across restarts.
+ */
+@Singleton
+public class ResponseCache implements SnapshotCache<ResponseCache.Entry> {
+
+    public static final String RESPONSES = "responses";
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final boolean enabled;
+
+    private final AsyncCache<VersionedKey, CachedResponse> responses;
+
+    private final Counter coalescedCounter;
+
+    public ResponseCache(CacheInvalidationService cacheInvalidationService, ApplicationProperties applicationProperties,
+                         MeterRegistry meterRegistry) {
+        this.cacheInvalidationService = cacheInvalidationService;
+        ApplicationProperties.ResponseCache responseCache = applicationProperties.getResponseCache();
+        this.enabled = responseCache.isEnabled();
+        this.responses = Caffeine.newBuilder()
+            .maximumWeight(responseCache.getMaxSize())
+            .weigher((VersionedKey key, CachedResponse response) -> response.getWeight())
+            .expireAfterWrite(responseCache.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses.synchronous(), RESPONSES, "name", RESPONSES);
+        this.coalescedCounter = Counter.builder("cache.responses.coalesced")
+            .description("Number of requests which waited for the response loaded by a concurrent request")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get a cached response, loading it in the calling thread on a miss.
+     *
+     * @param key the normalized request, with everything the response depends on apart from the cached data.
+     * @param dependencies the names of the cached data the response is built from, constants of {@link CacheInvalidationService}.
+     * @param loader the loader of the response, called in a thread which can query the database.
+     * @return the cached or loaded response.
+     */
+    public CachedResponse get(String key, Collection<String> dependencies, Supplier<CachedResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        // The generations are read before the data: a write committed while it's loaded changes them
+        VersionedKey versionedKey = versionedKey(key, dependencies);
+
+        CompletableFuture<CachedResponse> loading = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> response = responses.get(versionedKey, (ignored, executor) -> loading);
+        if (response == loading) {
+            try {
+                loading.complete(loader.get());
+            } catch (RuntimeException | Error e) {
+                // A failed load is removed from the cache, the next request tries again
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        } else if (!response.isDone()) {
+            coalescedCounter.increment();
+        }
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String getSnapshotName() {
+        return RESPONSES;
+    }
+
+    @Override
+    public Class<Entry> getEntryType() {
+        return Entry.class;
+    }
+
+    /**
+     * @return the loaded responses whose data wasn't written since they were loaded.
+     */
+    @Override
+    public List<Entry> exportEntries() {
+        List<Entry> entries = new ArrayList<>();
+        responses.synchronous().asMap().forEach((versionedKey, response) -> {
+            if (versionedKey.equals(versionedKey(versionedKey.key, versionedKey.dependencies))) {
+                entries.add(new Entry(versionedKey.key, versionedKey.dependencies, response));
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * Import the responses under the current generations of their data, which start again at 0 on each node start.
+     */
+    @Override
+    public void importEntries(List<Entry> entries, Set<String> unchanged) {
+        if (!enabled) {
+            return;
+        }
+        for (Entry entry : entries) {
+            if (unchanged.containsAll(entry.getDependencies())) {
+                responses.put(versionedKey(entry.getKey(), entry.getDependencies()),
+                    CompletableFuture.completedFuture(new CachedResponse(entry.getBody(), entry.getHeaders())));
+            }
+        }
+    }
+
+    private VersionedKey versionedKey(String key, Collection<String> dependencies) {
+        List<String> names = new ArrayList<>(dependencies);
+        long[] generations = new long[names.size()];
+        for (int i = 0; i < generations.length; i++) {
+            generations[i] = cacheInvalidationService.getGeneration(names.get(i));
+        }
+        return new VersionedKey(key, names, generations);
+    }
+
+    /**
+     * The key of a response: the request and the generations of the data it is built from.
+     */
+    private static final class VersionedKey {
+
+        private final String key;
+
+        private final List<String> dependencies;
+
+        private final long[] generations;
+
+        private final int hashCode;
+
+        VersionedKey(String key, List<String> dependencies, long[] generations) {
+            this.key = key;
+            this.dependencies = dependencies;
+            this.generations = generations;
+            this.hashCode = 31 * (31 * key.hashCode() + dependencies.hashCode()) + Arrays.hashCode(generations);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof VersionedKey)) {
+                return false;
+            }
+            VersionedKey other = (VersionedKey) o;
+            return key.equals(other.key) && dependencies.equals(other.dependencies) && Arrays.equals(generations, other.generations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A response in the cache snapshot.
+     */
+    public static class Entry {
+
+        private String key;
+
+        private List<String> dependencies;
+
+        private byte[] body;
+
+        private Map<String, String> headers;
+
+        public Entry() {
+        }
+
+        Entry(String key, List<String> dependencies, CachedResponse response) {
+            this.key = key;
+            this.dependencies = dependencies;
+            this.body = response.getBody();
+            this.headers = response.getHeaders();
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public List<String> getDependencies() {
+            return dependencies;
+        }
+
+        public void setDependencies(List<String> dependencies) {
+            this.dependencies = dependencies;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public void setBody(byte[] body) {
+            this.body = body;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public void setHeaders(Map<String, String> headers) {
+            this.headers = headers;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.springernature.sndeals.service.cache;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An in-process cache whose entries outlive a restart of the node.
+ * <p>
+ * The snapshot caches are registered with the {@code CacheSnapshotService} by being beans: their entries are
+ * written to the snapshot file on a graceful shutdown, serialized with Jackson, and imported again on startup.
+ *
+ * @param <T> the type of the exported entries.
+ */
+public interface SnapshotCache<T> {
+
+    /**
+     * @return the name of the cache in the snapshot file.
+     */
+    String getSnapshotName();
+
+    /**
+     * @return the type of the exported entries, read back by Jackson.
+     */
+    Class<T> getEntryType();
+
+    /**
+     * @return the entries of the cache which are built from the last data written by this node.
+     */
+    List<T> exportEntries();
+
+    /**
+     * Import the entries exported by the last run of the node.
+     *
+     * @param entries the exported entries.
+     * @param unchanged the names of the data, constants of {@link CacheInvalidationService}, which weren't written
+     *                  since the entries were exported: the entries built from other data must be dropped.
+     */
+    void importEntries(List<T> entries, Set<String> unchanged);
+}
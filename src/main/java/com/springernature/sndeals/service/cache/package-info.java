@@ -0,0 +1,4 @@
+/**
+ * Coherence of the in-process caches between the nodes of a cluster.
+ */
+package com.springernature.sndeals.service.cache;
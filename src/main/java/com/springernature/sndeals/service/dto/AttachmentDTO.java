@@ -14,6 +14,8 @@ public class AttachmentDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     @NotNull
     private String fileName;
 
@@ -22,6 +24,10 @@ public class AttachmentDTO implements Serializable {
 
     private String contentContentType;
 
+    private Long size;
+
+    private String checksum;
+
     private Long postId;
 
     public Long getId() {
@@ -32,6 +38,14 @@ public class AttachmentDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getFileName() {
         return fileName;
     }
@@ -56,6 +70,22 @@ public class AttachmentDTO implements Serializable {
         this.contentContentType = contentContentType;
     }
 
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
     public Long getPostId() {
         return postId;
     }
@@ -89,8 +119,11 @@ public class AttachmentDTO implements Serializable {
     public String toString() {
         return "AttachmentDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", fileName='" + getFileName() + "'" +
             ", content='" + getContent() + "'" +
+            ", size=" + getSize() +
+            ", checksum='" + getChecksum() + "'" +
             ", postId=" + getPostId() +
             "}";
     }
@@ -0,0 +1,106 @@
+package com.springernature.sndeals.service.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A projection of the {@link com.springernature.sndeals.domain.Attachment} entity without its content, used
+ * to list attachments: the content is only served by {@code GET /api/attachments/:id/content}.
+ */
+@Introspected
+public class AttachmentMetadataDTO implements Serializable {
+
+    private Long id;
+
+    private String fileName;
+
+    private String contentContentType;
+
+    private Long size;
+
+    private String checksum;
+
+    private Long postId;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentContentType() {
+        return contentContentType;
+    }
+
+    public void setContentContentType(String contentContentType) {
+        this.contentContentType = contentContentType;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        AttachmentMetadataDTO attachmentMetadataDTO = (AttachmentMetadataDTO) o;
+        if (attachmentMetadataDTO.getId() == null || getId() == null) {
+            return false;
+        }
+        return Objects.equals(getId(), attachmentMetadataDTO.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "AttachmentMetadataDTO{" +
+            "id=" + getId() +
+            ", fileName='" + getFileName() + "'" +
+            ", contentContentType='" + getContentContentType() + "'" +
+            ", size=" + getSize() +
+            ", checksum='" + getChecksum() + "'" +
+            ", postId=" + getPostId() +
+            "}";
+    }
+}
@@ -13,6 +13,8 @@ public class CategoryDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     @NotNull
     private String internalId;
 
@@ -28,6 +30,14 @@ public class CategoryDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getInternalId() {
         return internalId;
     }
@@ -69,6 +79,7 @@ public class CategoryDTO implements Serializable {
     public String toString() {
         return "CategoryDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", internalId='" + getInternalId() + "'" +
             ", displayName='" + getDisplayName() + "'" +
             "}";
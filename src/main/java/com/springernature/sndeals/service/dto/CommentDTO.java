@@ -13,6 +13,8 @@ public class CommentDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     @NotNull
     private String comment;
 
@@ -29,6 +31,14 @@ public class CommentDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getComment() {
         return comment;
     }
@@ -78,6 +88,7 @@ public class CommentDTO implements Serializable {
     public String toString() {
         return "CommentDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", comment='" + getComment() + "'" +
             ", postId=" + getPostId() +
             ", postTitle='" + getPostTitle() + "'" +
@@ -0,0 +1,94 @@
+package com.springernature.sndeals.service.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A compact view of the {@link com.springernature.sndeals.domain.Post} entity, with the fields shown by the list views.
+ */
+@Introspected
+public class PostCardDTO implements Serializable {
+
+    private Long id;
+
+    private String title;
+
+    private String location;
+
+    private String status;
+
+    private String categoryDisplayName;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getCategoryDisplayName() {
+        return categoryDisplayName;
+    }
+
+    public void setCategoryDisplayName(String categoryDisplayName) {
+        this.categoryDisplayName = categoryDisplayName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        PostCardDTO postCardDTO = (PostCardDTO) o;
+        if (postCardDTO.getId() == null || getId() == null) {
+            return false;
+        }
+        return Objects.equals(getId(), postCardDTO.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "PostCardDTO{" +
+            "id=" + getId() +
+            ", title='" + getTitle() + "'" +
+            ", location='" + getLocation() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", categoryDisplayName='" + getCategoryDisplayName() + "'" +
+            "}";
+    }
+}
@@ -13,6 +13,8 @@ public class PostDTO implements Serializable {
 
     private Long id;
 
+    private Long version;
+
     @NotNull
     private String title;
 
@@ -37,6 +39,14 @@ public class PostDTO implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -110,6 +120,7 @@ public class PostDTO implements Serializable {
     public String toString() {
         return "PostDTO{" +
             "id=" + getId() +
+            ", version=" + getVersion() +
             ", title='" + getTitle() + "'" +
             ", description='" + getDescription() + "'" +
             ", location='" + getLocation() + "'" +
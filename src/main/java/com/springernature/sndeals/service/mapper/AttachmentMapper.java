@@ -16,6 +16,8 @@ public interface AttachmentMapper extends EntityMapper<AttachmentDTO, Attachment
     AttachmentDTO toDto(Attachment attachment);
 
     @Mapping(source = "postId", target = "post")
+    @Mapping(target = "size", ignore = true)
+    @Mapping(target = "checksum", ignore = true)
     Attachment toEntity(AttachmentDTO attachmentDTO);
 
     default Attachment fromId(Long id) {
@@ -0,0 +1,26 @@
+package com.springernature.sndeals.service.mapper;
+
+import com.springernature.sndeals.service.CategoryCache;
+import com.springernature.sndeals.service.dto.CategoryDTO;
+import org.mapstruct.Named;
+
+import javax.inject.Singleton;
+
+/**
+ * Resolves the display name of a category from the {@link CategoryCache}, so mapping an entity which refers to
+ * a category doesn't load the category from the database.
+ */
+@Singleton
+public class CategoryDisplayNameMapper {
+
+    private final CategoryCache categoryCache;
+
+    public CategoryDisplayNameMapper(CategoryCache categoryCache) {
+        this.categoryCache = categoryCache;
+    }
+
+    @Named("categoryDisplayName")
+    public String toDisplayName(Long categoryId) {
+        return categoryCache.get(categoryId).map(CategoryDTO::getDisplayName).orElse(null);
+    }
+}
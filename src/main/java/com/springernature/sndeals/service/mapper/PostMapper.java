@@ -9,11 +9,11 @@ import org.mapstruct.*;
 /**
  * Mapper for the entity {@link Post} and its DTO {@link PostDTO}.
  */
-@Mapper(componentModel = "jsr330", uses = {CategoryMapper.class})
+@Mapper(componentModel = "jsr330", uses = {CategoryMapper.class, CategoryDisplayNameMapper.class})
 public interface PostMapper extends EntityMapper<PostDTO, Post> {
 
     @Mapping(source = "category.id", target = "categoryId")
-    @Mapping(source = "category.displayName", target = "categoryDisplayName")
+    @Mapping(source = "category.id", target = "categoryDisplayName", qualifiedByName = "categoryDisplayName")
     PostDTO toDto(Post post);
 
     @Mapping(source = "categoryId", target = "category")
@@ -0,0 +1,176 @@
+package com.springernature.sndeals.service.storage;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * SPI of the store holding the binary content of attachments outside of the database.
+ * <p>
+ * Blobs are content-addressed: the key of a blob is the lowercase hex SHA-256 of its content, so storing
+ * the same content twice stores it once, and a key never designates two different contents.
+ * <p>
+ * As a blob may be shared, it is never deleted when an attachment drops it, but collected later once no attachment
+ * refers to it, see {@link com.springernature.sndeals.service.AttachmentContentCollectionJob}. Storing a content
+ * which is already stored sets the time of its blob again, so that it isn't collected before the attachment referring
+ * to it is committed.
+ */
+public interface BlobStore {
+
+    /**
+     * Open a writer storing a content pushed in chunks, the caller must close it.
+     *
+     * @return the writer.
+     * @throws IOException if the writer couldn't be opened.
+     */
+    BlobWriter newWriter() throws IOException;
+
+    /**
+     * Store a content, the stream is read until its end but not closed. The time of the blob is set to now, even when
+     * the content was already stored.
+     *
+     * @param content the content to store.
+     * @return the key and the size of the stored blob.
+     * @throws IOException if the content couldn't be read or stored.
+     */
+    default StoredBlob put(InputStream content) throws IOException {
+        try (BlobWriter writer = newWriter()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                writer.write(ByteBuffer.wrap(buffer, 0, read));
+            }
+            return writer.commit();
+        }
+    }
+
+    /**
+     * Open a stored blob, the caller must close the returned stream.
+     *
+     * @param key the key of the blob.
+     * @return the content of the blob.
+     * @throws java.nio.file.NoSuchFileException if there is no blob with this key.
+     * @throws IOException if the blob couldn't be read.
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Open a range of a stored blob, the caller must close the returned stream.
+     *
+     * @param key the key of the blob.
+     * @param offset the offset of the first byte to read.
+     * @param length the maximum number of bytes to read.
+     * @return the content of the range.
+     * @throws java.nio.file.NoSuchFileException if there is no blob with this key.
+     * @throws IOException if the blob couldn't be read.
+     */
+    default InputStream open(String key, long offset, long length) throws IOException {
+        InputStream in = open(key);
+        try {
+            IOUtils.skipFully(in, offset);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BoundedInputStream(in, length);
+    }
+
+    /**
+     * Get the file holding a blob, for the stores keeping blobs as local files: such a file can be sent
+     * without copying it through the heap.
+     *
+     * @param key the key of the blob.
+     * @return the file of the blob, or nothing if the store doesn't keep blobs as local files or the blob doesn't exist.
+     */
+    default Optional<File> getFile(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * @param key the key of the blob.
+     * @return the size of the blob, in bytes.
+     * @throws java.nio.file.NoSuchFileException if there is no blob with this key.
+     * @throws IOException if the size couldn't be read.
+     */
+    long size(String key) throws IOException;
+
+    /**
+     * @param key the key of the blob.
+     * @return whether a blob with this key is stored.
+     */
+    boolean exists(String key);
+
+    /**
+     * Store a derivative of a blob, such as a resized image, next to it. A derivative is identified by the key
+     * of its blob and a name, and replaces any previous derivative with the same name.
+     *
+     * @param key the key of the original blob.
+     * @param name the name of the derivative, made of lowercase letters and digits.
+     * @param content the content of the derivative, read until its end but not closed.
+     * @throws IOException if the content couldn't be read or stored.
+     */
+    void putDerivative(String key, String name, InputStream content) throws IOException;
+
+    /**
+     * Open a derivative of a blob, the caller must close the returned stream.
+     *
+     * @param key the key of the original blob.
+     * @param name the name of the derivative.
+     * @return the content of the derivative.
+     * @throws java.nio.file.NoSuchFileException if there is no such derivative.
+     * @throws IOException if the derivative couldn't be read.
+     */
+    InputStream openDerivative(String key, String name) throws IOException;
+
+    /**
+     * Get the file holding a derivative, see {@link #getFile(String)}.
+     *
+     * @param key the key of the original blob.
+     * @param name the name of the derivative.
+     * @return the file of the derivative, or nothing if the store doesn't keep local files or the derivative doesn't exist.
+     */
+    default Optional<File> getDerivativeFile(String key, String name) {
+        return Optional.empty();
+    }
+
+    /**
+     * @param key the key of the original blob.
+     * @param name the name of the derivative.
+     * @return whether this derivative of the blob is stored.
+     */
+    boolean derivativeExists(String key, String name);
+
+    /**
+     * Delete a stored blob with all its derivatives, nothing is done if there is no blob with this key.
+     *
+     * @param key the key of the blob.
+     * @throws IOException if the blob couldn't be deleted.
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * Visit the blobs last stored before an instant.
+     *
+     * @param storedBefore the instant.
+     * @param consumer the consumer of the keys of the blobs.
+     * @throws IOException if the blobs couldn't be listed.
+     */
+    void forEachStoredBefore(Instant storedBefore, Consumer<String> consumer) throws IOException;
+
+    /**
+     * Delete a stored blob with all its derivatives, unless it was stored again since an instant.
+     *
+     * @param key the key of the blob.
+     * @param storedBefore the instant.
+     * @return whether the blob was deleted.
+     * @throws IOException if the blob couldn't be deleted.
+     */
+    boolean deleteIfStoredBefore(String key, Instant storedBefore) throws IOException;
+}
@@ -0,0 +1,43 @@
+package com.springernature.sndeals.service.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes a blob pushed in chunks, for instance while it is received, hashing it on the fly.
+ * <p>
+ * The blob only becomes visible in the store once {@link #commit()} returns, closing the writer before that
+ * discards everything written so far.
+ */
+public interface BlobWriter extends Closeable {
+
+    /**
+     * Append a chunk to the blob.
+     *
+     * @param chunk the chunk, which is fully consumed.
+     * @throws IOException if the chunk couldn't be written.
+     */
+    void write(ByteBuffer chunk) throws IOException;
+
+    /**
+     * @return the number of bytes written so far.
+     */
+    long getSize();
+
+    /**
+     * Store the written content under its SHA-256.
+     *
+     * @return the key and the size of the stored blob.
+     * @throws IOException if the blob couldn't be stored.
+     */
+    StoredBlob commit() throws IOException;
+
+    /**
+     * Release the writer, discarding the content if it wasn't committed.
+     *
+     * @throws IOException if the writer couldn't be released.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,297 @@
+package com.springernature.sndeals.service.storage;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link BlobStore} keeping the blobs as files on the local filesystem.
+ * <p>
+ * A blob is stored at {@code <directory>/ab/cd/abcd...}, where {@code abcd...} is its SHA-256: the two levels of
+ * sharding keep every directory small. The content is first written to a temporary file of the same filesystem
+ * while it is hashed, then atomically moved to its final path, so a partially written blob is never visible.
+ * The derivatives of a blob are stored next to it, at {@code <directory>/ab/cd/abcd....<name>}. The time of a blob
+ * is the last modified time of its file.
+ * <p>
+ * The nodes of a cluster serve the attachments stored by each other, so unless {@code application.cluster.transport}
+ * is {@code local} the directory must be shared by the nodes, as a network filesystem mounted at the same path on
+ * each of them. A relative directory would be one of the working directory of each node: the store refuses it, and is
+ * created with the context so that the node doesn't start.
+ */
+@Context
+@Requires(property = "application.storage.type", value = "filesystem", defaultValue = "filesystem")
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final Pattern DERIVATIVE_NAME_PATTERN = Pattern.compile("[a-z0-9]+");
+
+    private final Logger log = LoggerFactory.getLogger(FileSystemBlobStore.class);
+
+    private final Path directory;
+
+    private final Path temporaryDirectory;
+
+    @Inject
+    public FileSystemBlobStore(ApplicationProperties applicationProperties) {
+        this(directory(applicationProperties));
+    }
+
+    public FileSystemBlobStore(Path directory) {
+        this.directory = directory.toAbsolutePath();
+        this.temporaryDirectory = this.directory.resolve("tmp");
+    }
+
+    static Path directory(ApplicationProperties applicationProperties) {
+        Path directory = Paths.get(applicationProperties.getStorage().getDirectory());
+        if (!"local".equals(applicationProperties.getCluster().getTransport()) && !directory.isAbsolute()) {
+            throw new IllegalStateException("application.storage.directory must be a directory shared by the nodes of the cluster, "
+                + "with an absolute path, not " + directory);
+        }
+        return directory;
+    }
+
+    @Override
+    public BlobWriter newWriter() throws IOException {
+        Files.createDirectories(temporaryDirectory);
+        return new FileSystemBlobWriter(Files.createTempFile(temporaryDirectory, "blob-", ".tmp"));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public Optional<File> getFile(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? Optional.of(path.toFile()) : Optional.empty();
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void putDerivative(String key, String name, InputStream content) throws IOException {
+        Path path = resolveDerivative(key, name);
+        Files.createDirectories(temporaryDirectory);
+        Path temporaryFile = Files.createTempFile(temporaryDirectory, "derivative-", ".tmp");
+        try {
+            Files.copy(content, temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.createDirectories(path.getParent());
+            Files.move(temporaryFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    @Override
+    public InputStream openDerivative(String key, String name) throws IOException {
+        return Files.newInputStream(resolveDerivative(key, name));
+    }
+
+    @Override
+    public Optional<File> getDerivativeFile(String key, String name) {
+        Path path = resolveDerivative(key, name);
+        return Files.isRegularFile(path) ? Optional.of(path.toFile()) : Optional.empty();
+    }
+
+    @Override
+    public boolean derivativeExists(String key, String name) {
+        return Files.exists(resolveDerivative(key, name));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path path = resolve(key);
+        Files.deleteIfExists(path);
+        deleteDerivatives(key, path);
+    }
+
+    @Override
+    public void forEachStoredBefore(Instant storedBefore, Consumer<String> consumer) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.find(directory, 3, (path, attributes) -> attributes.isRegularFile()
+            && KEY_PATTERN.matcher(path.getFileName().toString()).matches()
+            && attributes.lastModifiedTime().toInstant().isBefore(storedBefore))) {
+            files.forEach(path -> consumer.accept(path.getFileName().toString()));
+        }
+    }
+
+    @Override
+    public boolean deleteIfStoredBefore(String key, Instant storedBefore) throws IOException {
+        Path path = resolve(key);
+        try {
+            if (!Files.getLastModifiedTime(path).toInstant().isBefore(storedBefore)) {
+                return false;
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        Files.deleteIfExists(path);
+        deleteDerivatives(key, path);
+        return true;
+    }
+
+    private void deleteDerivatives(String key, Path path) throws IOException {
+        if (Files.isDirectory(path.getParent())) {
+            try (DirectoryStream<Path> derivatives = Files.newDirectoryStream(path.getParent(), key + ".*")) {
+                for (Path derivative : derivatives) {
+                    Files.deleteIfExists(derivative);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param key the key of the blob.
+     * @return the path of the blob.
+     * @throws IllegalArgumentException if the key is not a SHA-256, which also prevents any path traversal.
+     */
+    Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return directory.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    /**
+     * @param key the key of the original blob.
+     * @param name the name of the derivative.
+     * @return the path of the derivative, {@code <blob path>.<name>}.
+     * @throws IllegalArgumentException if the key or the name is invalid.
+     */
+    Path resolveDerivative(String key, String name) {
+        if (name == null || !DERIVATIVE_NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid derivative name: " + name);
+        }
+        Path path = resolve(key);
+        return path.resolveSibling(key + "." + name);
+    }
+
+    private final class FileSystemBlobWriter implements BlobWriter {
+
+        private final Path temporaryFile;
+
+        private final FileChannel channel;
+
+        private final MessageDigest digest = newDigest();
+
+        private long size;
+
+        private FileSystemBlobWriter(Path temporaryFile) throws IOException {
+            this.temporaryFile = temporaryFile;
+            this.channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE);
+        }
+
+        @Override
+        public void write(ByteBuffer chunk) throws IOException {
+            digest.update(chunk.duplicate());
+            while (chunk.hasRemaining()) {
+                size += channel.write(chunk);
+            }
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public StoredBlob commit() throws IOException {
+            channel.close();
+            String key = toHex(digest.digest());
+            Path path = resolve(key);
+            if (!touch(path)) {
+                Files.createDirectories(path.getParent());
+                // Concurrent writers of the same content would move identical files, so the last one can win
+                Files.move(temporaryFile, path, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredBlob(key, size);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Set the time of a stored blob to now, so that it isn't collected while a new reference to it is committed.
+     *
+     * @return {@code false} if the blob isn't stored.
+     */
+    private boolean touch(Path path) throws IOException {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            log.debug("Blob {} is already stored", path.getFileName());
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,289 @@
+package com.springernature.sndeals.service.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Records keyed by a {@code long}, kept in a memory-mapped file outside of the Java heap.
+ * <p>
+ * The records are appended to the file as {@code [int length][bytes]}. The index is two primitive arrays sorted by
+ * key, the keys and the offsets of their records, so a record is found by a binary search and the records can be
+ * read in key order; the heap only holds 12 bytes per record. A replaced or removed record is left in the file until
+ * it is full: the live records are then copied to a new file, twice as large as them.
+ * <p>
+ * The file is a working copy of data held elsewhere, it is truncated when opened and deleted when closed. A file
+ * is mapped at most 2 GB at a time. Reads can run concurrently, writes are serialized.
+ */
+public class MappedRecordStore implements Closeable {
+
+    private static final long MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private static final int PAGE_SIZE = 4096;
+
+    private final Path file;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private ByteBuffer readOnlyBuffer;
+
+    private long[] keys = new long[16];
+
+    private int[] offsets = new int[16];
+
+    private int size;
+
+    private int end;
+
+    private long garbage;
+
+    public MappedRecordStore(Path file, int initialCapacity) throws IOException {
+        this.file = file.toAbsolutePath();
+        Files.createDirectories(this.file.getParent());
+        this.channel = open(this.file);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialCapacity, PAGE_SIZE));
+        this.readOnlyBuffer = buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Add or replace the record of a key.
+     *
+     * @param key the key.
+     * @param record the record, copied to the file.
+     * @throws IllegalStateException if the live records don't fit in a single mapping anymore.
+     */
+    public void put(long key, byte[] record) {
+        lock.writeLock().lock();
+        try {
+            int needed = Integer.BYTES + record.length;
+            if ((long) end + needed > buffer.capacity()) {
+                compact(needed);
+            }
+            int offset = end;
+            buffer.position(offset);
+            buffer.putInt(record.length).put(record);
+            end += needed;
+
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                garbage += Integer.BYTES + buffer.getInt(offsets[index]);
+                offsets[index] = offset;
+            } else {
+                insert(-index - 1, key, offset);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param key the key.
+     * @return {@code true} if there was a record for the key.
+     */
+    public boolean remove(long key) {
+        lock.writeLock().lock();
+        try {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index < 0) {
+                return false;
+            }
+            garbage += Integer.BYTES + buffer.getInt(offsets[index]);
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(offsets, index + 1, offsets, index, size - index - 1);
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Read the record of a key. The reader must not keep the buffer, which is only valid during the call; it runs
+     * under the read lock and holds off the writes, so it should only decode the record, not block.
+     *
+     * @param key the key.
+     * @param reader the reader, given a read-only buffer positioned at the start of the record and limited to its end.
+     * @param <T> the type of the read value.
+     * @return the read value, {@code null} if there is no record for the key.
+     * @throws IllegalStateException if the store is closed.
+     */
+    public <T> T get(long key, RecordReader<T> reader) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            return index < 0 ? null : reader.read(record(offsets[index]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read a range of the records, in key order.
+     *
+     * @param from the index of the first record, in key order.
+     * @param count the maximum number of records to read.
+     * @param descending whether the records are read from the highest key.
+     * @param consumer the consumer of the records, with the same constraints as the reader of {@link #get(long, RecordReader)}.
+     * @throws IllegalStateException if the store is closed.
+     */
+    public void forEach(int from, int count, boolean descending, Consumer<ByteBuffer> consumer) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            for (int i = from; i < size && i < (long) from + count; i++) {
+                consumer.accept(record(offsets[descending ? size - 1 - i : i]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of records.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the file of the records.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the size of the file mapped in memory, in bytes.
+     */
+    public long getMappedBytes() {
+        lock.readLock().lock();
+        try {
+            return buffer == null ? 0 : buffer.capacity();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+                buffer = null;
+                readOnlyBuffer = null;
+                Files.deleteIfExists(file);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (channel == null) {
+            throw new IllegalStateException("The records of " + file + " are closed");
+        }
+    }
+
+    private ByteBuffer record(int offset) {
+        ByteBuffer record = readOnlyBuffer.duplicate();
+        record.limit(offset + Integer.BYTES + readOnlyBuffer.getInt(offset));
+        record.position(offset + Integer.BYTES);
+        return record;
+    }
+
+    private void insert(int index, long key, int offset) {
+        if (size == keys.length) {
+            int length = size + (size >> 1);
+            keys = Arrays.copyOf(keys, length);
+            offsets = Arrays.copyOf(offsets, length);
+        }
+        // The keys are mostly appended, as the ids come from a sequence
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(offsets, index, offsets, index + 1, size - index);
+        keys[index] = key;
+        offsets[index] = offset;
+        size++;
+    }
+
+    /**
+     * Copy the live records to a new file with room for {@code needed} more bytes.
+     */
+    private void compact(int needed) throws IOException {
+        long live = end - garbage;
+        // Rounded to whole pages
+        long wanted = (2 * (live + needed) + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+        long capacity = Math.max(buffer.capacity(), Math.min(MAX_CAPACITY, wanted));
+        if (live + needed > capacity) {
+            throw new IllegalStateException("The records of " + file + " don't fit in " + MAX_CAPACITY + " bytes");
+        }
+        Path compacted = file.resolveSibling(file.getFileName() + ".compacting");
+        FileChannel compactedChannel = open(compacted);
+        MappedByteBuffer compactedBuffer;
+        try {
+            compactedBuffer = compactedChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            compactedChannel.close();
+            throw e;
+        }
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            int length = Integer.BYTES + readOnlyBuffer.getInt(offsets[i]);
+            ByteBuffer record = readOnlyBuffer.duplicate();
+            record.limit(offsets[i] + length);
+            record.position(offsets[i]);
+            compactedBuffer.position(position);
+            compactedBuffer.put(record);
+            offsets[i] = position;
+            position += length;
+        }
+        end = position;
+        garbage = 0;
+        channel.close();
+        // The previous mapping is released when it is garbage collected
+        channel = compactedChannel;
+        buffer = compactedBuffer;
+        readOnlyBuffer = compactedBuffer.asReadOnlyBuffer();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Reader of a record.
+     *
+     * @param <T> the type of the read value.
+     */
+    @FunctionalInterface
+    public interface RecordReader<T> {
+
+        T read(ByteBuffer record);
+    }
+}
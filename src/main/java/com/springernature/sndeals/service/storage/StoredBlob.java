@@ -0,0 +1,38 @@
+package com.springernature.sndeals.service.storage;
+
+/**
+ * A blob written to a {@link BlobStore}.
+ */
+public final class StoredBlob {
+
+    private final String key;
+
+    private final long size;
+
+    public StoredBlob(String key, long size) {
+        this.key = key;
+        this.size = size;
+    }
+
+    /**
+     * @return the SHA-256 of the content, as a lowercase hex string.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the size of the content, in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "StoredBlob{" +
+            "key='" + key + "'" +
+            ", size=" + size +
+            "}";
+    }
+}
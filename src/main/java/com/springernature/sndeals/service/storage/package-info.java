@@ -0,0 +1,4 @@
+/**
+ * Storage outside of the database: the attachment content, and the memory-mapped records of the off-heap read stores.
+ */
+package com.springernature.sndeals.service.storage;
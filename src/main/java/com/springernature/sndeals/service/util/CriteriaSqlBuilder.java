@@ -0,0 +1,269 @@
+package com.springernature.sndeals.service.util;
+
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.RangeFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles JHipster {@link Filter}s into a bind-parameterized native SQL query on a single table.
+ * <p>
+ * The generated SQL only depends on which filters and operators are set, never on the filtered values:
+ * values are always bound as parameters, and {@code in}/{@code notIn} lists are padded to the next power
+ * of two. Each filter shape therefore maps to one stable statement, which the JDBC driver's prepared
+ * statement cache and the database plan cache can re-use.
+ */
+public class CriteriaSqlBuilder {
+
+    private final String table;
+
+    private final List<String> predicates = new ArrayList<>();
+
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    private String orderBy;
+
+    /**
+     * @param table the table to query, also used to qualify the columns.
+     */
+    public CriteriaSqlBuilder(String table) {
+        this.table = table;
+    }
+
+    /**
+     * Add the predicates of a filter on a column of the table. Every operator set on the filter is
+     * combined with {@code AND}, a {@code null} filter is ignored.
+     *
+     * @param column the unqualified column name.
+     * @param filter the filter to apply to the column.
+     * @return this builder.
+     */
+    public CriteriaSqlBuilder filter(String column, Filter<?> filter) {
+        if (filter == null) {
+            return this;
+        }
+        String qualifiedColumn = table + "." + column;
+        String parameterPrefix = table + "_" + column;
+        if (filter.getEquals() != null) {
+            addPredicate(qualifiedColumn + " = :" + bind(parameterPrefix + "_eq", filter.getEquals()));
+        }
+        if (filter.getNotEquals() != null) {
+            addPredicate(qualifiedColumn + " <> :" + bind(parameterPrefix + "_ne", filter.getNotEquals()));
+        }
+        if (filter.getSpecified() != null) {
+            addPredicate(qualifiedColumn + (filter.getSpecified() ? " IS NOT NULL" : " IS NULL"));
+        }
+        if (filter.getIn() != null) {
+            if (filter.getIn().isEmpty()) {
+                addPredicate("1 = 0");
+            } else {
+                addPredicate(qualifiedColumn + " IN (" + bindList(parameterPrefix + "_in", filter.getIn()) + ")");
+            }
+        }
+        if (filter.getNotIn() != null && !filter.getNotIn().isEmpty()) {
+            addPredicate(qualifiedColumn + " NOT IN (" + bindList(parameterPrefix + "_nin", filter.getNotIn()) + ")");
+        }
+        if (filter instanceof RangeFilter) {
+            RangeFilter<?> rangeFilter = (RangeFilter<?>) filter;
+            if (rangeFilter.getGreaterThan() != null) {
+                addPredicate(qualifiedColumn + " > :" + bind(parameterPrefix + "_gt", rangeFilter.getGreaterThan()));
+            }
+            if (rangeFilter.getGreaterThanOrEqual() != null) {
+                addPredicate(qualifiedColumn + " >= :" + bind(parameterPrefix + "_gte", rangeFilter.getGreaterThanOrEqual()));
+            }
+            if (rangeFilter.getLessThan() != null) {
+                addPredicate(qualifiedColumn + " < :" + bind(parameterPrefix + "_lt", rangeFilter.getLessThan()));
+            }
+            if (rangeFilter.getLessThanOrEqual() != null) {
+                addPredicate(qualifiedColumn + " <= :" + bind(parameterPrefix + "_lte", rangeFilter.getLessThanOrEqual()));
+            }
+        }
+        if (filter instanceof StringFilter) {
+            StringFilter stringFilter = (StringFilter) filter;
+            if (stringFilter.getContains() != null) {
+                addPredicate("UPPER(" + qualifiedColumn + ") LIKE :" + bind(parameterPrefix + "_like", wrapLikeQuery(stringFilter.getContains())));
+            }
+            if (stringFilter.getDoesNotContain() != null) {
+                addPredicate("UPPER(" + qualifiedColumn + ") NOT LIKE :" + bind(parameterPrefix + "_nlike", wrapLikeQuery(stringFilter.getDoesNotContain())));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Restrict the rows to the ones sorted after a (sort value, id) tuple, for keyset pagination.
+     * <p>
+     * The query must be ordered by the same column then by id, in the same direction, and this pair
+     * must be backed by an index so the database can seek to the tuple instead of scanning.
+     *
+     * @param column the unqualified sort column.
+     * @param value the sort value of the last row of the previous page.
+     * @param id the id of the last row of the previous page.
+     * @param descending whether the rows are sorted in descending order.
+     * @return this builder.
+     */
+    public CriteriaSqlBuilder seek(String column, Object value, long id, boolean descending) {
+        String operator = descending ? " < " : " > ";
+        if ("id".equals(column)) {
+            addPredicate(table + ".id" + operator + ":" + bind("seek_id", id));
+        } else {
+            addPredicate("(" + table + "." + column + ", " + table + ".id)" + operator
+                + "(:" + bind("seek_value", value) + ", :" + bind("seek_id", id) + ")");
+        }
+        return this;
+    }
+
+    /**
+     * Set the {@code ORDER BY} clause of the select queries.
+     *
+     * @param orderBy the clause, without the {@code ORDER BY} keywords.
+     * @return this builder.
+     */
+    public CriteriaSqlBuilder orderBy(String orderBy) {
+        this.orderBy = orderBy;
+        return this;
+    }
+
+    /**
+     * Order the select queries by the requested sort, the id is always added last so the order is total.
+     *
+     * @param sort the requested sort.
+     * @param sortableColumns the whitelist of the sortable properties.
+     * @return this builder.
+     * @throws com.springernature.sndeals.web.rest.errors.BadRequestAlertException if a property can't be sorted by.
+     */
+    public CriteriaSqlBuilder orderBy(Sort sort, SortableColumns<?> sortableColumns) {
+        List<String> orders = new ArrayList<>();
+        Sort.Order.Direction idDirection = Sort.Order.Direction.ASC;
+        for (Sort.Order order : sort.getOrderBy()) {
+            String column = sortableColumns.getColumn(order.getProperty());
+            if (orders.isEmpty()) {
+                idDirection = order.getDirection();
+            }
+            if ("id".equals(column)) {
+                // The id is unique, any order after it would be useless
+                idDirection = order.getDirection();
+                break;
+            }
+            orders.add(table + "." + column + " " + order.getDirection().name());
+        }
+        orders.add(table + ".id " + idDirection.name());
+        return orderBy(String.join(", ", orders));
+    }
+
+    /**
+     * @return the {@code WHERE} clause, with a leading space, or an empty string if there is no predicate.
+     */
+    public String getWhereClause() {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    /**
+     * @return the parameters to bind, by name.
+     */
+    public Map<String, Object> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Build the select statement.
+     *
+     * @param selection the selected columns.
+     * @return the SQL statement.
+     */
+    public String toSelectSql(String selection) {
+        return "SELECT " + selection + " FROM " + table + getWhereClause() + (orderBy == null ? "" : " ORDER BY " + orderBy);
+    }
+
+    /**
+     * @return the SQL statement counting the matching rows.
+     */
+    public String toCountSql() {
+        return "SELECT COUNT(*) FROM " + table + getWhereClause();
+    }
+
+    /**
+     * Create the query loading the requested page of matching entities, the paging is done by the database.
+     *
+     * @param entityManager the entity manager.
+     * @param resultClass the entity class mapped to the table.
+     * @param page the page to load, or {@code null} for all the matching entities.
+     * @return the query.
+     */
+    public Query createQuery(EntityManager entityManager, Class<?> resultClass, Pageable page) {
+        return page(bindParameters(entityManager.createNativeQuery(toSelectSql(table + ".*"), resultClass)), page);
+    }
+
+    /**
+     * Create the query loading only some columns of the requested page of matching rows, each result row being
+     * an {@code Object[]} of the selected columns. This is used to list entities without reading their large columns.
+     *
+     * @param entityManager the entity manager.
+     * @param selection the selected columns.
+     * @param page the page to load, or {@code null} for all the matching rows.
+     * @return the query.
+     */
+    public Query createProjectionQuery(EntityManager entityManager, String selection, Pageable page) {
+        return page(bindParameters(entityManager.createNativeQuery(toSelectSql(selection))), page);
+    }
+
+    /**
+     * Count the matching rows.
+     *
+     * @param entityManager the entity manager.
+     * @return the number of matching rows.
+     */
+    public long count(EntityManager entityManager) {
+        Number count = (Number) bindParameters(entityManager.createNativeQuery(toCountSql())).getSingleResult();
+        return count.longValue();
+    }
+
+    private Query bindParameters(Query query) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    private static Query page(Query query, Pageable page) {
+        if (page != null && !page.isUnpaged()) {
+            query.setFirstResult((int) page.getOffset());
+            query.setMaxResults(page.getSize());
+        }
+        return query;
+    }
+
+    private void addPredicate(String predicate) {
+        predicates.add(predicate);
+    }
+
+    private String bind(String name, Object value) {
+        parameters.put(name, value);
+        return name;
+    }
+
+    private String bindList(String name, List<?> values) {
+        int paddedSize = Integer.highestOneBit(values.size());
+        if (paddedSize < values.size()) {
+            paddedSize <<= 1;
+        }
+        List<String> names = new ArrayList<>(paddedSize);
+        for (int i = 0; i < paddedSize; i++) {
+            // Padding with the last value keeps the statement identical for lists of a similar size
+            Object value = values.get(Math.min(i, values.size() - 1));
+            names.add(":" + bind(name + i, value));
+        }
+        return String.join(", ", names);
+    }
+
+    private static String wrapLikeQuery(String value) {
+        return "%" + value.toUpperCase() + "%";
+    }
+}
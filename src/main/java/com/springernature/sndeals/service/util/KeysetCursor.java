@@ -0,0 +1,76 @@
+package com.springernature.sndeals.service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque cursor used for keyset pagination.
+ * <p>
+ * It holds the sort property and the (sort value, id) tuple of the last element of a page, the next page
+ * is then read by seeking past that tuple on an index instead of skipping rows with an {@code OFFSET}.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '\n';
+
+    private final String sortProperty;
+
+    private final String sortValue;
+
+    private final long id;
+
+    public KeysetCursor(String sortProperty, Object sortValue, long id) {
+        this.sortProperty = Objects.requireNonNull(sortProperty);
+        this.sortValue = String.valueOf(sortValue);
+        this.id = id;
+    }
+
+    public String getSortProperty() {
+        return sortProperty;
+    }
+
+    public String getSortValue() {
+        return sortValue;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return the URL safe representation of the cursor.
+     */
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + sortProperty + SEPARATOR + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor.
+     * @return the cursor, or {@code null} if it is empty, which designates the first page.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = raw.split(String.valueOf(SEPARATOR), 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+        return new KeysetCursor(parts[1], parts[2], Long.parseLong(parts[0]));
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "sortProperty='" + sortProperty + "'" +
+            ", sortValue='" + sortValue + "'" +
+            ", id=" + id +
+            "}";
+    }
+}
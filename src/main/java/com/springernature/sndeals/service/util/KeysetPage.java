@@ -0,0 +1,42 @@
+package com.springernature.sndeals.service.util;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A page read with keyset pagination.
+ *
+ * @param <T> the type of the content.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> content;
+
+    private final String nextCursor;
+
+    private final Long totalSize;
+
+    public KeysetPage(List<T> content, String nextCursor, Long totalSize) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.totalSize = totalSize;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the encoded cursor of the next page, empty if this is the last page.
+     */
+    public Optional<String> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    /**
+     * @return the total number of matching elements, empty if it wasn't requested.
+     */
+    public Optional<Long> getTotalSize() {
+        return Optional.ofNullable(totalSize);
+    }
+}
@@ -0,0 +1,38 @@
+package com.springernature.sndeals.service.util;
+
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Utility class for building {@link Page} instances from a page of content and a count query.
+ */
+public final class PageUtil {
+
+    private PageUtil() {
+    }
+
+    /**
+     * Build a {@link Page}, only running the count query when the total can't be deduced from the content.
+     * <p>
+     * The total is known without asking the database when the page is unpaged, or when it is the
+     * last page: it is then the offset plus the number of returned elements.
+     *
+     * @param content the content of the requested page.
+     * @param pageable the pagination information.
+     * @param totalSupplier the count query for the total number of elements.
+     * @param <T> the type of the content.
+     * @return the page.
+     */
+    public static <T> Page<T> getPage(List<T> content, Pageable pageable, LongSupplier totalSupplier) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return Page.of(content, pageable == null ? Pageable.UNPAGED : pageable, content.size());
+        }
+        if (content.size() < pageable.getSize() && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            return Page.of(content, pageable, pageable.getOffset() + content.size());
+        }
+        return Page.of(content, pageable, totalSupplier.getAsLong());
+    }
+}
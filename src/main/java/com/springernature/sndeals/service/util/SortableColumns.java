@@ -0,0 +1,139 @@
+package com.springernature.sndeals.service.util;
+
+import com.springernature.sndeals.web.rest.errors.BadRequestAlertException;
+import io.micronaut.data.model.Sort;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Whitelist of the properties an entity can be sorted by, with the column backing each of them.
+ * <p>
+ * Every column registered here must have a composite {@code (column, id)} index, so that sorted pages and
+ * keyset seeks are served by an index scan.
+ *
+ * @param <E> the type of the entity.
+ */
+public class SortableColumns<E> {
+
+    private final String entityName;
+
+    private final Map<String, SortableColumn<E>> columns = new LinkedHashMap<>();
+
+    public SortableColumns(String entityName) {
+        this.entityName = entityName;
+    }
+
+    /**
+     * Register a text column.
+     *
+     * @param property the property name, as sent in the {@code sort} parameter.
+     * @param column the unqualified column name.
+     * @param getter the getter of the sort value on the entity.
+     * @return this whitelist.
+     */
+    public SortableColumns<E> add(String property, String column, Function<E, String> getter) {
+        columns.put(property, new SortableColumn<>(column, getter, Function.identity()));
+        return this;
+    }
+
+    /**
+     * Register a numeric column.
+     *
+     * @param property the property name, as sent in the {@code sort} parameter.
+     * @param column the unqualified column name.
+     * @param getter the getter of the sort value on the entity.
+     * @return this whitelist.
+     */
+    public SortableColumns<E> addNumeric(String property, String column, Function<E, Long> getter) {
+        columns.put(property, new SortableColumn<>(column, getter, Long::valueOf));
+        return this;
+    }
+
+    /**
+     * @param property the property name.
+     * @return the column backing the property.
+     * @throws BadRequestAlertException if the property can't be sorted by.
+     */
+    public String getColumn(String property) {
+        return get(property).column;
+    }
+
+    /**
+     * @param property the property name.
+     * @param entity the entity.
+     * @return the sort value of the entity.
+     */
+    public Object getValue(String property, E entity) {
+        return get(property).getter.apply(entity);
+    }
+
+    /**
+     * @param property the property name.
+     * @param value the sort value, as stored in a {@link KeysetCursor}.
+     * @return the sort value, with the type of the column.
+     */
+    public Object parseValue(String property, String value) {
+        try {
+            return get(property).parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+        }
+    }
+
+    /**
+     * Get the order of a keyset page: keyset pagination seeks on a single (sort value, id) tuple, so only
+     * one sort property is supported, and the id is used when the request isn't sorted.
+     *
+     * @param sort the requested sort.
+     * @return the order of the page.
+     */
+    public Sort.Order getKeysetOrder(Sort sort) {
+        List<Sort.Order> orders = sort.getOrderBy();
+        if (orders.isEmpty()) {
+            return Sort.Order.asc("id");
+        }
+        if (orders.size() > 1) {
+            throw new BadRequestAlertException("Keyset pagination supports a single sort property", entityName, "sortunsupported");
+        }
+        get(orders.get(0).getProperty());
+        return orders.get(0);
+    }
+
+    /**
+     * @param cursor the cursor of the previous page.
+     * @param order the order of the requested page.
+     * @return the sort value of the cursor, with the type of the column.
+     */
+    public Object getCursorValue(KeysetCursor cursor, Sort.Order order) {
+        if (!cursor.getSortProperty().equals(order.getProperty())) {
+            throw new BadRequestAlertException("The cursor does not match the requested sort", entityName, "invalidcursor");
+        }
+        return parseValue(order.getProperty(), cursor.getSortValue());
+    }
+
+    private SortableColumn<E> get(String property) {
+        SortableColumn<E> sortableColumn = columns.get(property);
+        if (sortableColumn == null) {
+            throw new BadRequestAlertException("Sorting by " + property + " is not supported", entityName, "sortunsupported");
+        }
+        return sortableColumn;
+    }
+
+    private static final class SortableColumn<E> {
+
+        private final String column;
+
+        private final Function<E, ?> getter;
+
+        private final Function<String, ?> parser;
+
+        private SortableColumn(String column, Function<E, ?> getter, Function<String, ?> parser) {
+            this.column = column;
+            this.getter = getter;
+            this.parser = parser;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.springernature.sndeals.util;
+
+import java.util.Optional;
+
+/**
+ * A single byte range requested by a {@code Range} header, resolved against the size of the content.
+ * <p>
+ * Only single ranges are supported: a header with several ranges, another unit or an invalid syntax is ignored,
+ * and the full content is served, as allowed by RFC 7233.
+ */
+public final class ByteRange {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+
+    private final long end;
+
+    private final boolean satisfiable;
+
+    private ByteRange(long start, long end, boolean satisfiable) {
+        this.start = start;
+        this.end = end;
+        this.satisfiable = satisfiable;
+    }
+
+    /**
+     * @param header the value of the {@code Range} header, may be {@code null}.
+     * @param size the size of the content.
+     * @return the requested range, or nothing if the full content should be served.
+     */
+    public static Optional<ByteRange> parse(String header, long size) {
+        if (header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+            return Optional.empty();
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return Optional.empty();
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffixLength = Long.parseLong(last);
+                if (suffixLength <= 0 || size == 0) {
+                    return Optional.of(unsatisfiable());
+                }
+                return Optional.of(new ByteRange(Math.max(0, size - suffixLength), size - 1, true));
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return Optional.empty();
+            }
+            if (start >= size) {
+                return Optional.of(unsatisfiable());
+            }
+            return Optional.of(new ByteRange(start, Math.min(end, size - 1), true));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static ByteRange unsatisfiable() {
+        return new ByteRange(0, -1, false);
+    }
+
+    /**
+     * @return whether the range overlaps the content, otherwise a {@code 416 (Range Not Satisfiable)} must be sent.
+     */
+    public boolean isSatisfiable() {
+        return satisfiable;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return the offset of the last byte of the range, inclusive.
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * @param size the size of the content.
+     * @return the value of the {@code Content-Range} header of the response.
+     */
+    public String toContentRange(long size) {
+        return satisfiable ? "bytes " + start + "-" + end + "/" + size : "bytes */" + size;
+    }
+}
@@ -0,0 +1,104 @@
+package com.springernature.sndeals.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Utility class computing the strong entity tags of the REST resources from the versions of their entities.
+ * <p>
+ * A representation changes only when one of the entities it is built from is written, which increments its
+ * version: the tag is then computed without serializing the representation.
+ */
+public final class ETagUtil {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ETagUtil() {
+    }
+
+    /**
+     * @param versions the versions of the entities the representation is built from, always in the same order.
+     * @return the quoted entity tag.
+     */
+    public static String fromVersions(Object... versions) {
+        StringBuilder tag = new StringBuilder("\"");
+        for (int i = 0; i < versions.length; i++) {
+            if (i > 0) {
+                tag.append('-');
+            }
+            tag.append(versions[i]);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Read back the first version of an entity tag built by {@link #fromVersions(Object...)}, the version of the
+     * entity the resource is, so that a conditional update can be checked by the version of the entity itself.
+     *
+     * @param etag a single entity tag, quoted.
+     * @return the version, empty if the tag is weak, a list of tags, or wasn't built from versions.
+     */
+    public static Optional<Long> parseVersion(String etag) {
+        String tag = etag.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.indexOf('"', 1) != tag.length() - 1) {
+            return Optional.empty();
+        }
+        int end = tag.indexOf('-');
+        try {
+            return Optional.of(Long.valueOf(tag.substring(1, end < 0 ? tag.length() - 1 : end)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Compute the entity tag of a page of elements, the hash of the ids and tags of the elements and of the total
+     * count sent in the headers.
+     *
+     * @param elements the elements of the page, in the order they are sent.
+     * @param id the id of an element.
+     * @param tag the entity tag of an element.
+     * @param totalSize the total count of elements, {@code null} if it isn't sent.
+     * @param <T> the type of the elements.
+     * @return the quoted entity tag.
+     */
+    public static <T> String fromList(List<T> elements, Function<T, ?> id, Function<T, String> tag, Long totalSize) {
+        MessageDigest digest = sha256();
+        digest.update(String.valueOf(totalSize).getBytes(StandardCharsets.UTF_8));
+        for (T element : elements) {
+            digest.update((";" + id.apply(element) + ":" + tag.apply(element)).getBytes(StandardCharsets.UTF_8));
+        }
+        return toTag(digest.digest());
+    }
+
+    /**
+     * Compute the entity tag of a representation which isn't built from versioned entities, the hash of its bytes.
+     *
+     * @param content the representation.
+     * @return the quoted entity tag.
+     */
+    public static String fromContent(byte[] content) {
+        return toTag(sha256().digest(content));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toTag(byte[] hash) {
+        // Half of the hash is plenty to tell the representations of a resource apart
+        StringBuilder hex = new StringBuilder("\"");
+        for (int i = 0; i < 16; i++) {
+            hex.append(HEX_DIGITS[(hash[i] >> 4) & 0xf]).append(HEX_DIGITS[hash[i] & 0xf]);
+        }
+        return hex.append('"').toString();
+    }
+}
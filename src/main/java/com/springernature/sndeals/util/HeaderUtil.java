@@ -4,6 +4,10 @@ import io.micronaut.http.MutableHttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
 public final class HeaderUtil {
     private static final Logger log = LoggerFactory.getLogger(HeaderUtil.class);
 
@@ -36,4 +40,87 @@ public final class HeaderUtil {
         headers.add("X-" + applicationName + "-error", message);
         headers.add("X-" + applicationName + "-params", entityName);
     }
+
+    /**
+     * Add a {@code Content-Disposition} header downloading the body as a file. The file name is sent both as a
+     * sanitized ASCII {@code filename} and as an RFC 5987 encoded {@code filename*}.
+     */
+    public static void createContentDisposition(MutableHttpHeaders headers, String fileName) {
+        String asciiFileName = fileName.replaceAll("[^\\x20-\\x7E]|[\"\\\\]", "_");
+        String encodedFileName;
+        try {
+            encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.name()).replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        headers.add("Content-Disposition", "attachment; filename=\"" + asciiFileName + "\"; filename*=UTF-8''" + encodedFileName);
+    }
+
+    /**
+     * Add the {@code ETag} of a versioned entity resource. The client may keep the response, but must revalidate it
+     * with an {@code If-None-Match} request before using it.
+     */
+    public static void createEntityTag(MutableHttpHeaders headers, String etag) {
+        headers.add("ETag", etag);
+        headers.add("Cache-Control", "private, no-cache");
+    }
+
+    /**
+     * Check an {@code If-None-Match} header against the current entity tag of a resource, with the weak
+     * comparison of RFC 7232.
+     *
+     * @param ifNoneMatch the value of the header, may be {@code null}.
+     * @param etag the current entity tag, quoted.
+     * @return whether the header matches, in which case a {@code 304 (Not Modified)} can be sent.
+     */
+    public static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String currentTag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(currentTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a content coding is acceptable, as described by RFC 7231: a coding listed with {@code q=0}, or
+     * only matched by a {@code *} with {@code q=0}, is not.
+     *
+     * @param acceptEncoding the value of the {@code Accept-Encoding} header, may be {@code null}.
+     * @param coding the content coding.
+     * @return whether the coding is acceptable.
+     */
+    public static boolean acceptsEncoding(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String name = parameters[0].trim();
+            boolean acceptable = true;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        acceptable = Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        acceptable = false;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(coding)) {
+                return acceptable;
+            }
+            if ("*".equals(name)) {
+                wildcard = acceptable;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
 }
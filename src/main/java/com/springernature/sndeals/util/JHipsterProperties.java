@@ -2,6 +2,9 @@ package com.springernature.sndeals.util;
 
 import io.micronaut.context.annotation.ConfigurationProperties;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @ConfigurationProperties("jhipster")
 public class JHipsterProperties {
 
@@ -9,12 +12,14 @@ public class JHipsterProperties {
     private Mail mail;
     private Logging logging;
     private Metrics metrics;
+    private Http http;
 
-    public JHipsterProperties(Cache cache, Mail mail, Logging logging, Metrics metrics) {
+    public JHipsterProperties(Cache cache, Mail mail, Logging logging, Metrics metrics, Http http) {
         this.cache = cache;
         this.mail = mail;
         this.logging = logging;
         this.metrics = metrics;
+        this.http = http;
     }
 
     public Cache getCache() {
@@ -33,6 +38,10 @@ public class JHipsterProperties {
         return metrics;
     }
 
+    public Http getHttp() {
+        return http;
+    }
+
     public void setCache(Cache cache) {
         this.cache = cache;
     }
@@ -49,6 +58,10 @@ public class JHipsterProperties {
         this.metrics = metrics;
     }
 
+    public void setHttp(Http http) {
+        this.http = http;
+    }
+
 
     @ConfigurationProperties("logging")
     public static class Logging {
@@ -148,6 +161,32 @@ public class JHipsterProperties {
         }
     }
 
+    @ConfigurationProperties("http")
+    public static class Http {
+        private Cache cache = new Cache();
+
+        public Cache getCache() {
+            return this.cache;
+        }
+
+        public void setCache(Cache cache) {
+            this.cache = cache;
+        }
+
+        @ConfigurationProperties("cache")
+        public static class Cache {
+            private int timeToLiveInDays = 1461;
+
+            public int getTimeToLiveInDays() {
+                return this.timeToLiveInDays;
+            }
+
+            public void setTimeToLiveInDays(int timeToLiveInDays) {
+                this.timeToLiveInDays = timeToLiveInDays;
+            }
+        }
+    }
+
     @ConfigurationProperties("mail")
     public static class Mail {
         private boolean enabled = false;
@@ -396,6 +435,8 @@ public class JHipsterProperties {
 
             private int timeToLiveSeconds = 3600;
             private long maxEntries = 100;
+            private Map<String, Integer> timeToLiveSecondsByRegion = new HashMap<>();
+            private Map<String, Long> maxEntriesByRegion = new HashMap<>();
 
             public int getTimeToLiveSeconds() {
                 return timeToLiveSeconds;
@@ -412,6 +453,36 @@ public class JHipsterProperties {
             public void setMaxEntries(long maxEntries) {
                 this.maxEntries = maxEntries;
             }
+
+            public Map<String, Integer> getTimeToLiveSecondsByRegion() {
+                return timeToLiveSecondsByRegion;
+            }
+
+            public void setTimeToLiveSecondsByRegion(Map<String, Integer> timeToLiveSecondsByRegion) {
+                this.timeToLiveSecondsByRegion = timeToLiveSecondsByRegion;
+            }
+
+            public Map<String, Long> getMaxEntriesByRegion() {
+                return maxEntriesByRegion;
+            }
+
+            public void setMaxEntriesByRegion(Map<String, Long> maxEntriesByRegion) {
+                this.maxEntriesByRegion = maxEntriesByRegion;
+            }
+
+            /**
+             * @return the time to live of the region, or {@link #getTimeToLiveSeconds()} when it has none.
+             */
+            public int getTimeToLiveSeconds(String region) {
+                return timeToLiveSecondsByRegion.getOrDefault(region, timeToLiveSeconds);
+            }
+
+            /**
+             * @return the maximum entries of the region, or {@link #getMaxEntries()} when it has none.
+             */
+            public long getMaxEntries(String region) {
+                return maxEntriesByRegion.getOrDefault(region, maxEntries);
+            }
         }
 
         @ConfigurationProperties("ehcache")
@@ -31,11 +31,38 @@ public final class PaginationUtil {
         headers.add("Link", link.toString());
     }
 
+    /**
+     * Generate the headers of a page read with keyset pagination: a {@code Link} header with the opaque
+     * cursor of the next page, and the {@code X-Total-Count} header only when the total was counted.
+     *
+     * @param headers the headers to add to.
+     * @param uriBuilder the URI of the request, with its filter parameters.
+     * @param nextCursor the cursor of the next page, or {@code null} if this is the last page.
+     * @param pageSize the size of the page.
+     * @param totalSize the total number of elements, or {@code null} if it wasn't counted.
+     */
+    public static void generateKeysetHttpHeaders(MutableHttpHeaders headers, UriBuilder uriBuilder, String nextCursor, int pageSize, Long totalSize) {
+        if (totalSize != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(totalSize));
+        }
+        StringBuilder link = new StringBuilder();
+        if (nextCursor != null) {
+            link.append(prepareKeysetLink(uriBuilder, nextCursor, pageSize, "next")).append(",");
+        }
+        link.append(prepareKeysetLink(uriBuilder, "", pageSize, "first"));
+        headers.add("Link", link.toString());
+    }
+
     private static String prepareLink(UriBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
         return MessageFormat.format(HEADER_LINK_FORMAT, preparePageUri(uriBuilder, pageNumber, pageSize), relType);
     }
 
     private static String preparePageUri(UriBuilder uriBuilder, int pageNumber, int pageSize) {
-       return uriBuilder.queryParam("page", pageNumber).queryParam("size", pageSize).build().toString();
+       return uriBuilder.replaceQueryParam("page", pageNumber).replaceQueryParam("size", pageSize).build().toString();
+    }
+
+    private static String prepareKeysetLink(UriBuilder uriBuilder, String cursor, int pageSize, String relType) {
+        String uri = uriBuilder.replaceQueryParam("after", cursor).replaceQueryParam("size", pageSize).build().toString();
+        return MessageFormat.format(HEADER_LINK_FORMAT, uri, relType);
     }
 }
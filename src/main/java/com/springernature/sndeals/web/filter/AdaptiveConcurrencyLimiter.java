@@ -0,0 +1,269 @@
+package com.springernature.sndeals.web.filter;
+
+import com.springernature.sndeals.web.rest.errors.ServiceUnavailableException;
+import io.micronaut.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Limit of the requests in flight, adapted to their latency with a gradient, in the manner of TCP Vegas.
+ * <p>
+ * The latency of the requests, from the moment they are let in, is averaged over windows of at least 100 ms, and the
+ * averages of the windows over about a minute. While the average of a window stays close to the long one, the server
+ * isn't saturated and the limit grows by about its square root; when it rises, requests are queuing inside the server
+ * and the limit shrinks in proportion, down to half of it at once. The limit only grows while it is actually used.
+ * <p>
+ * A request over the limit waits in a bounded queue, ordered by priority, for at most the queue timeout. A priority
+ * may only use a share of the queue, the lowest priority the smallest one, so that under overload the low priority
+ * requests are refused right away and the high priority ones still get in. A refused request fails with a
+ * {@link ServiceUnavailableException}. A waiting request whose future is cancelled, as when its client disconnects,
+ * leaves the queue, and a permit granted as it was cancelled is released.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Number of priorities, {@code 0} is the highest.
+     */
+    public static final int PRIORITIES = 4;
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    /**
+     * Number of windows of the long average.
+     */
+    private static final int LONG_WINDOW = 600;
+
+    /**
+     * Latency increase tolerated before the limit shrinks.
+     */
+    private static final double TOLERANCE = 1.5;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final int maxQueueSize;
+
+    private final Duration queueTimeout;
+
+    private final TaskScheduler taskScheduler;
+
+    private final LongSupplier clock;
+
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>();
+
+    private double limit;
+
+    private int inFlight;
+
+    private long sequence;
+
+    private long windowStart;
+
+    private long windowLatency;
+
+    private int windowSamples;
+
+    private int windowMaxInFlight;
+
+    private double longLatency;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, int maxQueueSize,
+                                      Duration queueTimeout, TaskScheduler taskScheduler) {
+        this(initialLimit, minLimit, maxLimit, smoothing, maxQueueSize, queueTimeout, taskScheduler, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, int maxQueueSize,
+                               Duration queueTimeout, TaskScheduler taskScheduler, LongSupplier clock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("The concurrency limits must be positive, the minimum below the maximum");
+        }
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.maxQueueSize = maxQueueSize;
+        this.queueTimeout = queueTimeout;
+        this.taskScheduler = taskScheduler;
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+    }
+
+    /**
+     * Let a request in, right away if the limit allows it, otherwise once a request in flight is done.
+     *
+     * @param priority the priority of the request, from {@code 0}, the highest, to {@link #PRIORITIES} - 1.
+     * @return the permit of the request, to release once it is done; failed with a {@link ServiceUnavailableException}
+     * if the request is refused.
+     */
+    public CompletableFuture<Permit> acquire(int priority) {
+        Waiter waiter;
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+                return CompletableFuture.completedFuture(new Permit(clock.getAsLong()));
+            }
+            // The highest priority may fill the whole queue, the lowest a quarter of it
+            if (queue.size() >= maxQueueSize * (PRIORITIES - priority) / PRIORITIES) {
+                return refused();
+            }
+            waiter = new Waiter(priority, sequence++);
+            queue.add(waiter);
+        }
+        waiter.future.whenComplete((permit, e) -> {
+            if (waiter.future.isCancelled()) {
+                cancel(waiter);
+            }
+        });
+        taskScheduler.schedule(queueTimeout, () -> timeout(waiter));
+        return waiter.future;
+    }
+
+    /**
+     * @return the current limit of the requests in flight.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the number of requests in flight.
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return the number of requests waiting for the limit.
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void timeout(Waiter waiter) {
+        boolean removed;
+        synchronized (this) {
+            removed = queue.remove(waiter);
+        }
+        if (removed) {
+            waiter.future.completeExceptionally(new ServiceUnavailableException("The server is overloaded, try again later"));
+        }
+    }
+
+    private synchronized void cancel(Waiter waiter) {
+        queue.remove(waiter);
+    }
+
+    private void release(long latency, boolean sampled) {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            if (sampled) {
+                update(latency);
+            }
+            while (inFlight < (int) limit && !queue.isEmpty()) {
+                inFlight++;
+                granted.add(queue.poll());
+            }
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+        }
+        // Outside of the lock, the requests go on in the callbacks of the futures
+        long now = clock.getAsLong();
+        for (Waiter waiter : granted) {
+            Permit permit = new Permit(now);
+            if (!waiter.future.complete(permit)) {
+                // Cancelled since it was taken from the queue, the slot goes to the next request
+                permit.release(false);
+            }
+        }
+    }
+
+    private void update(long latency) {
+        windowLatency += latency;
+        windowSamples++;
+        long now = clock.getAsLong();
+        if (windowSamples < MIN_WINDOW_SAMPLES || now - windowStart < WINDOW_NANOS) {
+            return;
+        }
+        double shortLatency = (double) windowLatency / windowSamples;
+        int maxInFlight = windowMaxInFlight;
+        windowStart = now;
+        windowLatency = 0;
+        windowSamples = 0;
+        windowMaxInFlight = inFlight;
+
+        longLatency = longLatency == 0 ? shortLatency : longLatency + (shortLatency - longLatency) / LONG_WINDOW;
+        if (longLatency > 2 * shortLatency) {
+            // The load dropped, the long average follows it faster so that the limit can grow again
+            longLatency = (longLatency + shortLatency) / 2;
+        }
+        if (maxInFlight < limit / 2) {
+            // A limit which isn't used says nothing about the capacity of the server
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+
+    private static <T> CompletableFuture<T> refused() {
+        CompletableFuture<T> refused = new CompletableFuture<>();
+        refused.completeExceptionally(new ServiceUnavailableException("The server is overloaded, try again later"));
+        return refused;
+    }
+
+    /**
+     * A request let in, to release exactly once when it is done.
+     */
+    public final class Permit {
+
+        private final long start;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long start) {
+            this.start = start;
+        }
+
+        /**
+         * @param sampled whether the latency of the request is taken into account, only the requests which were
+         *                actually served should be.
+         */
+        public void release(boolean sampled) {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(clock.getAsLong() - start, sampled);
+            }
+        }
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+
+        private final int priority;
+
+        private final long sequence;
+
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+
+        private Waiter(int priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            return priority != other.priority ? Integer.compare(priority, other.priority) : Long.compare(sequence, other.sequence);
+        }
+    }
+}
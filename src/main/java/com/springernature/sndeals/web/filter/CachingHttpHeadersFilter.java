@@ -0,0 +1,193 @@
+package com.springernature.sndeals.web.filter;
+
+import com.springernature.sndeals.util.HeaderUtil;
+import com.springernature.sndeals.util.JHipsterProperties;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.env.Environment;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpHeaders;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.OncePerRequestHttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.server.types.files.StreamedFile;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Sets the caching headers of the static resources of the client, and serves their precompressed variants.
+ * <p>
+ * The bundles, stylesheets and images have a content hash in their names, they are cached for
+ * {@code jhipster.http.cache.time-to-live-in-days} as immutable. {@code index.html} references them, it must be
+ * revalidated on each use so that a new release is picked up. The production build writes a {@code .br} and a
+ * {@code .gz} sibling next to the compressible resources: they are sent as they are when the {@code Accept-Encoding}
+ * of the request allows it, instead of compressing the same resource on every request.
+ */
+@Filter({"/", "/index.html", "/app/**", "/content/**", "/i18n/**"})
+@Requires(property = "jhipster.http.cache.time-to-live-in-days")
+public class CachingHttpHeadersFilter extends OncePerRequestHttpServerFilter {
+
+    private static final String STATIC_ROOT = "classpath:static";
+
+    private static final String INDEX = "/index.html";
+
+    private static final String BROTLI = "br";
+
+    private static final String GZIP = "gzip";
+
+    /**
+     * A name with a hash of at least 20 hexadecimal digits before its extensions, as the webpack output.
+     */
+    private static final Pattern CONTENT_HASH = Pattern.compile("(^|[/.])[0-9a-f]{20,}(\\.[0-9a-z]+)+$");
+
+    private final Logger log = LoggerFactory.getLogger(CachingHttpHeadersFilter.class);
+
+    private final Environment environment;
+
+    private final String immutableCacheControl;
+
+    private final Map<String, Variants> variants = new ConcurrentHashMap<>();
+
+    public CachingHttpHeadersFilter(Environment environment, JHipsterProperties jHipsterProperties) {
+        this.environment = environment;
+        long maxAge = TimeUnit.DAYS.toSeconds(jHipsterProperties.getHttp().getCache().getTimeToLiveInDays());
+        this.immutableCacheControl = "public, max-age=" + maxAge + ", immutable";
+    }
+
+    @Override
+    public int getOrder() {
+        // After the security filters, the resources they protect are never served from here
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    protected Publisher<MutableHttpResponse<?>> doFilterOnce(HttpRequest<?> request, ServerFilterChain chain) {
+        if (!HttpMethod.GET.equals(request.getMethod()) && !HttpMethod.HEAD.equals(request.getMethod())) {
+            return chain.proceed(request);
+        }
+        String path = "/".equals(request.getPath()) ? INDEX : request.getPath();
+        Optional<Variants> resource = findVariants(path);
+        if (resource.isPresent() && HttpMethod.GET.equals(request.getMethod())) {
+            String acceptEncoding = request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+            Variants found = resource.get();
+            if (found.brotli != null && HeaderUtil.acceptsEncoding(acceptEncoding, BROTLI)) {
+                Optional<MutableHttpResponse<?>> response = precompressed(request, path, found.brotli, BROTLI);
+                if (response.isPresent()) {
+                    return Publishers.just(response.get());
+                }
+            } else if (found.gzip != null && HeaderUtil.acceptsEncoding(acceptEncoding, GZIP)) {
+                Optional<MutableHttpResponse<?>> response = precompressed(request, path, found.gzip, GZIP);
+                if (response.isPresent()) {
+                    return Publishers.just(response.get());
+                }
+            }
+        }
+        return Publishers.map(chain.proceed(request), response -> {
+            if (response.getStatus().getCode() < 400) {
+                setCacheHeaders(response.getHeaders(), path, resource.map(Variants::isCompressed).orElse(false));
+            }
+            return response;
+        });
+    }
+
+    private Optional<MutableHttpResponse<?>> precompressed(HttpRequest<?> request, String path, URL url, String encoding) {
+        try {
+            URLConnection connection = url.openConnection();
+            long lastModified = connection.getLastModified();
+            MutableHttpResponse<?> response;
+            Optional<ZonedDateTime> ifModifiedSince = request.getHeaders().findDate(HttpHeaders.IF_MODIFIED_SINCE);
+            // The dates of the headers have a precision of a second
+            if (ifModifiedSince.isPresent() && lastModified / 1000 <= ifModifiedSince.get().toEpochSecond()) {
+                connection.getInputStream().close();
+                response = HttpResponse.notModified();
+            } else {
+                MediaType mediaType = MediaType.forFilename(path);
+                response = HttpResponse.ok(new StreamedFile(connection.getInputStream(), mediaType, lastModified,
+                    connection.getContentLengthLong()))
+                    .contentType(mediaType)
+                    .header(HttpHeaders.CONTENT_ENCODING, encoding);
+            }
+            response.getHeaders().lastModified(lastModified);
+            setCacheHeaders(response.getHeaders(), path, true);
+            return Optional.of(response);
+        } catch (IOException e) {
+            log.warn("Could not read the precompressed variant of {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void setCacheHeaders(MutableHttpHeaders headers, String path, boolean compressed) {
+        if (INDEX.equals(path)) {
+            headers.remove(HttpHeaders.CACHE_CONTROL);
+            headers.remove(HttpHeaders.EXPIRES);
+            headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+        } else if (isContentHashed(path)) {
+            headers.remove(HttpHeaders.CACHE_CONTROL);
+            headers.remove(HttpHeaders.EXPIRES);
+            headers.add(HttpHeaders.CACHE_CONTROL, immutableCacheControl);
+        }
+        if (compressed) {
+            // A shared cache must not send a compressed variant to a client which doesn't accept it
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    /**
+     * Look the precompressed variants of a static resource up, the results are kept as the resources of the
+     * classpath don't change. The paths of the resources which don't exist are not kept.
+     */
+    private Optional<Variants> findVariants(String path) {
+        Variants found = variants.get(path);
+        if (found != null) {
+            return Optional.of(found);
+        }
+        if (path.contains("..") || !environment.getResource(STATIC_ROOT + path).isPresent()) {
+            return Optional.empty();
+        }
+        found = new Variants(environment.getResource(STATIC_ROOT + path + ".br").orElse(null),
+            environment.getResource(STATIC_ROOT + path + ".gz").orElse(null));
+        variants.put(path, found);
+        return Optional.of(found);
+    }
+
+    /**
+     * @param path the path of a static resource.
+     * @return whether the name of the resource has a content hash, so that it never changes.
+     */
+    static boolean isContentHashed(String path) {
+        return CONTENT_HASH.matcher(path).find();
+    }
+
+    private static final class Variants {
+
+        private final URL brotli;
+
+        private final URL gzip;
+
+        private Variants(URL brotli, URL gzip) {
+            this.brotli = brotli;
+            this.gzip = gzip;
+        }
+
+        private boolean isCompressed() {
+            return brotli != null || gzip != null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.springernature.sndeals.web.filter;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.web.rest.errors.ServiceUnavailableException;
+import com.springernature.sndeals.web.rest.errors.handlers.ProblemHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.OncePerRequestHttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.filter.ServerFilterPhase;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
+import javax.inject.Named;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Sheds the API requests the server can't serve in time, with an {@link AdaptiveConcurrencyLimiter} in front of the
+ * I/O pool the controllers run on.
+ * <p>
+ * Without it, the requests of an overload queue without bound on the I/O pool and the connection pool, and every
+ * request gets slow. The limit of the requests in flight follows their latency instead; the requests over it wait a
+ * little, then get a fast {@code 503 Service Unavailable} with a {@code Retry-After}. The reads go before the writes
+ * and the authenticated requests before the anonymous ones. The filter runs after the security and the rate limits,
+ * so that it knows the user and the refused requests don't take a slot.
+ * <p>
+ * The uploads and downloads of the attachment contents aren't limited: they last as long as the transfer of up to
+ * {@code application.storage.max-upload-size} over the network of the client, and would hold a slot that long and
+ * feed the limiter with latencies that say nothing of the load of the server.
+ */
+@Filter("/api/**")
+@Requires(property = "application.concurrency-limit.enabled", notEquals = "false")
+public class ConcurrencyLimitFilter extends OncePerRequestHttpServerFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private static final Pattern TRANSFER = Pattern.compile("/api/attachments/(upload|[0-9]+/content|[0-9]+/derivatives/[^/]+)");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(ApplicationProperties applicationProperties, @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler,
+                                  MeterRegistry meterRegistry) {
+        ApplicationProperties.ConcurrencyLimit properties = applicationProperties.getConcurrencyLimit();
+        this.limiter = new AdaptiveConcurrencyLimiter(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+            properties.getSmoothing(), properties.getMaxQueueSize(), Duration.ofMillis(properties.getQueueTimeoutMillis()), taskScheduler);
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Adaptive limit of the API requests in flight")
+            .register(meterRegistry);
+        Gauge.builder("concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("Number of API requests in flight")
+            .register(meterRegistry);
+        Gauge.builder("concurrency.queue.depth", limiter, AdaptiveConcurrencyLimiter::getQueueDepth)
+            .description("Number of API requests waiting for the concurrency limit")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("concurrency.rejected")
+            .description("API requests refused by the concurrency limit")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ServerFilterPhase.SECURITY.after() + 1;
+    }
+
+    @Override
+    protected Publisher<MutableHttpResponse<?>> doFilterOnce(HttpRequest<?> request, ServerFilterChain chain) {
+        if (isTransfer(request.getPath())) {
+            return chain.proceed(request);
+        }
+        return Flowable.fromPublisher(Publishers.fromCompletableFuture(limiter.acquire(priority(request))))
+            .flatMap(permit -> proceed(request, chain, permit), e -> refuse(request, e), Flowable::empty);
+    }
+
+    private static Publisher<MutableHttpResponse<?>> proceed(HttpRequest<?> request, ServerFilterChain chain,
+                                                             AdaptiveConcurrencyLimiter.Permit permit) {
+        return Flowable.fromPublisher(chain.proceed(request))
+            .doOnNext(response -> permit.release(response.getStatus().getCode() < 500))
+            .doOnError(e -> permit.release(false))
+            .doOnComplete(() -> permit.release(false))
+            .doOnCancel(() -> permit.release(false));
+    }
+
+    private Publisher<MutableHttpResponse<?>> refuse(HttpRequest<?> request, Throwable e) {
+        if (!(e instanceof ServiceUnavailableException)) {
+            return Flowable.error(e);
+        }
+        rejected.increment();
+        MutableHttpResponse<?> response = ProblemHandler.create((ServiceUnavailableException) e, request, null)
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return Flowable.just(response);
+    }
+
+    static boolean isTransfer(String path) {
+        return TRANSFER.matcher(path).matches();
+    }
+
+    /**
+     * @return {@code 0} for an authenticated read, {@code 1} for an anonymous read, {@code 2} for an authenticated
+     * write and {@code 3} for an anonymous write.
+     */
+    static int priority(HttpRequest<?> request) {
+        HttpMethod method = request.getMethod();
+        boolean read = method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS;
+        return (read ? 0 : 2) + (request.getUserPrincipal().isPresent() ? 0 : 1);
+    }
+}
@@ -0,0 +1,150 @@
+package com.springernature.sndeals.web.filter;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.config.RateLimitRoute;
+import com.springernature.sndeals.web.rest.errors.ErrorConstants;
+import com.springernature.sndeals.web.rest.errors.handlers.ProblemHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.util.PathMatcher;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.OncePerRequestHttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.filter.ServerFilterPhase;
+import io.micronaut.http.server.HttpServerConfiguration;
+import io.micronaut.http.server.util.HttpClientAddressResolver;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Limits the rate of the routes configured under {@code application.rate-limit.routes}, such as the authentication,
+ * the registration and the writes, so that a burst of a client can't use up the CPU of the password hashes or the
+ * database.
+ * <p>
+ * A request is checked against the {@link RateLimiter} of each of the routes it matches; a refused request gets a
+ * {@code 429 Too Many Requests} with a {@code Retry-After}. The filter runs after the security filter, so that the
+ * authenticated requests can be limited by login; the login of the authentication is only known from its body, it is
+ * limited by IP address, and by login in {@link com.springernature.sndeals.security.DatabaseAuthenticationProvider}.
+ * <p>
+ * The address is the remote address of the connection. Behind a proxy, it is only read from a header when
+ * {@code micronaut.server.client-address-header} is set, which the proxy must overwrite: the {@code Forwarded} and
+ * {@code X-Forwarded-For} headers are otherwise sent by the client, which would get a new bucket with each value.
+ */
+@Filter("/api/**")
+@Requires(property = "application.rate-limit.enabled", notEquals = "false")
+public class RateLimitFilter extends OncePerRequestHttpServerFilter {
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final List<LimitedRoute> routes;
+
+    private final HttpClientAddressResolver httpClientAddressResolver;
+
+    private final boolean trustClientAddressHeader;
+
+    public RateLimitFilter(List<RateLimitRoute> routes, ApplicationProperties applicationProperties,
+                           HttpClientAddressResolver httpClientAddressResolver, HttpServerConfiguration httpServerConfiguration,
+                           MeterRegistry meterRegistry) {
+        int maxBuckets = applicationProperties.getRateLimit().getMaxBuckets();
+        this.routes = routes.stream()
+            .map(route -> new LimitedRoute(route, new RateLimiter(route.getCapacity(), route.getPeriod(), maxBuckets), meterRegistry))
+            .collect(Collectors.toList());
+        this.httpClientAddressResolver = httpClientAddressResolver;
+        this.trustClientAddressHeader = httpServerConfiguration.getClientAddressHeader() != null;
+    }
+
+    @Override
+    public int getOrder() {
+        return ServerFilterPhase.SECURITY.after();
+    }
+
+    @Override
+    protected Publisher<MutableHttpResponse<?>> doFilterOnce(HttpRequest<?> request, ServerFilterChain chain) {
+        for (LimitedRoute route : routes) {
+            if (!route.matches(request)) {
+                continue;
+            }
+            long wait = route.limiter.tryAcquire(key(route.route, request));
+            if (wait > 0) {
+                route.rejected.increment();
+                log.debug("Rate limit of {} reached for {}", route.route.getName(), request.getPath());
+                return Publishers.just(tooManyRequests(request, wait));
+            }
+            route.allowed.increment();
+        }
+        return chain.proceed(request);
+    }
+
+    private String key(RateLimitRoute route, HttpRequest<?> request) {
+        if (route.getKey() == RateLimitRoute.Key.LOGIN) {
+            Optional<Principal> principal = request.getUserPrincipal();
+            if (principal.isPresent()) {
+                return "login:" + principal.get().getName();
+            }
+        }
+        String address = trustClientAddressHeader ? httpClientAddressResolver.resolve(request) : null;
+        return "ip:" + (address != null ? address : request.getRemoteAddress().getAddress().getHostAddress());
+    }
+
+    private static MutableHttpResponse<?> tooManyRequests(HttpRequest<?> request, long wait) {
+        Problem problem = Problem.builder()
+            .withType(ErrorConstants.TOO_MANY_REQUESTS_TYPE)
+            .withTitle("Too many requests")
+            .withStatus(Status.TOO_MANY_REQUESTS)
+            .withDetail("Too many requests, try again later")
+            .build();
+        // Rounded up, a client retrying after the given seconds is never refused again right away
+        long retryAfter = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return ProblemHandler.create(problem, request, null).header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+    }
+
+    private static final class LimitedRoute {
+
+        private final RateLimitRoute route;
+
+        private final RateLimiter limiter;
+
+        private final Counter allowed;
+
+        private final Counter rejected;
+
+        private LimitedRoute(RateLimitRoute route, RateLimiter limiter, MeterRegistry meterRegistry) {
+            this.route = route;
+            this.limiter = limiter;
+            this.allowed = Counter.builder("rate.limit.requests")
+                .description("Requests checked by the rate limits")
+                .tag("route", route.getName())
+                .tag("result", "allowed")
+                .register(meterRegistry);
+            this.rejected = Counter.builder("rate.limit.requests")
+                .description("Requests checked by the rate limits")
+                .tag("route", route.getName())
+                .tag("result", "rejected")
+                .register(meterRegistry);
+            Gauge.builder("rate.limit.buckets", limiter, RateLimiter::size)
+                .description("Number of clients with a token bucket")
+                .tag("route", route.getName())
+                .register(meterRegistry);
+        }
+
+        private boolean matches(HttpRequest<?> request) {
+            return (route.getMethods().isEmpty() || route.getMethods().contains(request.getMethod()))
+                && route.getPatterns().stream().anyMatch(pattern -> PathMatcher.ANT.matches(pattern, request.getPath()));
+        }
+    }
+}
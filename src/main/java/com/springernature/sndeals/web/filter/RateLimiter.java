@@ -0,0 +1,102 @@
+package com.springernature.sndeals.web.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets by client key, each holding {@code capacity} requests refilled evenly over {@code period}.
+ * <p>
+ * A bucket is a single {@link AtomicLong}, the time at which it would be full again (the generic cell rate algorithm,
+ * equivalent to a token bucket): a request takes one refill interval from it, and is refused if that time would be
+ * more than {@code period} ahead. A request is a compare-and-set on its bucket, without locks. The buckets are held by
+ * a bounded Caffeine cache, which is striped: a bucket idle for {@code period} is full again, so it is evicted, and
+ * when there are more than {@code maxBuckets} clients the least used buckets are evicted first.
+ */
+public class RateLimiter {
+
+    private final long interval;
+
+    private final long tolerance;
+
+    private final LongSupplier clock;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(int capacity, Duration period, int maxBuckets) {
+        this(capacity, period, maxBuckets, System::nanoTime);
+    }
+
+    RateLimiter(int capacity, Duration period, int maxBuckets, LongSupplier clock) {
+        if (capacity < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("A rate limit needs a positive capacity and period");
+        }
+        this.interval = Math.max(1, period.toNanos() / capacity);
+        this.tolerance = interval * capacity;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxBuckets)
+            .expireAfterAccess(tolerance, TimeUnit.NANOSECONDS)
+            .ticker(clock::getAsLong)
+            .build();
+    }
+
+    /**
+     * Take a request from the bucket of a client.
+     *
+     * @param key the client.
+     * @return {@code 0} if the request is allowed, otherwise how long the client must wait before the next one, in
+     * nanoseconds.
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(clock.getAsLong()));
+        while (true) {
+            long full = bucket.get();
+            long now = clock.getAsLong();
+            long next = (full - now > 0 ? full : now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Check the bucket of a client, without taking a request from it.
+     *
+     * @param key the client.
+     * @return {@code 0} if a request would be allowed, otherwise how long the client must wait before the next one, in
+     * nanoseconds.
+     */
+    public long check(String key) {
+        AtomicLong bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long full = bucket.get();
+        long now = clock.getAsLong();
+        long wait = (full - now > 0 ? full : now) + interval - now - tolerance;
+        return wait > 0 ? wait : 0;
+    }
+
+    /**
+     * @return the approximate number of buckets held.
+     */
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * Evict the idle buckets now, instead of during the next requests.
+     */
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+}
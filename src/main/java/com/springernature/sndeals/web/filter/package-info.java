@@ -0,0 +1,4 @@
+/**
+ * HTTP filters of the web layer.
+ */
+package com.springernature.sndeals.web.filter;
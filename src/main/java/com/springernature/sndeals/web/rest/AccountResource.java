@@ -117,8 +117,7 @@ public class AccountResource {
     @Get("/account")
     @ExecuteOn(TaskExecutors.IO)
     public UserDTO getAccount() {
-        return userService.getUserWithAuthorities()
-            .map(UserDTO::new)
+        return userService.getCurrentUserAccount()
             .orElseThrow(() -> new AccountResourceException("User could not be found"));
     }
 
@@ -0,0 +1,41 @@
+package com.springernature.sndeals.web.rest;
+
+import com.springernature.sndeals.service.AttachmentDerivativeService;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+import io.micronaut.management.endpoint.annotation.Write;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Management endpoint of the attachment derivatives: {@code GET /management/attachmentderivatives} shows the
+ * backlog, and {@code POST /management/attachmentderivatives} rebuilds the derivatives of the existing images,
+ * with {@code {"force": true}} to also generate again the existing ones.
+ */
+@Endpoint(id = "attachmentderivatives")
+public class AttachmentDerivativesEndpoint {
+
+    private final AttachmentDerivativeService attachmentDerivativeService;
+
+    public AttachmentDerivativesEndpoint(AttachmentDerivativeService attachmentDerivativeService) {
+        this.attachmentDerivativeService = attachmentDerivativeService;
+    }
+
+    @Read
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("backlog", attachmentDerivativeService.getBacklog());
+        status.put("rebuilding", attachmentDerivativeService.isRebuilding());
+        return status;
+    }
+
+    @Write
+    public Map<String, Object> rebuild(@Nullable Boolean force) {
+        boolean started = attachmentDerivativeService.rebuild(Boolean.TRUE.equals(force));
+        Map<String, Object> result = status();
+        result.put("started", started);
+        return result;
+    }
+}
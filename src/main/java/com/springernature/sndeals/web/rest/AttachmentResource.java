@@ -4,15 +4,27 @@ import com.springernature.sndeals.service.AttachmentService;
 import com.springernature.sndeals.web.rest.errors.BadRequestAlertException;
 import com.springernature.sndeals.service.dto.AttachmentDTO;
 import com.springernature.sndeals.service.dto.AttachmentCriteria;
+import com.springernature.sndeals.service.dto.AttachmentMetadataDTO;
 import com.springernature.sndeals.service.AttachmentQueryService;
+import com.springernature.sndeals.service.AttachmentContentService;
+import com.springernature.sndeals.service.AttachmentDerivative;
+import com.springernature.sndeals.web.rest.errors.PayloadTooLargeException;
 
+import com.springernature.sndeals.util.ByteRange;
 import com.springernature.sndeals.util.HeaderUtil;
 import com.springernature.sndeals.util.PaginationUtil;
 import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.http.multipart.StreamingFileUpload;
+import io.micronaut.http.server.types.files.StreamedFile;
+import io.micronaut.http.server.types.files.SystemFile;
 import io.micronaut.http.uri.UriBuilder;
 import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.annotation.ExecuteOn;
@@ -22,12 +34,16 @@ import org.slf4j.LoggerFactory;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.transaction.annotation.ReadOnly;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
 
 
 
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +57,11 @@ public class AttachmentResource {
 
     private static final String ENTITY_NAME = "attachment";
 
+    /**
+     * Allowance for the multipart boundaries and part headers when checking the {@code Content-Length} of an upload.
+     */
+    private static final long MULTIPART_OVERHEAD = 16 * 1024;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -48,9 +69,13 @@ public class AttachmentResource {
 
     private final AttachmentQueryService attachmentQueryService;
 
-    public AttachmentResource(AttachmentService attachmentService, AttachmentQueryService attachmentQueryService) {
+    private final AttachmentContentService attachmentContentService;
+
+    public AttachmentResource(AttachmentService attachmentService, AttachmentQueryService attachmentQueryService,
+                              AttachmentContentService attachmentContentService) {
         this.attachmentService = attachmentService;
         this.attachmentQueryService = attachmentQueryService;
+        this.attachmentContentService = attachmentContentService;
     }
 
     /**
@@ -75,6 +100,42 @@ public class AttachmentResource {
         });
     }
 
+    /**
+     * {@code POST  /attachments/upload} : Create a new attachment from a {@code multipart/form-data} upload.
+     * <p>
+     * The {@code file} part is streamed to the blob store as it is received instead of being buffered, so the
+     * memory used doesn't depend on the size of the file.
+     *
+     * @param request the upload request.
+     * @param file the uploaded file.
+     * @param postId the id of the post the attachment belongs to, if any.
+     * @return the {@link HttpResponse} with status {@code 201 (Created)} and with body the new attachmentDTO, without its content,
+     * or with status {@code 413 (Payload Too Large)} if the file is larger than {@code application.storage.max-upload-size}.
+     */
+    @Post(value = "/attachments/upload", consumes = MediaType.MULTIPART_FORM_DATA)
+    @ExecuteOn(TaskExecutors.IO)
+    public Single<HttpResponse<AttachmentDTO>> uploadAttachment(HttpRequest<?> request, StreamingFileUpload file, @Nullable @QueryValue Long postId) {
+        log.debug("REST request to upload Attachment : {}", file.getFilename());
+        long maxUploadSize = attachmentContentService.getMaxUploadSize();
+        // Reject what is known to be too large before reading anything
+        if (request.getContentLength() > maxUploadSize + MULTIPART_OVERHEAD) {
+            return Single.error(new PayloadTooLargeException(maxUploadSize));
+        }
+        AttachmentDTO attachmentDTO = new AttachmentDTO();
+        attachmentDTO.setFileName(file.getFilename());
+        attachmentDTO.setContentContentType(file.getContentType().map(MediaType::toString).orElse(null));
+        attachmentDTO.setPostId(postId);
+        // Copy each chunk off the Netty buffer, which is released once the chunk is emitted
+        Flowable<ByteBuffer> content = Flowable.fromPublisher(file).map(part -> ByteBuffer.wrap(part.getBytes()));
+        return attachmentContentService.upload(attachmentDTO, content).map(result -> {
+            URI location = new URI("/api/attachments/" + result.getId());
+            return HttpResponse.created(result).headers(headers -> {
+                headers.location(location);
+                HeaderUtil.createEntityCreationAlert(headers, applicationName, true, ENTITY_NAME, result.getId().toString());
+            });
+        });
+    }
+
     /**
      * {@code PUT  /attachments} : Updates an existing attachment.
      *
@@ -97,17 +158,17 @@ public class AttachmentResource {
     }
 
     /**
-     * {@code GET  /attachments} : get all the attachments.
+     * {@code GET  /attachments} : get all the attachments, without their content.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link HttpResponse} with status {@code 200 (OK)} and the list of attachments in body.
+     * @return the {@link HttpResponse} with status {@code 200 (OK)} and the list of attachment metadata in body.
      */
     @Get("/attachments")
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<List<AttachmentDTO>> getAllAttachments(HttpRequest request, @Nullable AttachmentCriteria criteria, Pageable pageable) {
+    public HttpResponse<List<AttachmentMetadataDTO>> getAllAttachments(HttpRequest request, @Nullable AttachmentCriteria criteria, Pageable pageable) {
         log.debug("REST request to get Attachments by criteria: {}", criteria);
-        Page<AttachmentDTO> page = attachmentQueryService.findByCriteria(criteria, pageable);
+        Page<AttachmentMetadataDTO> page = attachmentQueryService.findByCriteria(criteria, pageable);
         return HttpResponse.ok(page.getContent()).headers(headers ->
             PaginationUtil.generatePaginationHttpHeaders(headers, UriBuilder.of(request.getPath()), page));
     }
@@ -119,6 +180,7 @@ public class AttachmentResource {
      * @return the {@link HttpResponse} with status {@code 200 (OK)} and the count in body.
      */
     @Get("/attachments/count")
+    @ExecuteOn(TaskExecutors.IO)
     public HttpResponse<Long> countAttachments(AttachmentCriteria criteria) {
         log.debug("REST request to count Attachments by criteria: {}", criteria);
         return HttpResponse.ok().body(attachmentQueryService.countByCriteria(criteria));
@@ -138,6 +200,117 @@ public class AttachmentResource {
         return attachmentService.findOne(id);
     }
 
+    /**
+     * {@code GET  /attachments/:id/content} : download the content of the "id" attachment.
+     * <p>
+     * The content is streamed: a content kept as a local file is sent with a zero-copy transfer. A single
+     * {@code Range} is served as a {@code 206 (Partial Content)}, and the {@code ETag} is the checksum of the
+     * content, so {@code If-None-Match} and {@code If-Range} can be used to resume or revalidate a download.
+     *
+     * @param request the download request.
+     * @param id the id of the attachment whose content to download.
+     * @return the {@link HttpResponse} with status {@code 200 (OK)} and with body the content, {@code 206 (Partial Content)}
+     * and with body the requested range, {@code 304 (Not Modified)}, {@code 416 (Range Not Satisfiable)}, or with status {@code 404 (Not Found)}.
+     */
+    @Get("/attachments/{id}/content")
+    @ExecuteOn(TaskExecutors.IO)
+    public HttpResponse<?> getAttachmentContent(HttpRequest<?> request, @PathVariable Long id) {
+        log.debug("REST request to get the content of Attachment : {}", id);
+        Optional<AttachmentDTO> metadata = attachmentService.findMetadata(id).filter(attachment -> attachment.getChecksum() != null);
+        if (!metadata.isPresent()) {
+            return HttpResponse.notFound();
+        }
+        AttachmentDTO attachment = metadata.get();
+        String checksum = attachment.getChecksum();
+        // The size of the rows migrated or backfilled without it is read from the blob store
+        Optional<Long> contentSize = attachment.getSize() != null
+            ? Optional.of(attachment.getSize()) : attachmentContentService.getContentSize(checksum);
+        if (!contentSize.isPresent()) {
+            return HttpResponse.notFound();
+        }
+        long size = contentSize.get();
+        String etag = "\"" + checksum + "\"";
+        if (HeaderUtil.matchesETag(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return HttpResponse.notModified().headers(headers -> headers.add(HttpHeaders.ETAG, etag));
+        }
+
+        // A Range is only honored if the content didn't change since the client read its first part
+        String ifRange = request.getHeaders().get(HttpHeaders.IF_RANGE);
+        Optional<ByteRange> range = ifRange == null || ifRange.equals(etag)
+            ? ByteRange.parse(request.getHeaders().get(HttpHeaders.RANGE), size)
+            : Optional.empty();
+        MediaType mediaType = attachment.getContentContentType() == null
+            ? MediaType.APPLICATION_OCTET_STREAM_TYPE : MediaType.of(attachment.getContentContentType());
+        MutableHttpResponse<?> response;
+        if (range.isPresent() && !range.get().isSatisfiable()) {
+            return HttpResponse.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .headers(headers -> headers.add(HttpHeaders.CONTENT_RANGE, range.get().toContentRange(size)));
+        } else if (range.isPresent()) {
+            ByteRange byteRange = range.get();
+            InputStream content = attachmentContentService.openContent(checksum, byteRange.getStart(), byteRange.getLength());
+            response = HttpResponse.status(HttpStatus.PARTIAL_CONTENT)
+                // With its length, the range is sent with a Content-Length instead of chunked
+                .body(new StreamedFile(content, mediaType, System.currentTimeMillis(), byteRange.getLength()))
+                .headers(headers -> headers.add(HttpHeaders.CONTENT_RANGE, byteRange.toContentRange(size)));
+        } else {
+            Object content = attachmentContentService.getContentFile(checksum)
+                .<Object>map(file -> new SystemFile(file, mediaType))
+                .orElseGet(() -> new StreamedFile(attachmentContentService.openContent(checksum, 0, size), mediaType,
+                    System.currentTimeMillis(), size));
+            response = HttpResponse.ok(content);
+        }
+        return response.headers(headers -> {
+            headers.add(HttpHeaders.ETAG, etag);
+            headers.add(HttpHeaders.ACCEPT_RANGES, "bytes");
+            // The content of an attachment can be replaced, so it must be revalidated with its ETag
+            headers.add(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            HeaderUtil.createContentDisposition(headers, attachment.getFileName());
+        });
+    }
+
+    /**
+     * {@code GET  /attachments/:id/derivatives/:size} : download a resized version of the "id" image attachment.
+     * <p>
+     * Derivatives are generated in the background after an image is saved, the client falls back to the original
+     * content until then. A request whose {@code v} parameter is the checksum of the content, as listed with the
+     * attachment, designates an immutable derivative which is cached for a year; otherwise it must be revalidated.
+     *
+     * @param request the download request.
+     * @param id the id of the attachment.
+     * @param size the size key of the derivative, see {@link AttachmentDerivative}.
+     * @param v the checksum of the content, to version the URL of the derivative.
+     * @return the {@link HttpResponse} with status {@code 200 (OK)} and with body the JPEG derivative, {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)} if the attachment or the derivative doesn't exist.
+     */
+    @Get("/attachments/{id}/derivatives/{size}")
+    @ExecuteOn(TaskExecutors.IO)
+    public HttpResponse<?> getAttachmentDerivative(HttpRequest<?> request, @PathVariable Long id, @PathVariable String size,
+                                                   @Nullable @QueryValue String v) {
+        log.debug("REST request to get the {} derivative of Attachment : {}", size, id);
+        AttachmentDerivative derivative = AttachmentDerivative.fromKey(size)
+            .orElseThrow(() -> new BadRequestAlertException("Invalid derivative size", ENTITY_NAME, "invalidderivative"));
+        Optional<String> checksum = attachmentService.findMetadata(id).map(AttachmentDTO::getChecksum);
+        if (!checksum.isPresent() || !attachmentContentService.hasDerivative(checksum.get(), derivative)) {
+            return HttpResponse.notFound();
+        }
+        String etag = "\"" + checksum.get() + "-" + derivative.getKey() + "\"";
+        // The content of a given checksum never changes, only an unversioned URL can designate another content
+        String cacheControl = checksum.get().equals(v) ? "private, max-age=31536000, immutable" : "private, no-cache";
+        if (HeaderUtil.matchesETag(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return HttpResponse.notModified().headers(headers -> {
+                headers.add(HttpHeaders.ETAG, etag);
+                headers.add(HttpHeaders.CACHE_CONTROL, cacheControl);
+            });
+        }
+        Object content = attachmentContentService.getDerivativeFile(checksum.get(), derivative)
+            .<Object>map(file -> new SystemFile(file, MediaType.IMAGE_JPEG_TYPE))
+            .orElseGet(() -> new StreamedFile(attachmentContentService.openDerivative(checksum.get(), derivative), MediaType.IMAGE_JPEG_TYPE));
+        return HttpResponse.ok(content).headers(headers -> {
+            headers.add(HttpHeaders.ETAG, etag);
+            headers.add(HttpHeaders.CACHE_CONTROL, cacheControl);
+        });
+    }
+
     /**
      * {@code DELETE  /attachments/:id} : delete the "id" attachment.
      *
@@ -2,14 +2,17 @@ package com.springernature.sndeals.web.rest;
 
 import com.springernature.sndeals.service.CategoryService;
 import com.springernature.sndeals.web.rest.errors.BadRequestAlertException;
+import com.springernature.sndeals.web.rest.errors.PreconditionFailedException;
 import com.springernature.sndeals.service.dto.CategoryDTO;
 import com.springernature.sndeals.service.dto.CategoryCriteria;
 import com.springernature.sndeals.service.CategoryQueryService;
 
+import com.springernature.sndeals.util.ETagUtil;
 import com.springernature.sndeals.util.HeaderUtil;
 import com.springernature.sndeals.util.PaginationUtil;
 import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
@@ -26,6 +29,7 @@ import io.micronaut.transaction.annotation.ReadOnly;
 
 
 
+import javax.persistence.OptimisticLockException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -77,27 +81,57 @@ public class CategoryResource {
 
     /**
      * {@code PUT  /categories} : Updates an existing category.
+     * <p>
+     * With an {@code If-Match} header, the category is only updated if it wasn't modified since the client read it.
      *
+     * @param request the HTTP request.
      * @param categoryDTO the categoryDTO to update.
      * @return the {@link HttpResponse} with status {@code 200 (OK)} and with body the updated categoryDTO,
      * or with status {@code 400 (Bad Request)} if the categoryDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the category was modified since the version of the categoryDTO,
+     * or with status {@code 412 (Precondition Failed)} if the category doesn't match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the categoryDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @Put("/categories")
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<CategoryDTO> updateCategory(@Body CategoryDTO categoryDTO) throws URISyntaxException {
+    public HttpResponse<CategoryDTO> updateCategory(HttpRequest<?> request, @Body CategoryDTO categoryDTO) throws URISyntaxException {
         log.debug("REST request to update Category : {}", categoryDTO);
         if (categoryDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        CategoryDTO result = categoryService.update(categoryDTO);
-        return HttpResponse.ok(result).headers(headers ->
-            HeaderUtil.createEntityUpdateAlert(headers, applicationName, true, ENTITY_NAME, categoryDTO.getId().toString()));
+        String ifMatch = request.getHeaders().get(HttpHeaders.IF_MATCH);
+        if (ifMatch != null) {
+            if (ifMatch.trim().equals("*")) {
+                if (!categoryService.findOne(categoryDTO.getId()).isPresent()) {
+                    throw new PreconditionFailedException(ENTITY_NAME);
+                }
+            } else {
+                // The version of the tag is checked by the update itself, a separate read would let a concurrent
+                // update through
+                categoryDTO.setVersion(ETagUtil.parseVersion(ifMatch).orElseThrow(() -> new PreconditionFailedException(ENTITY_NAME)));
+            }
+        }
+        CategoryDTO result;
+        try {
+            result = categoryService.update(categoryDTO);
+        } catch (OptimisticLockException e) {
+            if (ifMatch != null) {
+                throw new PreconditionFailedException(ENTITY_NAME);
+            }
+            throw e;
+        }
+        return HttpResponse.ok(result).headers(headers -> {
+            HeaderUtil.createEntityUpdateAlert(headers, applicationName, true, ENTITY_NAME, categoryDTO.getId().toString());
+            HeaderUtil.createEntityTag(headers, categoryService.getETag(result));
+        });
     }
 
     /**
      * {@code GET  /categories} : get all the categories.
+     * <p>
+     * When the entity tag of the page matches the {@code If-None-Match} header, {@code 304 (Not Modified)} is sent
+     * instead of the categories.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
@@ -108,8 +142,14 @@ public class CategoryResource {
     public HttpResponse<List<CategoryDTO>> getAllCategories(HttpRequest request, @Nullable CategoryCriteria criteria, Pageable pageable) {
         log.debug("REST request to get Categories by criteria: {}", criteria);
         Page<CategoryDTO> page = categoryQueryService.findByCriteria(criteria, pageable);
-        return HttpResponse.ok(page.getContent()).headers(headers ->
-            PaginationUtil.generatePaginationHttpHeaders(headers, UriBuilder.of(request.getPath()), page));
+        String etag = ETagUtil.fromList(page.getContent(), CategoryDTO::getId, categoryService::getETag, page.getTotalSize());
+        if (HeaderUtil.matchesETag(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return HttpResponse.<List<CategoryDTO>>notModified().headers(headers -> HeaderUtil.createEntityTag(headers, etag));
+        }
+        return HttpResponse.ok(page.getContent()).headers(headers -> {
+            PaginationUtil.generatePaginationHttpHeaders(headers, UriBuilder.of(request.getPath()), page);
+            HeaderUtil.createEntityTag(headers, etag);
+        });
     }
 
     /**
@@ -119,6 +159,7 @@ public class CategoryResource {
      * @return the {@link HttpResponse} with status {@code 200 (OK)} and the count in body.
      */
     @Get("/categories/count")
+    @ExecuteOn(TaskExecutors.IO)
     public HttpResponse<Long> countCategories(CategoryCriteria criteria) {
         log.debug("REST request to count Categories by criteria: {}", criteria);
         return HttpResponse.ok().body(categoryQueryService.countByCriteria(criteria));
@@ -126,16 +167,28 @@ public class CategoryResource {
 
     /**
      * {@code GET  /categories/:id} : get the "id" category.
+     * <p>
+     * The category is read from the cache, and isn't serialized when its entity tag matches the
+     * {@code If-None-Match} header.
      *
+     * @param request the HTTP request.
      * @param id the id of the categoryDTO to retrieve.
-     * @return the {@link HttpResponse} with status {@code 200 (OK)} and with body the categoryDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link HttpResponse} with status {@code 200 (OK)} and with body the categoryDTO, or with status
+     * {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
      */
     @Get("/categories/{id}")
     @ExecuteOn(TaskExecutors.IO)
-    public Optional<CategoryDTO> getCategory(@PathVariable Long id) {
+    public HttpResponse<CategoryDTO> getCategory(HttpRequest<?> request, @PathVariable Long id) {
         log.debug("REST request to get Category : {}", id);
-
-        return categoryService.findOne(id);
+        Optional<CategoryDTO> category = categoryService.findOne(id);
+        if (!category.isPresent()) {
+            return HttpResponse.notFound();
+        }
+        String etag = categoryService.getETag(category.get());
+        if (HeaderUtil.matchesETag(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return HttpResponse.<CategoryDTO>notModified().headers(headers -> HeaderUtil.createEntityTag(headers, etag));
+        }
+        return HttpResponse.ok(category.get()).headers(headers -> HeaderUtil.createEntityTag(headers, etag));
     }
 
     /**
@@ -1,29 +1,66 @@
 package com.springernature.sndeals.web.rest;
 
-import io.micronaut.context.env.Environment;
+import com.springernature.sndeals.util.HeaderUtil;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpHeaders;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
-import io.micronaut.http.server.types.files.StreamedFile;
 import io.micronaut.security.annotation.Secured;
 import io.micronaut.security.rules.SecurityRule;
 
-import javax.inject.Inject;
 import java.util.Optional;
 
 @Controller
 @Secured(SecurityRule.IS_ANONYMOUS)
 public class ClientForwardController {
 
-    @Inject
-    Environment environment;
+    private final ClientShell clientShell;
+
+    public ClientForwardController(ClientShell clientShell) {
+        this.clientShell = clientShell;
+    }
 
     /**
      * Forwards any unmapped paths (except those containing a period) to the client {@code index.html}.
-     * @return forward to client {@code index.html}.
+     * <p>
+     * The {@code index.html} is served from memory, compressed when the client accepts it, and revalidated with its
+     * entity tag on each use.
+     *
+     * @param request the HTTP request.
+     * @param path the path of the client route.
+     * @return the client {@code index.html}, or {@code 304 (Not Modified)}, or {@code 404 (Not Found)} if the client isn't built.
      */
     @Get("/{path:[^\\.]*}")
-    public Optional<StreamedFile> forward(String path) {
-        return environment.getResource("classpath:static/index.html")
-            .map(StreamedFile::new);
+    public HttpResponse<?> forward(HttpRequest<?> request, String path) {
+        Optional<ClientShell.Content> shell = clientShell.get();
+        if (!shell.isPresent()) {
+            return HttpResponse.notFound();
+        }
+        ClientShell.Content content = shell.get();
+        String encoding = content.negotiate(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+        String etag = content.getETag(encoding);
+        if (HeaderUtil.matchesETag(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return HttpResponse.notModified().headers(headers -> addShellHeaders(headers, content, etag));
+        }
+        return HttpResponse.ok(content.getBody(encoding))
+            .contentType(MediaType.TEXT_HTML_TYPE)
+            .headers(headers -> {
+                addShellHeaders(headers, content, etag);
+                if (encoding != null) {
+                    headers.add(HttpHeaders.CONTENT_ENCODING, encoding);
+                }
+            });
+    }
+
+    private static void addShellHeaders(MutableHttpHeaders headers, ClientShell.Content content, String etag) {
+        headers.add(HttpHeaders.ETAG, etag);
+        headers.add(HttpHeaders.CACHE_CONTROL, "no-cache");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (content.getLastModified() > 0) {
+            headers.lastModified(content.getLastModified());
+        }
     }
 }
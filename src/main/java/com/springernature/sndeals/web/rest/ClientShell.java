@@ -0,0 +1,209 @@
+package com.springernature.sndeals.web.rest;
+
+import com.springernature.sndeals.util.ETagUtil;
+import com.springernature.sndeals.util.HeaderUtil;
+import io.github.jhipster.config.JHipsterConstants;
+import io.micronaut.context.env.Environment;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code index.html} of the client, the shell of all its routes, held in memory.
+ * <p>
+ * The shell is read once with its entity tag and its compressed variants: the {@code .br} and {@code .gz} written
+ * by the production build, or a gzip variant compressed here when there is none. In the {@code dev} profile the
+ * shell is read again when webpack rewrites it.
+ */
+@Singleton
+public class ClientShell {
+
+    static final String INDEX = "classpath:static/index.html";
+
+    static final String BROTLI = "br";
+
+    static final String GZIP = "gzip";
+
+    private final Logger log = LoggerFactory.getLogger(ClientShell.class);
+
+    private final Function<String, Optional<URL>> resources;
+
+    private final boolean reloadable;
+
+    private volatile Optional<Content> content;
+
+    @Inject
+    public ClientShell(Environment environment) {
+        this(environment::getResource, environment.getActiveNames().contains(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
+    }
+
+    ClientShell(Function<String, Optional<URL>> resources, boolean reloadable) {
+        this.resources = resources;
+        this.reloadable = reloadable;
+    }
+
+    /**
+     * @return the shell, or nothing if the client isn't built.
+     */
+    public Optional<Content> get() {
+        Optional<Content> current = content;
+        if (current == null || (reloadable && isStale(current))) {
+            synchronized (this) {
+                current = content;
+                if (current == null || (reloadable && isStale(current))) {
+                    current = load();
+                    content = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Read the shell at startup, so the first requests don't have to.
+     */
+    @EventListener
+    public void warmUp(StartupEvent event) {
+        get().ifPresent(shell -> log.debug("Loaded the client shell, {} bytes", shell.identity.length));
+    }
+
+    private boolean isStale(Optional<Content> current) {
+        // The client may be built after the server is started
+        return current.map(shell -> lastModified(shell.url) != shell.lastModified).orElse(true);
+    }
+
+    private Optional<Content> load() {
+        Optional<URL> url = resources.apply(INDEX);
+        if (!url.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            long lastModified = lastModified(url.get());
+            byte[] identity = read(url.get());
+            byte[] brotli = resources.apply(INDEX + ".br").map(ClientShell::read).orElse(null);
+            byte[] gzip = resources.apply(INDEX + ".gz").map(ClientShell::read).orElse(null);
+            if (gzip == null) {
+                gzip = gzip(identity);
+            }
+            return Optional.of(new Content(url.get(), lastModified, identity, brotli, gzip));
+        } catch (UncheckedIOException e) {
+            log.warn("Could not read the client shell: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static long lastModified(URL url) {
+        try {
+            URLConnection connection = url.openConnection();
+            connection.setUseCaches(false);
+            long lastModified = connection.getLastModified();
+            connection.getInputStream().close();
+            return lastModified;
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    private static byte[] read(URL url) {
+        try (InputStream in = url.openStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * An immutable snapshot of the shell. The arrays are shared by all the requests and must not be modified.
+     */
+    public static final class Content {
+
+        private final URL url;
+
+        private final long lastModified;
+
+        private final byte[] identity;
+
+        private final byte[] brotli;
+
+        private final byte[] gzip;
+
+        private final String etag;
+
+        Content(URL url, long lastModified, byte[] identity, byte[] brotli, byte[] gzip) {
+            this.url = url;
+            this.lastModified = lastModified;
+            this.identity = identity;
+            this.brotli = brotli;
+            this.gzip = gzip;
+            this.etag = ETagUtil.fromContent(identity);
+        }
+
+        /**
+         * @param acceptEncoding the {@code Accept-Encoding} header of the request, may be {@code null}.
+         * @return the best content coding of the shell for the request, {@code null} for the identity.
+         */
+        public String negotiate(String acceptEncoding) {
+            if (brotli != null && HeaderUtil.acceptsEncoding(acceptEncoding, BROTLI)) {
+                return BROTLI;
+            }
+            if (gzip != null && HeaderUtil.acceptsEncoding(acceptEncoding, GZIP)) {
+                return GZIP;
+            }
+            return null;
+        }
+
+        /**
+         * @param encoding a content coding returned by {@link #negotiate(String)}.
+         * @return the shell in this coding.
+         */
+        public byte[] getBody(String encoding) {
+            if (BROTLI.equals(encoding)) {
+                return brotli;
+            }
+            return GZIP.equals(encoding) ? gzip : identity;
+        }
+
+        /**
+         * Each coding is a different representation, with its own strong entity tag.
+         *
+         * @param encoding a content coding returned by {@link #negotiate(String)}.
+         * @return the quoted entity tag of the shell in this coding.
+         */
+        public String getETag(String encoding) {
+            return encoding == null ? etag : etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
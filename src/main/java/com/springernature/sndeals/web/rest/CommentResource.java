@@ -6,6 +6,8 @@ import com.springernature.sndeals.service.dto.CommentDTO;
 import com.springernature.sndeals.service.dto.CommentCriteria;
 import com.springernature.sndeals.service.CommentQueryService;
 
+import com.springernature.sndeals.service.util.KeysetCursor;
+import com.springernature.sndeals.service.util.KeysetPage;
 import com.springernature.sndeals.util.HeaderUtil;
 import com.springernature.sndeals.util.PaginationUtil;
 import io.micronaut.context.annotation.Value;
@@ -98,6 +100,10 @@ public class CommentResource {
 
     /**
      * {@code GET  /comments} : get all the comments.
+     * <p>
+     * When the {@code after} parameter is present, the page is read with keyset pagination: {@code after} is the
+     * cursor taken from the {@code next} link of the previous page (empty for the first page), and the total
+     * count is only computed when {@code withCount=true}.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
@@ -107,6 +113,14 @@ public class CommentResource {
     @ExecuteOn(TaskExecutors.IO)
     public HttpResponse<List<CommentDTO>> getAllComments(HttpRequest request, @Nullable CommentCriteria criteria, Pageable pageable) {
         log.debug("REST request to get Comments by criteria: {}", criteria);
+        if (request.getParameters().contains("after")) {
+            KeysetCursor after = decodeCursor(request.getParameters().get("after"));
+            boolean withCount = request.getParameters().getFirst("withCount", Boolean.class).orElse(false);
+            KeysetPage<CommentDTO> keysetPage = commentQueryService.findByCriteriaAfter(criteria, after, pageable, withCount);
+            return HttpResponse.ok(keysetPage.getContent()).headers(headers ->
+                PaginationUtil.generateKeysetHttpHeaders(headers, UriBuilder.of(request.getUri()),
+                    keysetPage.getNextCursor().orElse(null), pageable.getSize(), keysetPage.getTotalSize().orElse(null)));
+        }
         Page<CommentDTO> page = commentQueryService.findByCriteria(criteria, pageable);
         return HttpResponse.ok(page.getContent()).headers(headers ->
             PaginationUtil.generatePaginationHttpHeaders(headers, UriBuilder.of(request.getPath()), page));
@@ -119,6 +133,7 @@ public class CommentResource {
      * @return the {@link HttpResponse} with status {@code 200 (OK)} and the count in body.
      */
     @Get("/comments/count")
+    @ExecuteOn(TaskExecutors.IO)
     public HttpResponse<Long> countComments(CommentCriteria criteria) {
         log.debug("REST request to count Comments by criteria: {}", criteria);
         return HttpResponse.ok().body(commentQueryService.countByCriteria(criteria));
@@ -151,4 +166,12 @@ public class CommentResource {
         commentService.delete(id);
         return HttpResponse.noContent().headers(headers -> HeaderUtil.createEntityDeletionAlert(headers, applicationName, true, ENTITY_NAME, id.toString()));
     }
+
+    private static KeysetCursor decodeCursor(String after) {
+        try {
+            return KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "invalidcursor");
+        }
+    }
 }
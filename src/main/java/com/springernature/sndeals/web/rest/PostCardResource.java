@@ -0,0 +1,66 @@
+package com.springernature.sndeals.web.rest;
+
+import com.springernature.sndeals.service.PostCardStore;
+import com.springernature.sndeals.service.dto.PostCardDTO;
+import com.springernature.sndeals.util.PaginationUtil;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.uri.UriBuilder;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST controller for reading the compact {@link PostCardDTO}s of the list views.
+ */
+@Controller("/api")
+public class PostCardResource {
+
+    private final Logger log = LoggerFactory.getLogger(PostCardResource.class);
+
+    private final PostCardStore postCardStore;
+
+    public PostCardResource(PostCardStore postCardStore) {
+        this.postCardStore = postCardStore;
+    }
+
+    /**
+     * {@code GET  /post-cards} : get all the post cards.
+     * <p>
+     * The cards sorted by id are read from the {@link PostCardStore} when it is enabled.
+     *
+     * @param request the HTTP request.
+     * @param pageable the pagination information.
+     * @return the {@link HttpResponse} with status {@code 200 (OK)} and the list of post cards in body.
+     */
+    @Get("/post-cards")
+    @ExecuteOn(TaskExecutors.IO)
+    public HttpResponse<List<PostCardDTO>> getAllPostCards(HttpRequest<?> request, Pageable pageable) {
+        log.debug("REST request to get a page of PostCards");
+        Page<PostCardDTO> page = postCardStore.findAll(pageable);
+        return HttpResponse.ok(page.getContent()).headers(headers ->
+            PaginationUtil.generatePaginationHttpHeaders(headers, UriBuilder.of(request.getPath()), page));
+    }
+
+    /**
+     * {@code GET  /post-cards/:id} : get the card of the "id" post.
+     *
+     * @param id the id of the post.
+     * @return the {@link HttpResponse} with status {@code 200 (OK)} and with body the post card, or with status {@code 404 (Not Found)}.
+     */
+    @Get("/post-cards/{id}")
+    @ExecuteOn(TaskExecutors.IO)
+    public Optional<PostCardDTO> getPostCard(@PathVariable Long id) {
+        log.debug("REST request to get PostCard : {}", id);
+        return postCardStore.findOne(id);
+    }
+}
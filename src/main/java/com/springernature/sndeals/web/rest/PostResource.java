@@ -1,20 +1,32 @@
 package com.springernature.sndeals.web.rest;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.springernature.sndeals.security.AuthoritiesConstants;
 import com.springernature.sndeals.security.SecurityUtils;
 import com.springernature.sndeals.service.PostService;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import com.springernature.sndeals.service.cache.CachedResponse;
+import com.springernature.sndeals.service.cache.ResponseCache;
 import com.springernature.sndeals.web.rest.errors.BadRequestAlertException;
+import com.springernature.sndeals.web.rest.errors.PreconditionFailedException;
 import com.springernature.sndeals.service.dto.PostDTO;
 import com.springernature.sndeals.service.dto.PostCriteria;
 import com.springernature.sndeals.service.PostQueryService;
 
+import com.springernature.sndeals.service.util.KeysetCursor;
+import com.springernature.sndeals.service.util.KeysetPage;
+import com.springernature.sndeals.util.ETagUtil;
 import com.springernature.sndeals.util.HeaderUtil;
 import com.springernature.sndeals.util.PaginationUtil;
 import io.github.jhipster.service.filter.StringFilter;
 import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.*;
 import io.micronaut.http.uri.UriBuilder;
 import io.micronaut.scheduling.TaskExecutors;
@@ -24,14 +36,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.micronaut.transaction.annotation.ReadOnly;
 
 
 
 
+import javax.persistence.OptimisticLockException;
 import java.net.URI;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -44,6 +62,8 @@ public class PostResource {
 
     private static final String ENTITY_NAME = "post";
 
+    private static final List<String> LIST_DEPENDENCIES = Arrays.asList(CacheInvalidationService.POSTS, CacheInvalidationService.CATEGORIES);
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -51,9 +71,16 @@ public class PostResource {
 
     private final PostQueryService postQueryService;
 
-    public PostResource(PostService postService, PostQueryService postQueryService) {
+    private final ResponseCache responseCache;
+
+    private final ObjectMapper objectMapper;
+
+    public PostResource(PostService postService, PostQueryService postQueryService, ResponseCache responseCache,
+                        ObjectMapper objectMapper) {
         this.postService = postService;
         this.postQueryService = postQueryService;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -80,27 +107,62 @@ public class PostResource {
 
     /**
      * {@code PUT  /posts} : Updates an existing post.
+     * <p>
+     * With an {@code If-Match} header, the post is only updated if it wasn't modified since the client read it.
      *
+     * @param request the HTTP request.
      * @param postDTO the postDTO to update.
      * @return the {@link HttpResponse} with status {@code 200 (OK)} and with body the updated postDTO,
      * or with status {@code 400 (Bad Request)} if the postDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the post was modified since the version of the postDTO,
+     * or with status {@code 412 (Precondition Failed)} if the post doesn't match the {@code If-Match} header,
      * or with status {@code 500 (Internal Server Error)} if the postDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @Put("/posts")
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<PostDTO> updatePost(@Body PostDTO postDTO) throws URISyntaxException {
+    public HttpResponse<PostDTO> updatePost(HttpRequest<?> request, @Body PostDTO postDTO) throws URISyntaxException {
         log.debug("REST request to update Post : {}", postDTO);
         if (postDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        PostDTO result = postService.update(postDTO);
-        return HttpResponse.ok(result).headers(headers ->
-            HeaderUtil.createEntityUpdateAlert(headers, applicationName, true, ENTITY_NAME, postDTO.getId().toString()));
+        String ifMatch = request.getHeaders().get(HttpHeaders.IF_MATCH);
+        if (ifMatch != null) {
+            if (ifMatch.trim().equals("*")) {
+                if (!postService.findETag(postDTO.getId()).isPresent()) {
+                    throw new PreconditionFailedException(ENTITY_NAME);
+                }
+            } else {
+                // The version of the tag is checked by the update itself, a separate read would let a concurrent
+                // update through; the version of the category only changes its display name
+                postDTO.setVersion(ETagUtil.parseVersion(ifMatch).orElseThrow(() -> new PreconditionFailedException(ENTITY_NAME)));
+            }
+        }
+        PostDTO result;
+        try {
+            result = postService.update(postDTO);
+        } catch (OptimisticLockException e) {
+            if (ifMatch != null) {
+                throw new PreconditionFailedException(ENTITY_NAME);
+            }
+            throw e;
+        }
+        return HttpResponse.ok(result).headers(headers -> {
+            HeaderUtil.createEntityUpdateAlert(headers, applicationName, true, ENTITY_NAME, postDTO.getId().toString());
+            HeaderUtil.createEntityTag(headers, postService.getETag(result));
+        });
     }
 
     /**
      * {@code GET  /posts} : get all the posts.
+     * <p>
+     * When the {@code after} parameter is present, the page is read with keyset pagination: {@code after} is the
+     * cursor taken from the {@code next} link of the previous page (empty for the first page), and the total
+     * count is only computed when {@code withCount=true}.
+     * <p>
+     * The entity tag of the page is computed from the versions of its posts: when it matches the
+     * {@code If-None-Match} header, {@code 304 (Not Modified)} is sent without serializing the posts. The pages
+     * read by page number are kept serialized in the {@link ResponseCache} until a post or a category is written.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
@@ -108,7 +170,7 @@ public class PostResource {
      */
     @Get("/posts")
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<List<PostDTO>> getAllPosts(HttpRequest request, @Nullable PostCriteria criteria, Pageable pageable) {
+    public HttpResponse<?> getAllPosts(HttpRequest request, @Nullable PostCriteria criteria, Pageable pageable) {
         log.debug("REST request to get Posts by criteria: {}", criteria);
         if(!SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADMIN)){
             SecurityUtils.getCurrentUserLogin().ifPresent(login -> {
@@ -117,9 +179,45 @@ public class PostResource {
                 criteria.setCreatedBy(createdBy);
             });
         }
+        if (request.getParameters().contains("after")) {
+            KeysetCursor after = decodeCursor(request.getParameters().get("after"));
+            boolean withCount = request.getParameters().getFirst("withCount", Boolean.class).orElse(false);
+            KeysetPage<PostDTO> keysetPage = postQueryService.findByCriteriaAfter(criteria, after, pageable, withCount);
+            String etag = ETagUtil.fromList(keysetPage.getContent(), PostDTO::getId, postService::getETag,
+                keysetPage.getTotalSize().orElse(null));
+            if (HeaderUtil.matchesETag(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), etag)) {
+                return HttpResponse.<List<PostDTO>>notModified().headers(headers -> HeaderUtil.createEntityTag(headers, etag));
+            }
+            return HttpResponse.ok(keysetPage.getContent()).headers(headers -> {
+                PaginationUtil.generateKeysetHttpHeaders(headers, UriBuilder.of(request.getUri()),
+                    keysetPage.getNextCursor().orElse(null), pageable.getSize(), keysetPage.getTotalSize().orElse(null));
+                HeaderUtil.createEntityTag(headers, etag);
+            });
+        }
+        // The criteria hold the createdBy filter of the users who aren't admins
+        String key = request.getPath() + "?" + criteria + "&" + toKey(pageable);
+        CachedResponse response = responseCache.get(key, LIST_DEPENDENCIES, () -> loadPage(request, criteria, pageable));
+        if (HeaderUtil.matchesETag(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), response.getETag())) {
+            return HttpResponse.notModified().headers(headers -> HeaderUtil.createEntityTag(headers, response.getETag()));
+        }
+        return HttpResponse.ok(response.getBody())
+            .contentType(MediaType.APPLICATION_JSON_TYPE)
+            .headers(headers -> response.getHeaders().forEach(headers::add));
+    }
+
+    private CachedResponse loadPage(HttpRequest<?> request, PostCriteria criteria, Pageable pageable) {
         Page<PostDTO> page = postQueryService.findByCriteria(criteria, pageable);
-        return HttpResponse.ok(page.getContent()).headers(headers ->
-            PaginationUtil.generatePaginationHttpHeaders(headers, UriBuilder.of(request.getPath()), page));
+        String etag = ETagUtil.fromList(page.getContent(), PostDTO::getId, postService::getETag, page.getTotalSize());
+        MutableHttpResponse<?> response = HttpResponse.ok();
+        PaginationUtil.generatePaginationHttpHeaders(response.getHeaders(), UriBuilder.of(request.getPath()), page);
+        HeaderUtil.createEntityTag(response.getHeaders(), etag);
+        Map<String, String> headers = new LinkedHashMap<>();
+        response.getHeaders().forEach((name, values) -> headers.put(name, values.get(0)));
+        try {
+            return new CachedResponse(objectMapper.writeValueAsBytes(page.getContent()), headers);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -129,6 +227,7 @@ public class PostResource {
      * @return the {@link HttpResponse} with status {@code 200 (OK)} and the count in body.
      */
     @Get("/posts/count")
+    @ExecuteOn(TaskExecutors.IO)
     public HttpResponse<Long> countPosts(PostCriteria criteria) {
         log.debug("REST request to count Posts by criteria: {}", criteria);
         return HttpResponse.ok().body(postQueryService.countByCriteria(criteria));
@@ -136,16 +235,31 @@ public class PostResource {
 
     /**
      * {@code GET  /posts/:id} : get the "id" post.
+     * <p>
+     * When the entity tag of the post matches the {@code If-None-Match} header, {@code 304 (Not Modified)} is sent
+     * without mapping the post.
      *
+     * @param request the HTTP request.
      * @param id the id of the postDTO to retrieve.
-     * @return the {@link HttpResponse} with status {@code 200 (OK)} and with body the postDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link HttpResponse} with status {@code 200 (OK)} and with body the postDTO, or with status
+     * {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
      */
     @Get("/posts/{id}")
     @ExecuteOn(TaskExecutors.IO)
-    public Optional<PostDTO> getPost(@PathVariable Long id) {
+    public HttpResponse<PostDTO> getPost(HttpRequest<?> request, @PathVariable Long id) {
         log.debug("REST request to get Post : {}", id);
-
-        return postService.findOne(id);
+        String ifNoneMatch = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            Optional<String> etag = postService.findETag(id);
+            if (etag.isPresent() && HeaderUtil.matchesETag(ifNoneMatch, etag.get())) {
+                return HttpResponse.<PostDTO>notModified().headers(headers -> HeaderUtil.createEntityTag(headers, etag.get()));
+            }
+        }
+        Optional<PostDTO> post = postService.findOne(id);
+        if (!post.isPresent()) {
+            return HttpResponse.notFound();
+        }
+        return HttpResponse.ok(post.get()).headers(headers -> HeaderUtil.createEntityTag(headers, postService.getETag(post.get())));
     }
 
     /**
@@ -161,4 +275,23 @@ public class PostResource {
         postService.delete(id);
         return HttpResponse.noContent().headers(headers -> HeaderUtil.createEntityDeletionAlert(headers, applicationName, true, ENTITY_NAME, id.toString()));
     }
+
+    private static String toKey(Pageable pageable) {
+        StringBuilder key = new StringBuilder("page=").append(pageable.getNumber()).append("&size=").append(pageable.getSize());
+        for (Sort.Order order : pageable.getSort().getOrderBy()) {
+            key.append("&sort=").append(order.getProperty()).append(',').append(order.getDirection());
+            if (order.isIgnoreCase()) {
+                key.append(",ignoreCase");
+            }
+        }
+        return key.toString();
+    }
+
+    private static KeysetCursor decodeCursor(String after) {
+        try {
+            return KeysetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "invalidcursor");
+        }
+    }
 }
@@ -15,6 +15,10 @@ public final class ErrorConstants {
     public static final URI LOGIN_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/login-already-used");
     public static final URI EMAIL_NOT_FOUND_TYPE = URI.create(PROBLEM_BASE_URL + "/email-not-found");
     public static final URI INVALID_EMAIL_DOMAIN_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-email-domain");
+    public static final URI PAYLOAD_TOO_LARGE_TYPE = URI.create(PROBLEM_BASE_URL + "/payload-too-large");
+    public static final URI CONCURRENCY_FAILURE_TYPE = URI.create(PROBLEM_BASE_URL + "/concurrency-failure");
+    public static final URI SERVICE_UNAVAILABLE_TYPE = URI.create(PROBLEM_BASE_URL + "/service-unavailable");
+    public static final URI TOO_MANY_REQUESTS_TYPE = URI.create(PROBLEM_BASE_URL + "/too-many-requests");
     private ErrorConstants() {
     }
 }
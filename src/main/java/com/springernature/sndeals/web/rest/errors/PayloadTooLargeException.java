@@ -0,0 +1,13 @@
+package com.springernature.sndeals.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+public class PayloadTooLargeException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public PayloadTooLargeException(long maxSize) {
+        super(ErrorConstants.PAYLOAD_TOO_LARGE_TYPE, "The content is larger than " + maxSize + " bytes", Status.REQUEST_ENTITY_TOO_LARGE);
+    }
+}
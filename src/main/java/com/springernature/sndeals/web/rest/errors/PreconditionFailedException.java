@@ -0,0 +1,28 @@
+package com.springernature.sndeals.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thrown when the {@code If-Match} header of a request doesn't match the current version of the entity, which was
+ * modified since the client read it.
+ */
+public class PreconditionFailedException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String entityName) {
+        super(ErrorConstants.CONCURRENCY_FAILURE_TYPE, "The " + entityName + " was modified", Status.PRECONDITION_FAILED, null, null, null,
+            getAlertParameters(entityName));
+    }
+
+    private static Map<String, Object> getAlertParameters(String entityName) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("message", ErrorConstants.ERR_CONCURRENCY_FAILURE);
+        parameters.put("params", entityName);
+        return parameters;
+    }
+}
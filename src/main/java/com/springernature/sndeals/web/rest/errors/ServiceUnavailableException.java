@@ -0,0 +1,17 @@
+package com.springernature.sndeals.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+/**
+ * Thrown when a request can't be served right now because a bounded resource of the server is saturated, the client
+ * may try again later.
+ */
+public class ServiceUnavailableException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServiceUnavailableException(String detail) {
+        super(ErrorConstants.SERVICE_UNAVAILABLE_TYPE, "Service unavailable", Status.SERVICE_UNAVAILABLE, detail);
+    }
+}
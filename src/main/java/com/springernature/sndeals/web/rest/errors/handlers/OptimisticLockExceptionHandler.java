@@ -0,0 +1,29 @@
+package com.springernature.sndeals.web.rest.errors.handlers;
+
+import com.springernature.sndeals.web.rest.errors.ErrorConstants;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+import javax.inject.Singleton;
+import javax.persistence.OptimisticLockException;
+
+/**
+ * Answers {@code 409 (Conflict)} when an entity is updated from a version which is not its current one.
+ */
+@Singleton
+public class OptimisticLockExceptionHandler extends ProblemHandler implements ExceptionHandler<OptimisticLockException, HttpResponse> {
+
+    @Override
+    public HttpResponse handle(HttpRequest request, OptimisticLockException exception) {
+        Problem problem = Problem.builder()
+            .withType(ErrorConstants.CONCURRENCY_FAILURE_TYPE)
+            .withTitle(Status.CONFLICT.getReasonPhrase())
+            .withStatus(Status.CONFLICT)
+            .with(MESSAGE_KEY, ErrorConstants.ERR_CONCURRENCY_FAILURE)
+            .build();
+        return create(problem, request, exception);
+    }
+}
@@ -0,0 +1,17 @@
+package com.springernature.sndeals.web.rest.errors.handlers;
+
+import com.springernature.sndeals.web.rest.errors.PayloadTooLargeException;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+
+import javax.inject.Singleton;
+
+@Singleton
+public class PayloadTooLargeExceptionHandler extends ProblemHandler implements ExceptionHandler<PayloadTooLargeException, HttpResponse> {
+
+    @Override
+    public HttpResponse handle(HttpRequest request, PayloadTooLargeException exception) {
+        return create(exception, request, exception);
+    }
+}
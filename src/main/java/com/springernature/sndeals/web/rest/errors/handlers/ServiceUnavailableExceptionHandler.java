@@ -0,0 +1,17 @@
+package com.springernature.sndeals.web.rest.errors.handlers;
+
+import com.springernature.sndeals.web.rest.errors.ServiceUnavailableException;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+
+import javax.inject.Singleton;
+
+@Singleton
+public class ServiceUnavailableExceptionHandler extends ProblemHandler implements ExceptionHandler<ServiceUnavailableException, HttpResponse> {
+
+    @Override
+    public HttpResponse handle(HttpRequest request, ServiceUnavailableException exception) {
+        return create(exception, request, exception);
+    }
+}
@@ -7,10 +7,38 @@ const TIMEOUT = 1 * 60 * 1000;
 axios.defaults.timeout = TIMEOUT;
 axios.defaults.baseURL = SERVER_API_URL;
 
+const AUTH_TOKEN_KEY = 'jhi-authenticationToken';
+const REFRESH_TOKEN_KEY = 'jhi-refreshToken';
+const REFRESH_URL = 'api/oauth/access_token';
+
+/**
+ * Get a new access token with the refresh token, in the storage of the refresh token.
+ */
+const refreshAccessToken = (): Promise<boolean> => {
+  const storage = Storage.local.get(REFRESH_TOKEN_KEY) ? Storage.local : Storage.session;
+  const refreshToken = storage.get(REFRESH_TOKEN_KEY);
+  if (!refreshToken) {
+    return Promise.resolve(false);
+  }
+  return axios
+    .post(REFRESH_URL, { grant_type: 'refresh_token', refresh_token: refreshToken }) // eslint-disable-line @typescript-eslint/camelcase
+    .then(response => {
+      storage.set(AUTH_TOKEN_KEY, response.data.access_token);
+      if (response.data.refresh_token) {
+        storage.set(REFRESH_TOKEN_KEY, response.data.refresh_token);
+      }
+      return true;
+    })
+    .catch(() => {
+      storage.remove(REFRESH_TOKEN_KEY);
+      return false;
+    });
+};
+
 const setupAxiosInterceptors = onUnauthenticated => {
   const onRequestSuccess = config => {
-    const token = Storage.local.get('jhi-authenticationToken') || Storage.session.get('jhi-authenticationToken');
-    if (token) {
+    const token = Storage.local.get(AUTH_TOKEN_KEY) || Storage.session.get(AUTH_TOKEN_KEY);
+    if (token && config.url !== REFRESH_URL) {
       config.headers.Authorization = `Bearer ${token}`;
     }
     return config;
@@ -18,6 +46,18 @@ const setupAxiosInterceptors = onUnauthenticated => {
   const onResponseSuccess = response => response;
   const onResponseError = err => {
     const status = err.status || (err.response ? err.response.status : 0);
+    const config = err.config;
+    // An expired access token is renewed once with the refresh token, and the request sent again
+    if (status === 401 && config && !config.retried && config.url !== REFRESH_URL) {
+      return refreshAccessToken().then(refreshed => {
+        if (refreshed) {
+          config.retried = true;
+          return axios(config);
+        }
+        onUnauthenticated();
+        return Promise.reject(err);
+      });
+    }
     if (status === 403 || status === 401) {
       onUnauthenticated();
     }
@@ -3,8 +3,6 @@ import { connect } from 'react-redux';
 import { Link, RouteComponentProps } from 'react-router-dom';
 import { Button, Col, Row, Table } from 'reactstrap';
 import {
-  openFile,
-  byteSize,
   Translate,
   ICrudGetAllAction,
   getSortState,
@@ -95,10 +93,10 @@ export const Attachment = (props: IAttachmentProps) => {
                 <th className="hand" onClick={sort('fileName')}>
                   <Translate contentKey="sndealsApp.attachment.fileName">File Name</Translate> <FontAwesomeIcon icon="sort" />
                 </th>
-                <th className="hand" onClick={sort('content')}>
-                  <Translate contentKey="sndealsApp.attachment.content">Content</Translate> <FontAwesomeIcon icon="sort" />
-                </th>
                 <th>
+                  <Translate contentKey="sndealsApp.attachment.content">Content</Translate>
+                </th>
+                <th className="hand" onClick={sort('post')}>
                   <Translate contentKey="sndealsApp.attachment.post">Post</Translate> <FontAwesomeIcon icon="sort" />
                 </th>
                 <th />
@@ -114,18 +112,10 @@ export const Attachment = (props: IAttachmentProps) => {
                   </td>
                   <td>{attachment.fileName}</td>
                   <td>
-                    {attachment.content ? (
-                      <div>
-                        {attachment.contentContentType ? (
-                          <a onClick={openFile(attachment.contentContentType, attachment.content)}>
-                            <Translate contentKey="entity.action.open">Open</Translate>
-                            &nbsp;
-                          </a>
-                        ) : null}
-                        <span>
-                          {attachment.contentContentType}, {byteSize(attachment.content)}
-                        </span>
-                      </div>
+                    {attachment.contentContentType ? (
+                      <span>
+                        {attachment.contentContentType}, {attachment.size} bytes
+                      </span>
                     ) : null}
                   </td>
                   <td>{attachment.postId ? <Link to={`post/${attachment.postId}`}>{attachment.postId}</Link> : ''}</td>
@@ -105,8 +105,8 @@ export const Post = (props: IPostProps) => {
                   <th className="hand" onClick={sort('title')}>
                     <Translate contentKey="sndealsApp.post.title">Title</Translate> <FontAwesomeIcon icon="sort" />
                   </th>
-                  <th className="hand" onClick={sort('description')}>
-                    <Translate contentKey="sndealsApp.post.description">Description</Translate> <FontAwesomeIcon icon="sort" />
+                  <th>
+                    <Translate contentKey="sndealsApp.post.description">Description</Translate>
                   </th>
                   <th className="hand" onClick={sort('location')}>
                     <Translate contentKey="sndealsApp.post.location">Location</Translate> <FontAwesomeIcon icon="sort" />
@@ -114,7 +114,7 @@ export const Post = (props: IPostProps) => {
                   <th className="hand" onClick={sort('status')}>
                     <Translate contentKey="sndealsApp.post.status">Status</Translate> <FontAwesomeIcon icon="sort" />
                   </th>
-                  <th>
+                  <th className="hand" onClick={sort('category')}>
                     <Translate contentKey="sndealsApp.post.category">Category</Translate> <FontAwesomeIcon icon="sort" />
                   </th>
                   <th />
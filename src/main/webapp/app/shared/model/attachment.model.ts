@@ -1,8 +1,11 @@
 export interface IAttachment {
   id?: number;
+  version?: number;
   fileName?: string;
   contentContentType?: string;
   content?: any;
+  size?: number;
+  checksum?: string;
   postId?: number;
 }
 
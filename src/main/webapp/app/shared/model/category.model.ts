@@ -1,5 +1,6 @@
 export interface ICategory {
   id?: number;
+  version?: number;
   internalId?: string;
   displayName?: string;
 }
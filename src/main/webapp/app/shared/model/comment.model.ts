@@ -1,5 +1,6 @@
 export interface IComment {
   id?: number;
+  version?: number;
   comment?: string;
   postTitle?: string;
   postId?: number;
@@ -1,5 +1,6 @@
 export interface IPost {
   id?: number;
+  version?: number;
   title?: string;
   description?: string;
   location?: string;
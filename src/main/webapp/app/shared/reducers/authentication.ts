@@ -13,6 +13,7 @@ export const ACTION_TYPES = {
 };
 
 const AUTH_TOKEN_KEY = 'jhi-authenticationToken';
+const REFRESH_TOKEN_KEY = 'jhi-refreshToken';
 
 const initialState = {
   loading: false,
@@ -121,11 +122,12 @@ export const login: (username: string, password: string, rememberMe?: boolean) =
     payload: axios.post('api/authenticate', { username, password, rememberMe }),
   });
   const jwt = result.value.data.access_token;
+  const refreshToken = result.value.data.refresh_token;
   if (jwt) {
-    if (rememberMe) {
-      Storage.local.set(AUTH_TOKEN_KEY, jwt);
-    } else {
-      Storage.session.set(AUTH_TOKEN_KEY, jwt);
+    const storage = rememberMe ? Storage.local : Storage.session;
+    storage.set(AUTH_TOKEN_KEY, jwt);
+    if (refreshToken) {
+      storage.set(REFRESH_TOKEN_KEY, refreshToken);
     }
   }
   await dispatch(getSession());
@@ -138,9 +140,20 @@ export const clearAuthToken = () => {
   if (Storage.session.get(AUTH_TOKEN_KEY)) {
     Storage.session.remove(AUTH_TOKEN_KEY);
   }
+  if (Storage.local.get(REFRESH_TOKEN_KEY)) {
+    Storage.local.remove(REFRESH_TOKEN_KEY);
+  }
+  if (Storage.session.get(REFRESH_TOKEN_KEY)) {
+    Storage.session.remove(REFRESH_TOKEN_KEY);
+  }
 };
 
 export const logout: () => void = () => dispatch => {
+  const token = Storage.local.get(AUTH_TOKEN_KEY) || Storage.session.get(AUTH_TOKEN_KEY);
+  if (token) {
+    // Revokes the token on the server. The request interceptors run after the token is cleared, it is sent explicitly
+    axios.post('api/logout', {}, { headers: { Authorization: `Bearer ${token}` } }).catch(() => undefined);
+  }
   clearAuthToken();
   dispatch({
     type: ACTION_TYPES.LOGOUT,
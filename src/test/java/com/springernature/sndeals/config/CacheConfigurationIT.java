@@ -0,0 +1,56 @@
+package com.springernature.sndeals.config;
+
+import com.springernature.sndeals.domain.User;
+import com.springernature.sndeals.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the Hibernate second level cache configured by {@link CacheConfiguration}.
+ */
+@MicronautTest(transactional = false)
+@Property(name = "micronaut.security.enabled", value = "false")
+@Property(name = "jpa.default.properties.hibernate.cache.use_second_level_cache", value = "true")
+@Property(name = "jpa.default.properties.hibernate.cache.use_query_cache", value = "true")
+@Property(name = "jpa.default.properties.hibernate.cache.region.factory_class", value = "jcache")
+@Property(name = "jpa.default.properties.hibernate.generate_statistics", value = "true")
+public class CacheConfigurationIT {
+
+    @Inject
+    private UserRepository userRepository;
+
+    @Inject
+    private SessionFactory sessionFactory;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testUserByLoginIsReadFromTheCache() {
+        Statistics statistics = sessionFactory.getStatistics();
+        userRepository.findOneByLogin("admin");
+        statistics.clear();
+
+        User user = userRepository.findOneByLogin("admin").get();
+
+        assertThat(user.getAuthorities()).isNotEmpty();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1L);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void testRegionStatisticsAreExported() {
+        userRepository.findOneByLogin("user");
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", User.class.getName()).functionCounters())
+            .isNotEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package com.springernature.sndeals.security;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link DelegatingPasswordEncoder} class.
+ */
+public class DelegatingPasswordEncoderTest {
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @AfterEach
+    public void tearDown() {
+        if (passwordHashingExecutor != null) {
+            passwordHashingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBcryptHashes() {
+        PasswordEncoder encoder = newEncoder(DelegatingPasswordEncoder.BCRYPT, 5, 64);
+
+        String hash = encoder.encode("password");
+
+        assertThat(hash).startsWith("$2a$05$").hasSize(60);
+        assertThat(encoder.matches("password", hash)).isTrue();
+        assertThat(encoder.matches("other", hash)).isFalse();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    public void testArgon2idHashes() {
+        PasswordEncoder encoder = newEncoder(DelegatingPasswordEncoder.ARGON2ID, 5, 64);
+
+        String hash = encoder.encode("password");
+
+        assertThat(hash).startsWith("$argon2id$v=19$m=64,t=1,p=1$");
+        assertThat(encoder.matches("password", hash)).isTrue();
+        assertThat(encoder.matches("other", hash)).isFalse();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+        assertThat(encoder.encode("password")).as("salted").isNotEqualTo(hash);
+    }
+
+    @Test
+    public void testWeakerHashesAreUpgraded() {
+        String bcryptHash = newEncoder(DelegatingPasswordEncoder.BCRYPT, 4, 64).encode("password");
+        String argon2idHash = newEncoder(DelegatingPasswordEncoder.ARGON2ID, 4, 32).encode("password");
+
+        PasswordEncoder encoder = newEncoder(DelegatingPasswordEncoder.BCRYPT, 5, 64);
+        assertThat(encoder.matches("password", bcryptHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(bcryptHash)).as("lower cost").isTrue();
+        assertThat(encoder.matches("password", argon2idHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(argon2idHash)).as("other algorithm").isTrue();
+
+        encoder = newEncoder(DelegatingPasswordEncoder.ARGON2ID, 5, 64);
+        assertThat(encoder.upgradeEncoding(argon2idHash)).as("less memory").isTrue();
+        assertThat(encoder.upgradeEncoding(bcryptHash)).as("other algorithm").isTrue();
+    }
+
+    @Test
+    public void testCostlierHashesAreUpgraded() {
+        String bcryptHash = newEncoder(DelegatingPasswordEncoder.BCRYPT, 4, 64).encode("password");
+        // The cost of the former settings, the hash isn't computed
+        String formerHash = bcryptHash.replace("$04$", "$16$");
+
+        PasswordEncoder encoder = newEncoder(DelegatingPasswordEncoder.BCRYPT, 5, 64);
+        assertThat(encoder.upgradeEncoding(formerHash)).as("higher cost").isTrue();
+        assertThat(encoder.upgradeEncoding(bcryptHash.replace("$04$", "$06$"))).as("within the tolerance").isFalse();
+    }
+
+    @Test
+    public void testUnknownHashesDontMatch() {
+        PasswordEncoder encoder = newEncoder(DelegatingPasswordEncoder.ARGON2ID, 5, 64);
+
+        assertThat(encoder.matches("password", "password")).isFalse();
+        assertThat(encoder.matches("password", "$argon2id$v=19$m=64,t=1,p=1$invalid")).isFalse();
+    }
+
+    @Test
+    public void testUnknownAlgorithmIsRefused() {
+        assertThatThrownBy(() -> newEncoder("md5", 5, 64)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private PasswordEncoder newEncoder(String algorithm, int bcryptCost, int argon2MemoryKib) {
+        ApplicationProperties.Password password = new ApplicationProperties.Password();
+        password.setAlgorithm(algorithm);
+        password.setBcryptCost(bcryptCost);
+        password.setArgon2MemoryKib(argon2MemoryKib);
+        password.setArgon2Iterations(1);
+        password.setHashingThreads(1);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.setPassword(password);
+        if (passwordHashingExecutor != null) {
+            passwordHashingExecutor.shutdown();
+        }
+        passwordHashingExecutor = new PasswordHashingExecutor(applicationProperties, new SimpleMeterRegistry());
+        return new DelegatingPasswordEncoder(new BcryptPasswordEncoder(applicationProperties), new Argon2idPasswordEncoder(applicationProperties),
+            passwordHashingExecutor, applicationProperties);
+    }
+}
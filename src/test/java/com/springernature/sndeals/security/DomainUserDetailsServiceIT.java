@@ -4,6 +4,7 @@ import com.springernature.sndeals.domain.User;
 import com.springernature.sndeals.repository.UserRepository;
 import com.springernature.sndeals.security.PasswordEncoder;
 
+import io.micronaut.context.annotation.Primary;
 import io.micronaut.security.authentication.AuthenticationRequest;
 import io.micronaut.security.authentication.AuthenticationResponse;
 import io.micronaut.security.authentication.UserDetails;
@@ -182,7 +183,8 @@ public class DomainUserDetailsServiceIT {
     }
 
 
-    @MockBean(BcryptPasswordEncoder.class)
+    @Primary
+    @MockBean(DelegatingPasswordEncoder.class)
     PasswordEncoder passwordEncoder() {
         return new PasswordEncoder() {
             @Override
@@ -0,0 +1,79 @@
+package com.springernature.sndeals.security;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.web.rest.errors.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link PasswordHashingExecutor} class.
+ */
+public class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        ApplicationProperties.Password password = new ApplicationProperties.Password();
+        password.setHashingThreads(1);
+        password.setHashingQueueCapacity(1);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.setPassword(password);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingExecutor = new PasswordHashingExecutor(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    public void testTasksRunOnTheHashingThreads() {
+        String thread = passwordHashingExecutor.call(() -> Thread.currentThread().getName());
+
+        assertThat(thread).startsWith("password-hashing-");
+    }
+
+    @Test
+    public void testNestedCallsRunInline() {
+        String thread = passwordHashingExecutor.call(() -> passwordHashingExecutor.call(() -> Thread.currentThread().getName()));
+
+        assertThat(thread).startsWith("password-hashing-");
+    }
+
+    @Test
+    public void testTasksAreRejectedWhenTheQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = passwordHashingExecutor.submit(() -> {
+            started.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        started.await();
+        CompletableFuture<String> queued = passwordHashingExecutor.submit(() -> "queued");
+
+        assertThatThrownBy(() -> passwordHashingExecutor.call(() -> "rejected")).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get()).isTrue();
+        assertThat(queued.get()).isEqualTo("queued");
+    }
+}
@@ -9,6 +9,7 @@ import io.micronaut.security.authentication.UserDetails;
 import org.junit.jupiter.api.Test;
 
 import javax.annotation.Nonnull;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
@@ -57,4 +58,17 @@ public class SecurityUtilsUnitTest {
         });
     }
 
+    @Test
+    public void testIsCurrentUserInRoleOfVerifiedAuthentication() {
+        VerifiedAuthentication authentication = new VerifiedAuthentication(new DefaultAuthentication("user",
+            Collections.singletonMap("roles", Arrays.asList(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN))));
+        HttpRequest request = HttpRequest.GET("/").setAttribute(HttpAttributes.PRINCIPAL, authentication);
+
+        ServerRequestContext.with(request, () -> {
+            assertThat(SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADMIN)).isTrue();
+            assertThat(SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ANONYMOUS)).isFalse();
+        });
+        assertThat(authentication.getAttributes().get("roles")).isEqualTo(authentication.getRoles());
+    }
+
 }
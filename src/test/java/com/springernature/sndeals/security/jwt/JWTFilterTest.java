@@ -2,9 +2,12 @@ package com.springernature.sndeals.security.jwt;
 
 import com.springernature.sndeals.security.AuthoritiesConstants;
 import com.springernature.sndeals.security.DatabaseAuthenticationProvider;
+import com.springernature.sndeals.security.SecurityUtils;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.Property;
 import io.micronaut.context.annotation.Replaces;
@@ -39,6 +42,8 @@ public class JWTFilterTest {
 
     @Inject @Client("/") RxHttpClient client;
 
+    @Inject MeterRegistry meterRegistry;
+
     @Test
     public void testJWTFilter() throws Exception {
 
@@ -52,6 +57,19 @@ public class JWTFilterTest {
         assertThat(username).isEqualTo("test-user");
     }
 
+    @Test
+    public void testVerifiedTokenIsReused() throws Exception {
+        AccessRefreshToken token = client.retrieve(HttpRequest.POST("/api/authenticate", new UsernamePasswordCredentials("test-user",
+            "test-password")), AccessRefreshToken.class).blockingFirst();
+        String jwt = token.getAccessToken();
+        double hits = tokenCacheHits();
+
+        assertThat(client.retrieve(HttpRequest.GET("/api/test-role").bearerAuth(jwt)).blockingFirst()).isEqualTo("true");
+        assertThat(client.retrieve(HttpRequest.GET("/api/test-role").bearerAuth(jwt)).blockingFirst()).isEqualTo("true");
+
+        assertThat(tokenCacheHits()).isGreaterThan(hits);
+    }
+
     @Test
     public void testJWTFilterInvalidToken() throws Exception {
         String jwt = "wrong_jwt";
@@ -94,6 +112,12 @@ public class JWTFilterTest {
         String test(Authentication authentication) {
             return authentication.getName();
         }
+
+        @Secured(SecurityRule.IS_AUTHENTICATED)
+        @Get("/test-role")
+        String testRole() {
+            return String.valueOf(SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.USER));
+        }
     }
 
     @Replaces(DatabaseAuthenticationProvider.class)
@@ -104,10 +128,14 @@ public class JWTFilterTest {
         public Publisher<AuthenticationResponse> authenticate(@Nullable HttpRequest<?> httpRequest, AuthenticationRequest<?, ?> authenticationRequest) {
             if (authenticationRequest.getIdentity().toString().equals("test-user") &&
             authenticationRequest.getSecret().toString().equals("test-password")) {
-                return Flowable.just(new UserDetails("test-user", Collections.emptyList()));
+                return Flowable.just(new UserDetails("test-user", Collections.singletonList(AuthoritiesConstants.USER)));
             }
             return Flowable.empty();
         }
     }
 
+    private double tokenCacheHits() {
+        FunctionCounter hits = meterRegistry.find("cache.gets").tag("name", CachingJwtTokenValidator.TOKENS).tag("result", "hit").functionCounter();
+        return hits == null ? 0 : hits.count();
+    }
 }
@@ -0,0 +1,57 @@
+package com.springernature.sndeals.security.jwt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link TokenDenyList} class.
+ */
+public class TokenDenyListTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+
+    private TokenDenyList denyList;
+
+    @BeforeEach
+    public void setup() {
+        denyList = new TokenDenyList(100, 0.01);
+    }
+
+    @Test
+    public void testRevokedTokensAreDenied() {
+        denyList.add("revoked", NOW.plusSeconds(900));
+
+        assertThat(denyList.contains("revoked")).isTrue();
+        assertThat(denyList.contains("valid")).isFalse();
+        assertThat(denyList.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testValidTokensAreNeverDenied() {
+        for (int i = 0; i < 1000; i++) {
+            denyList.add("revoked-" + i, NOW.plusSeconds(900));
+        }
+
+        // More tokens than expected raise the false positives of the filter, not the answers
+        for (int i = 0; i < 1000; i++) {
+            assertThat(denyList.contains("revoked-" + i)).isTrue();
+            assertThat(denyList.contains("valid-" + i)).isFalse();
+        }
+    }
+
+    @Test
+    public void testExpiredTokensAreRemoved() {
+        denyList.add("expired", NOW.minusSeconds(1));
+        denyList.add("revoked", NOW.plusSeconds(900));
+
+        denyList.removeExpired(NOW);
+
+        assertThat(denyList.contains("expired")).isFalse();
+        assertThat(denyList.contains("revoked")).isTrue();
+        assertThat(denyList.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.springernature.sndeals.service;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.service.storage.FileSystemBlobStore;
+import com.springernature.sndeals.service.storage.StoredBlob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link AttachmentDerivativeService} class.
+ */
+public class AttachmentDerivativeServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private FileSystemBlobStore blobStore;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AttachmentDerivativeService attachmentDerivativeService;
+
+    @BeforeEach
+    public void setup() {
+        blobStore = new FileSystemBlobStore(directory);
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        attachmentDerivativeService = new AttachmentDerivativeService(blobStore, null, meterRegistry, applicationProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        attachmentDerivativeService.shutdown();
+    }
+
+    @Test
+    public void testGenerateDerivatives() throws IOException {
+        StoredBlob blob = blobStore.put(new ByteArrayInputStream(createPng(1000, 500)));
+
+        int generated = attachmentDerivativeService.generate(blob.getKey(), false);
+
+        assertThat(generated).isEqualTo(AttachmentDerivative.values().length);
+        BufferedImage thumbnail = readDerivative(blob.getKey(), AttachmentDerivative.THUMBNAIL);
+        assertThat(thumbnail.getWidth()).isEqualTo(160);
+        assertThat(thumbnail.getHeight()).isEqualTo(80);
+        BufferedImage large = readDerivative(blob.getKey(), AttachmentDerivative.LARGE);
+        assertThat(large.getWidth()).isEqualTo(1000);
+        assertThat(meterRegistry.get("attachment.derivatives.generated").counter().count()).isEqualTo(3d);
+    }
+
+    @Test
+    public void testExistingDerivativesAreKept() throws IOException {
+        StoredBlob blob = blobStore.put(new ByteArrayInputStream(createPng(200, 200)));
+        attachmentDerivativeService.generate(blob.getKey(), false);
+
+        assertThat(attachmentDerivativeService.generate(blob.getKey(), false)).isZero();
+        assertThat(attachmentDerivativeService.generate(blob.getKey(), true)).isEqualTo(AttachmentDerivative.values().length);
+    }
+
+    @Test
+    public void testContentWhichIsNotAnImageIsIgnored() throws IOException {
+        StoredBlob blob = blobStore.put(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(attachmentDerivativeService.generate(blob.getKey(), false)).isZero();
+        assertThat(attachmentDerivativeService.schedule(blob.getKey(), "text/plain")).isFalse();
+        assertThat(blobStore.derivativeExists(blob.getKey(), AttachmentDerivative.THUMBNAIL.getKey())).isFalse();
+    }
+
+    private BufferedImage readDerivative(String key, AttachmentDerivative derivative) throws IOException {
+        try (InputStream in = blobStore.openDerivative(key, derivative.getKey())) {
+            return ImageIO.read(in);
+        }
+    }
+
+    private static byte[] createPng(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,149 @@
+package com.springernature.sndeals.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.springernature.sndeals.config.ApplicationProperties;
+import com.springernature.sndeals.service.cache.CacheInvalidationService;
+import com.springernature.sndeals.service.cache.CachedResponse;
+import com.springernature.sndeals.service.cache.LocalCacheInvalidationTransport;
+import com.springernature.sndeals.service.cache.ResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link CacheSnapshotService} class.
+ */
+public class CacheSnapshotServiceTest {
+
+    private static final List<String> DEPENDENCIES = Collections.singletonList(CacheInvalidationService.POSTS);
+
+    @TempDir
+    Path directory;
+
+    private ApplicationProperties applicationProperties;
+
+    private LocalCacheInvalidationTransport transport;
+
+    private CacheInvalidationService cacheInvalidationService;
+
+    private CacheFingerprintService cacheFingerprintService;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        ApplicationProperties.Cluster cluster = new ApplicationProperties.Cluster();
+        cluster.setChannel("cache-snapshot-test");
+        ApplicationProperties.CacheSnapshot cacheSnapshot = new ApplicationProperties.CacheSnapshot();
+        cacheSnapshot.setEnabled(true);
+        cacheSnapshot.setFile(directory.resolve("cache-snapshot.json").toString());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.setCluster(cluster);
+        applicationProperties.setCacheSnapshot(cacheSnapshot);
+        transport = new LocalCacheInvalidationTransport(applicationProperties);
+        cacheInvalidationService = new CacheInvalidationService(Collections.emptyList(), transport, new SimpleMeterRegistry());
+        cacheFingerprintService = mock(CacheFingerprintService.class);
+        when(cacheFingerprintService.getNames()).thenReturn(Arrays.asList(CacheInvalidationService.CATEGORIES, CacheInvalidationService.POSTS));
+        fingerprint(CacheInvalidationService.CATEGORIES, "[3, 3, 3]");
+        fingerprint(CacheInvalidationService.POSTS, "[10, 12, 15]");
+        objectMapper = new ObjectMapper();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transport.close();
+    }
+
+    @Test
+    public void testResponsesAreRestored() {
+        ResponseCache before = newResponseCache();
+        before.get("/api/posts?page=0", DEPENDENCIES, () -> response("cached"));
+        newCacheSnapshotService(before).save();
+
+        ResponseCache after = newResponseCache();
+        newCacheSnapshotService(after).restore();
+
+        CachedResponse response = after.get("/api/posts?page=0", DEPENDENCIES, () -> response("loaded"));
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("cached");
+        assertThat(response.getETag()).isEqualTo("\"cached\"");
+    }
+
+    @Test
+    public void testResponsesOfWrittenDataAreDropped() {
+        ResponseCache before = newResponseCache();
+        before.get("/api/posts?page=0", DEPENDENCIES, () -> response("cached"));
+        newCacheSnapshotService(before).save();
+
+        // A post was updated while the node was stopped
+        fingerprint(CacheInvalidationService.POSTS, "[10, 12, 16]");
+        ResponseCache after = newResponseCache();
+        newCacheSnapshotService(after).restore();
+
+        CachedResponse response = after.get("/api/posts?page=0", DEPENDENCIES, () -> response("loaded"));
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("loaded");
+    }
+
+    @Test
+    public void testInvalidatedResponsesAreNotSaved() {
+        ResponseCache before = newResponseCache();
+        before.get("/api/posts?page=0", DEPENDENCIES, () -> response("cached"));
+        cacheInvalidationService.invalidate(CacheInvalidationService.POSTS, 1L);
+
+        assertThat(before.exportEntries()).isEmpty();
+    }
+
+    @Test
+    public void testSnapshotOfAnotherFormatIsIgnored() throws Exception {
+        ResponseCache before = newResponseCache();
+        before.get("/api/posts?page=0", DEPENDENCIES, () -> response("cached"));
+        newCacheSnapshotService(before).save();
+        Path file = directory.resolve("cache-snapshot.json");
+        ObjectNode snapshot = (ObjectNode) objectMapper.readTree(file.toFile());
+        snapshot.put("format", "\"other\"");
+        objectMapper.writeValue(file.toFile(), snapshot);
+
+        ResponseCache after = newResponseCache();
+        newCacheSnapshotService(after).restore();
+
+        CachedResponse response = after.get("/api/posts?page=0", DEPENDENCIES, () -> response("loaded"));
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("loaded");
+    }
+
+    @Test
+    public void testMissingSnapshotIsIgnored() {
+        ResponseCache after = newResponseCache();
+        newCacheSnapshotService(after).restore();
+
+        assertThat(after.exportEntries()).isEmpty();
+    }
+
+    private ResponseCache newResponseCache() {
+        return new ResponseCache(cacheInvalidationService, applicationProperties, new SimpleMeterRegistry());
+    }
+
+    private CacheSnapshotService newCacheSnapshotService(ResponseCache responseCache) {
+        return new CacheSnapshotService(Collections.singletonList(responseCache), cacheFingerprintService, objectMapper, applicationProperties);
+    }
+
+    private void fingerprint(String name, String fingerprint) {
+        when(cacheFingerprintService.getFingerprint(name)).thenReturn(Optional.of(fingerprint));
+    }
+
+    private static CachedResponse response(String body) {
+        return new CachedResponse(body.getBytes(StandardCharsets.UTF_8), Collections.singletonMap("ETag", "\"" + body + "\""));
+    }
+}
@@ -57,6 +57,9 @@ public class UserServiceIT {
     @Inject
     private UserService userService;
 
+    @Inject
+    private UserCache userCache;
+
     private User user;
 
     @BeforeEach
@@ -335,4 +338,20 @@ public class UserServiceIT {
 
         assertFalse(user.isPresent());
     }
+
+    @Test
+    public void testWrittenUserIsEvictedFromTheCache() {
+        userRepository.saveAndFlush(user);
+        assertThat(userCache.get(DEFAULT_LOGIN).get().getFirstName()).isEqualTo(DEFAULT_FIRSTNAME);
+
+        UserDTO userDTO = new UserDTO(userRepository.findOneByLogin(DEFAULT_LOGIN).get());
+        userDTO.setFirstName("jane");
+        userService.updateUser(userDTO);
+
+        assertThat(userCache.get(DEFAULT_LOGIN).get().getFirstName()).isEqualTo("jane");
+
+        userService.deleteUser(DEFAULT_LOGIN);
+
+        assertThat(userCache.get(DEFAULT_LOGIN)).isNotPresent();
+    }
 }
@@ -0,0 +1,88 @@
+package com.springernature.sndeals.service.cache;
+
+import com.springernature.sndeals.service.CategoryService;
+import com.springernature.sndeals.service.dto.CategoryDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.ApplicationContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link CacheInvalidationService}, with two application contexts sharing the test
+ * database as the nodes of a cluster, connected by the {@link LocalCacheInvalidationTransport}.
+ */
+public class CacheInvalidationServiceIT {
+
+    private static ApplicationContext firstNode;
+
+    private static ApplicationContext secondNode;
+
+    @BeforeAll
+    public static void startNodes() {
+        firstNode = startNode();
+        secondNode = startNode();
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        if (secondNode != null) {
+            secondNode.close();
+        }
+        if (firstNode != null) {
+            firstNode.close();
+        }
+    }
+
+    private static ApplicationContext startNode() {
+        Map<String, Object> props = new LinkedHashMap<>();
+        // Not the channel of the other test contexts of the JVM
+        props.put("application.cluster.channel", "cache-invalidation-it");
+        return ApplicationContext.run(props);
+    }
+
+    @Test
+    public void testCategoryWriteInvalidatesTheOtherNode() {
+        CategoryService firstService = firstNode.getBean(CategoryService.class);
+        CategoryService secondService = secondNode.getBean(CategoryService.class);
+        CategoryDTO category = new CategoryDTO();
+        category.setInternalId("cluster");
+        category.setDisplayName("Before");
+        category = firstService.save(category);
+        Long id = category.getId();
+
+        // The second node caches the category
+        assertThat(secondService.findOne(id).get().getDisplayName()).isEqualTo("Before");
+        double received = receivedCount(secondNode);
+
+        category.setDisplayName("After");
+        firstService.update(category);
+
+        assertThat(receivedCount(secondNode)).isEqualTo(received + 1);
+        assertThat(secondService.findOne(id).get().getDisplayName()).isEqualTo("After");
+
+        firstService.delete(id);
+
+        assertThat(secondService.findOne(id)).isEmpty();
+    }
+
+    @Test
+    public void testNodeIgnoresItsOwnInvalidations() {
+        double firstReceived = receivedCount(firstNode);
+        double secondReceived = receivedCount(secondNode);
+
+        firstNode.getBean(CacheInvalidationService.class).invalidate(CacheInvalidationService.CATEGORIES, null);
+
+        assertThat(receivedCount(firstNode)).isEqualTo(firstReceived);
+        assertThat(receivedCount(secondNode)).isEqualTo(secondReceived + 1);
+    }
+
+    private static double receivedCount(ApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("cache.invalidations.received").counter().count();
+    }
+}
@@ -0,0 +1,157 @@
+package com.springernature.sndeals.service.cache;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link ResponseCache} class.
+ */
+public class ResponseCacheTest {
+
+    private static final List<String> DEPENDENCIES = Collections.singletonList(CacheInvalidationService.POSTS);
+
+    private MeterRegistry meterRegistry;
+
+    private LocalCacheInvalidationTransport transport;
+
+    private CacheInvalidationService cacheInvalidationService;
+
+    private ApplicationProperties applicationProperties;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties.Cluster cluster = new ApplicationProperties.Cluster();
+        cluster.setChannel("response-cache-test");
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.setCluster(cluster);
+        transport = new LocalCacheInvalidationTransport(applicationProperties);
+        cacheInvalidationService = new CacheInvalidationService(Collections.emptyList(), transport, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transport.close();
+    }
+
+    @Test
+    public void testResponseIsCached() {
+        ResponseCache responseCache = new ResponseCache(cacheInvalidationService, applicationProperties, meterRegistry);
+
+        CachedResponse first = responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("first"));
+        CachedResponse second = responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("second"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(first.getETag()).isEqualTo("\"first\"");
+    }
+
+    @Test
+    public void testWriteChangesTheGeneration() {
+        ResponseCache responseCache = new ResponseCache(cacheInvalidationService, applicationProperties, meterRegistry);
+        responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("before"));
+
+        cacheInvalidationService.invalidate(CacheInvalidationService.POSTS, 1L);
+
+        CachedResponse response = responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("after"));
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("after");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testOtherDataDoesNotChangeTheGeneration() {
+        ResponseCache responseCache = new ResponseCache(cacheInvalidationService, applicationProperties, meterRegistry);
+        responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("before"));
+
+        cacheInvalidationService.invalidate(CacheInvalidationService.USERS, 1L);
+
+        responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("after"));
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testConcurrentMissesLoadOnce() throws Exception {
+        ResponseCache responseCache = new ResponseCache(cacheInvalidationService, applicationProperties, meterRegistry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<CachedResponse> first = executor.submit(() -> responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> {
+                loading.countDown();
+                await(release);
+                return load("first");
+            }));
+            assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<CachedResponse> second = executor.submit(() -> responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("second")));
+            // The second request waits for the load of the first one
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (meterRegistry.get("cache.responses.coalesced").counter().count() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertThat(second.get(10, TimeUnit.SECONDS)).isSameAs(first.get(10, TimeUnit.SECONDS));
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(meterRegistry.get("cache.responses.coalesced").counter().count()).isEqualTo(1d);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        ResponseCache responseCache = new ResponseCache(cacheInvalidationService, applicationProperties, meterRegistry);
+
+        assertThatThrownBy(() -> responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> {
+            throw new IllegalStateException("Database down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("Database down");
+
+        responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("recovered"));
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysLoads() {
+        applicationProperties.getResponseCache().setEnabled(false);
+        ResponseCache responseCache = new ResponseCache(cacheInvalidationService, applicationProperties, meterRegistry);
+
+        responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("first"));
+        responseCache.get("/api/posts?page=0", DEPENDENCIES, () -> load("second"));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private CachedResponse load(String body) {
+        loads.incrementAndGet();
+        return new CachedResponse(body.getBytes(StandardCharsets.UTF_8), Collections.singletonMap("ETag", "\"" + body + "\""));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
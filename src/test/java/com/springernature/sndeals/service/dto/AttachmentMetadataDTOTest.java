@@ -0,0 +1,23 @@
+package com.springernature.sndeals.service.dto;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import com.springernature.sndeals.web.rest.TestUtil;
+
+public class AttachmentMetadataDTOTest {
+
+    @Test
+    public void dtoEqualsVerifier() throws Exception {
+        TestUtil.equalsVerifier(AttachmentMetadataDTO.class);
+        AttachmentMetadataDTO attachmentMetadataDTO1 = new AttachmentMetadataDTO();
+        attachmentMetadataDTO1.setId(1L);
+        AttachmentMetadataDTO attachmentMetadataDTO2 = new AttachmentMetadataDTO();
+        assertThat(attachmentMetadataDTO1).isNotEqualTo(attachmentMetadataDTO2);
+        attachmentMetadataDTO2.setId(attachmentMetadataDTO1.getId());
+        assertThat(attachmentMetadataDTO1).isEqualTo(attachmentMetadataDTO2);
+        attachmentMetadataDTO2.setId(2L);
+        assertThat(attachmentMetadataDTO1).isNotEqualTo(attachmentMetadataDTO2);
+        attachmentMetadataDTO1.setId(null);
+        assertThat(attachmentMetadataDTO1).isNotEqualTo(attachmentMetadataDTO2);
+    }
+}
@@ -0,0 +1,23 @@
+package com.springernature.sndeals.service.dto;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import com.springernature.sndeals.web.rest.TestUtil;
+
+public class PostCardDTOTest {
+
+    @Test
+    public void dtoEqualsVerifier() throws Exception {
+        TestUtil.equalsVerifier(PostCardDTO.class);
+        PostCardDTO postCardDTO1 = new PostCardDTO();
+        postCardDTO1.setId(1L);
+        PostCardDTO postCardDTO2 = new PostCardDTO();
+        assertThat(postCardDTO1).isNotEqualTo(postCardDTO2);
+        postCardDTO2.setId(postCardDTO1.getId());
+        assertThat(postCardDTO1).isEqualTo(postCardDTO2);
+        postCardDTO2.setId(2L);
+        assertThat(postCardDTO1).isNotEqualTo(postCardDTO2);
+        postCardDTO1.setId(null);
+        assertThat(postCardDTO1).isNotEqualTo(postCardDTO2);
+    }
+}
@@ -0,0 +1,198 @@
+package com.springernature.sndeals.service.storage;
+
+import com.springernature.sndeals.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link FileSystemBlobStore} class.
+ */
+public class FileSystemBlobStoreTest {
+
+    // SHA-256 of "hello"
+    private static final String HELLO_KEY = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path directory;
+
+    private FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    public void setup() {
+        blobStore = new FileSystemBlobStore(directory);
+    }
+
+    @Test
+    public void testPutStoresByHash() throws IOException {
+        StoredBlob blob = blobStore.put(stream("hello"));
+
+        assertThat(blob.getKey()).isEqualTo(HELLO_KEY);
+        assertThat(blob.getSize()).isEqualTo(5L);
+        assertThat(directory.resolve("2c").resolve("f2").resolve(HELLO_KEY)).exists();
+        assertThat(read(blobStore.open(HELLO_KEY))).isEqualTo("hello");
+    }
+
+    @Test
+    public void testIdenticalContentIsStoredOnce() throws IOException {
+        blobStore.put(stream("hello"));
+        blobStore.put(stream("hello"));
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    public void testWriterStoresChunks() throws IOException {
+        StoredBlob blob;
+        try (BlobWriter writer = blobStore.newWriter()) {
+            writer.write(ByteBuffer.wrap("hel".getBytes(StandardCharsets.UTF_8)));
+            writer.write(ByteBuffer.wrap("lo".getBytes(StandardCharsets.UTF_8)));
+            assertThat(writer.getSize()).isEqualTo(5L);
+            blob = writer.commit();
+        }
+
+        assertThat(blob.getKey()).isEqualTo(HELLO_KEY);
+        assertThat(read(blobStore.open(HELLO_KEY))).isEqualTo("hello");
+    }
+
+    @Test
+    public void testClosedWriterIsDiscarded() throws IOException {
+        try (BlobWriter writer = blobStore.newWriter()) {
+            writer.write(ByteBuffer.wrap("hello".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        assertThat(blobStore.exists(HELLO_KEY)).isFalse();
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    public void testDelete() throws IOException {
+        blobStore.put(stream("hello"));
+
+        blobStore.delete(HELLO_KEY);
+        blobStore.delete(HELLO_KEY);
+
+        assertThat(blobStore.exists(HELLO_KEY)).isFalse();
+        assertThatThrownBy(() -> blobStore.open(HELLO_KEY)).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    public void testStoringAgainSetsTheTimeOfTheBlob() throws IOException {
+        blobStore.put(stream("hello"));
+        Path path = directory.resolve("2c").resolve("f2").resolve(HELLO_KEY);
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+
+        blobStore.put(stream("hello"));
+
+        assertThat(Files.getLastModifiedTime(path).toInstant()).isAfter(Instant.now().minus(1, ChronoUnit.HOURS));
+    }
+
+    @Test
+    public void testOnlyBlobsStoredBeforeAreDeleted() throws IOException {
+        blobStore.put(stream("hello"));
+        blobStore.putDerivative(HELLO_KEY, "thumbnail", stream("hi"));
+        Instant storedBefore = Instant.now().minus(1, ChronoUnit.HOURS);
+
+        List<String> keys = new ArrayList<>();
+        blobStore.forEachStoredBefore(storedBefore, keys::add);
+        assertThat(keys).isEmpty();
+        assertThat(blobStore.deleteIfStoredBefore(HELLO_KEY, storedBefore)).isFalse();
+        assertThat(blobStore.exists(HELLO_KEY)).isTrue();
+
+        Files.setLastModifiedTime(directory.resolve("2c").resolve("f2").resolve(HELLO_KEY), FileTime.from(storedBefore.minusSeconds(1)));
+        blobStore.forEachStoredBefore(storedBefore, keys::add);
+        assertThat(keys).containsExactly(HELLO_KEY);
+        assertThat(blobStore.deleteIfStoredBefore(HELLO_KEY, storedBefore)).isTrue();
+        assertThat(blobStore.exists(HELLO_KEY)).isFalse();
+        assertThat(blobStore.derivativeExists(HELLO_KEY, "thumbnail")).isFalse();
+    }
+
+    @Test
+    public void testDerivativeIsStoredNextToBlob() throws IOException {
+        blobStore.put(stream("hello"));
+
+        blobStore.putDerivative(HELLO_KEY, "small", stream("hi"));
+
+        assertThat(directory.resolve("2c").resolve("f2").resolve(HELLO_KEY + ".small")).exists();
+        assertThat(blobStore.derivativeExists(HELLO_KEY, "small")).isTrue();
+        assertThat(blobStore.derivativeExists(HELLO_KEY, "large")).isFalse();
+        assertThat(read(blobStore.openDerivative(HELLO_KEY, "small"))).isEqualTo("hi");
+        assertThat(blobStore.getDerivativeFile(HELLO_KEY, "small")).isPresent();
+    }
+
+    @Test
+    public void testDeleteRemovesDerivatives() throws IOException {
+        blobStore.put(stream("hello"));
+        blobStore.putDerivative(HELLO_KEY, "small", stream("hi"));
+
+        blobStore.delete(HELLO_KEY);
+
+        assertThat(blobStore.derivativeExists(HELLO_KEY, "small")).isFalse();
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    public void testInvalidDerivativeNameIsRejected() {
+        assertThatThrownBy(() -> blobStore.openDerivative(HELLO_KEY, "../small")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testClusterNeedsAnAbsoluteDirectory() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getStorage().setDirectory("data/attachments");
+        assertThat(FileSystemBlobStore.directory(applicationProperties)).isEqualTo(Paths.get("data/attachments"));
+
+        applicationProperties.getCluster().setTransport("hazelcast");
+        assertThatThrownBy(() -> FileSystemBlobStore.directory(applicationProperties)).isInstanceOf(IllegalStateException.class);
+
+        applicationProperties.getStorage().setDirectory(directory.toString());
+        assertThat(FileSystemBlobStore.directory(applicationProperties)).isEqualTo(directory);
+    }
+
+    @Test
+    public void testInvalidKeyIsRejected() {
+        assertThatThrownBy(() -> blobStore.open("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.springernature.sndeals.service.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link MappedRecordStore} class.
+ */
+public class MappedRecordStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private MappedRecordStore store;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        store = new MappedRecordStore(directory.resolve("records.dat"), 4096);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        store.put(2L, bytes("two"));
+        store.put(1L, bytes("one"));
+
+        assertThat(store.get(1L, MappedRecordStoreTest::string)).isEqualTo("one");
+        assertThat(store.get(2L, MappedRecordStoreTest::string)).isEqualTo("two");
+        assertThat(store.get(3L, MappedRecordStoreTest::string)).isNull();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        store.put(1L, bytes("one"));
+        store.put(1L, bytes("uno"));
+        assertThat(store.get(1L, MappedRecordStoreTest::string)).isEqualTo("uno");
+
+        assertThat(store.remove(1L)).isTrue();
+        assertThat(store.remove(1L)).isFalse();
+        assertThat(store.get(1L, MappedRecordStoreTest::string)).isNull();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    public void testRecordsAreReadInKeyOrder() {
+        for (long key = 10; key > 0; key--) {
+            store.put(key, bytes("record " + key));
+        }
+
+        assertThat(range(0, 3, false)).containsExactly("record 1", "record 2", "record 3");
+        assertThat(range(3, 2, true)).containsExactly("record 7", "record 6");
+        assertThat(range(8, 5, false)).containsExactly("record 9", "record 10");
+    }
+
+    @Test
+    public void testFullFileIsCompacted() {
+        byte[] record = new byte[1000];
+        // Rewriting the same records fills the file with replaced records
+        for (int round = 0; round < 20; round++) {
+            for (long key = 0; key < 3; key++) {
+                record[0] = (byte) round;
+                store.put(key, record);
+            }
+        }
+
+        assertThat(store.getMappedBytes()).isEqualTo(8192);
+        for (long key = 0; key < 3; key++) {
+            assertThat(store.get(key, buffer -> buffer.get(buffer.position()) + ":" + buffer.remaining())).isEqualTo("19:1000");
+        }
+    }
+
+    @Test
+    public void testFileGrowsWithTheRecords() {
+        byte[] record = new byte[1000];
+        for (long key = 0; key < 100; key++) {
+            store.put(key, record);
+        }
+
+        assertThat(store.size()).isEqualTo(100);
+        assertThat(store.getMappedBytes()).isGreaterThanOrEqualTo(100 * 1004);
+        assertThat(store.get(99L, ByteBuffer::remaining)).isEqualTo(1000);
+    }
+
+    @Test
+    public void testFileIsDeletedWhenClosed() throws IOException {
+        store.put(1L, bytes("one"));
+        store.close();
+
+        assertThat(Files.exists(directory.resolve("records.dat"))).isFalse();
+    }
+
+    @Test
+    public void testClosedStoreCantBeRead() throws IOException {
+        store.put(1L, bytes("one"));
+        store.close();
+
+        assertThatThrownBy(() -> store.get(1L, MappedRecordStoreTest::string)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> range(0, 1, false)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private List<String> range(int from, int count, boolean descending) {
+        List<String> records = new ArrayList<>();
+        store.forEach(from, count, descending, record -> records.add(string(record)));
+        return records;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer record) {
+        byte[] value = new byte[record.remaining()];
+        record.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,122 @@
+package com.springernature.sndeals.service.util;
+
+import com.springernature.sndeals.web.rest.errors.BadRequestAlertException;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import io.micronaut.data.model.Sort;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link CriteriaSqlBuilder} class.
+ */
+public class CriteriaSqlBuilderTest {
+
+    private static final SortableColumns<Object> SORTABLE_COLUMNS = new SortableColumns<>("post")
+        .addNumeric("id", "id", post -> null)
+        .add("title", "title", post -> null)
+        .addNumeric("category", "category_id", post -> null);
+
+    @Test
+    public void testNoFilter() {
+        CriteriaSqlBuilder builder = new CriteriaSqlBuilder("post").orderBy("post.id");
+
+        assertThat(builder.toSelectSql("post.*")).isEqualTo("SELECT post.* FROM post ORDER BY post.id");
+        assertThat(builder.toCountSql()).isEqualTo("SELECT COUNT(*) FROM post");
+        assertThat(builder.getParameters()).isEmpty();
+    }
+
+    @Test
+    public void testValuesAreBound() {
+        StringFilter title = new StringFilter();
+        title.setEquals("' OR 1=1 --");
+        LongFilter id = new LongFilter();
+        id.setGreaterThan(5L);
+        id.setLessThanOrEqual(10L);
+
+        CriteriaSqlBuilder builder = new CriteriaSqlBuilder("post")
+            .filter("id", id)
+            .filter("title", title);
+
+        assertThat(builder.toCountSql()).isEqualTo(
+            "SELECT COUNT(*) FROM post WHERE post.id > :post_id_gt AND post.id <= :post_id_lte AND post.title = :post_title_eq");
+        assertThat(builder.getParameters())
+            .containsEntry("post_id_gt", 5L)
+            .containsEntry("post_id_lte", 10L)
+            .containsEntry("post_title_eq", "' OR 1=1 --");
+    }
+
+    @Test
+    public void testStringOperators() {
+        StringFilter title = new StringFilter();
+        title.setContains("deal");
+        title.setDoesNotContain("expired");
+        title.setNotEquals("x");
+        title.setSpecified(true);
+
+        CriteriaSqlBuilder builder = new CriteriaSqlBuilder("post").filter("title", title);
+
+        assertThat(builder.getWhereClause()).isEqualTo(" WHERE post.title <> :post_title_ne AND post.title IS NOT NULL"
+            + " AND UPPER(post.title) LIKE :post_title_like AND UPPER(post.title) NOT LIKE :post_title_nlike");
+        assertThat(builder.getParameters())
+            .containsEntry("post_title_like", "%DEAL%")
+            .containsEntry("post_title_nlike", "%EXPIRED%");
+    }
+
+    @Test
+    public void testSameShapeGivesSameStatement() {
+        LongFilter first = new LongFilter();
+        first.setIn(Arrays.asList(1L, 2L, 3L));
+        LongFilter second = new LongFilter();
+        second.setIn(Arrays.asList(7L, 8L, 9L, 10L));
+
+        String firstSql = new CriteriaSqlBuilder("post").filter("category_id", first).toCountSql();
+        String secondSql = new CriteriaSqlBuilder("post").filter("category_id", second).toCountSql();
+
+        assertThat(firstSql).isEqualTo(secondSql).isEqualTo("SELECT COUNT(*) FROM post WHERE post.category_id IN"
+            + " (:post_category_id_in0, :post_category_id_in1, :post_category_id_in2, :post_category_id_in3)");
+    }
+
+    @Test
+    public void testInLists() {
+        LongFilter id = new LongFilter();
+        id.setIn(Collections.emptyList());
+        id.setNotIn(Collections.singletonList(3L));
+
+        CriteriaSqlBuilder builder = new CriteriaSqlBuilder("comment").filter("id", id);
+
+        assertThat(builder.getWhereClause()).isEqualTo(" WHERE 1 = 0 AND comment.id NOT IN (:comment_id_nin0)");
+        assertThat(builder.getParameters()).containsEntry("comment_id_nin0", 3L);
+    }
+
+    @Test
+    public void testOrderByEndsWithId() {
+        Sort sort = Sort.of(Sort.Order.desc("title"), Sort.Order.asc("category"));
+
+        CriteriaSqlBuilder builder = new CriteriaSqlBuilder("post").orderBy(sort, SORTABLE_COLUMNS);
+
+        assertThat(builder.toSelectSql("post.*"))
+            .isEqualTo("SELECT post.* FROM post ORDER BY post.title DESC, post.category_id ASC, post.id DESC");
+    }
+
+    @Test
+    public void testOrderByIdOnly() {
+        assertThat(new CriteriaSqlBuilder("post").orderBy(Sort.unsorted(), SORTABLE_COLUMNS).toSelectSql("post.*"))
+            .isEqualTo("SELECT post.* FROM post ORDER BY post.id ASC");
+        assertThat(new CriteriaSqlBuilder("post").orderBy(Sort.of(Sort.Order.desc("id")), SORTABLE_COLUMNS).toSelectSql("post.*"))
+            .isEqualTo("SELECT post.* FROM post ORDER BY post.id DESC");
+    }
+
+    @Test
+    public void testOrderByRejectsUnknownProperty() {
+        Sort sort = Sort.of(Sort.Order.asc("title; DROP TABLE post"));
+
+        assertThatThrownBy(() -> new CriteriaSqlBuilder("post").orderBy(sort, SORTABLE_COLUMNS))
+            .isInstanceOf(BadRequestAlertException.class);
+    }
+}
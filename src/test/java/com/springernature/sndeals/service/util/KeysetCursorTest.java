@@ -0,0 +1,35 @@
+package com.springernature.sndeals.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link KeysetCursor} class.
+ */
+public class KeysetCursorTest {
+
+    @Test
+    public void testEncodeDecode() {
+        KeysetCursor cursor = new KeysetCursor("title", "Deal\nof the day", 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.getSortProperty()).isEqualTo("title");
+        assertThat(decoded.getSortValue()).isEqualTo("Deal\nof the day");
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    public void testEmptyCursorIsFirstPage() {
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode(null)).isNull();
+    }
+
+    @Test
+    public void testMalformedCursor() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("Zm9v")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.springernature.sndeals.service.util;
+
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link PageUtil} utility class.
+ */
+public class PageUtilTest {
+
+    @Test
+    public void testCountIsSkippedOnPartialFirstPage() {
+        AtomicInteger countQueries = new AtomicInteger();
+        Page<String> page = PageUtil.getPage(Arrays.asList("a", "b"), Pageable.from(0, 20), () -> {
+            countQueries.incrementAndGet();
+            return 42L;
+        });
+
+        assertThat(page.getTotalSize()).isEqualTo(2);
+        assertThat(countQueries.get()).isZero();
+    }
+
+    @Test
+    public void testCountIsSkippedOnLastPage() {
+        AtomicInteger countQueries = new AtomicInteger();
+        Page<String> page = PageUtil.getPage(Collections.singletonList("a"), Pageable.from(2, 10), () -> {
+            countQueries.incrementAndGet();
+            return 42L;
+        });
+
+        assertThat(page.getTotalSize()).isEqualTo(21);
+        assertThat(countQueries.get()).isZero();
+    }
+
+    @Test
+    public void testCountIsQueriedOnFullPage() {
+        List<String> content = Arrays.asList("a", "b");
+        Page<String> page = PageUtil.getPage(content, Pageable.from(0, 2), () -> 42L);
+
+        assertThat(page.getTotalSize()).isEqualTo(42);
+    }
+
+    @Test
+    public void testCountIsQueriedOnEmptyPageAfterTheEnd() {
+        Page<String> page = PageUtil.getPage(Collections.emptyList(), Pageable.from(5, 10), () -> 42L);
+
+        assertThat(page.getTotalSize()).isEqualTo(42);
+    }
+}
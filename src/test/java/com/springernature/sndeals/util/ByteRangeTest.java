@@ -0,0 +1,67 @@
+package com.springernature.sndeals.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ByteRange} class.
+ */
+public class ByteRangeTest {
+
+    @Test
+    public void testClosedRange() {
+        ByteRange range = ByteRange.parse("bytes=2-5", 10).get();
+
+        assertThat(range.isSatisfiable()).isTrue();
+        assertThat(range.getStart()).isEqualTo(2L);
+        assertThat(range.getEnd()).isEqualTo(5L);
+        assertThat(range.getLength()).isEqualTo(4L);
+        assertThat(range.toContentRange(10)).isEqualTo("bytes 2-5/10");
+    }
+
+    @Test
+    public void testOpenEndedRange() {
+        ByteRange range = ByteRange.parse("bytes=4-", 10).get();
+
+        assertThat(range.getStart()).isEqualTo(4L);
+        assertThat(range.getEnd()).isEqualTo(9L);
+    }
+
+    @Test
+    public void testRangeIsTruncatedToSize() {
+        ByteRange range = ByteRange.parse("bytes=8-100", 10).get();
+
+        assertThat(range.getEnd()).isEqualTo(9L);
+        assertThat(range.getLength()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testSuffixRange() {
+        ByteRange range = ByteRange.parse("bytes=-3", 10).get();
+
+        assertThat(range.getStart()).isEqualTo(7L);
+        assertThat(range.getEnd()).isEqualTo(9L);
+        assertThat(ByteRange.parse("bytes=-30", 10).get().getStart()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testUnsatisfiableRange() {
+        ByteRange range = ByteRange.parse("bytes=10-", 10).get();
+
+        assertThat(range.isSatisfiable()).isFalse();
+        assertThat(range.toContentRange(10)).isEqualTo("bytes */10");
+        assertThat(ByteRange.parse("bytes=-0", 10).get().isSatisfiable()).isFalse();
+    }
+
+    @Test
+    public void testIgnoredRanges() {
+        assertThat(ByteRange.parse(null, 10)).isEqualTo(Optional.empty());
+        assertThat(ByteRange.parse("items=0-1", 10)).isEqualTo(Optional.empty());
+        assertThat(ByteRange.parse("bytes=0-1,4-5", 10)).isEqualTo(Optional.empty());
+        assertThat(ByteRange.parse("bytes=5-2", 10)).isEqualTo(Optional.empty());
+        assertThat(ByteRange.parse("bytes=a-b", 10)).isEqualTo(Optional.empty());
+    }
+}
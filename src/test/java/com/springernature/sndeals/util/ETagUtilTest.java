@@ -0,0 +1,69 @@
+package com.springernature.sndeals.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ETagUtil} class.
+ */
+public class ETagUtilTest {
+
+    @Test
+    public void testFromVersions() {
+        assertThat(ETagUtil.fromVersions(3L)).isEqualTo("\"3\"");
+        assertThat(ETagUtil.fromVersions(3L, 0L)).isEqualTo("\"3-0\"");
+    }
+
+    @Test
+    public void testParseVersion() {
+        assertThat(ETagUtil.parseVersion(ETagUtil.fromVersions(3L))).contains(3L);
+        assertThat(ETagUtil.parseVersion(" " + ETagUtil.fromVersions(3L, 0L))).contains(3L);
+    }
+
+    @Test
+    public void testParseVersionOfOtherTags() {
+        assertThat(ETagUtil.parseVersion("W/\"3\"")).isEmpty();
+        assertThat(ETagUtil.parseVersion("\"3-0\", \"4-0\"")).isEmpty();
+        assertThat(ETagUtil.parseVersion(ETagUtil.fromContent(new byte[]{1}))).isEmpty();
+        assertThat(ETagUtil.parseVersion("\"\"")).isEmpty();
+    }
+
+    @Test
+    public void testFromList() {
+        List<Long[]> page = Arrays.asList(new Long[]{1L, 0L}, new Long[]{2L, 5L});
+        String etag = ETagUtil.fromList(page, element -> element[0], element -> ETagUtil.fromVersions(element[1]), 2L);
+
+        assertThat(etag).matches("\"[0-9a-f]{32}\"");
+        assertThat(ETagUtil.fromList(page, element -> element[0], element -> ETagUtil.fromVersions(element[1]), 2L)).isEqualTo(etag);
+    }
+
+    @Test
+    public void testFromListChangesWithTheElements() {
+        Function<Long[], Object> id = element -> element[0];
+        Function<Long[], String> tag = element -> ETagUtil.fromVersions(element[1]);
+        String etag = ETagUtil.fromList(Arrays.asList(new Long[]{1L, 0L}, new Long[]{2L, 5L}), id, tag, 2L);
+
+        // Another version, another order, another element, another total count
+        assertThat(ETagUtil.fromList(Arrays.asList(new Long[]{1L, 1L}, new Long[]{2L, 5L}), id, tag, 2L)).isNotEqualTo(etag);
+        assertThat(ETagUtil.fromList(Arrays.asList(new Long[]{2L, 5L}, new Long[]{1L, 0L}), id, tag, 2L)).isNotEqualTo(etag);
+        assertThat(ETagUtil.fromList(Arrays.asList(new Long[]{1L, 0L}, new Long[]{3L, 5L}), id, tag, 2L)).isNotEqualTo(etag);
+        assertThat(ETagUtil.fromList(Arrays.asList(new Long[]{1L, 0L}, new Long[]{2L, 5L}), id, tag, 3L)).isNotEqualTo(etag);
+        assertThat(ETagUtil.fromList(Collections.emptyList(), id, tag, null)).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void testFromContent() {
+        String etag = ETagUtil.fromContent("<html></html>".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(etag).matches("\"[0-9a-f]{32}\"");
+        assertThat(ETagUtil.fromContent("<html></html>".getBytes(StandardCharsets.UTF_8))).isEqualTo(etag);
+        assertThat(ETagUtil.fromContent("<html> </html>".getBytes(StandardCharsets.UTF_8))).isNotEqualTo(etag);
+    }
+}
@@ -0,0 +1,29 @@
+package com.springernature.sndeals.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link HeaderUtil} class.
+ */
+public class HeaderUtilTest {
+
+    @Test
+    public void testAcceptedEncodings() {
+        assertThat(HeaderUtil.acceptsEncoding("gzip, deflate, br", "br")).isTrue();
+        assertThat(HeaderUtil.acceptsEncoding("gzip, deflate, br", "gzip")).isTrue();
+        assertThat(HeaderUtil.acceptsEncoding("GZIP;q=0.5", "gzip")).isTrue();
+        assertThat(HeaderUtil.acceptsEncoding("*", "br")).isTrue();
+    }
+
+    @Test
+    public void testRefusedEncodings() {
+        assertThat(HeaderUtil.acceptsEncoding(null, "gzip")).isFalse();
+        assertThat(HeaderUtil.acceptsEncoding("gzip, deflate", "br")).isFalse();
+        assertThat(HeaderUtil.acceptsEncoding("br;q=0, gzip", "br")).isFalse();
+        assertThat(HeaderUtil.acceptsEncoding("*;q=0", "gzip")).isFalse();
+        assertThat(HeaderUtil.acceptsEncoding("gzip;q=0, *", "gzip")).isFalse();
+        assertThat(HeaderUtil.acceptsEncoding("identity", "gzip")).isFalse();
+    }
+}
@@ -0,0 +1,138 @@
+package com.springernature.sndeals.web.filter;
+
+import com.springernature.sndeals.web.rest.errors.ServiceUnavailableException;
+import io.micronaut.scheduling.TaskScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for the {@link AdaptiveConcurrencyLimiter} class.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private TaskScheduler taskScheduler;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    public void setup() {
+        taskScheduler = mock(TaskScheduler.class);
+        limiter = new AdaptiveConcurrencyLimiter(2, 1, 100, 0.2, 8, Duration.ofSeconds(1), taskScheduler, clock::get);
+    }
+
+    @Test
+    public void testRequestsOverTheLimitWait() throws Exception {
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire(0).get();
+        limiter.acquire(0).get();
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = limiter.acquire(0);
+        assertThat(waiting).isNotDone();
+        assertThat(limiter.getQueueDepth()).isEqualTo(1);
+
+        first.release(true);
+        assertThat(waiting).isCompleted();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getQueueDepth()).isZero();
+    }
+
+    @Test
+    public void testHigherPrioritiesGoFirst() throws Exception {
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire(0).get();
+        limiter.acquire(0).get();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> anonymousWrite = limiter.acquire(3);
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> authenticatedRead = limiter.acquire(0);
+
+        first.release(true);
+
+        assertThat(authenticatedRead).isCompleted();
+        assertThat(anonymousWrite).isNotDone();
+    }
+
+    @Test
+    public void testLowerPrioritiesAreShedFirst() {
+        fill();
+        // The anonymous writes may use a quarter of the queue of 8
+        limiter.acquire(3);
+        limiter.acquire(3);
+
+        assertThatThrownBy(() -> limiter.acquire(3).join()).hasCauseInstanceOf(ServiceUnavailableException.class);
+        assertThat(limiter.acquire(0)).isNotDone();
+    }
+
+    @Test
+    public void testWaitingRequestsTimeOut() {
+        fill();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = limiter.acquire(0);
+        ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(any(Duration.class), timeout.capture());
+
+        timeout.getValue().run();
+
+        assertThatThrownBy(waiting::join).hasCauseInstanceOf(ServiceUnavailableException.class);
+        assertThat(limiter.getQueueDepth()).isZero();
+    }
+
+    @Test
+    public void testCancelledRequestsDontTakeASlot() throws Exception {
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire(0).get();
+        limiter.acquire(0).get();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> cancelled = limiter.acquire(0);
+
+        // The client disconnected while waiting
+        cancelled.cancel(true);
+        assertThat(limiter.getQueueDepth()).isZero();
+
+        first.release(true);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.acquire(0)).isCompleted();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void testLimitFollowsTheLatency() {
+        limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0.2, 8, Duration.ofSeconds(1), taskScheduler, clock::get);
+        serve(50, 10);
+        int grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        // The latency triples: requests are queuing inside the server
+        serve(50, 30);
+
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+
+    private void fill() {
+        limiter.acquire(0);
+        limiter.acquire(0);
+    }
+
+    /**
+     * Serve rounds of as many requests as the limit allows, all taking the same time.
+     */
+    private void serve(int rounds, long latencyMillis) {
+        for (int round = 0; round < rounds; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int i = limiter.getLimit(); i > 0; i--) {
+                permits.add(limiter.acquire(0).join());
+            }
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+            permits.forEach(permit -> permit.release(true));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.springernature.sndeals.web.filter;
+
+import com.springernature.sndeals.SndealsApp;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link CachingHttpHeadersFilter}, with the static resources of the tests.
+ * <p>
+ * The requests are sent with an {@link HttpURLConnection}, which neither adds an {@code Accept-Encoding} nor
+ * decompresses the responses.
+ */
+@MicronautTest(application = SndealsApp.class, transactional = false)
+@Property(name = "jhipster.http.cache.time-to-live-in-days", value = "1461")
+public class CachingHttpHeadersFilterIT {
+
+    private static final String BUNDLE = "/app/test.0123456789abcdef0123.bundle.js";
+
+    private static final String IMMUTABLE = "public, max-age=126230400, immutable";
+
+    @Inject
+    EmbeddedServer server;
+
+    @Test
+    public void testBrotliIsPreferredToGzip() throws Exception {
+        HttpURLConnection connection = open("GET", BUNDLE);
+        connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+
+        assertThat(connection.getResponseCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(connection.getHeaderField(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+        assertThat(connection.getHeaderField(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(connection.getHeaderField(HttpHeaders.CACHE_CONTROL)).isEqualTo(IMMUTABLE);
+        assertThat(read(connection.getInputStream())).isEqualTo(resource(BUNDLE + ".br"));
+    }
+
+    @Test
+    public void testGzipWhenBrotliIsRefused() throws Exception {
+        HttpURLConnection connection = open("GET", BUNDLE);
+        connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "br;q=0, gzip");
+
+        assertThat(connection.getResponseCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(connection.getHeaderField(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(connection.getHeaderField(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(read(connection.getInputStream())).isEqualTo(resource(BUNDLE + ".gz"));
+    }
+
+    @Test
+    public void testIdentityWhenEveryEncodingIsRefused() throws Exception {
+        HttpURLConnection connection = open("GET", BUNDLE);
+        connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "br;q=0, gzip;q=0.0");
+
+        assertThat(connection.getResponseCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(connection.getHeaderField(HttpHeaders.CONTENT_ENCODING)).isNull();
+        // The response depends on the Accept-Encoding all the same
+        assertThat(connection.getHeaderField(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(connection.getHeaderField(HttpHeaders.CACHE_CONTROL)).isEqualTo(IMMUTABLE);
+        assertThat(read(connection.getInputStream())).isEqualTo(resource(BUNDLE));
+    }
+
+    @Test
+    public void testPrecompressedVariantNotModified() throws Exception {
+        HttpURLConnection connection = open("GET", BUNDLE);
+        connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "br");
+        assertThat(connection.getResponseCode()).isEqualTo(HttpStatus.OK.getCode());
+        String lastModified = connection.getHeaderField(HttpHeaders.LAST_MODIFIED);
+        assertThat(lastModified).isNotNull();
+        read(connection.getInputStream());
+
+        HttpURLConnection revalidation = open("GET", BUNDLE);
+        revalidation.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "br");
+        revalidation.setRequestProperty(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+
+        assertThat(revalidation.getResponseCode()).isEqualTo(HttpStatus.NOT_MODIFIED.getCode());
+        assertThat(revalidation.getHeaderField(HttpHeaders.CACHE_CONTROL)).isEqualTo(IMMUTABLE);
+        assertThat(revalidation.getHeaderField(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    public void testIndexIsRevalidated() throws Exception {
+        for (String path : new String[]{"/", "/index.html"}) {
+            HttpURLConnection connection = open("GET", path);
+
+            assertThat(connection.getResponseCode()).as(path).isEqualTo(HttpStatus.OK.getCode());
+            assertThat(connection.getHeaderField(HttpHeaders.CACHE_CONTROL)).as(path).isEqualTo("no-cache");
+            // Without precompressed variants, the response doesn't depend on the Accept-Encoding
+            assertThat(connection.getHeaderField(HttpHeaders.VARY)).as(path).isNull();
+            assertThat(read(connection.getInputStream())).as(path).isEqualTo(resource("/index.html"));
+        }
+    }
+
+    @Test
+    public void testHeadIsNotServedAVariant() throws Exception {
+        HttpURLConnection connection = open("HEAD", BUNDLE);
+        connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "br, gzip");
+        connection.getResponseCode();
+
+        assertThat(connection.getHeaderField(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    public void testOtherMethodsPassThrough() throws Exception {
+        HttpURLConnection connection = open("POST", BUNDLE);
+        connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "br, gzip");
+        connection.setDoOutput(true);
+        connection.getOutputStream().close();
+
+        assertThat(connection.getResponseCode()).isGreaterThanOrEqualTo(400);
+        assertThat(connection.getHeaderField(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(connection.getHeaderField(HttpHeaders.CACHE_CONTROL)).isNotEqualTo(IMMUTABLE);
+    }
+
+    private HttpURLConnection open(String method, String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(server.getURL(), path).openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    private static byte[] resource(String path) throws IOException {
+        return read(CachingHttpHeadersFilterIT.class.getResourceAsStream("/static" + path));
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
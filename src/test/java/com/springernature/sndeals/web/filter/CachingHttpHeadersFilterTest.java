@@ -0,0 +1,27 @@
+package com.springernature.sndeals.web.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link CachingHttpHeadersFilter} class.
+ */
+public class CachingHttpHeadersFilterTest {
+
+    @Test
+    public void testContentHashedResources() {
+        assertThat(CachingHttpHeadersFilter.isContentHashed("/app/main.6b1c5ba62d1e2f3a4b5c.bundle.js")).isTrue();
+        assertThat(CachingHttpHeadersFilter.isContentHashed("/app/vendors.6b1c5ba62d1e2f3a4b5c.chunk.js")).isTrue();
+        assertThat(CachingHttpHeadersFilter.isContentHashed("/content/main.6b1c5ba62d1e2f3a4b5c.css")).isTrue();
+        assertThat(CachingHttpHeadersFilter.isContentHashed("/content/0a1b2c3d4e5f60718293a4b5c6d7e8f9.svg")).isTrue();
+    }
+
+    @Test
+    public void testResourcesWithoutContentHash() {
+        assertThat(CachingHttpHeadersFilter.isContentHashed("/index.html")).isFalse();
+        assertThat(CachingHttpHeadersFilter.isContentHashed("/i18n/en.json")).isFalse();
+        assertThat(CachingHttpHeadersFilter.isContentHashed("/content/images/logo-jhipster.png")).isFalse();
+        assertThat(CachingHttpHeadersFilter.isContentHashed("/content/abc123.css")).isFalse();
+    }
+}
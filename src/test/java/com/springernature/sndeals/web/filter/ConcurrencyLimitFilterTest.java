@@ -0,0 +1,26 @@
+package com.springernature.sndeals.web.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ConcurrencyLimitFilter} class.
+ */
+public class ConcurrencyLimitFilterTest {
+
+    @Test
+    public void testTransfersOfContents() {
+        assertThat(ConcurrencyLimitFilter.isTransfer("/api/attachments/upload")).isTrue();
+        assertThat(ConcurrencyLimitFilter.isTransfer("/api/attachments/12/content")).isTrue();
+        assertThat(ConcurrencyLimitFilter.isTransfer("/api/attachments/12/derivatives/thumbnail")).isTrue();
+    }
+
+    @Test
+    public void testOtherRequests() {
+        assertThat(ConcurrencyLimitFilter.isTransfer("/api/attachments")).isFalse();
+        assertThat(ConcurrencyLimitFilter.isTransfer("/api/attachments/12")).isFalse();
+        assertThat(ConcurrencyLimitFilter.isTransfer("/api/attachments/count")).isFalse();
+        assertThat(ConcurrencyLimitFilter.isTransfer("/api/posts/12/content")).isFalse();
+    }
+}
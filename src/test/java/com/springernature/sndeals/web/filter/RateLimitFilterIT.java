@@ -0,0 +1,104 @@
+package com.springernature.sndeals.web.filter;
+
+import com.springernature.sndeals.SndealsApp;
+import com.springernature.sndeals.domain.User;
+import com.springernature.sndeals.repository.UserRepository;
+import com.springernature.sndeals.security.PasswordEncoder;
+import com.springernature.sndeals.web.rest.vm.LoginVM;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.Test;
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link RateLimitFilter} and the rate limit of the logins.
+ */
+@MicronautTest(application = SndealsApp.class, transactional = false)
+@Property(name = "application.rate-limit.enabled", value = "true")
+@Property(name = "application.rate-limit.routes.registration.capacity", value = "3")
+@Property(name = "application.rate-limit.login-capacity", value = "2")
+public class RateLimitFilterIT {
+
+    @Inject
+    PasswordEncoder passwordEncoder;
+
+    @Inject
+    UserRepository userRepository;
+
+    @Inject @Client("/")
+    RxHttpClient client;
+
+    @Test
+    public void testTooManyRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(passwordReset("10.0.0." + i).status().getCode()).isEqualTo(HttpStatus.BAD_REQUEST.getCode());
+        }
+
+        // The forwarded address is sent by the client, it doesn't get a new bucket
+        HttpResponse<String> response = passwordReset("10.0.0.3");
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.getCode());
+        assertThat(Long.parseLong(response.header(HttpHeaders.RETRY_AFTER))).isBetween(1L, 15 * 60L);
+    }
+
+    @Test
+    public void testTooManyFailedAuthenticationsOfALogin() throws Exception {
+        User user = createUser("rate-limit-login");
+
+        assertThat(authenticate("rate-limit-login", "wrong password")).isEqualTo(HttpStatus.UNAUTHORIZED.getCode());
+        assertThat(authenticate("RATE-LIMIT-LOGIN", "wrong password")).isEqualTo(HttpStatus.UNAUTHORIZED.getCode());
+
+        // Refused before the password is checked
+        assertThat(authenticate("rate-limit-login", "test")).isEqualTo(HttpStatus.UNAUTHORIZED.getCode());
+
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    public void testSuccessfulAuthenticationsAreNotLimited() throws Exception {
+        User user = createUser("rate-limit-success");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(authenticate("rate-limit-success", "test")).isEqualTo(HttpStatus.OK.getCode());
+        }
+        // A single failure doesn't reach the limit either
+        assertThat(authenticate("rate-limit-success", "wrong password")).isEqualTo(HttpStatus.UNAUTHORIZED.getCode());
+        assertThat(authenticate("rate-limit-success", "test")).isEqualTo(HttpStatus.OK.getCode());
+
+        userRepository.deleteById(user.getId());
+    }
+
+    private User createUser(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@springernature.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        return userRepository.saveAndFlush(user);
+    }
+
+    private HttpResponse<String> passwordReset(String forwardedFor) {
+        return client.exchange(HttpRequest.POST("/api/account/reset-password/init", "{\"mail\":\"rate-limit@springernature.com\"}")
+            .header("X-Forwarded-For", forwardedFor), String.class)
+            .onErrorReturn(t -> (HttpResponse<String>) ((HttpClientResponseException) t).getResponse())
+            .blockingFirst();
+    }
+
+    private int authenticate(String username, String password) {
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword(password);
+        return client.exchange(HttpRequest.POST("/api/authenticate", login), String.class)
+            .onErrorReturn(t -> (HttpResponse<String>) ((HttpClientResponseException) t).getResponse())
+            .blockingFirst().status().getCode();
+    }
+}
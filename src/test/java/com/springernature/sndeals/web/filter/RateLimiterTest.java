@@ -0,0 +1,88 @@
+package com.springernature.sndeals.web.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link RateLimiter} class.
+ */
+public class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setup() {
+        // 3 requests per 3 seconds, a request more every second
+        rateLimiter = new RateLimiter(3, Duration.ofSeconds(3), 100, clock::get);
+    }
+
+    @Test
+    public void testBurstUpToTheCapacity() {
+        assertThat(rateLimiter.tryAcquire("ip:10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire("ip:10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire("ip:10.0.0.1")).isZero();
+
+        assertThat(rateLimiter.tryAcquire("ip:10.0.0.1")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testBucketIsRefilled() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("ip:10.0.0.1");
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(rateLimiter.tryAcquire("ip:10.0.0.1")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(rateLimiter.tryAcquire("ip:10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire("ip:10.0.0.1")).isPositive();
+    }
+
+    @Test
+    public void testCheckDoesntTakeARequest() {
+        assertThat(rateLimiter.check("login:user")).isZero();
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.check("login:user")).isZero();
+            rateLimiter.tryAcquire("login:user");
+        }
+
+        assertThat(rateLimiter.check("login:user")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rateLimiter.check("login:user")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rateLimiter.check("login:user")).isZero();
+        assertThat(rateLimiter.tryAcquire("login:user")).isZero();
+    }
+
+    @Test
+    public void testClientsHaveTheirOwnBuckets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("ip:10.0.0.1");
+        }
+
+        assertThat(rateLimiter.tryAcquire("ip:10.0.0.1")).isPositive();
+        assertThat(rateLimiter.tryAcquire("ip:10.0.0.2")).isZero();
+        assertThat(rateLimiter.tryAcquire("login:user")).isZero();
+    }
+
+    @Test
+    public void testIdleBucketsAreEvicted() {
+        rateLimiter.tryAcquire("ip:10.0.0.1");
+        rateLimiter.tryAcquire("ip:10.0.0.2");
+        assertThat(rateLimiter.size()).isEqualTo(2);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        rateLimiter.cleanUp();
+
+        assertThat(rateLimiter.size()).isZero();
+    }
+}
@@ -93,7 +93,7 @@ public class AccountResourceIT {
         user.setImageUrl("http://placehold.it/50x50");
         user.setLangKey("en");
         user.setAuthorities(authorities);
-        when(userService.getUserWithAuthorities()).thenReturn(Optional.of(user));
+        when(userService.getCurrentUserAccount()).thenReturn(Optional.of(new UserDTO(user)));
 
         UserDTO userDTO = client.retrieve(HttpRequest.GET("/api/account"), UserDTO.class).blockingFirst();
 
@@ -108,7 +108,7 @@ public class AccountResourceIT {
 
     @Test
     public void testGetUnknownAccount()  {
-        when(userService.getUserWithAuthorities()).thenReturn(Optional.empty());
+        when(userService.getCurrentUserAccount()).thenReturn(Optional.empty());
 
         HttpResponse<String> response = client.exchange(HttpRequest.GET("/api/account"), String.class).
             onErrorReturn(t -> (HttpResponse<String>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
@@ -4,15 +4,18 @@ package com.springernature.sndeals.web.rest;
 import com.springernature.sndeals.domain.Attachment;
 import com.springernature.sndeals.domain.Post;
 import com.springernature.sndeals.repository.AttachmentRepository;
+import com.springernature.sndeals.service.AttachmentContentCollectionJob;
 
 import io.micronaut.context.annotation.Property;
 import io.micronaut.core.type.Argument;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
 import io.micronaut.http.client.RxHttpClient;
 import io.micronaut.http.client.annotation.Client;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.client.multipart.MultipartBody;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import io.micronaut.transaction.SynchronousTransactionManager;
 import io.micronaut.transaction.TransactionOperations;
@@ -22,14 +25,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import javax.imageio.ImageIO;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Connection;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import com.springernature.sndeals.service.dto.AttachmentDTO;
+import com.springernature.sndeals.service.dto.AttachmentMetadataDTO;
 import com.springernature.sndeals.service.mapper.AttachmentMapper;
+import com.springernature.sndeals.service.storage.BlobStore;
+import com.springernature.sndeals.service.storage.StoredBlob;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -55,6 +69,12 @@ public class AttachmentResourceIT {
     @Inject
     private AttachmentRepository attachmentRepository;
 
+    @Inject
+    private BlobStore blobStore;
+
+    @Inject
+    private AttachmentContentCollectionJob attachmentContentCollectionJob;
+
     @Inject
     private EntityManager em;
 
@@ -90,6 +110,28 @@ public class AttachmentResourceIT {
         return attachment;
     }
 
+    /**
+     * Save the attachment of this test, with its content in the blob store as the service would do.
+     */
+    private void saveAttachment() throws IOException {
+        StoredBlob blob = blobStore.put(new ByteArrayInputStream(attachment.getContent()));
+        attachment.setChecksum(blob.getKey());
+        attachment.setSize(blob.getSize());
+        attachment = attachmentRepository.saveAndFlush(attachment);
+    }
+
+    private byte[] readBlob(String key) throws IOException {
+        try (InputStream in = blobStore.open(key)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
     /**
      * Delete all attachment entities.
      *
@@ -118,10 +160,57 @@ public class AttachmentResourceIT {
         Attachment testAttachment = attachmentList.get(attachmentList.size() - 1);
 
         assertThat(testAttachment.getFileName()).isEqualTo(DEFAULT_FILE_NAME);
-        assertThat(testAttachment.getContent()).isEqualTo(DEFAULT_CONTENT);
+        assertThat(readBlob(testAttachment.getChecksum())).isEqualTo(DEFAULT_CONTENT);
+        assertThat(testAttachment.getSize()).isEqualTo((long) DEFAULT_CONTENT.length);
         assertThat(testAttachment.getContentContentType()).isEqualTo(DEFAULT_CONTENT_CONTENT_TYPE);
     }
 
+    @Test
+    public void uploadAttachment() throws Exception {
+        int databaseSizeBeforeCreate = attachmentRepository.findAll().size();
+
+        MultipartBody body = MultipartBody.builder()
+            .addPart("file", DEFAULT_FILE_NAME, MediaType.of(DEFAULT_CONTENT_CONTENT_TYPE), DEFAULT_CONTENT)
+            .build();
+
+        // Upload the Attachment
+        HttpResponse<AttachmentDTO> response = client.exchange(HttpRequest.POST("/api/attachments/upload", body)
+            .contentType(MediaType.MULTIPART_FORM_DATA_TYPE), AttachmentDTO.class).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.CREATED.getCode());
+
+        // Validate the Attachment in the database
+        List<Attachment> attachmentList = attachmentRepository.findAll();
+        assertThat(attachmentList).hasSize(databaseSizeBeforeCreate + 1);
+        Attachment testAttachment = attachmentList.get(attachmentList.size() - 1);
+
+        assertThat(testAttachment.getFileName()).isEqualTo(DEFAULT_FILE_NAME);
+        assertThat(readBlob(testAttachment.getChecksum())).isEqualTo(DEFAULT_CONTENT);
+        assertThat(testAttachment.getSize()).isEqualTo((long) DEFAULT_CONTENT.length);
+        assertThat(testAttachment.getContentContentType()).isEqualTo(DEFAULT_CONTENT_CONTENT_TYPE);
+    }
+
+    @Test
+    public void uploadTooLargeAttachment() throws Exception {
+        int databaseSizeBeforeCreate = attachmentRepository.findAll().size();
+
+        // The test configuration limits uploads to 1024 bytes
+        MultipartBody body = MultipartBody.builder()
+            .addPart("file", DEFAULT_FILE_NAME, MediaType.of(DEFAULT_CONTENT_CONTENT_TYPE), TestUtil.createByteArray(2048, "0"))
+            .build();
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<AttachmentDTO> response = client.exchange(HttpRequest.POST("/api/attachments/upload", body)
+            .contentType(MediaType.MULTIPART_FORM_DATA_TYPE), AttachmentDTO.class)
+            .onErrorReturn(t -> (HttpResponse<AttachmentDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.REQUEST_ENTITY_TOO_LARGE.getCode());
+
+        // Validate the Attachment is not in the database
+        List<Attachment> attachmentList = attachmentRepository.findAll();
+        assertThat(attachmentList).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     public void createAttachmentWithExistingId() throws Exception {
         int databaseSizeBeforeCreate = attachmentRepository.findAll().size();
@@ -162,26 +251,148 @@ public class AttachmentResourceIT {
         assertThat(attachmentList).hasSize(databaseSizeBeforeTest);
     }
 
-    //TODO Check below test
-    //@Test
+    @Test
     public void getAllAttachments() throws Exception {
         // Initialize the database
-        attachmentRepository.saveAndFlush(attachment);
+        saveAttachment();
 
         // Get the attachmentList w/ all the attachments
-        List<AttachmentDTO> attachments = client.retrieve(HttpRequest.GET("/api/attachments?eagerload=true"), Argument.listOf(AttachmentDTO.class)).blockingFirst();
-        AttachmentDTO testAttachment = attachments.get(0);
+        List<AttachmentMetadataDTO> attachments = client.retrieve(HttpRequest.GET("/api/attachments"), Argument.listOf(AttachmentMetadataDTO.class)).blockingFirst();
+        AttachmentMetadataDTO testAttachment = attachments.get(0);
 
 
         assertThat(testAttachment.getFileName()).isEqualTo(DEFAULT_FILE_NAME);
-        assertThat(testAttachment.getContent()).isEqualTo(DEFAULT_CONTENT);
         assertThat(testAttachment.getContentContentType()).isEqualTo(DEFAULT_CONTENT_CONTENT_TYPE);
+        assertThat(testAttachment.getSize()).isEqualTo((long) DEFAULT_CONTENT.length);
+        assertThat(testAttachment.getChecksum()).hasSize(64);
+    }
+
+    @Test
+    public void getAttachmentContent() throws Exception {
+        // Initialize the database
+        saveAttachment();
+
+        // Download the content
+        HttpResponse<byte[]> response = client.exchange(HttpRequest.GET("/api/attachments/" + attachment.getId() + "/content"), byte[].class).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(response.body()).isEqualTo(DEFAULT_CONTENT);
+        assertThat(response.getContentType().map(Object::toString)).contains(DEFAULT_CONTENT_CONTENT_TYPE);
+        assertThat(response.header("Content-Disposition")).contains("filename=\"" + DEFAULT_FILE_NAME + "\"");
+    }
+
+    @Test
+    public void getAttachmentContentRange() throws Exception {
+        // Initialize the database
+        attachment.content("0123456789".getBytes());
+        saveAttachment();
+
+        // Download a range of the content
+        HttpResponse<byte[]> response = client.exchange(HttpRequest.GET("/api/attachments/" + attachment.getId() + "/content")
+            .header("Range", "bytes=2-5"), byte[].class).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT.getCode());
+        assertThat(response.body()).isEqualTo("2345".getBytes());
+        assertThat(response.header("Content-Range")).isEqualTo("bytes 2-5/10");
+        assertThat(response.header("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.header("Content-Length")).isEqualTo("4");
+    }
+
+    @Test
+    public void getAttachmentContentWithoutSize() throws Exception {
+        // Initialize the database with a row whose size wasn't backfilled
+        attachment.content("0123456789".getBytes());
+        saveAttachment();
+        attachment.setSize(null);
+        attachment = attachmentRepository.saveAndFlush(attachment);
+
+        HttpResponse<byte[]> response = client.exchange(HttpRequest.GET("/api/attachments/" + attachment.getId() + "/content")
+            .header("Range", "bytes=8-"), byte[].class).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT.getCode());
+        assertThat(response.body()).isEqualTo("89".getBytes());
+        assertThat(response.header("Content-Range")).isEqualTo("bytes 8-9/10");
+    }
+
+    @Test
+    public void getAttachmentContentUnsatisfiableRange() throws Exception {
+        // Initialize the database
+        saveAttachment();
+
+        // Download a range past the end of the content
+        @SuppressWarnings("unchecked")
+        HttpResponse<byte[]> response = client.exchange(HttpRequest.GET("/api/attachments/" + attachment.getId() + "/content")
+            .header("Range", "bytes=100-"), byte[].class)
+            .onErrorReturn(t -> (HttpResponse<byte[]>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.getCode());
+        assertThat(response.header("Content-Range")).isEqualTo("bytes */" + DEFAULT_CONTENT.length);
+    }
+
+    @Test
+    public void getAttachmentContentNotModified() throws Exception {
+        // Initialize the database
+        saveAttachment();
+
+        // Revalidate the content with its ETag
+        HttpResponse<byte[]> response = client.exchange(HttpRequest.GET("/api/attachments/" + attachment.getId() + "/content"), byte[].class).blockingFirst();
+        String etag = response.header("ETag");
+        assertThat(etag).isEqualTo("\"" + attachment.getChecksum() + "\"");
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<byte[]> revalidated = client.exchange(HttpRequest.GET("/api/attachments/" + attachment.getId() + "/content")
+            .header("If-None-Match", etag), byte[].class)
+            .onErrorReturn(t -> (HttpResponse<byte[]>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(revalidated.status().getCode()).isEqualTo(HttpStatus.NOT_MODIFIED.getCode());
+        assertThat(revalidated.header("ETag")).isEqualTo(etag);
+    }
+
+    @Test
+    public void getAttachmentDerivative() throws Exception {
+        // Create an image attachment, its derivatives are generated in the background
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB), "png", png);
+        AttachmentDTO attachmentDTO = attachmentMapper.toDto(attachment.content(png.toByteArray()).contentContentType("image/png"));
+        AttachmentDTO created = client.retrieve(HttpRequest.POST("/api/attachments", attachmentDTO), AttachmentDTO.class).blockingFirst();
+
+        // Wait for the thumbnail
+        String uri = "/api/attachments/" + created.getId() + "/derivatives/thumbnail?v=" + created.getChecksum();
+        HttpResponse<byte[]> response = null;
+        for (int attempt = 0; attempt < 50 && (response == null || response.status() != HttpStatus.OK); attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(100);
+            }
+            @SuppressWarnings("unchecked")
+            HttpResponse<byte[]> current = client.exchange(HttpRequest.GET(uri), byte[].class)
+                .onErrorReturn(t -> (HttpResponse<byte[]>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+            response = current;
+        }
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(response.getContentType().map(Object::toString)).contains("image/jpeg");
+        assertThat(response.header("Cache-Control")).contains("immutable");
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(response.body()));
+        assertThat(thumbnail.getWidth()).isEqualTo(160);
+        assertThat(thumbnail.getHeight()).isEqualTo(80);
+    }
+
+    @Test
+    public void getAttachmentDerivativeWithInvalidSize() throws Exception {
+        // Initialize the database
+        saveAttachment();
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<byte[]> response = client.exchange(HttpRequest.GET("/api/attachments/" + attachment.getId() + "/derivatives/huge"), byte[].class)
+            .onErrorReturn(t -> (HttpResponse<byte[]>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.BAD_REQUEST.getCode());
     }
 
     @Test
     public void getAttachment() throws Exception {
         // Initialize the database
-        attachmentRepository.saveAndFlush(attachment);
+        saveAttachment();
 
         // Get the attachment
         AttachmentDTO testAttachment = client.retrieve(HttpRequest.GET("/api/attachments/" + attachment.getId()), AttachmentDTO.class).blockingFirst();
@@ -205,7 +416,7 @@ public class AttachmentResourceIT {
     @Test
     public void updateAttachment() throws Exception {
         // Initialize the database
-        attachmentRepository.saveAndFlush(attachment);
+        saveAttachment();
 
         int databaseSizeBeforeUpdate = attachmentRepository.findAll().size();
 
@@ -230,7 +441,7 @@ public class AttachmentResourceIT {
         Attachment testAttachment = attachmentList.get(attachmentList.size() - 1);
 
         assertThat(testAttachment.getFileName()).isEqualTo(UPDATED_FILE_NAME);
-        assertThat(testAttachment.getContent()).isEqualTo(UPDATED_CONTENT);
+        assertThat(readBlob(testAttachment.getChecksum())).isEqualTo(UPDATED_CONTENT);
         assertThat(testAttachment.getContentContentType()).isEqualTo(UPDATED_CONTENT_CONTENT_TYPE);
     }
 
@@ -256,7 +467,7 @@ public class AttachmentResourceIT {
     @Test
     public void deleteAttachment() throws Exception {
         // Initialize the database with one entity
-        attachmentRepository.saveAndFlush(attachment);
+        saveAttachment();
 
         int databaseSizeBeforeDelete = attachmentRepository.findAll().size();
 
@@ -270,6 +481,31 @@ public class AttachmentResourceIT {
             // Validate the database is now empty
         List<Attachment> attachmentList = attachmentRepository.findAll();
         assertThat(attachmentList).hasSize(databaseSizeBeforeDelete - 1);
+        // The content is only deleted by the collection, once it wasn't stored for the grace period
+        attachmentContentCollectionJob.collect(Instant.now().minus(1, ChronoUnit.HOURS));
+        assertThat(blobStore.exists(attachment.getChecksum())).isTrue();
+        attachmentContentCollectionJob.collect(Instant.now().plusSeconds(1));
+        assertThat(blobStore.exists(attachment.getChecksum())).isFalse();
+    }
+
+    @Test
+    public void deleteAttachmentKeepsSharedContent() throws Exception {
+        saveAttachment();
+        Attachment copy = new Attachment()
+            .fileName(UPDATED_FILE_NAME)
+            .contentContentType(DEFAULT_CONTENT_CONTENT_TYPE);
+        copy.setChecksum(attachment.getChecksum());
+        copy.setSize(attachment.getSize());
+        attachmentRepository.saveAndFlush(copy);
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<AttachmentDTO> response = client.exchange(HttpRequest.DELETE("/api/attachments/"+ attachment.getId()), AttachmentDTO.class)
+            .onErrorReturn(t -> (HttpResponse<AttachmentDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.NO_CONTENT.getCode());
+        // The content is still referred to by the copy
+        attachmentContentCollectionJob.collect(Instant.now().plusSeconds(1));
+        assertThat(blobStore.exists(attachment.getChecksum())).isTrue();
     }
 
     @Test
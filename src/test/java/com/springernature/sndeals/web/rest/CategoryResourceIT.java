@@ -3,9 +3,12 @@ package com.springernature.sndeals.web.rest;
 
 import com.springernature.sndeals.domain.Category;
 import com.springernature.sndeals.repository.CategoryRepository;
+import com.springernature.sndeals.service.CategoryCache;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micronaut.context.annotation.Property;
 import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
@@ -55,6 +58,9 @@ public class CategoryResourceIT {
     @Inject
     private EntityManager em;
 
+    @Inject
+    private MeterRegistry meterRegistry;
+
     @Inject
     SynchronousTransactionManager<Connection> transactionManager;
 
@@ -191,6 +197,20 @@ public class CategoryResourceIT {
         assertThat(testCategory.getDisplayName()).isEqualTo(DEFAULT_DISPLAY_NAME);
     }
 
+    @Test
+    public void getAllCategoriesIsInvalidatedOnCreate() throws Exception {
+        // Cache the list of the categories
+        client.retrieve(HttpRequest.GET("/api/categories"), Argument.listOf(CategoryDTO.class)).blockingFirst();
+
+        // Create a category
+        CategoryDTO created = client.retrieve(HttpRequest.POST("/api/categories", categoryMapper.toDto(category)), CategoryDTO.class).blockingFirst();
+
+        // The list is read again
+        List<CategoryDTO> categories = client.retrieve(HttpRequest.GET("/api/categories"), Argument.listOf(CategoryDTO.class)).blockingFirst();
+        assertThat(categories).extracting(CategoryDTO::getId).contains(created.getId());
+        assertThat(meterRegistry.find("cache.gets").tag("name", CategoryCache.ALL_CATEGORIES).tag("result", "hit").functionCounter()).isNotNull();
+    }
+
     @Test
     public void getCategory() throws Exception {
         // Initialize the database
@@ -204,6 +224,25 @@ public class CategoryResourceIT {
         assertThat(testCategory.getDisplayName()).isEqualTo(DEFAULT_DISPLAY_NAME);
     }
 
+    @Test
+    public void getCategoryNotModified() throws Exception {
+        // Initialize the database
+        categoryRepository.saveAndFlush(category);
+
+        HttpResponse<CategoryDTO> response = client.exchange(HttpRequest.GET("/api/categories/" + category.getId()), CategoryDTO.class)
+            .blockingFirst();
+        String etag = response.header(HttpHeaders.ETAG);
+
+        assertThat(etag).isEqualTo("\"" + response.body().getVersion() + "\"");
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<CategoryDTO> notModified = client.exchange(HttpRequest.GET("/api/categories/" + category.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, etag), CategoryDTO.class)
+            .onErrorReturn(t -> (HttpResponse<CategoryDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(notModified.status().getCode()).isEqualTo(HttpStatus.NOT_MODIFIED.getCode());
+    }
+
     @Test
     public void getNonExistingCategory() throws Exception {
         // Get the category
@@ -244,6 +283,33 @@ public class CategoryResourceIT {
         assertThat(testCategory.getDisplayName()).isEqualTo(UPDATED_DISPLAY_NAME);
     }
 
+    @Test
+    public void updateCategoryWithIfMatch() throws Exception {
+        // Initialize the database
+        categoryRepository.saveAndFlush(category);
+        String etag = client.exchange(HttpRequest.GET("/api/categories/" + category.getId()), CategoryDTO.class).blockingFirst().header(HttpHeaders.ETAG);
+
+        Category updatedCategory = categoryRepository.findById(category.getId()).get();
+        updatedCategory.displayName(UPDATED_DISPLAY_NAME);
+        CategoryDTO updatedCategoryDTO = categoryMapper.toDto(updatedCategory);
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<CategoryDTO> response = client.exchange(HttpRequest.PUT("/api/categories", updatedCategoryDTO).header(HttpHeaders.IF_MATCH, etag), CategoryDTO.class)
+            .onErrorReturn(t -> (HttpResponse<CategoryDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+
+        // The version of the tag is checked, even when the body has the current one
+        updatedCategoryDTO.setVersion(response.body().getVersion());
+        updatedCategoryDTO.setDisplayName(DEFAULT_DISPLAY_NAME);
+        @SuppressWarnings("unchecked")
+        HttpResponse<CategoryDTO> staleResponse = client.exchange(HttpRequest.PUT("/api/categories", updatedCategoryDTO).header(HttpHeaders.IF_MATCH, etag), CategoryDTO.class)
+            .onErrorReturn(t -> (HttpResponse<CategoryDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(staleResponse.status().getCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED.getCode());
+        assertThat(categoryRepository.findById(category.getId()).get().getDisplayName()).isEqualTo(UPDATED_DISPLAY_NAME);
+    }
+
     @Test
     public void updateNonExistingCategory() throws Exception {
         int databaseSizeBeforeUpdate = categoryRepository.findAll().size();
@@ -0,0 +1,118 @@
+package com.springernature.sndeals.web.rest;
+
+import io.micronaut.http.server.types.files.StreamedFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Microbenchmark of the {@link ClientShell} against reading {@code index.html} from the application jar on each
+ * request, as {@link ClientForwardController} did before.
+ * <p>
+ * Run with {@code ./gradlew test --tests '*ClientShellBenchmarkTest' -Dbenchmark=true}, the timings are logged.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ClientShellBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final int ROUNDS = 5;
+
+    private static final int ITERATIONS = 50_000;
+
+    private final Logger log = LoggerFactory.getLogger(ClientShellBenchmarkTest.class);
+
+    @TempDir
+    Path directory;
+
+    private long blackhole;
+
+    @Test
+    public void benchmarkClientShell() throws Exception {
+        Path jar = createJar();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+            ClientShell clientShell = new ClientShell(path -> Optional.ofNullable(classLoader.getResource(path.substring("classpath:".length()))), false);
+
+            long streamed = measure(() -> {
+                URL url = classLoader.getResource("static/index.html");
+                StreamedFile file = new StreamedFile(url);
+                try (InputStream in = file.getInputStream()) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        blackhole += read;
+                    }
+                }
+            });
+            long cached = measure(() -> {
+                ClientShell.Content content = clientShell.get().get();
+                String encoding = content.negotiate("gzip, deflate, br");
+                blackhole += content.getBody(encoding).length + content.getETag(encoding).length();
+            });
+
+            log.info("index.html read from the jar: {} ns/request, served by the ClientShell: {} ns/request", streamed, cached);
+            assertThat(blackhole).isPositive();
+        }
+    }
+
+    /**
+     * @return the median time of a call over the rounds, in nanoseconds.
+     */
+    private long measure(Action action) throws IOException {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(action);
+        }
+        long[] timings = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            timings[round] = run(action) / ITERATIONS;
+        }
+        Arrays.sort(timings);
+        return timings[ROUNDS / 2];
+    }
+
+    private static long run(Action action) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            action.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private Path createJar() throws IOException {
+        // About the size of the index.html of the production build
+        StringBuilder html = new StringBuilder("<!doctype html><html><head><title>sndeals</title></head><body>");
+        while (html.length() < 4096) {
+            html.append("<script src=\"app/vendors.6b1c5ba62d1e2f3a4b5c.chunk.js\"></script>");
+        }
+        html.append("</body></html>");
+        Path jar = directory.resolve("client.jar");
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+            jarOut.putNextEntry(new JarEntry("static/index.html"));
+            jarOut.write(html.toString().getBytes(StandardCharsets.UTF_8));
+            jarOut.closeEntry();
+        }
+        return jar;
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,133 @@
+package com.springernature.sndeals.web.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ClientShell} class.
+ */
+public class ClientShellTest {
+
+    private static final String INDEX_HTML = "<!doctype html><html><head><title>sndeals</title></head><body></body></html>";
+
+    @TempDir
+    Path staticDirectory;
+
+    private Function<String, Optional<URL>> resources;
+
+    @BeforeEach
+    public void setUp() {
+        resources = path -> {
+            Path file = staticDirectory.resolve(path.substring(path.lastIndexOf('/') + 1));
+            if (!Files.exists(file)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(file.toUri().toURL());
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    @Test
+    public void testMissingShell() {
+        ClientShell clientShell = new ClientShell(resources, false);
+
+        assertThat(clientShell.get()).isNotPresent();
+    }
+
+    @Test
+    public void testShellIsCompressed() throws Exception {
+        write("index.html", INDEX_HTML);
+        ClientShell.Content content = new ClientShell(resources, false).get().get();
+
+        assertThat(content.negotiate(null)).isNull();
+        assertThat(new String(content.getBody(null), StandardCharsets.UTF_8)).isEqualTo(INDEX_HTML);
+        // There is no brotli encoder in the JDK, only the variant of the build is sent
+        assertThat(content.negotiate("gzip, deflate, br")).isEqualTo(ClientShell.GZIP);
+        assertThat(gunzip(content.getBody(ClientShell.GZIP))).isEqualTo(INDEX_HTML);
+    }
+
+    @Test
+    public void testPrecompressedVariantsArePreferred() throws Exception {
+        write("index.html", INDEX_HTML);
+        write("index.html.br", "brotli");
+        ClientShell.Content content = new ClientShell(resources, false).get().get();
+
+        assertThat(content.negotiate("gzip, deflate, br")).isEqualTo(ClientShell.BROTLI);
+        assertThat(new String(content.getBody(ClientShell.BROTLI), StandardCharsets.UTF_8)).isEqualTo("brotli");
+        assertThat(content.negotiate("gzip, br;q=0")).isEqualTo(ClientShell.GZIP);
+    }
+
+    @Test
+    public void testEachEncodingHasItsOwnETag() throws Exception {
+        write("index.html", INDEX_HTML);
+        ClientShell.Content content = new ClientShell(resources, false).get().get();
+
+        String etag = content.getETag(null);
+        assertThat(etag).matches("\"[0-9a-f]{32}\"");
+        assertThat(content.getETag(ClientShell.GZIP)).isEqualTo(etag.substring(0, etag.length() - 1) + "-gzip\"");
+        assertThat(new ClientShell(resources, false).get().get().getETag(null)).isEqualTo(content.getETag(null));
+    }
+
+    @Test
+    public void testShellIsReadOnce() throws Exception {
+        write("index.html", INDEX_HTML);
+        ClientShell clientShell = new ClientShell(resources, false);
+        ClientShell.Content content = clientShell.get().get();
+
+        write("index.html", "<html>changed</html>");
+
+        assertThat(clientShell.get().get()).isSameAs(content);
+    }
+
+    @Test
+    public void testShellIsReloadedWhenChanged() throws Exception {
+        write("index.html", INDEX_HTML);
+        ClientShell clientShell = new ClientShell(resources, true);
+        ClientShell.Content content = clientShell.get().get();
+        assertThat(clientShell.get().get()).isSameAs(content);
+
+        write("index.html", "<html>changed</html>");
+        Files.setLastModifiedTime(staticDirectory.resolve("index.html"),
+            FileTime.fromMillis(content.getLastModified() + 10_000));
+
+        ClientShell.Content changed = clientShell.get().get();
+        assertThat(new String(changed.getBody(null), StandardCharsets.UTF_8)).isEqualTo("<html>changed</html>");
+        assertThat(changed.getETag(null)).isNotEqualTo(content.getETag(null));
+    }
+
+    private void write(String name, String content) throws IOException {
+        Files.write(staticDirectory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
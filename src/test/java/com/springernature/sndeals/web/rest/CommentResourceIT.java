@@ -26,7 +26,10 @@ import javax.inject.Inject;
 import javax.persistence.EntityManager;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import com.springernature.sndeals.service.dto.CommentDTO;
 import com.springernature.sndeals.service.mapper.CommentMapper;
@@ -182,6 +185,60 @@ public class CommentResourceIT {
         assertThat(testComment.getComment()).isEqualTo(DEFAULT_COMMENT);
     }
 
+    @Test
+    public void getAllCommentsAfterCursor() throws Exception {
+        // Three comments share the sort value, the last one of the first page among them
+        List<Comment> comments = new ArrayList<>();
+        for (String text : new String[]{"B", "A", "B", "B"}) {
+            comments.add(commentRepository.saveAndFlush(createEntity(transactionManager, em).comment(text)));
+        }
+        List<Long> expectedIds = comments.stream()
+            .sorted(Comparator.comparing(Comment::getComment).thenComparing(Comment::getId))
+            .map(Comment::getId)
+            .collect(Collectors.toList());
+
+        HttpResponse<List<CommentDTO>> firstPage = getComments("/api/comments?after=&size=2&sort=comment,asc");
+        assertThat(firstPage.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(firstPage.header("X-Total-Count")).isNull();
+        String next = TestUtil.getNextLink(firstPage);
+        assertThat(next).isNotNull();
+
+        HttpResponse<List<CommentDTO>> secondPage = getComments(next);
+        assertThat(secondPage.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(TestUtil.getNextLink(secondPage)).isNull();
+
+        List<Long> ids = new ArrayList<>();
+        firstPage.body().forEach(commentDTO -> ids.add(commentDTO.getId()));
+        secondPage.body().forEach(commentDTO -> ids.add(commentDTO.getId()));
+        assertThat(ids).containsExactlyElementsOf(expectedIds);
+    }
+
+    @Test
+    public void getAllCommentsAfterCursorWithCount() throws Exception {
+        commentRepository.saveAndFlush(comment);
+        commentRepository.saveAndFlush(createEntity(transactionManager, em));
+
+        HttpResponse<List<CommentDTO>> page = getComments("/api/comments?after=&size=1&withCount=true");
+
+        assertThat(page.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(page.header("X-Total-Count")).isEqualTo("2");
+        assertThat(getComments(TestUtil.getNextLink(page)).header("X-Total-Count")).isEqualTo("2");
+    }
+
+    @Test
+    public void getAllCommentsAfterInvalidCursor() throws Exception {
+        commentRepository.saveAndFlush(comment);
+        commentRepository.saveAndFlush(createEntity(transactionManager, em));
+        String commentCursor = TestUtil.getNextLink(getComments("/api/comments?after=&size=1&sort=comment,asc"));
+        String cursor = commentCursor.replaceAll(".*after=([^&]*).*", "$1");
+
+        assertThat(getComments("/api/comments?after=not-a-cursor&size=2").status().getCode()).isEqualTo(HttpStatus.BAD_REQUEST.getCode());
+        assertThat(getComments("/api/comments?after=%21%21&size=2").status().getCode()).isEqualTo(HttpStatus.BAD_REQUEST.getCode());
+        // A cursor of another sort
+        assertThat(getComments("/api/comments?after=" + cursor + "&size=2&sort=id,asc").status().getCode())
+            .isEqualTo(HttpStatus.BAD_REQUEST.getCode());
+    }
+
     @Test
     public void getComment() throws Exception {
         // Initialize the database
@@ -283,4 +340,10 @@ public class CommentResourceIT {
         comment1.setId(null);
         assertThat(comment1).isNotEqualTo(comment2);
     }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<List<CommentDTO>> getComments(String uri) {
+        return client.exchange(HttpRequest.GET(uri), Argument.listOf(CommentDTO.class))
+            .onErrorReturn(t -> (HttpResponse<List<CommentDTO>>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+    }
 }
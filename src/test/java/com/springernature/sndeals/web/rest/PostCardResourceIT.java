@@ -0,0 +1,122 @@
+package com.springernature.sndeals.web.rest;
+
+import com.springernature.sndeals.domain.Post;
+import com.springernature.sndeals.service.dto.PostCardDTO;
+import com.springernature.sndeals.service.dto.PostDTO;
+import com.springernature.sndeals.service.mapper.PostMapper;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.RxHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.transaction.SynchronousTransactionManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@Link PostCardResource} REST controller, with the off-heap store of the cards.
+ */
+@MicronautTest(transactional = false)
+@Property(name = "micronaut.security.enabled", value = "false")
+@Property(name = "application.post-card-store.enabled", value = "true")
+@Property(name = "application.post-card-store.file", value = "build/post-card-resource-it.dat")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PostCardResourceIT {
+
+    @Inject
+    private PostMapper postMapper;
+
+    @Inject
+    private EntityManager em;
+
+    @Inject
+    SynchronousTransactionManager<Connection> transactionManager;
+
+    @Inject @Client("/")
+    RxHttpClient client;
+
+    private Post post;
+
+    @BeforeEach
+    public void initTest() {
+        post = PostResourceIT.createEntity(transactionManager, em);
+    }
+
+    @AfterEach
+    public void cleanUpTest() {
+        // The posts are deleted through the API, so that the store sees it
+        for (Post existing : TestUtil.findAll(transactionManager, em, Post.class)) {
+            client.exchange(HttpRequest.DELETE("/api/posts/" + existing.getId())).blockingFirst();
+        }
+        PostResourceIT.deleteAll(transactionManager, em);
+    }
+
+    @Test
+    public void getPostCard() throws Exception {
+        PostDTO created = create();
+
+        PostCardDTO card = client.retrieve(HttpRequest.GET("/api/post-cards/" + created.getId()), PostCardDTO.class).blockingFirst();
+
+        assertThat(card.getId()).isEqualTo(created.getId());
+        assertThat(card.getTitle()).isEqualTo(created.getTitle());
+        assertThat(card.getLocation()).isEqualTo(created.getLocation());
+        assertThat(card.getStatus()).isEqualTo(created.getStatus());
+        assertThat(card.getCategoryDisplayName()).isEqualTo(post.getCategory().getDisplayName());
+    }
+
+    @Test
+    public void getAllPostCards() throws Exception {
+        PostDTO first = create();
+        PostDTO second = create();
+
+        HttpResponse<List<PostCardDTO>> response = client.exchange(HttpRequest.GET("/api/post-cards?sort=id,desc"),
+            Argument.listOf(PostCardDTO.class)).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(response.getHeaders().get("X-Total-Count")).isEqualTo("2");
+        assertThat(response.body()).extracting(PostCardDTO::getId).containsExactly(second.getId(), first.getId());
+    }
+
+    @Test
+    public void getUpdatedPostCard() throws Exception {
+        PostDTO created = create();
+        created.setTitle("BBBBBBBBBB");
+        client.exchange(HttpRequest.PUT("/api/posts", created), PostDTO.class).blockingFirst();
+
+        PostCardDTO card = client.retrieve(HttpRequest.GET("/api/post-cards/" + created.getId()), PostCardDTO.class).blockingFirst();
+
+        assertThat(card.getTitle()).isEqualTo("BBBBBBBBBB");
+    }
+
+    @Test
+    public void getDeletedPostCard() throws Exception {
+        PostDTO created = create();
+        client.exchange(HttpRequest.DELETE("/api/posts/" + created.getId())).blockingFirst();
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<PostCardDTO> response = client.exchange(HttpRequest.GET("/api/post-cards/" + created.getId()), PostCardDTO.class)
+            .onErrorReturn(t -> (HttpResponse<PostCardDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.NOT_FOUND.getCode());
+    }
+
+    private PostDTO create() {
+        return client.retrieve(HttpRequest.POST("/api/posts", postMapper.toDto(post)), PostDTO.class).blockingFirst();
+    }
+}
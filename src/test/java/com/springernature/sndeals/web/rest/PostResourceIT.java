@@ -7,6 +7,7 @@ import com.springernature.sndeals.repository.PostRepository;
 
 import io.micronaut.context.annotation.Property;
 import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
@@ -26,7 +27,10 @@ import javax.inject.Inject;
 import javax.persistence.EntityManager;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import com.springernature.sndeals.service.dto.PostDTO;
 import com.springernature.sndeals.service.mapper.PostMapper;
@@ -238,6 +242,60 @@ public class PostResourceIT {
         assertThat(testPost.getStatus()).isEqualTo(DEFAULT_STATUS);
     }
 
+    @Test
+    public void getAllPostsAfterCursor() throws Exception {
+        // Three posts share the sort value, the last one of the first page among them
+        List<Post> posts = new ArrayList<>();
+        for (String title : new String[]{"B", "A", "B", "B"}) {
+            posts.add(postRepository.saveAndFlush(createEntity(transactionManager, em).title(title)));
+        }
+        List<Long> expectedIds = posts.stream()
+            .sorted(Comparator.comparing(Post::getTitle).thenComparing(Post::getId))
+            .map(Post::getId)
+            .collect(Collectors.toList());
+
+        HttpResponse<List<PostDTO>> firstPage = getPosts("/api/posts?after=&size=2&sort=title,asc");
+        assertThat(firstPage.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(firstPage.header("X-Total-Count")).isNull();
+        String next = TestUtil.getNextLink(firstPage);
+        assertThat(next).isNotNull();
+
+        HttpResponse<List<PostDTO>> secondPage = getPosts(next);
+        assertThat(secondPage.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(TestUtil.getNextLink(secondPage)).isNull();
+
+        List<Long> ids = new ArrayList<>();
+        firstPage.body().forEach(postDTO -> ids.add(postDTO.getId()));
+        secondPage.body().forEach(postDTO -> ids.add(postDTO.getId()));
+        assertThat(ids).containsExactlyElementsOf(expectedIds);
+    }
+
+    @Test
+    public void getAllPostsAfterCursorWithCount() throws Exception {
+        postRepository.saveAndFlush(post);
+        postRepository.saveAndFlush(createEntity(transactionManager, em));
+
+        HttpResponse<List<PostDTO>> page = getPosts("/api/posts?after=&size=1&withCount=true");
+
+        assertThat(page.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(page.header("X-Total-Count")).isEqualTo("2");
+        assertThat(getPosts(TestUtil.getNextLink(page)).header("X-Total-Count")).isEqualTo("2");
+    }
+
+    @Test
+    public void getAllPostsAfterInvalidCursor() throws Exception {
+        postRepository.saveAndFlush(post);
+        postRepository.saveAndFlush(createEntity(transactionManager, em));
+        String titleCursor = TestUtil.getNextLink(getPosts("/api/posts?after=&size=1&sort=title,asc"));
+        String cursor = titleCursor.replaceAll(".*after=([^&]*).*", "$1");
+
+        assertThat(getPosts("/api/posts?after=not-a-cursor&size=2").status().getCode()).isEqualTo(HttpStatus.BAD_REQUEST.getCode());
+        assertThat(getPosts("/api/posts?after=%21%21&size=2").status().getCode()).isEqualTo(HttpStatus.BAD_REQUEST.getCode());
+        // A cursor of another sort
+        assertThat(getPosts("/api/posts?after=" + cursor + "&size=2&sort=id,asc").status().getCode())
+            .isEqualTo(HttpStatus.BAD_REQUEST.getCode());
+    }
+
     @Test
     public void getPost() throws Exception {
         // Initialize the database
@@ -316,6 +374,75 @@ public class PostResourceIT {
         assertThat(postList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    public void getPostNotModified() throws Exception {
+        // Initialize the database
+        postRepository.saveAndFlush(post);
+
+        HttpResponse<PostDTO> response = client.exchange(HttpRequest.GET("/api/posts/" + post.getId()), PostDTO.class).blockingFirst();
+        String etag = response.header(HttpHeaders.ETAG);
+
+        assertThat(etag).isNotNull();
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<PostDTO> notModified = client.exchange(HttpRequest.GET("/api/posts/" + post.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, etag), PostDTO.class)
+            .onErrorReturn(t -> (HttpResponse<PostDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(notModified.status().getCode()).isEqualTo(HttpStatus.NOT_MODIFIED.getCode());
+        assertThat(notModified.header(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+
+    @Test
+    public void updatePostWithIfMatch() throws Exception {
+        // Initialize the database
+        postRepository.saveAndFlush(post);
+        String etag = client.exchange(HttpRequest.GET("/api/posts/" + post.getId()), PostDTO.class).blockingFirst().header(HttpHeaders.ETAG);
+
+        Post updatedPost = postRepository.findById(post.getId()).get();
+        updatedPost.title(UPDATED_TITLE);
+        PostDTO updatedPostDTO = postMapper.toDto(updatedPost);
+
+        @SuppressWarnings("unchecked")
+        HttpResponse<PostDTO> response = client.exchange(HttpRequest.PUT("/api/posts", updatedPostDTO).header(HttpHeaders.IF_MATCH, etag), PostDTO.class)
+            .onErrorReturn(t -> (HttpResponse<PostDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(response.status().getCode()).isEqualTo(HttpStatus.OK.getCode());
+        assertThat(response.header(HttpHeaders.ETAG)).isNotEqualTo(etag);
+
+        // The post was modified since the entity tag was read
+        updatedPostDTO.setTitle(DEFAULT_TITLE);
+        @SuppressWarnings("unchecked")
+        HttpResponse<PostDTO> staleResponse = client.exchange(HttpRequest.PUT("/api/posts", updatedPostDTO).header(HttpHeaders.IF_MATCH, etag), PostDTO.class)
+            .onErrorReturn(t -> (HttpResponse<PostDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(staleResponse.status().getCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED.getCode());
+        assertThat(postRepository.findById(post.getId()).get().getTitle()).isEqualTo(UPDATED_TITLE);
+    }
+
+    @Test
+    public void updatePostWithStaleVersion() throws Exception {
+        // Initialize the database
+        postRepository.saveAndFlush(post);
+
+        Post updatedPost = postRepository.findById(post.getId()).get();
+        updatedPost.title(UPDATED_TITLE);
+        PostDTO updatedPostDTO = postMapper.toDto(updatedPost);
+
+        HttpResponse<PostDTO> response = client.exchange(HttpRequest.PUT("/api/posts", updatedPostDTO), PostDTO.class).blockingFirst();
+
+        assertThat(response.body().getVersion()).isEqualTo(updatedPostDTO.getVersion() + 1);
+
+        // A second update from the same version would overwrite the first one
+        updatedPostDTO.setTitle(DEFAULT_TITLE);
+        @SuppressWarnings("unchecked")
+        HttpResponse<PostDTO> staleResponse = client.exchange(HttpRequest.PUT("/api/posts", updatedPostDTO), PostDTO.class)
+            .onErrorReturn(t -> (HttpResponse<PostDTO>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+
+        assertThat(staleResponse.status().getCode()).isEqualTo(HttpStatus.CONFLICT.getCode());
+        assertThat(postRepository.findById(post.getId()).get().getTitle()).isEqualTo(UPDATED_TITLE);
+    }
+
     @Test
     public void deletePost() throws Exception {
         // Initialize the database with one entity
@@ -348,4 +475,10 @@ public class PostResourceIT {
         post1.setId(null);
         assertThat(post1).isNotEqualTo(post2);
     }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<List<PostDTO>> getPosts(String uri) {
+        return client.exchange(HttpRequest.GET(uri), Argument.listOf(PostDTO.class))
+            .onErrorReturn(t -> (HttpResponse<List<PostDTO>>) ((HttpClientResponseException) t).getResponse()).blockingFirst();
+    }
 }
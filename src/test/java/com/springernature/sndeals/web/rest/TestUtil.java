@@ -3,6 +3,7 @@ package com.springernature.sndeals.web.rest;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micronaut.http.HttpResponse;
 import io.micronaut.transaction.TransactionOperations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +17,8 @@ import javax.persistence.criteria.Root;
 import java.io.IOException;
 import java.sql.Connection;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -118,5 +121,16 @@ public final class TestUtil {
         }
     }
 
+    /**
+     * Get the {@code next} link of a page.
+     * @param response The response holding the page
+     * @return The URI of the next page, or {@code null} if there is none
+     */
+    public static String getNextLink(HttpResponse<?> response) {
+        String link = response.header("Link");
+        Matcher next = Pattern.compile("<([^>]*)>; rel=\"next\"").matcher(link == null ? "" : link);
+        return next.find() ? next.group(1) : null;
+    }
+
     private TestUtil() {}
 }
@@ -11,9 +11,11 @@ import io.micronaut.http.HttpStatus;
 import io.micronaut.http.client.RxHttpClient;
 import io.micronaut.http.client.annotation.Client;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.token.jwt.endpoints.TokenRefreshRequest;
 import io.micronaut.security.token.jwt.render.AccessRefreshToken;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
 import javax.inject.Inject;
 
 import java.util.List;
@@ -59,6 +61,60 @@ public class UserJWTControllerIT {
         userRepository.deleteById(user.getId());
     }
 
+    @Test
+    public void testLogoutRevokesTheTokens() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-logout");
+        user.setEmail("user-jwt-logout@springernature.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        user = userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-logout");
+        login.setPassword("test");
+        AccessRefreshToken token = client.retrieve(HttpRequest.POST("/api/authenticate", login), AccessRefreshToken.class).blockingFirst();
+        assertThat(token.getRefreshToken()).isNotEmpty();
+
+        // The refresh token gives a new access token
+        AccessRefreshToken refreshed = client.retrieve(HttpRequest.POST("/api/oauth/access_token",
+            new TokenRefreshRequest(token.getRefreshToken())), AccessRefreshToken.class).blockingFirst();
+        assertThat(refreshed.getAccessToken()).isNotEmpty().isNotEqualTo(token.getAccessToken());
+        assertThat(status(HttpRequest.GET("/api/account").bearerAuth(token.getAccessToken()))).isEqualTo(HttpStatus.OK.getCode());
+
+        assertThat(status(HttpRequest.POST("/api/logout", "{}").bearerAuth(token.getAccessToken()))).isEqualTo(HttpStatus.NO_CONTENT.getCode());
+
+        // The access token of the logout is refused, the refresh tokens of the user too
+        assertThat(status(HttpRequest.GET("/api/account").bearerAuth(token.getAccessToken()))).isEqualTo(HttpStatus.UNAUTHORIZED.getCode());
+        assertThat(status(HttpRequest.POST("/api/oauth/access_token", new TokenRefreshRequest(token.getRefreshToken()))))
+            .isEqualTo(HttpStatus.BAD_REQUEST.getCode());
+
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    public void testCostlierHashIsUpgradedOnLogin() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-costly-hash");
+        user.setEmail("user-jwt-costly-hash@springernature.com");
+        user.setActivated(true);
+        // The cost of the former settings, above the cost of the tests
+        user.setPassword(BCrypt.hashpw("test", BCrypt.gensalt(16)));
+        user = userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-costly-hash");
+        login.setPassword("test");
+        assertThat(status(HttpRequest.POST("/api/authenticate", login))).isEqualTo(HttpStatus.OK.getCode());
+
+        String upgradedHash = userRepository.findOneByLogin("user-jwt-costly-hash").get().getPassword();
+        assertThat(upgradedHash).doesNotStartWith("$2a$16$");
+        assertThat(passwordEncoder.matches("test", upgradedHash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(upgradedHash)).isFalse();
+
+        userRepository.deleteById(user.getId());
+    }
+
     @Test
     public void testAuthorizeFails() throws Exception {
         LoginVM login = new LoginVM();
@@ -72,4 +128,11 @@ public class UserJWTControllerIT {
         assertThat(response.status().getCode()).isEqualTo(HttpStatus.UNAUTHORIZED.getCode());
         assertThat(token).isNull();
     }
+
+    private int status(HttpRequest<?> request) {
+        return client.exchange(request, String.class)
+            .onErrorReturn(t -> (HttpResponse<String>) ((HttpClientResponseException) t).getResponse())
+            .blockingFirst()
+            .code();
+    }
 }
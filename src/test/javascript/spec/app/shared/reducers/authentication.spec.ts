@@ -186,6 +186,18 @@ describe('Authentication reducer tests', () => {
       expect(store.getActions()).toEqual(expectedActions);
     });
 
+    it('revokes the token on logout, sending it before it is cleared', async () => {
+      const AUTH_TOKEN_KEY = 'jhi-authenticationToken';
+      const post = sinon.stub().returns(Promise.resolve({}));
+      axios.post = post;
+      Storage.session.set(AUTH_TOKEN_KEY, 'TestToken');
+
+      await store.dispatch(logout());
+
+      expect(post.calledWith('api/logout', {}, { headers: { Authorization: 'Bearer TestToken' } })).toBe(true);
+      expect(Storage.session.get(AUTH_TOKEN_KEY)).toBe(undefined);
+    });
+
     it('dispatches CLEAR_AUTH actions', async () => {
       const expectedActions = [
         {
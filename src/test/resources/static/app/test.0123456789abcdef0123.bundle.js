@@ -0,0 +1 @@
+console.log("sndeals test bundle");
@@ -0,0 +1,52 @@
+const zlib = require('zlib');
+
+/**
+ * Writes a gzip and a brotli sibling next to each compressible asset, served as they are by the
+ * CachingHttpHeadersFilter of the server instead of compressing the asset on every request.
+ */
+class PrecompressPlugin {
+  constructor(options = {}) {
+    this.test = options.test || /\.(js|css|html|json|svg|txt|map|webapp)$/;
+    // Smaller assets fit in a few packets anyway
+    this.threshold = options.threshold || 1024;
+    // A variant which saves less than this is not worth a second file
+    this.minRatio = options.minRatio || 0.8;
+  }
+
+  apply(compiler) {
+    compiler.hooks.emit.tap('PrecompressPlugin', compilation => {
+      Object.keys(compilation.assets)
+        .filter(name => this.test.test(name))
+        .forEach(name => {
+          const source = compilation.assets[name].source();
+          const content = Buffer.isBuffer(source) ? source : Buffer.from(source);
+          if (content.length < this.threshold) {
+            return;
+          }
+          this.addVariant(compilation, name + '.gz', content, zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }));
+          this.addVariant(
+            compilation,
+            name + '.br',
+            content,
+            zlib.brotliCompressSync(content, {
+              params: {
+                [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+                [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length
+              }
+            })
+          );
+        });
+    });
+  }
+
+  addVariant(compilation, name, content, compressed) {
+    if (compressed.length / content.length < this.minRatio) {
+      compilation.assets[name] = {
+        source: () => compressed,
+        size: () => compressed.length
+      };
+    }
+  }
+}
+
+module.exports = PrecompressPlugin;
@@ -8,6 +8,7 @@ const MomentLocalesPlugin = require('moment-locales-webpack-plugin');
 const sass = require('sass');
 
 const utils = require('./utils.js');
+const PrecompressPlugin = require('./precompress-plugin.js');
 const commonConfig = require('./webpack.common.js');
 
 const ENV = 'production';
@@ -106,7 +107,9 @@ module.exports = webpackMerge(commonConfig({ env: ENV }), {
     new WorkboxPlugin.GenerateSW({
       clientsClaim: true,
       skipWaiting: true,
-      exclude: [/swagger-ui/]
-    })
+      exclude: [/swagger-ui/, /\.(gz|br)$/]
+    }),
+    // After the service worker, which is compressed too
+    new PrecompressPlugin()
   ]
 });